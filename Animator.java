@@ -0,0 +1,130 @@
+import javax.swing.JComponent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single clock for all UI animations. Tweens are advanced by {@link #tick()}, which the render
+ * loop calls once per frame, instead of each animation running its own javax.swing.Timer.
+ * A tween whose component has been removed from the UI is dropped, and when more tweens are
+ * running than can be followed on screen new ones are skipped: they jump straight to their end
+ * state. EDT only.
+ */
+class Animator {
+
+    /** Called every frame with the tween's progress in [0, 1] (for loops, the phase within the period). */
+    interface Step {
+        void update(float fraction);
+    }
+
+    final class Tween {
+        private final JComponent target; // null if the tween does not depend on a component
+        private final String kind;       // A new tween of the same kind on the same target replaces this one
+        private final long startNanos;
+        private final long durationNanos;
+        private final boolean loop;
+        private final Step step;
+        private final Runnable end;
+        private boolean done = false;
+
+        private Tween(JComponent target, String kind, long durationMs, boolean loop, Step step, Runnable end) {
+            this.target = target;
+            this.kind = kind;
+            this.startNanos = System.nanoTime();
+            this.durationNanos = Math.max(1, durationMs) * 1_000_000L;
+            this.loop = loop;
+            this.step = step;
+            this.end = end;
+        }
+
+        /** Stops the tween, leaving the UI in its end state. */
+        public void cancel() {
+            finish();
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+
+        private void finish() {
+            if (done) return;
+            done = true;
+            if (end != null) end.run();
+        }
+    }
+
+    private final int maxActive;
+    private final List<Tween> active = new ArrayList<>();
+    private boolean ticking = false;
+    private long started = 0, skipped = 0, dropped = 0;
+
+    public Animator(int maxActive) {
+        this.maxActive = Math.max(1, maxActive);
+    }
+
+    public int getActiveCount() { return active.size(); }
+    public long getStarted() { return started; }
+    public long getSkipped() { return skipped; }
+    public long getDropped() { return dropped; }
+
+    /** Runs {@code step} for {@code durationMs}, then {@code end}. */
+    public Tween start(JComponent target, String kind, long durationMs, Step step, Runnable end) {
+        return add(new Tween(target, kind, durationMs, false, step, end));
+    }
+
+    /** Runs {@code step} repeatedly with the given period until cancelled; {@code end} runs on cancel. */
+    public Tween loop(JComponent target, String kind, long periodMs, Step step, Runnable end) {
+        return add(new Tween(target, kind, periodMs, true, step, end));
+    }
+
+    /** Ends the running tween of this kind on the target, if any (its end state is applied). */
+    public void cancel(JComponent target, String kind) {
+        for (int i = 0; i < active.size(); i++) { // End callbacks may start new tweens
+            Tween t = active.get(i);
+            if (!t.done && t.target == target && t.kind.equals(kind)) t.finish();
+        }
+    }
+
+    /** Advances every tween to the current time. Called once per frame. */
+    public void tick() {
+        if (active.isEmpty()) return;
+        long now = System.nanoTime();
+        ticking = true;
+        try {
+            for (int i = 0; i < active.size(); i++) { // Tweens started by end callbacks are appended
+                Tween t = active.get(i);
+                if (t.done) continue;
+                if (t.target != null && t.target.getParent() == null) { // Block no longer in the UI
+                    dropped++;
+                    t.finish();
+                    continue;
+                }
+                long elapsed = now - t.startNanos;
+                if (t.loop) {
+                    t.step.update((float) (elapsed % t.durationNanos) / t.durationNanos);
+                } else if (elapsed >= t.durationNanos) {
+                    t.step.update(1f);
+                    t.finish();
+                } else {
+                    t.step.update((float) elapsed / t.durationNanos);
+                }
+            }
+        } finally {
+            ticking = false;
+        }
+        active.removeIf(t -> t.done);
+    }
+
+    private Tween add(Tween tween) {
+        started++;
+        cancel(tween.target, tween.kind);
+        if (!ticking) active.removeIf(t -> t.done);
+        if (!tween.loop && active.size() >= maxActive) { // Overloaded: show the result, not the motion
+            skipped++;
+            tween.step.update(1f);
+            tween.finish();
+            return tween;
+        }
+        active.add(tween);
+        return tween;
+    }
+}
@@ -0,0 +1,361 @@
+import javax.management.JMException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Headless entry point for scripted and nightly runs: no display needed. Runs the
+ * {@link MemoryEngine} at full speed on a synthetic workload ({@link ConcurrentAccessBenchmark})
+ * or a recorded trace, and writes one row of stats and latency percentiles per run as CSV
+ * or JSON. A {@link Scenario} script runs instead with {@code --scenario}, one row per phase.
+ *
+ * <pre>
+ * java -cp vmm.jar BatchRunner --algorithm=lru --ram=8192 --seed=42 --duration=60 --format=json --out=results.json
+ * </pre>
+ *
+ * Run with {@code --help} for every option. With {@code --duration} the workload is repeated,
+ * each run with its own split of the seed, until the time is up.
+ */
+public class BatchRunner {
+
+    private static final String USAGE = String.join("\n",
+            "Usage: java -cp <jar> BatchRunner [--option=value ...]",
+            "  Memory:    --ram=<frames> --swap=<slots> --cache=<entries> --algorithm=" + String.join("|", ReplacementPolicies.names()).toLowerCase(Locale.ROOT),
+            "             --stripes=<n> --nodes=<n> --placement=first-touch|interleave --page-in-ns=<ns> --write-back-ns=<ns>",
+            "  Workload:  --processes=<n> --accesses=<per process> --pages=<per process> --hot-fraction=<0-1>",
+            "             --hot-ratio=<0-1> --write-ratio=<0-1> --shared-pages=<n> --shared-ratio=<0-1>",
+            "  Trace:     --trace=<file>   one access per line: <page> [r|w]; '#' starts a comment",
+            "  Scenario:  --scenario=<file> scripted phases (see Scenario); one row per phase, memory options are its defaults",
+            "  Run:       --seed=<n> --threads=<n> (default: all cores) --duration=<seconds> (repeat until elapsed)",
+            "  Output:    --format=csv|json --out=<file> (default: stdout)",
+            "  Monitor:   --metrics-port=<port> serve live metrics at http://localhost:<port>/metrics while running (0: any free port)");
+
+    public static void main(String[] args) {
+        try {
+            System.exit(run(args, System.out));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        } catch (IOException | InterruptedException e) {
+            System.err.println("Error: " + e);
+            System.exit(1);
+        }
+    }
+
+    static int run(String[] args, PrintStream stdout) throws IOException, InterruptedException {
+        Map<String, String> options = parse(args);
+        if (options.containsKey("help")) {
+            stdout.println(USAGE);
+            return 0;
+        }
+        String scenarioFile = options.remove("scenario");
+        ConcurrentAccessBenchmark.Config cfg = configure(
+                scenarioFile != null ? Scenario.defaultConfig() : new ConcurrentAccessBenchmark.Config(), options);
+        int threads = intOption(options, "threads", Runtime.getRuntime().availableProcessors(), 1);
+        long durationNanos = (long) (doubleOption(options, "duration", 0, 0, Double.MAX_VALUE) * 1e9);
+        String format = options.getOrDefault("format", "csv").toLowerCase(Locale.ROOT);
+        options.remove("format");
+        String out = options.remove("out");
+        if (!format.equals("csv") && !format.equals("json")) throw new IllegalArgumentException("Unknown format: " + format);
+        int metricsPort = (int) longOption(options, "metrics-port", -1, 0, 65535);
+
+        int[] pages = null;
+        boolean[] writes = null;
+        String trace = options.remove("trace");
+        if (trace != null) {
+            List<String> lines = Files.readAllLines(Paths.get(trace), StandardCharsets.UTF_8);
+            pages = new int[lines.size()];
+            writes = new boolean[lines.size()];
+            int n = 0, lineNumber = 0;
+            for (String line : lines) {
+                lineNumber++;
+                int hash = line.indexOf('#');
+                String[] parts = (hash >= 0 ? line.substring(0, hash) : line).trim().split("\\s+");
+                if (parts[0].isEmpty()) continue;
+                try {
+                    pages[n] = Integer.parseInt(parts[0]);
+                } catch (NumberFormatException e) {
+                    pages[n] = -1;
+                }
+                if (pages[n] < 0) throw new IllegalArgumentException("Bad trace line " + lineNumber + ": " + line);
+                writes[n++] = parts.length > 1 && parts[1].equalsIgnoreCase("w");
+            }
+            pages = Arrays.copyOf(pages, n);
+            writes = Arrays.copyOf(writes, n);
+        }
+        if (!options.isEmpty()) throw new IllegalArgumentException("Unknown option --" + options.keySet().iterator().next());
+        if (scenarioFile != null && trace != null) throw new IllegalArgumentException("--scenario and --trace cannot be combined");
+        String script = scenarioFile != null ? new String(Files.readAllBytes(Paths.get(scenarioFile)), StandardCharsets.UTF_8) : null;
+
+        MetricsServer metricsServer = null;
+        if (metricsPort >= 0) {
+            cfg.metrics = new EngineMetricsSource();
+            SimulationMetrics metrics = new SimulationMetrics(cfg.metrics);
+            try {
+                metrics.register(); // Also for JConsole and VisualVM
+            } catch (JMException e) {
+                System.err.println("Could not register the JMX MBean: " + e.getMessage());
+            }
+            metricsServer = MetricsServer.start(metrics, metricsPort);
+            System.err.println("Serving metrics at http://localhost:" + metricsServer.getPort() + "/metrics");
+        }
+
+        // One run, or repeated runs with split seeds until the duration has elapsed
+        List<Map<String, Object>> rows = new ArrayList<>();
+        SplittableRandom seeds = new SplittableRandom(cfg.seed);
+        long runSeed = cfg.seed;
+        long deadline = System.nanoTime() + durationNanos;
+        int run = 0;
+        try {
+            do {
+                cfg.seed = runSeed;
+                run++;
+                if (script != null) {
+                    Scenario scenario = Scenario.parse(script, cfg); // A seed in the script overrides the run's
+                    for (Scenario.PhaseResult phase : scenario.run()) rows.add(phaseRow(run, scenario.seed, phase));
+                } else {
+                    ConcurrentAccessBenchmark.Result r = pages != null
+                            ? ConcurrentAccessBenchmark.replay(cfg, pages, writes)
+                            : ConcurrentAccessBenchmark.run(cfg, threads);
+                    rows.add(row(run, cfg, r));
+                }
+                runSeed = seeds.nextLong();
+            } while (System.nanoTime() < deadline);
+        } finally {
+            if (metricsServer != null) metricsServer.stop();
+        }
+
+        String output = format.equals("json") ? toJson(rows) : toCsv(rows);
+        if (out == null) {
+            stdout.print(output);
+        } else {
+            Files.write(Paths.get(out), output.getBytes(StandardCharsets.UTF_8));
+        }
+        return 0;
+    }
+
+    // --- Options ---
+
+    // --key=value pairs (a bare --flag maps to "true"); options are removed as they are consumed
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + arg);
+            int eq = arg.indexOf('=');
+            options.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    // Applies the memory and workload options to cfg
+    static ConcurrentAccessBenchmark.Config configure(ConcurrentAccessBenchmark.Config cfg, Map<String, String> o) {
+        cfg.ramFrames = intOption(o, "ram", cfg.ramFrames, 1);
+        cfg.swapSlots = intOption(o, "swap", cfg.swapSlots, 1);
+        cfg.cacheEntries = intOption(o, "cache", cfg.cacheEntries, 0); // 0: no cache
+        cfg.algorithm = o.getOrDefault("algorithm", cfg.algorithm).toLowerCase(Locale.ROOT);
+        o.remove("algorithm");
+        ReplacementPolicies.get(cfg.algorithm); // Any provider on the class path
+        cfg.stripes = intOption(o, "stripes", cfg.stripes, 1);
+        cfg.nodes = intOption(o, "nodes", cfg.nodes, 1);
+        String placement = o.remove("placement");
+        if ("interleave".equalsIgnoreCase(placement)) {
+            cfg.placement = MemoryEngine.Placement.INTERLEAVE;
+        } else if ("first-touch".equalsIgnoreCase(placement)) {
+            cfg.placement = MemoryEngine.Placement.FIRST_TOUCH;
+        } else if (placement != null) { // A typo would otherwise run first-touch silently
+            throw new IllegalArgumentException("--placement must be first-touch or interleave: " + placement);
+        }
+        cfg.pageInNanos = longOption(o, "page-in-ns", cfg.pageInNanos, 0, Long.MAX_VALUE);
+        cfg.writeBackNanos = longOption(o, "write-back-ns", cfg.writeBackNanos, 0, Long.MAX_VALUE);
+        cfg.processes = intOption(o, "processes", cfg.processes, 1);
+        cfg.accessesPerProcess = intOption(o, "accesses", cfg.accessesPerProcess, 1);
+        cfg.pagesPerProcess = intOption(o, "pages", cfg.pagesPerProcess, 1);
+        cfg.hotFraction = doubleOption(o, "hot-fraction", cfg.hotFraction, 0, 1);
+        cfg.hotAccessRatio = doubleOption(o, "hot-ratio", cfg.hotAccessRatio, 0, 1);
+        cfg.writeRatio = doubleOption(o, "write-ratio", cfg.writeRatio, 0, 1);
+        cfg.sharedPages = intOption(o, "shared-pages", cfg.sharedPages, 0); // 0: no shared pages
+        cfg.sharedAccessRatio = doubleOption(o, "shared-ratio", cfg.sharedAccessRatio, 0, 1);
+        cfg.seed = longOption(o, "seed", cfg.seed, Long.MIN_VALUE, Long.MAX_VALUE);
+        return cfg;
+    }
+
+    // An int option of at least min; values past Integer.MAX_VALUE are rejected, not narrowed
+    private static int intOption(Map<String, String> o, String key, int def, int min) {
+        return (int) longOption(o, key, def, min, Integer.MAX_VALUE);
+    }
+
+    private static long longOption(Map<String, String> o, String key, long def, long min, long max) {
+        String value = o.remove(key);
+        if (value == null) return def;
+        long parsed;
+        try {
+            parsed = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + key + " expects an integer: " + value);
+        }
+        if (parsed < min || parsed > max) {
+            throw new IllegalArgumentException("--" + key + " must be between " + min + " and " + max + ": " + value);
+        }
+        return parsed;
+    }
+
+    private static double doubleOption(Map<String, String> o, String key, double def, double min, double max) {
+        String value = o.remove(key);
+        if (value == null) return def;
+        double parsed;
+        try {
+            parsed = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + key + " expects a number: " + value);
+        }
+        if (!(parsed >= min && parsed <= max)) { // Also rejects NaN
+            throw new IllegalArgumentException("--" + key + " must be between " + min + " and " + max + ": " + value);
+        }
+        return parsed;
+    }
+
+    // --- Output ---
+
+    private static Map<String, Object> row(int run, ConcurrentAccessBenchmark.Config cfg, ConcurrentAccessBenchmark.Result r) {
+        Stats s = r.stats;
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("run", run);
+        row.put("seed", cfg.seed);
+        row.put("algorithm", cfg.algorithm);
+        row.put("threads", r.parallelism);
+        row.put("ram_frames", cfg.ramFrames);
+        row.put("swap_slots", cfg.swapSlots);
+        row.put("cache_entries", cfg.cacheEntries);
+        row.put("nodes", r.nodes);
+        row.put("accesses", r.accesses);
+        row.put("wall_ms", r.wallNanos / 1_000_000.0);
+        row.put("throughput", r.throughput);
+        row.put("cache_hits", s.cacheHits);
+        row.put("ram_hits", s.ramHits);
+        row.put("page_faults", s.pageFaults);
+        row.put("write_backs", s.writeBacks);
+        row.put("hit_rate", s.totalAccesses > 0 ? (double) (s.cacheHits + s.ramHits) / s.totalAccesses : 0);
+        row.put("p50_ns", r.p50);
+        row.put("p99_ns", r.p99);
+        row.put("p999_ns", r.p999);
+        row.put("max_ns", r.max);
+        row.put("cache_hit_p99_ns", s.cacheHitLatency.percentile(0.99));
+        row.put("ram_hit_p99_ns", s.ramHitLatency.percentile(0.99));
+        row.put("fault_p50_ns", s.faultLatency.percentile(0.50));
+        row.put("fault_p99_ns", s.faultLatency.percentile(0.99));
+        row.put("thread_p99_median_ns", r.medianThreadP99);
+        row.put("thread_p99_worst_ns", r.worstThreadP99);
+        row.put("contended_pct", r.contendedPercent);
+        row.put("lock_wait_ns_per_access", r.lockWaitPerAccess);
+        row.put("remote_hits", r.remoteHits);
+        row.put("remote_cache_hits", r.remoteCacheHits);
+        row.put("migrations", r.migrations);
+        return row;
+    }
+
+    private static Map<String, Object> phaseRow(int run, long seed, Scenario.PhaseResult phase) {
+        Stats s = phase.stats;
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("run", run);
+        row.put("phase", phase.name);
+        row.put("seed", seed);
+        row.put("algorithm", phase.config.algorithm);
+        row.put("ram_frames", phase.config.ramFrames);
+        row.put("swap_slots", phase.config.swapSlots);
+        row.put("cache_entries", phase.config.cacheEntries);
+        row.put("live_processes", phase.liveProcesses);
+        row.put("arrivals", phase.arrivals);
+        row.put("exits", phase.exits);
+        row.put("accesses", s.totalAccesses);
+        row.put("wall_ms", phase.wallNanos / 1_000_000.0);
+        row.put("throughput", s.totalAccesses * 1e9 / Math.max(1, phase.wallNanos));
+        row.put("cache_hits", s.cacheHits);
+        row.put("ram_hits", s.ramHits);
+        row.put("page_faults", s.pageFaults);
+        row.put("write_backs", s.writeBacks);
+        row.put("evictions", phase.evictions);
+        row.put("discards", phase.discards);
+        row.put("hit_rate", s.totalAccesses > 0 ? (double) (s.cacheHits + s.ramHits) / s.totalAccesses : 0);
+        row.put("p50_ns", phase.latency.percentile(0.50));
+        row.put("p99_ns", phase.latency.percentile(0.99));
+        row.put("p999_ns", phase.latency.percentile(0.999));
+        row.put("max_ns", phase.latency.getMax());
+        row.put("fault_p99_ns", s.faultLatency.percentile(0.99));
+        return row;
+    }
+
+    static String toCsv(List<Map<String, Object>> rows) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.join(",", rows.get(0).keySet())).append('\n');
+        for (Map<String, Object> row : rows) {
+            int i = 0;
+            for (Object value : row.values()) {
+                if (i++ > 0) out.append(',');
+                out.append(value instanceof String ? csvField((String) value) : format(value));
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    static String toJson(List<Map<String, Object>> rows) {
+        StringBuilder out = new StringBuilder("[\n");
+        for (int r = 0; r < rows.size(); r++) {
+            out.append("  {");
+            int i = 0;
+            for (Map.Entry<String, Object> e : rows.get(r).entrySet()) {
+                if (i++ > 0) out.append(", ");
+                out.append('"').append(e.getKey()).append("\": ");
+                out.append(e.getValue() instanceof String ? jsonString((String) e.getValue()) : jsonValue(e.getValue()));
+            }
+            out.append(r + 1 < rows.size() ? "},\n" : "}\n");
+        }
+        return out.append("]\n").toString();
+    }
+
+    // RFC 4180: quoted when it holds a separator, quote or line break, with quotes doubled
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String jsonString(String value) {
+        StringBuilder out = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) out.append(String.format("\\u%04x", (int) c));
+                    else out.append(c);
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    // JSON has no NaN or Infinity (e.g. a rate over no accesses): such values are written as null
+    private static String jsonValue(Object value) {
+        if (value instanceof Double && !Double.isFinite((Double) value)) return "null";
+        if (value instanceof Float && !Float.isFinite((Float) value)) return "null";
+        return format(value);
+    }
+
+    private static String format(Object value) {
+        if (value instanceof Double) return String.format(Locale.ROOT, "%.4f", (Double) value);
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressed RAM pool (zswap-style) sitting between RAM and swap. Evicted pages are
+ * deflated into a single compact byte arena; when the arena cannot hold a new page the
+ * oldest compressed pages are pushed out and must be written to swap by the caller.
+ */
+class CompressedPool {
+
+    private static class Slot {
+        int offset;
+        final int length;
+        Slot(int offset, int length) { this.offset = offset; this.length = length; }
+    }
+
+    private final byte[] arena;
+    private final int pageSize;
+    private final Map<String, Slot> slots = new LinkedHashMap<>(); // Insertion order = age, for overflow
+    private int top = 0;      // Bump pointer into the arena
+    private int usedBytes = 0; // Live compressed bytes (top - usedBytes = holes left by loads)
+
+    private final Deflater deflater;
+    private final Inflater inflater = new Inflater();
+    private final byte[] pageBuffer;
+    private final byte[] compressBuffer;
+
+    // Timings of the last operation (nanoseconds) and its compressed size
+    private long lastCompressNanos = 0;
+    private long lastDecompressNanos = 0;
+    private int lastCompressedSize = 0;
+
+    public CompressedPool(int capacityBytes, int pageSize, int level) {
+        this.arena = new byte[Math.max(0, capacityBytes)];
+        this.pageSize = pageSize;
+        this.deflater = new Deflater(Math.max(0, Math.min(9, level)));
+        this.pageBuffer = new byte[pageSize];
+        this.compressBuffer = new byte[pageSize + pageSize / 100 + 64]; // Deflate worst case
+    }
+
+    public int getCapacityBytes() { return arena.length; }
+    public int getUsedBytes() { return usedBytes; }
+    public long getLastCompressNanos() { return lastCompressNanos; }
+    public long getLastDecompressNanos() { return lastDecompressNanos; }
+    public int getLastCompressedSize() { return lastCompressedSize; }
+    public int getPageSize() { return pageSize; }
+
+    public synchronized boolean contains(String processId) {
+        return slots.containsKey(processId);
+    }
+
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    public synchronized List<String> getProcessIds() {
+        return new ArrayList<>(slots.keySet());
+    }
+
+    /**
+     * Compresses the page of a process into the arena.
+     * @return the processes pushed out of the pool (oldest first) to make room; the caller
+     *         moves them on to swap. Contains {@code processId} itself if the page cannot fit at all.
+     */
+    public synchronized List<String> store(String processId) {
+        List<String> overflow = new ArrayList<>();
+        remove(processId);
+        FileBackedSwap.fillPage(processId, pageBuffer);
+
+        long start = System.nanoTime();
+        deflater.reset();
+        deflater.setInput(pageBuffer, 0, pageSize);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished() && length < compressBuffer.length) {
+            length += deflater.deflate(compressBuffer, length, compressBuffer.length - length);
+        }
+        lastCompressNanos = System.nanoTime() - start;
+        lastCompressedSize = length;
+
+        if (length > arena.length) { // Incompressible beyond the whole pool
+            overflow.add(processId);
+            return overflow;
+        }
+        // Push out the oldest pages until the new one fits
+        Iterator<Map.Entry<String, Slot>> oldest = slots.entrySet().iterator();
+        while (arena.length - usedBytes < length && oldest.hasNext()) {
+            Map.Entry<String, Slot> e = oldest.next();
+            usedBytes -= e.getValue().length;
+            overflow.add(e.getKey());
+            oldest.remove();
+        }
+        if (arena.length - top < length) compact();
+
+        System.arraycopy(compressBuffer, 0, arena, top, length);
+        slots.put(processId, new Slot(top, length));
+        top += length;
+        usedBytes += length;
+        return overflow;
+    }
+
+    /**
+     * Decompresses the page of a process and removes it from the pool.
+     * @return the decompression time in nanoseconds, or -1 if the process is not in the pool.
+     */
+    public synchronized long load(String processId) throws DataFormatException {
+        Slot slot = slots.get(processId);
+        if (slot == null) return -1;
+
+        long start = System.nanoTime();
+        inflater.reset();
+        inflater.setInput(arena, slot.offset, slot.length);
+        int n = 0;
+        while (!inflater.finished() && n < pageSize) {
+            n += inflater.inflate(pageBuffer, n, pageSize - n);
+        }
+        lastDecompressNanos = System.nanoTime() - start;
+
+        remove(processId);
+        return lastDecompressNanos;
+    }
+
+    public synchronized void remove(String processId) {
+        Slot slot = slots.remove(processId);
+        if (slot != null) {
+            usedBytes -= slot.length;
+            if (slot.offset + slot.length == top) top = slot.offset; // Freed the tail, reclaim it
+        }
+        if (slots.isEmpty()) top = 0;
+    }
+
+    public synchronized void clear() {
+        slots.clear();
+        top = 0;
+        usedBytes = 0;
+    }
+
+    public void close() {
+        deflater.end();
+        inflater.end();
+    }
+
+    // Slides live pages down over the holes, keeping their age order
+    private void compact() {
+        int dst = 0;
+        for (Slot slot : slots.values()) {
+            if (slot.offset != dst) {
+                System.arraycopy(arena, slot.offset, arena, dst, slot.length);
+                slot.offset = dst;
+            }
+            dst += slot.length;
+        }
+        top = dst;
+    }
+}
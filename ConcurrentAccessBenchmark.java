@@ -0,0 +1,271 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Concurrent access mode: thousands of virtual threads, one per simulated process, hammer a
+ * shared {@link MemoryEngine}. Each run reports aggregate throughput, latency percentiles
+ * (over all accesses and per thread) and lock contention. {@link #sweep} repeats the run
+ * while allowing 1, 2, 4, ... up to all cores to be inside the engine at once, which shows
+ * how contention on the page table and replacement structures scales with core count.
+ * A thread gives its core up while it is blocked on simulated swap I/O (or on another
+ * thread's transfer of the same page), as a thread blocked in a real read would, so the
+ * core count limits the CPU work in the engine, not the number of transfers in flight.
+ * With more than one NUMA node, process {@code p} runs on node {@code p % nodes} and local
+ * and remote RAM hits are counted and timed separately.
+ */
+class ConcurrentAccessBenchmark {
+
+    private static final MemoryEngine.Outcome[] OUTCOMES = MemoryEngine.Outcome.values();
+
+    static class Config implements Cloneable {
+        int processes = 2000;          // One virtual thread each
+        int accessesPerProcess = 500;
+        int pagesPerProcess = 16;
+        double hotFraction = 0.2;      // Share of a process's pages that is "hot"
+        double hotAccessRatio = 0.8;   // Share of accesses that go to the hot pages
+        double writeRatio = 0.2;
+        int ramFrames = 8192;
+        int swapSlots = 32768;
+        int cacheEntries = 1024;
+        String algorithm = "lru";
+        int stripes = MemoryEngine.DEFAULT_STRIPES; // 1 = a single global lock, for comparison
+        long pageInNanos = 50_000;     // Simulated swap read, done outside the engine's locks
+        long writeBackNanos = 100_000; // Simulated dirty write-back
+        int nodes = 2;                 // NUMA nodes the RAM frames are split across
+        MemoryEngine.Placement placement = MemoryEngine.Placement.FIRST_TOUCH;
+        long remoteNanos = 150;        // Extra latency of a RAM hit on another node
+        int migrateThreshold = 8;      // Remote hits before a page moves to the accessing node (0 = never)
+        int sharedPages = 512;         // Pages used by every process (libraries, shared buffers)
+        double sharedAccessRatio = 0.1;
+        long seed = 0;                 // Same seed, same access streams: each process gets its own split of it
+        EngineMetricsSource metrics;   // Follows every engine built from this config (null: not monitored)
+
+        Config copy() {
+            try {
+                return (Config) clone(); // Primitives, enums and strings, plus the metrics source that copies share
+            } catch (CloneNotSupportedException e) {
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    static class Result {
+        int parallelism;            // Cores: threads doing CPU work in the engine at once (blocked ones excluded)
+        long accesses;
+        long wallNanos;
+        double throughput;          // Accesses per second
+        long p50, p99, p999, max;   // Over all accesses (ns)
+        long medianThreadP99;       // Typical thread's p99 (ns)
+        long worstThreadP99;        // Unluckiest thread's p99 (ns)
+        double contendedPercent;    // Acquisitions that found the lock taken
+        double lockWaitPerAccess;   // ns
+        long sharedFaults;          // Accesses that waited on another thread's in-flight fault
+        int nodes;
+        long localHits, remoteHits, remoteCacheHits, migrations;
+        long localP50, localP99;    // RAM hits on the thread's own node (ns)
+        long remoteP50, remoteP99;  // RAM hits on another node (ns)
+        Stats stats;
+
+        String summary() {
+            return String.format("%2d cores: %,.0f acc/s | p50 %s p99 %s p99.9 %s max %s | thread p99 med %s worst %s | contended %.1f%%, wait %s/acc | shared faults %,d",
+                    parallelism, throughput, formatNanos(p50), formatNanos(p99), formatNanos(p999), formatNanos(max),
+                    formatNanos(medianThreadP99), formatNanos(worstThreadP99), contendedPercent, formatNanos((long) lockWaitPerAccess), sharedFaults)
+                    + (nodes > 1 ? numaSummary() : "");
+        }
+
+        String numaSummary() {
+            return String.format(" | %d nodes: local %,d (p50 %s p99 %s), remote %,d (p50 %s p99 %s), remote cache %,d, migrations %,d",
+                    nodes, localHits, formatNanos(localP50), formatNanos(localP99),
+                    remoteHits, formatNanos(remoteP50), formatNanos(remoteP99), remoteCacheHits, migrations);
+        }
+    }
+
+    /** Runs the workload once, letting at most {@code parallelism} threads run in the engine at a time; a blocked thread does not count. */
+    static Result run(Config cfg, int parallelism) throws InterruptedException {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        MemoryEngine engine = newEngine(cfg);
+        int nodes = engine.getNodeCount();
+        Semaphore cores = new Semaphore(parallelism); // Stand-in for the number of cores in use
+        engine.setBlockingListener(new MemoryEngine.BlockingListener() {
+            @Override
+            public void blocked() {
+                cores.release(); // Its core runs another thread during the wait
+            }
+
+            @Override
+            public void unblocked() {
+                cores.acquireUninterruptibly();
+            }
+        });
+        CountDownLatch startSignal = new CountDownLatch(1);
+        long[][] latencies = new long[cfg.processes][cfg.accessesPerProcess];
+        byte[][] outcomes = new byte[cfg.processes][cfg.accessesPerProcess]; // Outcome ordinals
+        int hotPages = Math.max(1, (int) (cfg.pagesPerProcess * cfg.hotFraction));
+        int sharedBase = cfg.processes * cfg.pagesPerProcess;
+
+        SplittableRandom seeds = new SplittableRandom(cfg.seed);
+        long start;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int p = 0; p < cfg.processes; p++) {
+                final int process = p;
+                SplittableRandom rnd = seeds.split(); // Split here, in process order, so streams do not depend on scheduling
+                executor.submit(() -> {
+                    long[] lat = latencies[process];
+                    byte[] kind = outcomes[process];
+                    int base = process * cfg.pagesPerProcess;
+                    int homeNode = process % nodes;
+                    startSignal.await();
+                    for (int i = 0; i < lat.length; i++) {
+                        int page;
+                        if (cfg.sharedPages > 0 && rnd.nextDouble() < cfg.sharedAccessRatio) {
+                            page = sharedBase + rnd.nextInt(cfg.sharedPages);
+                        } else {
+                            page = base + (rnd.nextDouble() < cfg.hotAccessRatio
+                                    ? rnd.nextInt(hotPages)
+                                    : rnd.nextInt(cfg.pagesPerProcess));
+                        }
+                        boolean write = rnd.nextDouble() < cfg.writeRatio;
+                        cores.acquireUninterruptibly();
+                        try {
+                            long t0 = System.nanoTime();
+                            MemoryEngine.Outcome outcome = engine.access(page, write, homeNode);
+                            lat[i] = System.nanoTime() - t0;
+                            kind[i] = (byte) outcome.ordinal();
+                        } finally {
+                            cores.release();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start = System.nanoTime();
+            startSignal.countDown();
+        } // close() waits for every thread
+        long wall = System.nanoTime() - start;
+        return summarize(engine, latencies, outcomes, parallelism, wall);
+    }
+
+    /**
+     * Replays a recorded access trace on one thread, in order: {@code pages[i]} is read, or
+     * written if {@code writes[i]}. The workload fields of {@code cfg} are not used.
+     */
+    static Result replay(Config cfg, int[] pages, boolean[] writes) {
+        MemoryEngine engine = newEngine(cfg);
+        long[][] latencies = new long[1][pages.length];
+        byte[][] outcomes = new byte[1][pages.length];
+        long start = System.nanoTime();
+        for (int i = 0; i < pages.length; i++) {
+            long t0 = System.nanoTime();
+            MemoryEngine.Outcome outcome = engine.access(pages[i], writes[i], 0);
+            latencies[0][i] = System.nanoTime() - t0;
+            outcomes[0][i] = (byte) outcome.ordinal();
+        }
+        return summarize(engine, latencies, outcomes, 1, System.nanoTime() - start);
+    }
+
+    static MemoryEngine newEngine(Config cfg) {
+        MemoryEngine.Topology topology = new MemoryEngine.Topology();
+        topology.nodes = cfg.nodes;
+        topology.placement = cfg.placement;
+        topology.remoteNanos = cfg.remoteNanos;
+        topology.migrateThreshold = cfg.migrateThreshold;
+        MemoryEngine engine = new MemoryEngine(cfg.ramFrames, cfg.swapSlots, cfg.cacheEntries, cfg.algorithm,
+                cfg.stripes, cfg.pageInNanos, cfg.writeBackNanos, topology, cfg.seed);
+        if (cfg.metrics != null) cfg.metrics.attach(engine);
+        return engine;
+    }
+
+    // Percentiles, per-outcome histograms and engine counters of a finished run (one latency row per thread)
+    private static Result summarize(MemoryEngine engine, long[][] latencies, byte[][] outcomes, int parallelism, long wall) {
+        int threads = latencies.length;
+        Result r = new Result();
+        r.parallelism = parallelism;
+        for (long[] lat : latencies) r.accesses += lat.length;
+        r.wallNanos = wall;
+        r.throughput = r.accesses * 1e9 / Math.max(1, wall);
+
+        long[] all = new long[(int) r.accesses];
+        long[] threadP99 = new long[threads];
+        long[] local = new long[(int) r.accesses];
+        long[] remote = new long[(int) r.accesses];
+        int n = 0, nLocal = 0, nRemote = 0;
+        r.stats = engine.snapshot(); // Counters; latency histograms per outcome are filled in below
+        for (int p = 0; p < threads; p++) {
+            long[] lat = latencies[p];
+            System.arraycopy(lat, 0, all, n, lat.length);
+            n += lat.length;
+            for (int i = 0; i < lat.length; i++) {
+                if (outcomes[p][i] == MemoryEngine.Outcome.RAM_HIT.ordinal()) local[nLocal++] = lat[i];
+                else if (outcomes[p][i] == MemoryEngine.Outcome.REMOTE_HIT.ordinal()) remote[nRemote++] = lat[i];
+                outcomeHistogram(r.stats, outcomes[p][i]).record(lat[i]);
+            }
+            Arrays.sort(lat);
+            threadP99[p] = percentile(lat, 0.99);
+        }
+        Arrays.sort(all);
+        Arrays.sort(threadP99);
+        r.p50 = percentile(all, 0.50);
+        r.p99 = percentile(all, 0.99);
+        r.p999 = percentile(all, 0.999);
+        r.max = all.length > 0 ? all[all.length - 1] : 0;
+        r.medianThreadP99 = percentile(threadP99, 0.50);
+        r.worstThreadP99 = threadP99.length > 0 ? threadP99[threadP99.length - 1] : 0;
+        local = Arrays.copyOf(local, nLocal);
+        remote = Arrays.copyOf(remote, nRemote);
+        Arrays.sort(local);
+        Arrays.sort(remote);
+        r.nodes = engine.getNodeCount();
+        r.localHits = engine.getLocalHits();
+        r.remoteHits = engine.getRemoteHits();
+        r.remoteCacheHits = engine.getRemoteCacheHits();
+        r.migrations = engine.getMigrations();
+        r.localP50 = percentile(local, 0.50);
+        r.localP99 = percentile(local, 0.99);
+        r.remoteP50 = percentile(remote, 0.50);
+        r.remoteP99 = percentile(remote, 0.99);
+        r.contendedPercent = 100.0 * engine.getContendedAcquires() / Math.max(1, r.accesses);
+        r.lockWaitPerAccess = (double) engine.getLockWaitNanos() / Math.max(1, r.accesses);
+        r.sharedFaults = engine.getSharedFaults();
+        return r;
+    }
+
+    /** Runs the workload at 1, 2, 4, ... cores up to all available processors. */
+    static List<Result> sweep(Config cfg) throws InterruptedException {
+        List<Result> results = new ArrayList<>();
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int p = 1; ; p *= 2) {
+            int parallelism = Math.min(p, cores);
+            results.add(run(cfg, parallelism));
+            if (parallelism == cores) break;
+        }
+        return results;
+    }
+
+    // Remote RAM hits count as RAM hits; first touches as faults (the engine does not report dirty evictions per access)
+    static LatencyHistogram outcomeHistogram(Stats s, byte outcome) {
+        switch (OUTCOMES[outcome]) {
+            case CACHE_HIT: return s.cacheHitLatency;
+            case RAM_HIT:
+            case REMOTE_HIT: return s.ramHitLatency;
+            default: return s.faultLatency;
+        }
+    }
+
+    private static long percentile(long[] sorted, double q) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    static String formatNanos(long nanos) {
+        if (nanos >= 1_000_000) return String.format("%.1fms", nanos / 1e6);
+        if (nanos >= 1_000) return String.format("%.1fµs", nanos / 1e3);
+        return nanos + "ns";
+    }
+}
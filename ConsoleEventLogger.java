@@ -0,0 +1,32 @@
+import java.io.PrintStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Event ring subscriber that mirrors log events to a console stream
+ * (enabled with {@code -Dvmm.log.console=true}).
+ */
+class ConsoleEventLogger implements EventRing.Handler {
+
+    private final PrintStream out;
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss.SSS"); // Only used by the subscriber thread
+    private final Date date = new Date();
+    private final StringBuilder line = new StringBuilder(256);
+
+    public ConsoleEventLogger(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void onEvent(SimEvent event, boolean endOfBatch) {
+        if (event.type == SimEvent.Type.LOG) {
+            date.setTime(event.wallTime);
+            line.setLength(0);
+            line.append('[').append(timeFormat.format(date)).append("] ")
+                .append(event.level.name()).append(' ')
+                .append(event.text);
+            out.println(line);
+        }
+        if (endOfBatch) out.flush();
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * {@link SimulationMetrics.Source} for headless runs: reads the {@link MemoryEngine} currently
+ * running, following each new engine a batch builds (every run, every scenario
+ * reconfiguration) through {@link ConcurrentAccessBenchmark.Config#metrics}. Counters restart
+ * with each engine, as a restarted process's would.
+ *
+ * <p>The engine keeps no per-outcome latency (the workload threads record it for their
+ * results), so the latency summaries stay empty. There is no per-access thrashing detector
+ * either: the alert is judged on the fault rate between scrapes, turning on at
+ * {@code vmm.thrashing.threshold} and off below {@code vmm.thrashing.clear}, the GUI's
+ * defaults.
+ */
+class EngineMetricsSource implements SimulationMetrics.Source {
+
+    private final double threshold = ThrashingDetector.doubleProperty("vmm.thrashing.threshold", 0.7);
+    private final double clearThreshold = Math.min(threshold, ThrashingDetector.doubleProperty("vmm.thrashing.clear", 0.5));
+
+    private volatile MemoryEngine engine;
+
+    // Thrashing state, guarded by this
+    private MemoryEngine judged;
+    private long lastAccesses, lastFaults;
+    private boolean thrashing = false;
+
+    /** Called by {@link ConcurrentAccessBenchmark#newEngine} for each engine it builds. */
+    void attach(MemoryEngine engine) {
+        this.engine = engine;
+    }
+
+    @Override
+    public Stats getStats() {
+        MemoryEngine e = engine;
+        if (e == null) return new Stats();
+        Stats s = e.snapshot();
+        s.evictions = e.getEvictions();
+        return s;
+    }
+
+    @Override public int getRamUsed() { MemoryEngine e = engine; return e != null ? e.getRamUsed() : 0; }
+    @Override public int getRamFrames() { MemoryEngine e = engine; return e != null ? e.getRamFrames() : 0; }
+    @Override public int getSwapUsed() { MemoryEngine e = engine; return e != null ? e.getSwapUsed() : 0; }
+    @Override public int getSwapSlots() { MemoryEngine e = engine; return e != null ? e.getSwapSlots() : 0; }
+    @Override public int getCacheUsed() { MemoryEngine e = engine; return e != null ? e.getCacheUsed() : 0; }
+    @Override public int getCacheEntries() { MemoryEngine e = engine; return e != null ? e.getCacheEntries() : 0; }
+    @Override public int getPoolUsed() { return 0; } // The engine has no compressed pool
+
+    @Override
+    public synchronized boolean isThrashing() {
+        MemoryEngine e = engine;
+        if (e == null) return false;
+        Stats s = e.snapshot();
+        if (e != judged) { // New engine: its counters started from zero
+            judged = e;
+            lastAccesses = lastFaults = 0;
+        }
+        long accesses = s.totalAccesses - lastAccesses;
+        if (accesses > 0) {
+            double faultRate = (double) (s.pageFaults - lastFaults) / accesses;
+            if (faultRate >= threshold) thrashing = true;
+            else if (faultRate < clearThreshold) thrashing = false;
+            lastAccesses = s.totalAccesses;
+            lastFaults = s.pageFaults;
+        }
+        return thrashing;
+    }
+
+    @Override
+    public String getAlgorithm() {
+        MemoryEngine e = engine;
+        return e != null ? e.getAlgorithm() : "";
+    }
+}
@@ -0,0 +1,159 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Event ring subscriber that records every event to a file, as JSON lines or in a compact
+ * binary format (enabled with {@code -Dvmm.log.file=<path>} and
+ * {@code -Dvmm.log.format=jsonl|binary}). It runs on its own subscriber thread: the
+ * simulation only pays for the ring slot, while encoding and I/O happen here, through one
+ * reused direct buffer that is written to the channel when it fills up or a batch ends.
+ *
+ * <p>Binary layout: the magic {@code "VMMEVT1\n"}, then per event a little-endian record of
+ * type (byte), level (byte, -1 if none), wall time (ms, long), time (long) and the strings
+ * section, target, process id, text and icon, each as a length (int, -1 for null) followed
+ * by UTF-8 bytes.
+ */
+class EventFileLogger implements EventRing.Handler, AutoCloseable {
+
+    enum Format { JSONL, BINARY }
+
+    private static final byte[] MAGIC = {'V', 'M', 'M', 'E', 'V', 'T', '1', '\n'};
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_RECORD = 4096; // Free space needed before encoding an event
+    private static final int MAX_STRING = 700;  // Encoded bytes per string field; longer text is truncated
+
+    private final FileChannel channel;
+    private final Format format;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private long written = 0; // Events recorded
+    private volatile IOException failure; // First write error; logging stops after it
+
+    public EventFileLogger(Path file, Format format) throws IOException {
+        this.format = format;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        if (format == Format.BINARY) buffer.put(MAGIC);
+    }
+
+    public long getWritten() { return written; }
+    public IOException getFailure() { return failure; }
+
+    @Override
+    public void onEvent(SimEvent event, boolean endOfBatch) {
+        if (failure != null) return;
+        try {
+            if (buffer.remaining() < MAX_RECORD) drain();
+            if (format == Format.JSONL) writeJson(event); else writeBinary(event);
+            written++;
+            if (endOfBatch) drain();
+        } catch (IOException e) {
+            failure = e;
+            System.err.println("Event log disabled: " + e);
+        }
+    }
+
+    /** Writes what is buffered and closes the file. Call once the subscriber has stopped. */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (failure == null) drain();
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    // --- Encoding (no intermediate Strings or byte arrays) ---
+
+    private void writeJson(SimEvent e) {
+        ascii("{\"t\":"); number(e.wallTime);
+        ascii(",\"type\":\""); ascii(e.type.name()); put('"');
+        if (e.level != null) { ascii(",\"level\":\""); ascii(e.level.key); put('"'); }
+        if (e.section != null) { ascii(",\"section\":"); string(e.section); }
+        if (e.target != null) { ascii(e.type == SimEvent.Type.ACCESS ? ",\"tier\":" : ",\"target\":"); string(e.target); }
+        if (e.processId != null) { ascii(",\"pid\":"); string(e.processId); }
+        if (e.text != null) { ascii(e.type == SimEvent.Type.EVICT ? ",\"reason\":" : ",\"text\":"); string(e.text); }
+        if (e.icon != null) { ascii(",\"icon\":"); string(e.icon); }
+        if (e.time != 0) { ascii(e.type == SimEvent.Type.WRITE_BACK ? ",\"nanos\":" : ",\"time\":"); number(e.time); }
+        ascii("}\n");
+    }
+
+    private void writeBinary(SimEvent e) {
+        buffer.put((byte) e.type.ordinal());
+        buffer.put((byte) (e.level != null ? e.level.ordinal() : -1));
+        buffer.putLong(e.wallTime);
+        buffer.putLong(e.time);
+        binaryString(e.section);
+        binaryString(e.target);
+        binaryString(e.processId);
+        binaryString(e.text);
+        binaryString(e.icon);
+    }
+
+    private void binaryString(String s) {
+        if (s == null) { buffer.putInt(-1); return; }
+        int lengthAt = buffer.position();
+        buffer.putInt(0); // Patched once the encoded length is known
+        int start = buffer.position();
+        utf8(s, false);
+        buffer.putInt(lengthAt, buffer.position() - start);
+    }
+
+    private void string(String s) {
+        put('"');
+        utf8(s, true);
+        put('"');
+    }
+
+    private void ascii(String s) {
+        for (int i = 0; i < s.length(); i++) buffer.put((byte) s.charAt(i));
+    }
+
+    private void put(char c) {
+        buffer.put((byte) c);
+    }
+
+    private void number(long n) {
+        if (n < 0) { put('-'); n = -n; }
+        if (n >= 10) number(n / 10);
+        put((char) ('0' + n % 10));
+    }
+
+    // Encodes s as UTF-8 (JSON-escaped if asked), stopping after about MAX_STRING bytes
+    private void utf8(String s, boolean json) {
+        int limit = buffer.position() + MAX_STRING;
+        for (int i = 0; i < s.length() && buffer.position() < limit; ) {
+            int c = s.codePointAt(i);
+            i += Character.charCount(c);
+            if (json && (c == '"' || c == '\\')) {
+                put('\\'); put((char) c);
+            } else if (json && c < 0x20) {
+                ascii(c == '\n' ? "\\n" : c == '\t' ? "\\t" : String.format("\\u%04x", c));
+            } else if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            } else if (c < 0x10000) {
+                buffer.put((byte) (0xE0 | c >> 12));
+                buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            } else {
+                buffer.put((byte) (0xF0 | c >> 18));
+                buffer.put((byte) (0x80 | c >> 12 & 0x3F));
+                buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Event ring subscriber that counts events by type and log level. Only the subscriber's
+ * thread writes the counters, so updates are plain ordered stores; readers (the stats
+ * panel) may look at them at any time.
+ */
+class EventMetrics implements EventRing.Handler {
+
+    private final AtomicLongArray byType = new AtomicLongArray(SimEvent.Type.values().length);
+    private final AtomicLongArray byLevel = new AtomicLongArray(SimEvent.Level.values().length);
+    private volatile long total = 0;
+
+    @Override
+    public void onEvent(SimEvent event, boolean endOfBatch) {
+        int t = event.type.ordinal();
+        byType.lazySet(t, byType.get(t) + 1);
+        if (event.level != null) {
+            int l = event.level.ordinal();
+            byLevel.lazySet(l, byLevel.get(l) + 1);
+        }
+        if (endOfBatch) total = sum(); // One volatile write per batch
+    }
+
+    public long getTotal() { return total; }
+    public long getCount(SimEvent.Type type) { return byType.get(type.ordinal()); }
+    public long getCount(SimEvent.Level level) { return byLevel.get(level.ordinal()); }
+
+    private long sum() {
+        long n = 0;
+        for (int i = 0; i < byType.length(); i++) n += byType.get(i);
+        return n;
+    }
+}
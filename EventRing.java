@@ -0,0 +1,315 @@
+import javax.swing.SwingUtilities;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated ring buffer of {@link SimEvent}s between the simulation and its consumers
+ * (GUI, logger, metrics). A producer claims a sequence number, fills the slot in place and
+ * publishes it; every subscriber has its own thread and sequence, reads whatever has been
+ * published since its last batch and hands it to its handler in one go. A slot is only
+ * reused once every subscriber has consumed it, so a slow consumer throttles producers
+ * instead of losing events. The EDT cannot wait for the GUI subscriber, so when it finds the
+ * ring full it drops animation events and queues the rest in order, copying them into the ring
+ * as slots free up.
+ *
+ * <p>Emitting allocates nothing: no boxing, no per-event objects, no lambdas.
+ */
+class EventRing {
+
+    /** Consumer callback. Called on the subscriber's thread (or the EDT) in sequence order. */
+    interface Handler {
+        void onEvent(SimEvent event, boolean endOfBatch);
+    }
+
+    private static final int SPINS_BEFORE_PARK = 200; // Idle polls before a subscriber parks
+
+    private final SimEvent[] slots;
+    private final AtomicLongArray published; // Sequence last published in each slot
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(-1); // Highest sequence handed to a producer
+    private volatile Subscriber[] subscribers = new Subscriber[0];
+    // Slowest subscriber seen by the last producer that had to check. Sequences only grow, so
+    // any value a producer reads is a lower bound of the real gate; volatile keeps it untorn and current.
+    private volatile long cachedGate = -1;
+    private final AtomicLong dropped = new AtomicLong(); // EDT animation events that found the ring full
+    private final Queue<SimEvent> overflow = new ConcurrentLinkedQueue<>(); // EDT events waiting for a slot, in order
+    private boolean flushScheduled = false; // EDT only
+
+    public EventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1; // Next power of two
+        slots = new SimEvent[size];
+        for (int i = 0; i < size; i++) slots[i] = new SimEvent();
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) published.set(i, -1);
+        mask = size - 1;
+    }
+
+    public int getCapacity() { return slots.length; }
+    public long getPublished() { return claimed.get() + 1; }
+    public long getDropped() { return dropped.get(); }
+
+    // --- Producers ---
+
+    public void log(SimEvent.Level level, String message, String icon) {
+        emit(SimEvent.Type.LOG, level, null, null, null, message, icon, 0);
+    }
+
+    /** ADD_RAM, REMOVE_RAM, REMOVE_CACHE, CLEAR_CACHE, MARK_DIRTY or UNDIRTY. */
+    public void state(SimEvent.Type type, String processId) {
+        emit(type, null, null, null, processId, null, null, 0);
+    }
+
+    public void addCache(String processId, long time) {
+        emit(SimEvent.Type.ADD_CACHE, null, null, null, processId, null, null, time);
+    }
+
+    public void refresh(String section) {
+        refresh(section, null);
+    }
+
+    /** REFRESH after one process entered or left the section. */
+    public void refresh(String section, String processId) {
+        emit(SimEvent.Type.REFRESH, null, section, null, processId, null, null, 0);
+    }
+
+    /** HIGHLIGHT or EFFECT on a block in a section. */
+    public void animate(SimEvent.Type type, String section, String processId, String effect) {
+        emit(type, null, section, null, processId, effect, null, 0);
+    }
+
+    public void move(String from, String to, String processId) {
+        emit(SimEvent.Type.MOVE, null, from, to, processId, null, null, 0);
+    }
+
+    /** @param tier where the access was served: cache, ram, zswap, swap, or none if the process is unknown */
+    public void access(String processId, String tier) {
+        emit(SimEvent.Type.ACCESS, null, null, tier, processId, null, null, 0);
+    }
+
+    public void evict(String section, String victimId, String reason) {
+        emit(SimEvent.Type.EVICT, null, section, null, victimId, reason, null, 0);
+    }
+
+    public void writeBack(String processId, long nanos) {
+        emit(SimEvent.Type.WRITE_BACK, null, null, null, processId, null, null, nanos);
+    }
+
+    private void emit(SimEvent.Type type, SimEvent.Level level, String section, String target,
+                      String processId, String text, String icon, long time) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            publish(claim(true), type, level, section, target, processId, text, icon, time);
+            return;
+        }
+        // The GUI subscriber needs the EDT to make progress, so waiting here would deadlock
+        long seq = flushOverflow() ? claim(false) : -1;
+        if (seq >= 0) {
+            publish(seq, type, level, section, target, processId, text, icon, time);
+        } else if (type == SimEvent.Type.HIGHLIGHT || type == SimEvent.Type.EFFECT || type == SimEvent.Type.MOVE) {
+            dropped.incrementAndGet(); // Animation only
+        } else { // State and log events must arrive, after the ones queued before them
+            SimEvent event = new SimEvent();
+            event.set(type, level, section, target, processId, text, icon, time);
+            overflow.add(event);
+            scheduleFlush();
+        }
+    }
+
+    private void publish(long seq, SimEvent.Type type, SimEvent.Level level, String section, String target,
+                         String processId, String text, String icon, long time) {
+        int index = (int) seq & mask;
+        slots[index].set(type, level, section, target, processId, text, icon, time);
+        published.set(index, seq); // Volatile: orders the slot before the parked check below
+        for (Subscriber s : subscribers) {
+            if (s.parked) LockSupport.unpark(s.thread);
+        }
+    }
+
+    // Moves queued EDT events into the ring while there is room. EDT only. @return true if none are left
+    private boolean flushOverflow() {
+        SimEvent event;
+        while ((event = overflow.peek()) != null) {
+            long seq = claim(false);
+            if (seq < 0) {
+                scheduleFlush();
+                return false;
+            }
+            overflow.poll();
+            publish(seq, event.type, event.level, event.section, event.target, event.processId, event.text, event.icon, event.time);
+            slots[(int) seq & mask].wallTime = event.wallTime;
+        }
+        return true;
+    }
+
+    // Retries the flush after the EDT has run the GUI subscriber's pending batches
+    private void scheduleFlush() {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        javax.swing.Timer retry = new javax.swing.Timer(1, e -> {
+            flushScheduled = false;
+            flushOverflow();
+        });
+        retry.setRepeats(false);
+        retry.start();
+    }
+
+    /**
+     * Claims the next sequence once its slot has been consumed by every subscriber.
+     * @param wait park until there is room; otherwise return -1 if the ring is full
+     */
+    private long claim(boolean wait) {
+        while (true) {
+            long current = claimed.get();
+            long next = current + 1;
+            if (next - slots.length > cachedGate) {
+                cachedGate = minimumSequence(current);
+                if (next - slots.length > cachedGate) {
+                    if (!wait) return -1;
+                    LockSupport.parkNanos(50_000);
+                    continue;
+                }
+            }
+            if (claimed.compareAndSet(current, next)) return next;
+        }
+    }
+
+    private long minimumSequence(long fallback) {
+        long min = fallback;
+        for (Subscriber s : subscribers) min = Math.min(min, s.sequence);
+        return min;
+    }
+
+    // --- Consumers ---
+
+    /**
+     * Adds a consumer that sees every event published from now on.
+     * @param onEventDispatchThread run the handler's batches on the EDT (for Swing consumers)
+     */
+    public synchronized Subscriber subscribe(String name, Handler handler, boolean onEventDispatchThread) {
+        Subscriber s = new Subscriber(name, handler, onEventDispatchThread, claimed.get());
+        Subscriber[] grown = Arrays.copyOf(subscribers, subscribers.length + 1);
+        grown[grown.length - 1] = s;
+        subscribers = grown;
+        s.thread.start();
+        return s;
+    }
+
+    /**
+     * Waits (up to the timeout) until the subscriber has consumed everything published so far,
+     * then unsubscribes it and waits for its thread to exit. For consumers that must not lose
+     * the tail of the stream, such as a file logger at shutdown.
+     */
+    public void drainAndUnsubscribe(Subscriber s, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long target = claimed.get();
+        while (s.sequence < target && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        unsubscribe(s);
+        s.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+    }
+
+    /** Whether the subscriber has consumed everything published so far, and no EDT event is waiting for a slot. */
+    public boolean isCaughtUp(Subscriber s) {
+        return s.sequence >= claimed.get() && overflow.isEmpty();
+    }
+
+    public synchronized void unsubscribe(Subscriber s) {
+        s.running = false;
+        LockSupport.unpark(s.thread);
+        Subscriber[] remaining = Arrays.stream(subscribers).filter(x -> x != s).toArray(Subscriber[]::new);
+        subscribers = remaining;
+    }
+
+    final class Subscriber implements Runnable {
+        final Thread thread;
+        final Handler handler;
+        final boolean onEdt;
+        volatile long sequence;  // Last sequence consumed
+        volatile boolean parked;
+        volatile boolean running = true;
+        private long batchEnd;
+        private final Runnable batchOnEdt = this::runBatch; // Reused for every EDT batch
+        private int idleSpins = 0;
+        private long batches = 0;
+        private long largestBatch = 0;
+
+        Subscriber(String name, Handler handler, boolean onEdt, long start) {
+            this.handler = handler;
+            this.onEdt = onEdt;
+            this.sequence = start;
+            this.thread = new Thread(this, "event-ring-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        public long getBatches() { return batches; }
+        public long getLargestBatch() { return largestBatch; }
+
+        @Override
+        public void run() {
+            while (running) {
+                long end = highestPublished(sequence + 1);
+                if (end <= sequence) {
+                    if (++idleSpins < SPINS_BEFORE_PARK) { // Busy producers: keep them from paying for unpark()
+                        if (idleSpins > SPINS_BEFORE_PARK / 2) Thread.yield(); else Thread.onSpinWait();
+                        continue;
+                    }
+                    parked = true;
+                    if (highestPublished(sequence + 1) <= sequence && running) LockSupport.park(this);
+                    parked = false;
+                    idleSpins = 0;
+                    continue;
+                }
+                idleSpins = 0;
+                batchEnd = end;
+                batches++;
+                largestBatch = Math.max(largestBatch, end - sequence);
+                if (!onEdt) {
+                    runBatch();
+                } else {
+                    try {
+                        SwingUtilities.invokeAndWait(batchOnEdt);
+                    } catch (InterruptedException e) {
+                        return;
+                    } catch (InvocationTargetException e) {
+                        sequence = batchEnd; // Skip the batch that failed rather than stalling producers
+                        reportFailure(e.getCause());
+                    }
+                }
+            }
+        }
+
+        private void runBatch() {
+            long seq = sequence;
+            RuntimeException failure = null;
+            try {
+                while (seq < batchEnd) {
+                    seq++;
+                    handler.onEvent(slots[(int) seq & mask], seq == batchEnd);
+                }
+            } catch (RuntimeException e) {
+                failure = e; // One bad event must not stop the consumer
+            } finally {
+                sequence = seq; // Frees the slots for producers
+            }
+            if (failure != null) reportFailure(failure);
+        }
+
+        // Into the event log like any other error; only after the batch is released, so this cannot wait on itself
+        private void reportFailure(Throwable e) {
+            log(SimEvent.Level.ERROR, "Event handler " + thread.getName() + " failed: " + e, "❌");
+        }
+
+        // Highest contiguous published sequence starting at next (next - 1 if none)
+        private long highestPublished(long next) {
+            long limit = claimed.get();
+            long seq = next;
+            while (seq <= limit && published.get((int) seq & mask) == seq) seq++;
+            return seq - 1;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Swap space backed by a real local file. Swap slot {@code n} (as assigned by
+ * {@link SwapSpace}) lives at offset {@code n * pageSize}; page payloads are actually
+ * written on swap-out and read back on page-in, and each operation is timed so the
+ * simulation can use the measured cost instead of a fixed delay. In MAPPED mode the file is
+ * mapped in chunks of whole slots, each under the 2 GB limit of one mapping.
+ */
+class FileBackedSwap {
+
+    enum Mode { POSITIONAL, MAPPED }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] mapped; // Only set in MAPPED mode
+    private final int slotsPerChunk;         // Slots per mapping
+    private final Mode mode;
+    private final int pageSize;
+    private final int slotCount;
+    private final byte[] pageBuffer; // Reused payload buffer (calls are synchronized)
+    private final ByteBuffer ioBuffer;
+
+    // Measured I/O (nanoseconds)
+    private long lastWriteNanos = 0;
+    private long lastReadNanos = 0;
+
+    public FileBackedSwap(int slotCount, int pageSize, Mode mode) throws IOException {
+        this.slotCount = Math.max(1, slotCount);
+        this.pageSize = Math.max(512, pageSize);
+        this.mode = mode;
+        this.pageBuffer = new byte[this.pageSize];
+        this.ioBuffer = ByteBuffer.allocateDirect(this.pageSize);
+
+        file = Files.createTempFile("vmm-swap-", ".bin");
+        file.toFile().deleteOnExit();
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fileSize = (long) this.slotCount * this.pageSize;
+        slotsPerChunk = Integer.MAX_VALUE / this.pageSize;
+        if (mode == Mode.MAPPED) {
+            mapped = new MappedByteBuffer[(this.slotCount - 1) / slotsPerChunk + 1];
+            for (int chunk = 0; chunk < mapped.length; chunk++) {
+                long start = (long) chunk * slotsPerChunk * this.pageSize;
+                mapped[chunk] = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.min(fileSize - start,
+                        (long) slotsPerChunk * this.pageSize)); // Also extends the file
+            }
+        } else {
+            mapped = null;
+            channel.write(ByteBuffer.wrap(new byte[1]), fileSize - 1); // Pre-size the file
+        }
+    }
+
+    public Mode getMode() { return mode; }
+    public int getPageSize() { return pageSize; }
+    public long getLastWriteNanos() { return lastWriteNanos; }
+    public long getLastReadNanos() { return lastReadNanos; }
+
+    /**
+     * Writes the page payload of a process to a swap slot and forces it to storage.
+     * @return the measured write latency in nanoseconds.
+     */
+    public synchronized long writePage(String processId, int slot) throws IOException {
+        checkSlot(slot);
+        fillPage(processId, pageBuffer);
+        long offset = (long) slot * pageSize;
+
+        long start = System.nanoTime();
+        if (mode == Mode.MAPPED) {
+            MappedByteBuffer chunk = mapped[slot / slotsPerChunk];
+            int index = (slot % slotsPerChunk) * pageSize;
+            chunk.put(index, pageBuffer, 0, pageSize);
+            chunk.force(index, pageSize);
+        } else {
+            ioBuffer.clear();
+            ioBuffer.put(pageBuffer);
+            ioBuffer.flip();
+            while (ioBuffer.hasRemaining()) {
+                channel.write(ioBuffer, offset + ioBuffer.position());
+            }
+            channel.force(false);
+        }
+        lastWriteNanos = System.nanoTime() - start;
+        return lastWriteNanos;
+    }
+
+    /**
+     * Reads a page payload back from a swap slot.
+     * @return the measured read latency in nanoseconds.
+     */
+    public synchronized long readPage(int slot) throws IOException {
+        checkSlot(slot);
+        long offset = (long) slot * pageSize;
+
+        long start = System.nanoTime();
+        if (mode == Mode.MAPPED) {
+            mapped[slot / slotsPerChunk].get((slot % slotsPerChunk) * pageSize, pageBuffer, 0, pageSize);
+        } else {
+            ioBuffer.clear();
+            while (ioBuffer.hasRemaining()) {
+                if (channel.read(ioBuffer, offset + ioBuffer.position()) < 0) break;
+            }
+            ioBuffer.flip();
+            ioBuffer.get(pageBuffer, 0, ioBuffer.remaining());
+        }
+        lastReadNanos = System.nanoTime() - start;
+        return lastReadNanos;
+    }
+
+    private void checkSlot(int slot) throws IOException {
+        if (slot < 0 || slot >= slotCount) throw new IOException("Swap slot " + slot + " outside file (" + slotCount + " slots)");
+    }
+
+    public synchronized void close() {
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Could not remove swap file " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fills a page with deterministic, moderately compressible content for a process:
+     * a repeated text header followed by pseudo-random noise.
+     */
+    static void fillPage(String processId, byte[] page) {
+        byte[] header = ("page-of-" + processId + ";").getBytes();
+        int half = page.length / 2;
+        for (int i = 0; i < half; i++) {
+            page[i] = header[i % header.length];
+        }
+        long seed = processId.hashCode() * 0x9E3779B97F4A7C15L;
+        for (int i = half; i < page.length; i++) {
+            seed ^= seed << 13; seed ^= seed >>> 7; seed ^= seed << 17; // xorshift
+            page[i] = (byte) (seed & 0x0F); // Low-entropy noise
+        }
+    }
+}
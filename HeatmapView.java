@@ -0,0 +1,223 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dense view of a memory area for large frame counts: one small cell per frame, painted
+ * in a single pass instead of one {@link ProcessBlock} component per process. Only the
+ * rows inside the clip are painted, and clicks and tooltips find their cell by
+ * coordinate math, so cost depends on what is visible rather than on the frame count.
+ *
+ * <p>A process keeps its cell until it leaves, so single arrivals and departures are
+ * applied in place ({@link #add}, {@link #remove}) and repaint one cell; {@link #setCells}
+ * replaces everything and is only needed after a reset. Hot and recently-faulted marks
+ * are worked out for the visible cells only, when they are painted or refreshed.
+ */
+class HeatmapView extends JComponent implements Scrollable {
+
+    static final int CELL = 9;   // Cell pitch in pixels (including the gap)
+    static final int GAP = 1;
+
+    static final byte DIRTY = 1;
+    static final byte HOT = 2;
+    static final byte FAULTED = 4; // Recently brought in by a page fault
+
+    private final ProcessBlock.ColorType colorType;
+    private final VirtualMemoryManagerGUI controller;
+    private final Color[] palette = new Color[8]; // Cell color for every flag combination
+    private final Color freeColor = VirtualMemoryManagerGUI.BG_COLOR.brighter();
+
+    private String[] ids = new String[0]; // Process per cell, null if free
+    private byte[] flags = new byte[0];   // DIRTY as last set; HOT and FAULTED as last painted
+    private final Map<String, Integer> cellOf = new HashMap<>();
+    private int[] freeCells = new int[0]; // Cells below 'used' that were given up, reused first
+    private int freeCount = 0;
+    private int used = 0;     // Cells handed out since the last setCells
+    private int capacity = 0; // Cells drawn (occupied + free)
+
+    public HeatmapView(ProcessBlock.ColorType type, VirtualMemoryManagerGUI controller) {
+        this.colorType = type;
+        this.controller = controller;
+        Color base = ProcessBlock.getBaseColor(type);
+        for (int f = 0; f < palette.length; f++) {
+            Color c = base;
+            if ((f & HOT) != 0) c = c.brighter();
+            if ((f & FAULTED) != 0) c = VirtualMemoryManagerGUI.HIGHLIGHT_COLOR;
+            if ((f & DIRTY) != 0) c = VirtualMemoryManagerGUI.DIRTY_COLOR; // Dirty wins: it costs a write-back
+            palette[f] = c;
+        }
+        setOpaque(false);
+        setToolTipText(""); // Registers with the ToolTipManager; text comes from getToolTipText(MouseEvent)
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                String pid = processAt(e.getX(), e.getY());
+                if (pid == null || controller == null) return;
+                if (SwingUtilities.isLeftMouseButton(e)) {
+                    controller.processIdInput.setText(pid); // Same actions as a ProcessBlock
+                    controller.accessProcess();
+                } else if (SwingUtilities.isRightMouseButton(e)) {
+                    controller.endProcessRequest(pid);
+                }
+            }
+        });
+    }
+
+    /** Replaces every cell, in list order. Costs one pass over the list: for resets, not for single changes. */
+    public void setCells(List<String> processIds, Set<String> dirtySet, int frames) {
+        int n = processIds.size();
+        java.util.Arrays.fill(ids, 0, used, null); // Don't keep stale ids reachable
+        ensureCells(n);
+        cellOf.clear();
+        freeCount = 0;
+        used = 0;
+        for (String pid : processIds) {
+            if (pid == null) continue;
+            ids[used] = pid;
+            flags[used] = dirtySet.contains(pid) && colorType == ProcessBlock.ColorType.RAM ? DIRTY : 0;
+            cellOf.put(pid, used++);
+        }
+        setCapacity(frames);
+        repaint();
+    }
+
+    /** Gives a process the first free cell, unless it has one already. */
+    public void add(String pid) {
+        if (cellOf.containsKey(pid)) return;
+        int cell = freeCount > 0 ? freeCells[--freeCount] : used++;
+        ensureCells(used);
+        ids[cell] = pid;
+        flags[cell] = 0; // Arrivals are clean
+        cellOf.put(pid, cell);
+        if (used > capacity) setCapacity(used);
+        repaintCell(cell);
+    }
+
+    /** Frees a process's cell, if it has one. */
+    public void remove(String pid) {
+        Integer cell = cellOf.remove(pid);
+        if (cell == null) return;
+        ids[cell] = null;
+        flags[cell] = 0;
+        if (freeCells.length == freeCount) freeCells = java.util.Arrays.copyOf(freeCells, Math.max(16, freeCount * 2));
+        freeCells[freeCount++] = cell;
+        repaintCell(cell);
+    }
+
+    public void setDirty(String pid, boolean dirty) {
+        Integer cell = cellOf.get(pid);
+        if (cell == null || colorType != ProcessBlock.ColorType.RAM) return;
+        flags[cell] = (byte) (dirty ? flags[cell] | DIRTY : flags[cell] & ~DIRTY);
+        repaintCell(cell);
+    }
+
+    /** Sets the number of cells drawn: the frame count, or more while the cells in use exceed it. */
+    public void setCapacity(int frames) {
+        int newCapacity = Math.max(frames, used);
+        if (newCapacity == capacity) return;
+        capacity = newCapacity;
+        revalidate(); // Height depends on the number of rows
+        repaint();
+    }
+
+    /**
+     * Re-checks the hot and recently-faulted marks of the visible cells, since they change
+     * with time and accesses while the cells stay put. Repaints only if one changed.
+     */
+    public void refreshFlags() {
+        Rectangle visible = getVisibleRect();
+        if (visible.isEmpty()) return;
+        int cols = columns();
+        int first = (visible.y / CELL) * cols;
+        int last = Math.min(used, ((visible.y + visible.height) / CELL + 1) * cols);
+        for (int i = first; i < last; i++) {
+            if (ids[i] != null && flagsOf(i) != flags[i]) {
+                repaint(visible);
+                return;
+            }
+        }
+    }
+
+    // Dirty as set, hot and faulted as of now
+    private byte flagsOf(int cell) {
+        String pid = ids[cell];
+        byte f = (byte) (flags[cell] & DIRTY);
+        if (controller != null && controller.isHot(pid)) f |= HOT;
+        if (controller != null && controller.isRecentlyFaulted(pid)) f |= FAULTED;
+        return f;
+    }
+
+    private void ensureCells(int n) {
+        if (ids.length >= n) return;
+        int size = Math.max(n, ids.length * 2);
+        ids = java.util.Arrays.copyOf(ids, size);
+        flags = java.util.Arrays.copyOf(flags, size);
+    }
+
+    private void repaintCell(int cell) {
+        int cols = columns();
+        repaint((cell % cols) * CELL, (cell / cols) * CELL, CELL, CELL);
+    }
+
+    private int columns() {
+        return Math.max(1, getWidth() / CELL);
+    }
+
+    /** @return the process in the cell under (x, y), or null for a free frame or the margin. */
+    String processAt(int x, int y) {
+        int col = x / CELL, row = y / CELL;
+        if (x < 0 || y < 0 || col >= columns() || x % CELL >= CELL - GAP || y % CELL >= CELL - GAP) return null;
+        int index = row * columns() + col;
+        return index < used ? ids[index] : null;
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        String pid = processAt(e.getX(), e.getY());
+        if (pid == null || controller == null) return null;
+        return controller.generateTooltipText(pid, colorType.name());
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        int cols = columns();
+        int firstRow = clip.y / CELL;
+        int lastRow = Math.min((capacity - 1) / cols, (clip.y + clip.height) / CELL);
+        int size = CELL - GAP;
+        for (int row = firstRow; row <= lastRow; row++) {
+            int rowStart = row * cols;
+            for (int col = 0; col < cols; col++) {
+                int index = rowStart + col;
+                if (index >= capacity) break;
+                String pid = index < used ? ids[index] : null;
+                if (pid != null) flags[index] = flagsOf(index);
+                g.setColor(pid != null ? palette[flags[index]] : freeColor);
+                g.fillRect(col * CELL, row * CELL, size, size);
+            }
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int width = getParent() != null ? getParent().getWidth() : 200;
+        int cols = Math.max(1, width / CELL);
+        int rows = (capacity + cols - 1) / cols;
+        return new Dimension(width, Math.max(CELL, rows * CELL));
+    }
+
+    // --- Scrollable: track the viewport width so the grid reflows instead of scrolling sideways ---
+
+    @Override public Dimension getPreferredScrollableViewportSize() { return getPreferredSize(); }
+    @Override public int getScrollableUnitIncrement(Rectangle visible, int orientation, int direction) { return CELL; }
+    @Override public int getScrollableBlockIncrement(Rectangle visible, int orientation, int direction) { return Math.max(CELL, visible.height - CELL); }
+    @Override public boolean getScrollableTracksViewportWidth() { return true; }
+    @Override public boolean getScrollableTracksViewportHeight() { return false; }
+}
@@ -0,0 +1,120 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Log-bucketed latency histogram in the style of HdrHistogram. Values below 32 get exact
+ * buckets; above that every power of two is split into 32 linear sub-buckets, so any
+ * recorded value is reported within about 3% while the whole range up to 2^40 ns fits
+ * in about 1,200 counters. Recording is allocation-free.
+ *
+ * <p>Not thread-safe: give each thread its own histogram and {@link #add} them together
+ * afterwards (merging is exact, bucket by bucket). A histogram that must be read while
+ * others record into it (a live simulation's) is recorded with {@link #recordShared} and
+ * read through {@link #snapshot}, both under its own lock.
+ */
+class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_BITS = 40; // Largest tracked value ~18 minutes in ns; larger ones land in the top bucket
+    private static final int BUCKETS = (MAX_BITS - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count = 0;
+    private long sum = 0;
+    private long max = 0;
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts[indexOf(value)]++;
+        count++;
+        sum += value;
+        if (value > max) max = value;
+    }
+
+    /** {@link #record} for a shared histogram, paired with {@link #snapshot}. */
+    public synchronized void recordShared(long value) {
+        record(value);
+    }
+
+    /** @return a consistent copy of a shared histogram, to read while others keep recording */
+    public synchronized LatencyHistogram snapshot() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.add(this);
+        return copy;
+    }
+
+    /** Adds every recording of {@code other} to this histogram. */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        count = sum = max = 0;
+    }
+
+    public long getCount() { return count; }
+    public long getMax() { return max; }
+    public long getSum() { return sum; }
+    public double getMean() { return count > 0 ? (double) sum / count : 0; }
+
+    /** @return the value below which a fraction {@code q} of recordings fall (bucket upper bound, at most the max). */
+    public long percentile(double q) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, upperBound(i));
+        }
+        return max;
+    }
+
+    /** p50 / p99 / p99.9 / max, for display. */
+    public String summary() {
+        if (count == 0) return "-";
+        return String.format("p50 %s  p99 %s  p99.9 %s  max %s",
+                ConcurrentAccessBenchmark.formatNanos(percentile(0.50)), ConcurrentAccessBenchmark.formatNanos(percentile(0.99)),
+                ConcurrentAccessBenchmark.formatNanos(percentile(0.999)), ConcurrentAccessBenchmark.formatNanos(max));
+    }
+
+    // --- Checkpoints ---
+
+    static final int BYTES = (BUCKETS + 3) * Long.BYTES;
+
+    void writeTo(ByteBuffer out) {
+        out.putLong(count).putLong(sum).putLong(max);
+        out.asLongBuffer().put(counts);
+        out.position(out.position() + BUCKETS * Long.BYTES);
+    }
+
+    void readFrom(ByteBuffer in) {
+        count = in.getLong();
+        sum = in.getLong();
+        max = in.getLong();
+        in.asLongBuffer().get(counts);
+        in.position(in.position() + BUCKETS * Long.BYTES);
+    }
+
+    // --- Bucketing ---
+
+    static int indexOf(long value) {
+        int msb = 63 - Long.numberOfLeadingZeros(value | 1);
+        if (msb < SUB_BITS) return (int) value;
+        if (msb >= MAX_BITS) return BUCKETS - 1;
+        int shift = msb - SUB_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1); // Bits just below the leading one
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,156 @@
+import java.util.PriorityQueue;
+
+/**
+ * Discrete-event timing model of the memory hierarchy. Every access is charged the service
+ * times of the tiers it touches, on a model clock of its own (independent of the GUI's
+ * animation delays). Swap reads and writes are served one at a time by a single FIFO swap
+ * device: a dirty victim's write-back is queued there without blocking the CPU, so the page-in
+ * that follows waits behind it, as do later faults while write-backs are still in flight.
+ * Device completions are kept in an event queue ordered by time and retired as the clock
+ * passes them.
+ */
+class LatencyModel {
+
+    /** Service times in nanoseconds. Defaults can be overridden with {@code -Dvmm.latency.<field>=<ns>}. */
+    static class Config {
+        long tlbNanos = 1;             // TLB lookup
+        long pageWalkNanos = 100;      // Extra cost of a TLB miss
+        long cacheNanos = 4;
+        long ramNanos = 100;
+        long poolNanos = 3_000;        // Compress or decompress one page in the compressed pool
+        long swapReadNanos = 80_000;   // Default device: SATA SSD
+        long swapWriteNanos = 120_000;
+        long computeNanos = 50;        // CPU work between two accesses
+
+        /** Swap devices offered in the GUI: read and write service times. */
+        enum Device {
+            HDD(8_000_000, 10_000_000), SSD(80_000, 120_000), NVME(12_000, 20_000);
+
+            final long readNanos, writeNanos;
+
+            Device(long readNanos, long writeNanos) {
+                this.readNanos = readNanos;
+                this.writeNanos = writeNanos;
+            }
+        }
+
+        Config device(Device device) {
+            swapReadNanos = device.readNanos;
+            swapWriteNanos = device.writeNanos;
+            return this;
+        }
+
+        static Config fromSystemProperties(Device device) {
+            Config c = new Config().device(device);
+            c.tlbNanos = Long.getLong("vmm.latency.tlb", c.tlbNanos);
+            c.pageWalkNanos = Long.getLong("vmm.latency.pageWalk", c.pageWalkNanos);
+            c.cacheNanos = Long.getLong("vmm.latency.cache", c.cacheNanos);
+            c.ramNanos = Long.getLong("vmm.latency.ram", c.ramNanos);
+            c.poolNanos = Long.getLong("vmm.latency.pool", c.poolNanos);
+            c.swapReadNanos = Long.getLong("vmm.latency.swapRead", c.swapReadNanos);
+            c.swapWriteNanos = Long.getLong("vmm.latency.swapWrite", c.swapWriteNanos);
+            c.computeNanos = Long.getLong("vmm.latency.compute", c.computeNanos);
+            return c;
+        }
+    }
+
+    /** Where an access was served. */
+    enum Tier { CACHE, RAM, POOL, SWAP }
+
+    /** What happened to the page evicted to make room for a fault. */
+    enum Victim { NONE, TO_POOL, TO_SWAP, DISCARDED }
+
+    private final Config config;
+    private final PriorityQueue<long[]> completions = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0])); // {time, isWrite}
+    private long now = 0;            // Model clock (ns)
+    private long deviceFreeAt = 0;   // When the swap device finishes its queued requests
+    private int writesInFlight = 0;
+    private int maxWritesInFlight = 0;
+    private long queueWaitNanos = 0; // Time page-ins spent waiting for the device
+    private long lastLatency = 0;
+
+    public LatencyModel(Config config) {
+        this.config = config;
+    }
+
+    public Config getConfig() { return config; }
+    public synchronized long getNow() { return now; }
+    public synchronized long getQueueWaitNanos() { return queueWaitNanos; }
+    public synchronized int getWritesInFlight() { return writesInFlight; }
+    public synchronized int getMaxWritesInFlight() { return maxWritesInFlight; }
+    public synchronized long getLastLatency() { return lastLatency; }
+
+    /** Access served by the cache or RAM (TLB hit). @return its latency in ns */
+    public synchronized long hit(Tier tier) {
+        long start = beginAccess();
+        long t = start + config.tlbNanos + (tier == Tier.CACHE ? config.cacheNanos : config.ramNanos);
+        return endAccess(start, t);
+    }
+
+    /**
+     * Page fault served from the compressed pool or swap.
+     * @param victim what happened to the page evicted for it
+     * @param dirtyVictim whether the victim needed a write-back
+     * @return the fault's latency in ns
+     */
+    public synchronized long fault(Tier source, Victim victim, boolean dirtyVictim) {
+        long start = beginAccess();
+        long t = start + config.tlbNanos + config.pageWalkNanos; // Miss, then the page walk finds it not present
+
+        // Make room: the victim is compressed synchronously, or its write-back is queued on the device
+        if (victim == Victim.TO_POOL) t += config.poolNanos;
+        else if (victim == Victim.TO_SWAP && dirtyVictim) submit(t, true);
+
+        if (source == Tier.POOL) {
+            t += config.poolNanos;
+        } else {
+            long done = submit(t, false);
+            queueWaitNanos += Math.max(0, done - config.swapReadNanos - t);
+            t = done;
+        }
+        t += config.ramNanos; // The faulting access itself
+        return endAccess(start, t);
+    }
+
+    /** Effective access time so far: mean latency over all accesses, in ns. */
+    public static double effectiveAccessTime(Stats stats) {
+        synchronized (stats) { // Both counters from the same access
+            return stats.modelAccesses > 0 ? (double) stats.modelNanos / stats.modelAccesses : 0;
+        }
+    }
+
+    // --- Scheduler ---
+
+    private long beginAccess() {
+        now += config.computeNanos;
+        retire(now);
+        return now;
+    }
+
+    private long endAccess(long start, long end) {
+        now = end;
+        retire(now);
+        lastLatency = end - start;
+        return lastLatency;
+    }
+
+    // Queues a request on the swap device. @return its completion time
+    private long submit(long at, boolean write) {
+        long begin = Math.max(at, deviceFreeAt);
+        long done = begin + (write ? config.swapWriteNanos : config.swapReadNanos);
+        deviceFreeAt = done;
+        if (write) {
+            writesInFlight++;
+            maxWritesInFlight = Math.max(maxWritesInFlight, writesInFlight);
+        }
+        completions.add(new long[]{done, write ? 1 : 0});
+        return done;
+    }
+
+    // Processes every device completion up to time t
+    private void retire(long t) {
+        while (!completions.isEmpty() && completions.peek()[0] <= t) {
+            if (completions.poll()[1] == 1) writesInFlight--;
+        }
+    }
+}
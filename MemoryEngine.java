@@ -0,0 +1,567 @@
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Headless, thread-safe counterpart of the GUI's memory hierarchy (Cache -> RAM -> Swap),
+ * used when many threads issue accesses at once. Pages are non-negative ints; the replacement
+ * algorithms are the same {@link ReplacementPolicy} providers offered in the GUI, one
+ * instance per stripe.
+ *
+ * <p>There is no global lock. Page state lives in a {@link PageTable} and changes by CAS;
+ * RAM frames, their replacement order and the cache are split into lock stripes by page
+ * hash, each evicting within itself (like per-node LRU lists). Simulated swap I/O
+ * (page-in and dirty write-back) happens outside every lock, with the page parked in a
+ * FAULTING or WRITEBACK state so that concurrent accesses to it wait for the one in-flight
+ * transfer instead of repeating it.
+ *
+ * <p>RAM can be split into NUMA nodes ({@link Topology}), each with its own stripes and
+ * therefore its own frame pool and eviction state. Callers say which node they run on; a
+ * RAM hit on a page held by another node is a remote hit and pays the extra remote
+ * latency, as does a cache hit on it (the cache is split with the node's frames). New pages are placed first-touch (on the faulting thread's node) or interleaved
+ * across nodes, and a page that keeps being hit remotely migrates to the node using it.
+ */
+class MemoryEngine {
+
+    enum Outcome { CACHE_HIT, RAM_HIT, REMOTE_HIT, PAGE_FAULT, FIRST_TOUCH }
+
+    enum Placement { FIRST_TOUCH, INTERLEAVE }
+
+    static final int DEFAULT_STRIPES = 64;
+
+    /** NUMA layout of the RAM frames. The default single node is a flat RAM pool. */
+    static class Topology {
+        int nodes = 1;
+        Placement placement = Placement.FIRST_TOUCH;
+        long remoteNanos = 0;     // Extra cost of a RAM hit served by another node's memory
+        int migrateThreshold = 0; // Remote hits after which a page moves to the accessing node (0 = never)
+    }
+
+    /**
+     * Told when an accessing thread blocks: on simulated swap I/O, or on another thread's
+     * in-flight transfer of the same page. Called on that thread, outside every lock.
+     */
+    interface BlockingListener {
+        void blocked();
+        void unblocked();
+    }
+
+    /** One lock stripe: a share of a node's RAM frames and cache entries plus their replacement order. */
+    private final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final int node;
+        final int frames;
+        final int cacheEntries;
+        final HashMap<Integer, int[]> ram = new HashMap<>(); // Page -> {remote hits}
+        final LinkedHashMap<Integer, Boolean> cache = new LinkedHashMap<>(16, 0.75f, true); // LRU order
+        final ReplacementPolicy policy;
+
+        Stripe(int node, int frames, int cacheEntries, SplittableRandom random) {
+            this.node = node;
+            this.frames = frames;
+            this.cacheEntries = cacheEntries;
+            this.policy = policyProvider.create(random);
+        }
+
+        void lock() {
+            if (lock.tryLock()) return;
+            contendedAcquires.increment();
+            long start = System.nanoTime();
+            lock.lock();
+            lockWaitNanos.add(System.nanoTime() - start);
+        }
+
+        /**
+         * Hit path for a thread running on {@code cpuNode}.
+         * @return the hit tier, or null if the page was evicted or migrated before we got the lock.
+         */
+        Outcome touch(PageTable.Entry e, int cpuNode) {
+            boolean migrate = false;
+            boolean dirty = false;
+            boolean cached;
+            lock();
+            try {
+                if (!e.isResident() || e.node != node) return null;
+                cached = cache.get(e.page) != null; // get() refreshes LRU order
+                if (cached) {
+                    cacheHits.increment();
+                    if (cpuNode == node) return Outcome.CACHE_HIT;
+                    remoteCacheHits.increment(); // The cache sits with the page's node, so this is remote too
+                } else {
+                    policy.onAccess(e.page);
+                    ramHits.increment();
+                    addToCache(e.page);
+                    if (cpuNode == node) {
+                        localHits.increment();
+                        return Outcome.RAM_HIT;
+                    }
+                    remoteHits.increment();
+                }
+                int[] remote = ram.get(e.page);
+                if (migrateThreshold > 0 && ++remote[0] >= migrateThreshold) {
+                    int state = e.state.get();
+                    migrate = (state == PageTable.RESIDENT || state == PageTable.DIRTY) && e.begin(state, PageTable.MIGRATING);
+                    if (migrate) {
+                        dirty = state == PageTable.DIRTY;
+                        remove(e.page);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            spin(remoteNanos); // The remote load itself
+            if (migrate) migrate(e, dirty, cpuNode);
+            return cached ? Outcome.CACHE_HIT : Outcome.REMOTE_HIT;
+        }
+
+        /**
+         * Installs a faulted or migrating page, evicting first if the stripe is full. Ends the
+         * page's FAULTING/MIGRATING state.
+         * @return a dirty victim whose write-back the caller must perform, or null.
+         */
+        PageTable.Entry install(PageTable.Entry e, boolean dirty) {
+            return install(e, dirty, true);
+        }
+
+        /** @param cached whether the page also enters the cache, as it does when an access brings it in */
+        PageTable.Entry install(PageTable.Entry e, boolean dirty, boolean cached) {
+            lock();
+            try {
+                PageTable.Entry dirtyVictim = (ram.size() >= frames) ? evictOne() : null;
+                ram.put(e.page, new int[1]);
+                policy.onInsert(e.page);
+                if (cached) addToCache(e.page);
+                e.node = node;
+                e.finish(dirty ? PageTable.DIRTY : PageTable.RESIDENT);
+                return dirtyVictim;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Unlinks a victim and moves it out of RAM. Clean victims go straight to a swap slot;
+         * dirty ones are CAS'd to WRITEBACK and returned so the write happens outside the lock.
+         */
+        PageTable.Entry evictOne() {
+            int page = policy.selectVictim();
+            if (page < 0) return null;
+            remove(page); // Cache only holds RAM-resident pages
+            evictions.increment();
+
+            PageTable.Entry victim = pageTable.get(page);
+            while (true) { // Writers flip RESIDENT -> DIRTY without this lock, so decide by CAS
+                int state = victim.state.get();
+                if (state == PageTable.RESIDENT) {
+                    int slot = allocateSwapSlot();
+                    victim.swapSlot = slot;
+                    if (victim.state.compareAndSet(PageTable.RESIDENT, slot >= 0 ? PageTable.SWAPPED : PageTable.FREE)) {
+                        if (slot < 0) discards.increment(); // Swap full
+                        return null;
+                    }
+                    freeSwapSlot(slot);
+                    victim.swapSlot = -1;
+                } else if (state == PageTable.DIRTY && victim.begin(PageTable.DIRTY, PageTable.WRITEBACK)) {
+                    return victim;
+                }
+            }
+        }
+
+        void remove(int page) {
+            ram.remove(page);
+            cache.remove(page);
+            policy.onRemove(page);
+        }
+
+        private void addToCache(int page) {
+            if (cacheEntries == 0) return;
+            if (cache.size() >= cacheEntries) {
+                Iterator<Integer> lru = cache.keySet().iterator();
+                lru.next();
+                lru.remove();
+            }
+            cache.put(page, Boolean.TRUE);
+        }
+    }
+
+    private final String algorithm;
+    private final ReplacementPolicy.Provider policyProvider;
+    private final PageTable pageTable = new PageTable();
+    private final Stripe[][] stripes; // [node][stripe]
+    private final Placement placement;
+    private final long remoteNanos;
+    private final int migrateThreshold;
+    private final SwapSlotAllocator swapSlots;
+    private final ReentrantLock swapLock = new ReentrantLock(); // Held only to pick or free a slot
+    private final long pageInNanos;    // Simulated swap read per page-in
+    private final long writeBackNanos; // Simulated swap write per dirty eviction
+    private volatile BlockingListener blockingListener; // null: nobody is told
+
+    // --- Counters (readable while workers run) ---
+    private final LongAdder accesses = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder ramHits = new LongAdder();
+    private final LongAdder localHits = new LongAdder();  // RAM hits on the accessing thread's node
+    private final LongAdder remoteHits = new LongAdder(); // RAM hits on another node
+    private final LongAdder remoteCacheHits = new LongAdder(); // Cache hits on another node (also in cacheHits)
+    private final LongAdder migrations = new LongAdder();
+    private final LongAdder pageFaults = new LongAdder();
+    private final LongAdder firstTouches = new LongAdder();
+    private final LongAdder sharedFaults = new LongAdder(); // Accesses that waited on another thread's fault
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder writeBacks = new LongAdder();
+    private final LongAdder discards = new LongAdder();
+    private final LongAdder contendedAcquires = new LongAdder();
+    private final LongAdder lockWaitNanos = new LongAdder();
+
+    public MemoryEngine(int ramFrames, int swapSlots, int cacheEntries, String algorithm) {
+        this(ramFrames, swapSlots, cacheEntries, algorithm, DEFAULT_STRIPES, 0, 0);
+    }
+
+    public MemoryEngine(int ramFrames, int swapSlots, int cacheEntries, String algorithm,
+                        int stripeCount, long pageInNanos, long writeBackNanos) {
+        this(ramFrames, swapSlots, cacheEntries, algorithm, stripeCount, pageInNanos, writeBackNanos, new Topology());
+    }
+
+    public MemoryEngine(int ramFrames, int swapSlots, int cacheEntries, String algorithm,
+                        int stripeCount, long pageInNanos, long writeBackNanos, Topology topology) {
+        this(ramFrames, swapSlots, cacheEntries, algorithm, stripeCount, pageInNanos, writeBackNanos, topology, 0);
+    }
+
+    /** @param seed seeds the stripes' random victim choice (each stripe gets its own split stream) */
+    public MemoryEngine(int ramFrames, int swapSlots, int cacheEntries, String algorithm,
+                        int stripeCount, long pageInNanos, long writeBackNanos, Topology topology, long seed) {
+        ramFrames = Math.max(1, ramFrames);
+        cacheEntries = Math.max(0, cacheEntries);
+        this.algorithm = algorithm.toLowerCase();
+        this.policyProvider = ReplacementPolicies.get(algorithm); // IllegalArgumentException if unknown
+        this.swapSlots = new SwapSlotAllocator(swapSlots);
+        this.pageInNanos = pageInNanos;
+        this.writeBackNanos = writeBackNanos;
+        this.placement = topology.placement;
+        this.remoteNanos = topology.remoteNanos;
+        this.migrateThreshold = topology.migrateThreshold;
+
+        int nodes = Math.max(1, Math.min(topology.nodes, ramFrames)); // Every node needs at least one frame
+        SplittableRandom random = new SplittableRandom(seed);
+        stripes = new Stripe[nodes][];
+        for (int node = 0; node < nodes; node++) {
+            int nodeFrames = split(ramFrames, nodes, node);
+            int nodeCache = split(cacheEntries, nodes, node);
+            int n = Math.max(1, Math.min(stripeCount / nodes, nodeFrames)); // ... and every stripe too
+            stripes[node] = new Stripe[n];
+            for (int i = 0; i < n; i++) {
+                stripes[node][i] = new Stripe(node, split(nodeFrames, n, i), split(nodeCache, n, i), random.split());
+            }
+        }
+    }
+
+    /** Sets who is told when an accessing thread blocks (the benchmark frees the thread's core for the wait). */
+    void setBlockingListener(BlockingListener listener) {
+        this.blockingListener = listener;
+    }
+
+    public String getAlgorithm() { return algorithm; }
+    public int getNodeCount() { return stripes.length; }
+
+    public int getStripeCount() {
+        int n = 0;
+        for (Stripe[] nodeStripes : stripes) n += nodeStripes.length;
+        return n;
+    }
+    public Placement getPlacement() { return placement; }
+
+    /** Accesses a page from node 0. */
+    public Outcome access(int page, boolean write) {
+        return access(page, write, 0);
+    }
+
+    /**
+     * Accesses a page (reading, or writing if {@code write}) from a thread running on
+     * {@code cpuNode}, faulting it in when needed.
+     */
+    public Outcome access(int page, boolean write, int cpuNode) {
+        accesses.increment();
+        cpuNode = Math.floorMod(cpuNode, stripes.length);
+        PageTable.Entry e = pageTable.entry(page);
+        while (true) {
+            int state = e.state.get();
+            if (state == PageTable.RESIDENT || state == PageTable.DIRTY) {
+                if (write && state == PageTable.RESIDENT && !e.state.compareAndSet(PageTable.RESIDENT, PageTable.DIRTY)) {
+                    continue; // Lost a race with an eviction or another writer
+                }
+                Outcome hit = stripeOf(e.node, page).touch(e, cpuNode);
+                if (hit != null) return hit;
+            } else if (PageTable.isTransitional(state)) {
+                if (awaitTransition(e) && state == PageTable.FAULTING) sharedFaults.increment();
+            } else if (e.begin(state, PageTable.FAULTING)) { // FREE or SWAPPED: this thread owns the fault
+                return faultIn(e, state == PageTable.SWAPPED, write, cpuNode);
+            }
+        }
+    }
+
+    /**
+     * Places a page that was never touched directly in {@code state} (SWAPPED, RESIDENT or
+     * DIRTY) without accessing it: no access is counted, a swapped page takes a swap slot
+     * without being read, and a resident one joins its node's replacement order but not the
+     * cache. For carrying pages over into a new engine. Installing may still evict, as a
+     * fault would; a swapped page is dropped if swap is full.
+     * @throws IllegalArgumentException if {@code state} is not one of the three
+     * @throws IllegalStateException if the page is already in use
+     */
+    public void preload(int page, int state) {
+        if (state != PageTable.SWAPPED && state != PageTable.RESIDENT && state != PageTable.DIRTY) {
+            throw new IllegalArgumentException("Cannot preload a page in state " + state);
+        }
+        PageTable.Entry e = pageTable.entry(page);
+        if (state == PageTable.SWAPPED) {
+            int slot = allocateSwapSlot();
+            if (slot < 0) {
+                discards.increment(); // Swap full
+                return;
+            }
+            e.swapSlot = slot;
+            if (e.state.compareAndSet(PageTable.FREE, PageTable.SWAPPED)) return;
+            e.swapSlot = -1;
+            freeSwapSlot(slot);
+        } else if (e.begin(PageTable.FREE, PageTable.FAULTING)) {
+            int node = (placement == Placement.INTERLEAVE) ? Math.floorMod(page, stripes.length) : 0;
+            PageTable.Entry dirtyVictim = stripeOf(node, page).install(e, state == PageTable.DIRTY, false);
+            if (dirtyVictim != null) writeBack(dirtyVictim);
+            return;
+        }
+        throw new IllegalStateException("Page " + page + " is already in use");
+    }
+
+    /** Removes a page from every tier (process exit). */
+    public void release(int page) {
+        PageTable.Entry e = pageTable.get(page);
+        if (e == null) return;
+        while (true) {
+            int state = e.state.get();
+            if (PageTable.isTransitional(state)) {
+                e.awaitTransition();
+            } else if (state == PageTable.RESIDENT || state == PageTable.DIRTY) {
+                Stripe stripe = stripeOf(e.node, page);
+                stripe.lock();
+                try {
+                    if (e.node == stripe.node && e.state.compareAndSet(state, PageTable.FREE)) {
+                        stripe.remove(page);
+                        return;
+                    }
+                } finally {
+                    stripe.lock.unlock();
+                }
+            } else if (state == PageTable.SWAPPED) {
+                int slot = e.swapSlot;
+                if (e.state.compareAndSet(PageTable.SWAPPED, PageTable.FREE)) {
+                    e.swapSlot = -1;
+                    freeSwapSlot(slot);
+                    return;
+                }
+            } else {
+                return; // Already FREE
+            }
+        }
+    }
+
+    /** Empties every cache (the GUI's Clear Cache); the pages stay in RAM. */
+    public void clearCache() {
+        for (Stripe[] nodeStripes : stripes) {
+            for (Stripe stripe : nodeStripes) {
+                stripe.lock();
+                try {
+                    stripe.cache.clear();
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /** {@link PageTable} state of a page, FREE if it was never touched. A snapshot while other threads run. */
+    public int stateOf(int page) {
+        PageTable.Entry e = pageTable.get(page);
+        return e != null ? e.state.get() : PageTable.FREE;
+    }
+
+    /** Counters as a {@link Stats} snapshot. */
+    public Stats snapshot() {
+        Stats s = new Stats();
+        s.totalAccesses = accesses.sum();
+        s.cacheHits = cacheHits.sum();
+        s.cacheAccesses = s.cacheHits;
+        s.ramHits = ramHits.sum();
+        s.ramAccesses = s.ramHits;
+        s.pageFaults = pageFaults.sum();
+        s.swapAccesses = s.pageFaults;
+        s.tlbHits = s.cacheHits + s.ramHits;
+        s.tlbMisses = s.pageFaults + firstTouches.sum();
+        s.writeBacks = writeBacks.sum();
+        return s;
+    }
+
+    public int getRamFrames() {
+        int n = 0;
+        for (Stripe[] nodeStripes : stripes) for (Stripe stripe : nodeStripes) n += stripe.frames;
+        return n;
+    }
+
+    public int getCacheEntries() {
+        int n = 0;
+        for (Stripe[] nodeStripes : stripes) for (Stripe stripe : nodeStripes) n += stripe.cacheEntries;
+        return n;
+    }
+
+    /** RAM frames in use, counted stripe by stripe: a snapshot while other threads run. */
+    public int getRamUsed() {
+        int n = 0;
+        for (Stripe[] nodeStripes : stripes) {
+            for (Stripe stripe : nodeStripes) {
+                stripe.lock.lock(); // Not lock(): monitoring must not count as contention
+                try {
+                    n += stripe.ram.size();
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+        }
+        return n;
+    }
+
+    /** Cache entries in use, like {@link #getRamUsed}. */
+    public int getCacheUsed() {
+        int n = 0;
+        for (Stripe[] nodeStripes : stripes) {
+            for (Stripe stripe : nodeStripes) {
+                stripe.lock.lock();
+                try {
+                    n += stripe.cache.size();
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+        }
+        return n;
+    }
+
+    public int getSwapSlots() { return swapSlots.getCapacity(); }
+
+    public int getSwapUsed() {
+        swapLock.lock();
+        try {
+            return swapSlots.getUsedSlots();
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    public long getLocalHits() { return localHits.sum(); }
+    public long getRemoteHits() { return remoteHits.sum(); }
+    public long getRemoteCacheHits() { return remoteCacheHits.sum(); }
+    public long getMigrations() { return migrations.sum(); }
+    public long getFirstTouches() { return firstTouches.sum(); }
+    public long getSharedFaults() { return sharedFaults.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+    public long getDiscards() { return discards.sum(); }
+    public long getContendedAcquires() { return contendedAcquires.sum(); }
+    public long getLockWaitNanos() { return lockWaitNanos.sum(); }
+
+    // --- Internals ---
+
+    // Caller owns the page's FAULTING state
+    private Outcome faultIn(PageTable.Entry e, boolean fromSwap, boolean write, int cpuNode) {
+        Outcome outcome;
+        if (fromSwap) {
+            pageFaults.increment();
+            simulateIo(pageInNanos); // Read outside every lock
+            freeSwapSlot(e.swapSlot);
+            e.swapSlot = -1;
+            outcome = Outcome.PAGE_FAULT;
+        } else {
+            firstTouches.increment();
+            outcome = Outcome.FIRST_TOUCH;
+        }
+        int node = (placement == Placement.INTERLEAVE) ? Math.floorMod(e.page, stripes.length) : cpuNode;
+        PageTable.Entry dirtyVictim = stripeOf(node, e.page).install(e, write);
+        if (dirtyVictim != null) writeBack(dirtyVictim);
+        return outcome;
+    }
+
+    // Caller owns the page's MIGRATING state and has already unlinked it from its old node
+    private void migrate(PageTable.Entry e, boolean dirty, int toNode) {
+        migrations.increment();
+        PageTable.Entry dirtyVictim = stripeOf(toNode, e.page).install(e, dirty); // May evict on the new node
+        if (dirtyVictim != null) writeBack(dirtyVictim);
+    }
+
+    // Caller owns the victim's WRITEBACK state
+    private void writeBack(PageTable.Entry victim) {
+        writeBacks.increment();
+        int slot = allocateSwapSlot();
+        if (slot >= 0) simulateIo(writeBackNanos); // Write outside every lock
+        victim.swapSlot = slot;
+        if (slot < 0) discards.increment(); // Swap full
+        victim.finish(slot >= 0 ? PageTable.SWAPPED : PageTable.FREE);
+    }
+
+    private Stripe stripeOf(int node, int page) {
+        Stripe[] nodeStripes = stripes[node];
+        int h = page * 0x9E3779B9; // Fibonacci hashing spreads neighbouring pages across stripes
+        return nodeStripes[Math.floorMod(h ^ (h >>> 16), nodeStripes.length)];
+    }
+
+    private static int split(int total, int parts, int index) {
+        return total / parts + (index < total % parts ? 1 : 0);
+    }
+
+    private int allocateSwapSlot() {
+        swapLock.lock();
+        try {
+            return swapSlots.allocate();
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    private void freeSwapSlot(int slot) {
+        if (slot < 0) return;
+        swapLock.lock();
+        try {
+            swapSlots.free(slot);
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    private void simulateIo(long nanos) {
+        if (nanos <= 0) return;
+        BlockingListener listener = blockingListener;
+        if (listener != null) listener.blocked();
+        try {
+            LockSupport.parkNanos(nanos); // Unmounts a virtual thread, like real blocking I/O
+        } finally {
+            if (listener != null) listener.unblocked();
+        }
+    }
+
+    private boolean awaitTransition(PageTable.Entry e) {
+        BlockingListener listener = blockingListener;
+        if (listener != null) listener.blocked();
+        try {
+            return e.awaitTransition();
+        } finally {
+            if (listener != null) listener.unblocked();
+        }
+    }
+
+    private static void spin(long nanos) {
+        if (nanos <= 0) return;
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) Thread.onSpinWait(); // A memory stall: the core stays busy
+    }
+}
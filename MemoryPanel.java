@@ -5,9 +5,20 @@ import javax.swing.border.MatteBorder;
 import java.awt.*;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 
 class MemoryPanel extends JPanel {
+
+    /** How frames are drawn: one component per process, or a painted cell grid. */
+    enum ViewMode { AUTO, BLOCKS, HEATMAP }
+
+    static final int HEATMAP_THRESHOLD = 256; // AUTO switches to the heatmap above this many frames
+
     private final JLabel titleLabel;
     private final JLabel usageLabel;
     private final JProgressBar progressBar;
@@ -16,6 +27,11 @@ class MemoryPanel extends JPanel {
     private final VirtualMemoryManagerGUI controller; // Need controller ref for block creation
     private int maxSize;
     private final ProcessBlock.ColorType colorType;
+    private final Map<String, ProcessBlock> blocks = new HashMap<>(); // Blocks currently shown, by process
+    private final HeatmapView heatmap;
+    private final JScrollPane scrollPane;
+    private ViewMode viewMode = ViewMode.AUTO;
+    private boolean heatmapShown = false;
 
     public MemoryPanel(String title, int initialMaxSize, ProcessBlock.ColorType type, VirtualMemoryManagerGUI guiController) {
         this.titleBase = title;
@@ -67,8 +83,11 @@ class MemoryPanel extends JPanel {
         blockContainer.setOpaque(false);
         blockContainer.setBorder(new EmptyBorder(10, 0, 0, 0)); // Padding above blocks
 
+        // Painted alternative to the blocks for large areas (see ViewMode)
+        heatmap = new HeatmapView(type, guiController);
+
         // Use a JScrollPane to handle overflow if many blocks
-        JScrollPane scrollPane = new JScrollPane(blockContainer);
+        scrollPane = new JScrollPane(blockContainer);
         scrollPane.setOpaque(false);
         scrollPane.getViewport().setOpaque(false);
         scrollPane.setBorder(null);
@@ -87,6 +106,7 @@ class MemoryPanel extends JPanel {
         add(centerContent, BorderLayout.CENTER);
 
         updateUsage(0); // Initial update
+        applyViewMode();
     }
 
     // Removed findController() as controller is passed in constructor now
@@ -97,37 +117,131 @@ class MemoryPanel extends JPanel {
 
     public void setMaxSize(int newSize) {
         this.maxSize = Math.max(0, newSize); // Ensure non-negative
-        updateUsage(blockContainer.getComponentCount()); // Update label/progress
+        updateUsage(blocks.size()); // Update label/progress
+        applyViewMode();
+    }
+
+    public void setViewMode(ViewMode mode) {
+        this.viewMode = mode;
+        applyViewMode();
+    }
+
+    public boolean isHeatmapShown() {
+        return heatmapShown;
     }
 
+    /** In heatmap view, brings the hot and recently-faulted marks up to date. */
+    public void refreshHeatmapFlags() {
+        if (heatmapShown) heatmap.refreshFlags();
+    }
+
+    /**
+     * In heatmap view, applies one process entering ({@code present}) or leaving this area
+     * without touching the other cells.
+     * @return false in block view, where the contents go through {@link #updateBlocks}
+     */
+    public boolean updateCell(String processId, boolean present) {
+        if (!heatmapShown) return false;
+        if (present) heatmap.add(processId);
+        else heatmap.remove(processId);
+        return true;
+    }
+
+    /** In heatmap view, marks one cell dirty or clean. @return false in block view */
+    public boolean setCellDirty(String processId, boolean dirty) {
+        if (!heatmapShown) return false;
+        heatmap.setDirty(processId, dirty);
+        return true;
+    }
+
+    // Swaps the scroll pane's view; the caller must push the contents again with updateBlocks
+    private void applyViewMode() {
+        boolean wantHeatmap = viewMode == ViewMode.HEATMAP || (viewMode == ViewMode.AUTO && maxSize > HEATMAP_THRESHOLD);
+        if (wantHeatmap == heatmapShown) return;
+        heatmapShown = wantHeatmap;
+        if (wantHeatmap) {
+            blockContainer.removeAll(); // Release the components
+            blocks.clear();
+            scrollPane.setViewportView(heatmap);
+        } else {
+            heatmap.setCells(Collections.emptyList(), Collections.emptySet(), 0);
+            scrollPane.setViewportView(blockContainer);
+        }
+        scrollPane.getViewport().setOpaque(false);
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Brings the blocks in line with {@code processIds} by diffing against what is shown:
+     * blocks that are still present are kept (with their listeners and tooltips) and only
+     * restyled, missing ones are added, stale ones removed, and blocks are moved only when
+     * their position changed. Each block is followed by its spacer in the container.
+     * In heatmap view the list is handed to the {@link HeatmapView} instead.
+     */
     public void updateBlocks(List<String> processIds, Set<String> dirtySet) {
-        blockContainer.removeAll(); // Clear existing blocks
+        if (heatmapShown) {
+            heatmap.setCells(processIds, dirtySet, maxSize);
+            updateUsage(processIds.size());
+            return;
+        }
+        Set<String> wanted = new HashSet<>(processIds);
+        boolean structureChanged = false;
+
+        // 1. Drop blocks whose process is gone
+        for (Iterator<Map.Entry<String, ProcessBlock>> it = blocks.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, ProcessBlock> entry = it.next();
+            if (!wanted.contains(entry.getKey())) {
+                removeBlock(entry.getValue());
+                it.remove();
+                structureChanged = true;
+            }
+        }
 
+        // 2. Walk the new order: restyle kept blocks, add new ones, move misplaced ones
+        int position = 0;
         for (String pid : processIds) {
-            if (pid != null) {
-                 boolean isDirty = (colorType == ProcessBlock.ColorType.RAM) && dirtySet.contains(pid);
-                 // Pass the controller instance when creating ProcessBlock
-                 ProcessBlock block = new ProcessBlock(pid, colorType, isDirty, controller);
-                 blockContainer.add(block);
-                 blockContainer.add(Box.createRigidArea(new Dimension(0, 5))); // Add spacing between blocks
+            if (pid == null) continue;
+            boolean isDirty = (colorType == ProcessBlock.ColorType.RAM) && dirtySet.contains(pid);
+            int index = position * 2;
+            ProcessBlock block = blocks.get(pid);
+            if (block == null) {
+                // Pass the controller instance when creating ProcessBlock
+                block = new ProcessBlock(pid, colorType, isDirty, controller);
+                blocks.put(pid, block);
+                blockContainer.add(block, index);
+                blockContainer.add(Box.createRigidArea(new Dimension(0, 5)), index + 1); // Spacing between blocks
+                structureChanged = true;
+            } else {
+                block.setDirty(isDirty);
+                if (!block.isVisible()) { // Hidden by a finished fade/move animation
+                    block.setAlpha(1.0f);
+                    block.setVisible(true);
+                }
+                if (blockContainer.getComponent(index) != block) {
+                    Component spacer = removeBlock(block);
+                    blockContainer.add(block, index);
+                    blockContainer.add(spacer, index + 1);
+                    structureChanged = true;
+                }
             }
+            position++;
         }
-        // Fill remaining space with placeholders (optional, helps maintain size)
-        /*
-        int currentCount = processIds.size();
-        for (int i = currentCount; i < maxSize; i++) {
-            JPanel placeholder = new JPanel();
-            placeholder.setPreferredSize(new Dimension(100, 42)); // Same size as block
-            placeholder.setOpaque(false);
-             placeholder.setBorder(new LineBorder(Color.DARK_GRAY)); // Visual indication
-            blockContainer.add(placeholder);
-            blockContainer.add(Box.createRigidArea(new Dimension(0, 5)));
+
+        if (structureChanged) {
+            blockContainer.revalidate();
+            blockContainer.repaint();
         }
-        */
+        updateUsage(position);
+    }
 
-        blockContainer.revalidate();
-        blockContainer.repaint();
-        updateUsage(processIds.size());
+    // Removes a block and the spacer after it. @return the spacer
+    private Component removeBlock(ProcessBlock block) {
+        int index = blockContainer.getComponentZOrder(block);
+        Component spacer = blockContainer.getComponent(index + 1);
+        blockContainer.remove(index + 1);
+        blockContainer.remove(index);
+        return spacer;
     }
 
     public void updateUsage(int currentCount) {
@@ -136,16 +250,15 @@ class MemoryPanel extends JPanel {
         progressBar.setValue(percentage);
     }
 
+    // For panels whose capacity is not a frame count (e.g. the compressed pool's byte arena)
+    public void updateUsage(String text, int percentage) {
+        usageLabel.setText(text);
+        progressBar.setValue(Math.max(0, Math.min(100, percentage)));
+    }
+
+    /** @return the block for a process, or null if not shown (always null in heatmap view). */
     public ProcessBlock findBlock(String processId) {
-        for (Component comp : blockContainer.getComponents()) {
-            if (comp instanceof ProcessBlock) {
-                ProcessBlock block = (ProcessBlock) comp;
-                if (block.getProcessId().equals(processId)) {
-                    return block;
-                }
-            }
-        }
-        return null;
+        return blocks.get(processId);
     }
 
     private Color getProgressColor() {
@@ -153,6 +266,7 @@ class MemoryPanel extends JPanel {
             case RAM:   return VirtualMemoryManagerGUI.PRIMARY_COLOR; // Use main GUI colors
             case SWAP:  return VirtualMemoryManagerGUI.SECONDARY_COLOR; // Use main GUI colors
             case CACHE: return VirtualMemoryManagerGUI.SUCCESS_COLOR; // Use main GUI colors
+            case ZSWAP: return VirtualMemoryManagerGUI.WARNING_COLOR; // Use main GUI colors
             default:    return VirtualMemoryManagerGUI.PRIMARY_COLOR;
         }
     }
@@ -0,0 +1,89 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent page table for {@link MemoryEngine}. Each page has an {@link Entry} whose state
+ * lives in an atomic field and only changes by CAS:
+ *
+ * <pre>
+ *   FREE ---------> FAULTING ---> RESIDENT <---> DIRTY
+ *   SWAPPED ------/                  |  ^          |
+ *      ^                             |  +- MIGRATING (to another NUMA node, either state)
+ *      |                             v             v
+ *      +--------------------------- (evict) --- WRITEBACK
+ * </pre>
+ *
+ * Whoever wins the CAS into FAULTING, MIGRATING or WRITEBACK owns the transition and publishes an
+ * in-flight future; every other thread that meets the page in that state waits on the
+ * future instead of loading or writing the page a second time.
+ */
+class PageTable {
+
+    static final int FREE = 0;      // Not in memory (never loaded, discarded or released)
+    static final int SWAPPED = 1;   // In a swap slot
+    static final int FAULTING = 2;  // Being loaded into a frame
+    static final int RESIDENT = 3;  // In RAM, clean
+    static final int DIRTY = 4;     // In RAM, modified
+    static final int WRITEBACK = 5; // Evicted while dirty, being written to swap
+    static final int MIGRATING = 6; // Being moved to another NUMA node's frames
+
+    static final class Entry {
+        final int page;
+        final AtomicInteger state = new AtomicInteger(FREE);
+        volatile int swapSlot = -1;
+        volatile int node = -1; // NUMA node whose frame holds the page (valid while resident)
+        volatile CompletableFuture<Void> inFlight; // Set by the owner of FAULTING/WRITEBACK
+
+        Entry(int page) { this.page = page; }
+
+        boolean isResident() {
+            int s = state.get();
+            return s == RESIDENT || s == DIRTY;
+        }
+
+        /** Claims an in-memory transition; on success the caller must later call {@link #finish}. */
+        boolean begin(int expected, int transitional) {
+            if (!state.compareAndSet(expected, transitional)) return false;
+            inFlight = new CompletableFuture<>();
+            return true;
+        }
+
+        /** Ends a transition started by {@link #begin} and wakes every waiter. */
+        void finish(int newState) {
+            CompletableFuture<Void> f = inFlight;
+            inFlight = null; // Cleared first so it can never wipe out the next transition's future
+            state.set(newState);
+            if (f != null) f.complete(null);
+        }
+
+        /** Waits for the in-flight transition (if any) to finish. @return true if it actually waited. */
+        boolean awaitTransition() {
+            CompletableFuture<Void> f = inFlight;
+            if (f == null) {
+                Thread.onSpinWait(); // Owner has won the CAS but not yet published its future
+                return false;
+            }
+            f.join();
+            return true;
+        }
+    }
+
+    private final ConcurrentHashMap<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    Entry entry(int page) {
+        return entries.computeIfAbsent(page, Entry::new);
+    }
+
+    Entry get(int page) {
+        return entries.get(page);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    static boolean isTransitional(int state) {
+        return state == FAULTING || state == WRITEBACK || state == MIGRATING;
+    }
+}
@@ -0,0 +1,123 @@
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+import java.util.random.RandomGenerator;
+
+/**
+ * Priority-aware replacement: one {@link ReplacementPolicy} of the selected algorithm per
+ * priority class, so the victim is the one its algorithm picks in the lowest class that
+ * holds pages. Three classes to look at, so choosing stays as cheap as the algorithm itself.
+ *
+ * <p>Aging keeps the lower classes from thrashing while idle high-priority pages sit in RAM:
+ * each class counts the evictions it was spared while holding pages, and once that count
+ * reaches the aging limit its own victim goes next. At most one eviction in limit + 1 then
+ * reaches above the lowest class. Not thread-safe, like the policies it wraps.
+ */
+class PriorityReplacement implements ReplacementPolicy {
+
+    static final int LOW = 0, MEDIUM = 1, HIGH = 2;
+    static final String[] NAMES = {"Low", "Medium", "High"};
+
+    private final ReplacementPolicy[] classes = new ReplacementPolicy[NAMES.length];
+    private final int[] spared = new int[NAMES.length]; // Evictions each class was spared since its last one
+    private final IntUnaryOperator priorityOf;
+    private final int agingLimit; // 0 disables aging
+
+    /** @param priorityOf class of a page, LOW..HIGH; must not change while the page is tracked */
+    PriorityReplacement(ReplacementPolicy.Provider provider, RandomGenerator random, IntUnaryOperator priorityOf, int agingLimit) {
+        for (int c = 0; c < classes.length; c++) classes[c] = provider.create(random);
+        this.priorityOf = priorityOf;
+        this.agingLimit = Math.max(0, agingLimit);
+    }
+
+    @Override
+    public void onInsert(int page) {
+        classes[priorityOf.applyAsInt(page)].onInsert(page);
+    }
+
+    @Override
+    public void onAccess(int page) {
+        classes[priorityOf.applyAsInt(page)].onAccess(page);
+    }
+
+    @Override
+    public void onRemove(int page) {
+        int c = priorityOf.applyAsInt(page);
+        classes[c].onRemove(page);
+        if (classes[c].size() == 0) spared[c] = 0; // Aging only counts while a class holds pages
+    }
+
+    @Override
+    public int selectVictim() {
+        int c = victimClass();
+        return c >= 0 ? classes[c].selectVictim() : -1;
+    }
+
+    /**
+     * Records that the page chosen by {@link #selectVictim} is being evicted, for aging.
+     * Call before it is removed.
+     * @return its priority class
+     */
+    int evicted(int page) {
+        int victimClass = priorityOf.applyAsInt(page);
+        for (int c = 0; c < classes.length; c++) {
+            if (c == victimClass) spared[c] = 0;
+            else if (classes[c].size() > 0 && spared[c] < Integer.MAX_VALUE) spared[c]++;
+        }
+        return victimClass;
+    }
+
+    /** @return the lowest class holding pages, or -1 if none */
+    int lowestClass() {
+        for (int c = 0; c < classes.length; c++) {
+            if (classes[c].size() > 0) return c;
+        }
+        return -1;
+    }
+
+    private int victimClass() {
+        int lowest = lowestClass();
+        if (lowest < 0 || agingLimit == 0) return lowest;
+        for (int c = classes.length - 1; c > lowest; c--) { // The highest aged class goes first
+            if (classes[c].size() > 0 && spared[c] >= agingLimit) return c;
+        }
+        return lowest;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (ReplacementPolicy policy : classes) size += policy.size();
+        return size;
+    }
+
+    /** Per class: its spared count, the length of its policy's state, then that state. */
+    @Override
+    public int[] exportState() {
+        int[][] states = new int[classes.length][];
+        int length = 0;
+        for (int c = 0; c < classes.length; c++) {
+            states[c] = classes[c].exportState();
+            length += 2 + states[c].length;
+        }
+        int[] state = new int[length];
+        int at = 0;
+        for (int c = 0; c < classes.length; c++) {
+            state[at++] = spared[c];
+            state[at++] = states[c].length;
+            System.arraycopy(states[c], 0, state, at, states[c].length);
+            at += states[c].length;
+        }
+        return state;
+    }
+
+    @Override
+    public void importState(int[] state) {
+        int at = 0;
+        for (int c = 0; c < classes.length; c++) {
+            spared[c] = state[at++];
+            int length = state[at++];
+            classes[c].importState(Arrays.copyOfRange(state, at, at + length));
+            at += length;
+        }
+    }
+}
@@ -7,7 +7,7 @@ import java.awt.event.MouseEvent;
 
 class ProcessBlock extends JPanel {
 
-    enum ColorType { RAM, SWAP, CACHE }
+    enum ColorType { RAM, SWAP, CACHE, ZSWAP }
 
     private final String processId;
     private final ColorType colorType;
@@ -24,6 +24,8 @@ class ProcessBlock extends JPanel {
     private static final Color SWAP_COLOR_END = new Color(216, 67, 21);
     private static final Color CACHE_COLOR_START = new Color(165, 214, 167);
     private static final Color CACHE_COLOR_END = new Color(46, 125, 50);
+    private static final Color ZSWAP_COLOR_START = new Color(206, 147, 216);
+    private static final Color ZSWAP_COLOR_END = new Color(106, 27, 154);
     private static final Color DIRTY_INDICATOR_COLOR = new Color(248, 81, 73); // ERROR_COLOR
 
     public ProcessBlock(String processId, ColorType type, boolean dirty, VirtualMemoryManagerGUI controller) {
@@ -38,8 +40,8 @@ class ProcessBlock extends JPanel {
         setBorder(new LineBorder(currentBorderColor, currentBorderThickness)); // Initial border
         setOpaque(false); // We handle painting
 
-        // Tooltip
-        setToolTipText(controller.generateTooltipText(processId, type.name()));
+        // Tooltip (text is generated on hover, see getToolTipText)
+        setToolTipText(processId);
 
         // Mouse Listener for Access (Left Click) and Terminate (Right Click)
         addMouseListener(new MouseAdapter() {
@@ -68,6 +70,17 @@ class ProcessBlock extends JPanel {
         });
     }
 
+    /** Solid color for a memory area (used where a gradient per block is too costly, e.g. the heatmap). */
+    static Color getBaseColor(ColorType type) {
+        switch (type) {
+            case RAM:   return RAM_COLOR_END;
+            case SWAP:  return SWAP_COLOR_END;
+            case CACHE: return CACHE_COLOR_END;
+            case ZSWAP: return ZSWAP_COLOR_END;
+            default:    return Color.GRAY;
+        }
+    }
+
     public String getProcessId() {
         return processId;
     }
@@ -75,11 +88,16 @@ class ProcessBlock extends JPanel {
     public void setDirty(boolean dirty) {
         if (this.isDirty != dirty) {
              this.isDirty = dirty;
-             setToolTipText(controller.generateTooltipText(processId, colorType.name())); // Update tooltip
              repaint();
         }
     }
 
+    // Blocks are reused across panel updates, so build the tooltip from current state on hover
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        return controller.generateTooltipText(processId, colorType.name());
+    }
+
     public void setAlpha(float alpha) {
          this.alpha = Math.max(0f, Math.min(1f, alpha));
          repaint();
@@ -117,6 +135,7 @@ class ProcessBlock extends JPanel {
             case RAM:   gp = new GradientPaint(0, 0, RAM_COLOR_START, getWidth(), getHeight(), RAM_COLOR_END); break;
             case SWAP:  gp = new GradientPaint(0, 0, SWAP_COLOR_START, getWidth(), getHeight(), SWAP_COLOR_END); break;
             case CACHE: gp = new GradientPaint(0, 0, CACHE_COLOR_START, getWidth(), getHeight(), CACHE_COLOR_END); break;
+            case ZSWAP: gp = new GradientPaint(0, 0, ZSWAP_COLOR_START, getWidth(), getHeight(), ZSWAP_COLOR_END); break;
         }
         if (gp != null) {
              g2d.setPaint(gp);
@@ -0,0 +1,109 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * The process pool split into allocated and free processes, for pools of millions of ids.
+ * Processes are indices 0..capacity-1 kept in one permuted array: the allocated ones first,
+ * then the free ones, plus each index's position in it. Allocating or releasing swaps one
+ * index across the boundary, so both are O(1), and so is picking a random allocated or free
+ * process (a random position on either side). Memory is two ints per process.
+ */
+class ProcessSet {
+
+    private final int[] order;    // Allocated indices in [0, allocated), free ones after
+    private final int[] position; // Index -> its position in order
+    private int allocated = 0;
+
+    public ProcessSet(int capacity) {
+        order = new int[capacity];
+        position = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            order[i] = i;
+            position[i] = i;
+        }
+    }
+
+    public int capacity() { return order.length; }
+    public synchronized int allocatedCount() { return allocated; }
+    public synchronized int freeCount() { return order.length - allocated; }
+
+    public synchronized boolean isAllocated(int index) {
+        return index >= 0 && index < order.length && position[index] < allocated;
+    }
+
+    /** @return false if the index was already allocated */
+    public synchronized boolean allocate(int index) {
+        if (position[index] < allocated) return false;
+        swap(position[index], allocated++);
+        return true;
+    }
+
+    /** @return false if the index was not allocated */
+    public synchronized boolean release(int index) {
+        if (position[index] >= allocated) return false;
+        swap(position[index], --allocated);
+        return true;
+    }
+
+    /**
+     * The positions that hold another index than their own, as (position, index) pairs. With
+     * {@link #allocatedCount} that is the whole permutation, and so the same random picks after
+     * {@link #restore}; a run touches few of millions of ids, so it stays small.
+     */
+    public synchronized int[] exportDisplaced() {
+        int n = 0;
+        for (int i = 0; i < order.length; i++) {
+            if (order[i] != i) n++;
+        }
+        int[] pairs = new int[2 * n];
+        for (int i = 0, k = 0; i < order.length; i++) {
+            if (order[i] != i) {
+                pairs[k++] = i;
+                pairs[k++] = order[i];
+            }
+        }
+        return pairs;
+    }
+
+    /** Rebuilds a set from {@link #exportDisplaced} and {@link #allocatedCount}. @throws IllegalArgumentException if they are not a permutation */
+    public static ProcessSet restore(int capacity, int allocated, int[] displaced) {
+        ProcessSet set = new ProcessSet(capacity);
+        if (allocated < 0 || allocated > capacity || displaced.length % 2 != 0) {
+            throw new IllegalArgumentException("Bad process set: " + allocated + " of " + capacity + " allocated");
+        }
+        for (int k = 0; k < displaced.length; k += 2) {
+            int i = displaced[k], index = displaced[k + 1];
+            if (i < 0 || i >= capacity || index < 0 || index >= capacity) throw new IllegalArgumentException("Bad process set entry: " + i + " -> " + index);
+            set.order[i] = index;
+        }
+        boolean[] seen = new boolean[capacity];
+        for (int i = 0; i < capacity; i++) {
+            if (seen[set.order[i]]) throw new IllegalArgumentException("Process " + set.order[i] + " appears twice");
+            seen[set.order[i]] = true;
+            set.position[set.order[i]] = i;
+        }
+        set.allocated = allocated;
+        return set;
+    }
+
+    public synchronized void clear() {
+        allocated = 0; // Any permutation is valid: everything is now on the free side
+    }
+
+    /** @return a uniformly chosen allocated index, or -1 if none */
+    public synchronized int randomAllocated(RandomGenerator random) {
+        return allocated > 0 ? order[random.nextInt(allocated)] : -1;
+    }
+
+    /** @return a uniformly chosen free index, or -1 if none */
+    public synchronized int randomFree(RandomGenerator random) {
+        return allocated < order.length ? order[allocated + random.nextInt(order.length - allocated)] : -1;
+    }
+
+    private void swap(int a, int b) {
+        int x = order[a], y = order[b];
+        order[a] = y;
+        position[y] = a;
+        order[b] = x;
+        position[x] = b;
+    }
+}
@@ -0,0 +1,33 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * SplitMix64 random stream (the generator behind {@link java.util.SplittableRandom}) whose
+ * whole state is one long, so a checkpoint can save it and a restore continue it exactly,
+ * without disturbing the live stream. Not thread-safe.
+ */
+final class RandomStream implements RandomGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    RandomStream(long state) {
+        this.state = state;
+    }
+
+    /** @return the state, for {@link #RandomStream(long)} to continue from */
+    long getState() { return state; }
+
+    @Override
+    public long nextLong() {
+        long z = state += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** @return an independent stream seeded from this one */
+    RandomStream split() {
+        return new RandomStream(nextLong());
+    }
+}
@@ -0,0 +1,473 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.random.RandomGenerator;
+
+/**
+ * Registry of the available {@link ReplacementPolicy} providers and the built-in policies.
+ * Each policy keeps only its own state, in int arrays indexed by a slot per tracked page
+ * (found through an open-addressing int map), so tracking allocates nothing per access and
+ * boxes nothing:
+ * <ul>
+ *   <li>FIFO, LIFO, LRU, MRU: one doubly-linked list in insertion or recency order, O(1).
+ *   <li>LFU: a binary min-heap on (access count, insertion order), O(log n).
+ *   <li>Random: a dense array of the pages, O(1).
+ * </ul>
+ */
+public final class ReplacementPolicies {
+
+    // Always available, even without the service file on the class path
+    private static final ReplacementPolicy.Provider[] BUILT_IN = {
+            new FifoProvider(), new LruProvider(), new LfuProvider(), new LifoProvider(), new MruProvider(), new RandomProvider()};
+
+    private static volatile Map<String, ReplacementPolicy.Provider> providers;
+
+    private ReplacementPolicies() { }
+
+    /** Every provider by lower-case name: those found by ServiceLoader in class path order, then any missing built-in. */
+    static Map<String, ReplacementPolicy.Provider> providers() {
+        Map<String, ReplacementPolicy.Provider> map = providers;
+        if (map == null) {
+            map = new LinkedHashMap<>();
+            for (ReplacementPolicy.Provider p : ServiceLoader.load(ReplacementPolicy.Provider.class)) {
+                map.putIfAbsent(p.name().toLowerCase(Locale.ROOT), p); // The first one of a name wins
+            }
+            for (ReplacementPolicy.Provider p : BUILT_IN) map.putIfAbsent(p.name().toLowerCase(Locale.ROOT), p);
+            providers = map = Collections.unmodifiableMap(map);
+        }
+        return map;
+    }
+
+    /** Display names of every provider, in registry order. */
+    static List<String> names() {
+        List<String> names = new ArrayList<>();
+        for (ReplacementPolicy.Provider p : providers().values()) names.add(p.name());
+        return names;
+    }
+
+    /** @throws IllegalArgumentException if no provider has that name */
+    static ReplacementPolicy.Provider get(String name) {
+        ReplacementPolicy.Provider p = providers().get(name.toLowerCase(Locale.ROOT));
+        if (p == null) throw new IllegalArgumentException("Unknown algorithm: " + name + " (available: " + String.join(", ", names()) + ")");
+        return p;
+    }
+
+    // --- Providers (public with public constructors, as ServiceLoader requires) ---
+
+    public static final class FifoProvider implements ReplacementPolicy.Provider {
+        public String name() { return "FIFO"; }
+        public ReplacementPolicy create(RandomGenerator random) { return new ListPolicy(false, false); }
+    }
+
+    public static final class LruProvider implements ReplacementPolicy.Provider {
+        public String name() { return "LRU"; }
+        public ReplacementPolicy create(RandomGenerator random) { return new ListPolicy(true, false); }
+    }
+
+    public static final class LfuProvider implements ReplacementPolicy.Provider {
+        public String name() { return "LFU"; }
+        public ReplacementPolicy create(RandomGenerator random) { return new LfuPolicy(); }
+    }
+
+    public static final class LifoProvider implements ReplacementPolicy.Provider {
+        public String name() { return "LIFO"; }
+        public ReplacementPolicy create(RandomGenerator random) { return new ListPolicy(false, true); }
+    }
+
+    public static final class MruProvider implements ReplacementPolicy.Provider {
+        public String name() { return "MRU"; }
+        public ReplacementPolicy create(RandomGenerator random) { return new ListPolicy(true, true); }
+    }
+
+    public static final class RandomProvider implements ReplacementPolicy.Provider {
+        public String name() { return "Random"; }
+        public ReplacementPolicy create(RandomGenerator random) { return new RandomPolicy(random); }
+    }
+
+    // --- Building blocks ---
+
+    /** Page -> int map with open addressing and linear probing; -1 marks an empty cell, so keys must be non-negative. */
+    static final class SlotMap {
+        private int[] keys = emptyKeys(16);
+        private int[] values = new int[16];
+        private int size = 0;
+
+        /** @return the value, or -1 if absent */
+        int get(int key) {
+            int mask = keys.length - 1;
+            for (int i = home(key, mask); keys[i] != -1; i = (i + 1) & mask) {
+                if (keys[i] == key) return values[i];
+            }
+            return -1;
+        }
+
+        void put(int key, int value) {
+            if (2 * (size + 1) > keys.length) rehash(keys.length * 2); // Load factor at most 1/2
+            int mask = keys.length - 1;
+            int i = home(key, mask);
+            while (keys[i] != -1 && keys[i] != key) i = (i + 1) & mask;
+            if (keys[i] == -1) size++;
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        /** @return the removed value, or -1 if absent */
+        int remove(int key) {
+            int mask = keys.length - 1;
+            int i = home(key, mask);
+            while (keys[i] != key) {
+                if (keys[i] == -1) return -1;
+                i = (i + 1) & mask;
+            }
+            int removed = values[i];
+            // Backward-shift deletion: pull later entries of the probe run into the gap
+            for (int j = (i + 1) & mask; keys[j] != -1; j = (j + 1) & mask) {
+                int h = home(keys[j], mask);
+                boolean movable = i <= j ? (h <= i || h > j) : (h <= i && h > j);
+                if (movable) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    i = j;
+                }
+            }
+            keys[i] = -1;
+            size--;
+            return removed;
+        }
+
+        void clear() {
+            Arrays.fill(keys, -1);
+            size = 0;
+        }
+
+        private void rehash(int capacity) {
+            int[] oldKeys = keys, oldValues = values;
+            keys = emptyKeys(capacity);
+            values = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != -1) put(oldKeys[i], oldValues[i]);
+            }
+        }
+
+        private static int[] emptyKeys(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, -1);
+            return keys;
+        }
+
+        private static int home(int key, int mask) {
+            int h = key * 0x9E3779B9; // Fibonacci hashing, as in the engine's stripes
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+
+    /** Slot per tracked page, reused after removal; subclasses keep their per-page state in arrays indexed by slot. */
+    abstract static class Slots {
+        final SlotMap index = new SlotMap();
+        int[] pageOf = new int[16];
+        private int[] free = new int[16];
+        private int freeCount = 0;
+        private int used = 0; // Slots handed out at least once
+        int size = 0;
+
+        int allocate(int page) {
+            int slot;
+            if (freeCount > 0) {
+                slot = free[--freeCount];
+            } else {
+                if (used == pageOf.length) grow(used * 2);
+                slot = used++;
+            }
+            pageOf[slot] = page;
+            index.put(page, slot);
+            size++;
+            return slot;
+        }
+
+        void release(int slot) {
+            index.remove(pageOf[slot]);
+            free[freeCount++] = slot; // free never holds more than used slots
+            size--;
+        }
+
+        void clearSlots() {
+            index.clear();
+            freeCount = used = size = 0;
+        }
+
+        /** Grows every slot-indexed array; overrides must call super. */
+        void grow(int capacity) {
+            pageOf = Arrays.copyOf(pageOf, capacity);
+            free = Arrays.copyOf(free, capacity);
+        }
+    }
+
+    // --- Policies ---
+
+    /** FIFO and LIFO (insertion order), LRU and MRU (recency order): one linked list through the slots. */
+    static final class ListPolicy extends Slots implements ReplacementPolicy {
+        private final boolean moveOnAccess; // Recency order
+        private final boolean evictNewest;  // Victim at the tail
+        private int[] prev = new int[16];
+        private int[] next = new int[16];
+        private int head = -1; // Oldest
+        private int tail = -1; // Newest
+
+        ListPolicy(boolean moveOnAccess, boolean evictNewest) {
+            this.moveOnAccess = moveOnAccess;
+            this.evictNewest = evictNewest;
+        }
+
+        @Override
+        public void onInsert(int page) {
+            int slot = index.get(page);
+            if (slot >= 0) {
+                unlink(slot);
+            } else {
+                slot = allocate(page);
+            }
+            linkLast(slot);
+        }
+
+        @Override
+        public void onAccess(int page) {
+            if (!moveOnAccess) return;
+            int slot = index.get(page);
+            if (slot >= 0 && slot != tail) {
+                unlink(slot);
+                linkLast(slot);
+            }
+        }
+
+        @Override
+        public void onRemove(int page) {
+            int slot = index.get(page);
+            if (slot < 0) return;
+            unlink(slot);
+            release(slot);
+        }
+
+        @Override
+        public int selectVictim() {
+            int slot = evictNewest ? tail : head;
+            return slot >= 0 ? pageOf[slot] : -1;
+        }
+
+        @Override
+        public int size() { return size; }
+
+        /** Pages from oldest to newest. */
+        @Override
+        public int[] exportState() {
+            int[] pages = new int[size];
+            int n = 0;
+            for (int slot = head; slot >= 0; slot = next[slot]) pages[n++] = pageOf[slot];
+            return pages;
+        }
+
+        @Override
+        public void importState(int[] pages) {
+            clearSlots();
+            head = tail = -1;
+            for (int page : pages) onInsert(page);
+        }
+
+        @Override
+        void grow(int capacity) {
+            super.grow(capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+
+        private void linkLast(int slot) {
+            prev[slot] = tail;
+            next[slot] = -1;
+            if (tail >= 0) next[tail] = slot; else head = slot;
+            tail = slot;
+        }
+
+        private void unlink(int slot) {
+            int p = prev[slot], n = next[slot];
+            if (p >= 0) next[p] = n; else head = n;
+            if (n >= 0) prev[n] = p; else tail = p;
+        }
+    }
+
+    /** LFU: min-heap on access count, ties broken by insertion order (oldest first). */
+    static final class LfuPolicy extends Slots implements ReplacementPolicy {
+        private int[] count = new int[16];
+        private long[] inserted = new long[16]; // Insertion sequence number
+        private int[] heap = new int[16];       // Slots; heap[0] is the victim
+        private int[] heapIndex = new int[16];  // Slot -> position in heap
+        private long nextSequence = 0;
+
+        @Override
+        public void onInsert(int page) {
+            onRemove(page);
+            int slot = allocate(page);
+            count[slot] = 1;
+            inserted[slot] = nextSequence++;
+            heap[size - 1] = slot;
+            heapIndex[slot] = size - 1;
+            siftUp(size - 1);
+        }
+
+        @Override
+        public void onAccess(int page) {
+            int slot = index.get(page);
+            if (slot < 0) return;
+            if (count[slot] < Integer.MAX_VALUE) count[slot]++;
+            siftDown(heapIndex[slot]);
+        }
+
+        @Override
+        public void onRemove(int page) {
+            int slot = index.get(page);
+            if (slot < 0) return;
+            int i = heapIndex[slot];
+            int last = heap[size - 1];
+            release(slot);
+            if (i < size) { // Move the last element into the hole
+                heap[i] = last;
+                heapIndex[last] = i;
+                siftDown(i);
+                siftUp(i);
+            }
+        }
+
+        @Override
+        public int selectVictim() {
+            return size > 0 ? pageOf[heap[0]] : -1;
+        }
+
+        @Override
+        public int size() { return size; }
+
+        /** (page, count) pairs in insertion order. */
+        @Override
+        public int[] exportState() {
+            Integer[] slots = new Integer[size];
+            for (int i = 0; i < size; i++) slots[i] = heap[i];
+            Arrays.sort(slots, Comparator.comparingLong(s -> inserted[s]));
+            int[] state = new int[2 * size];
+            for (int i = 0; i < slots.length; i++) {
+                state[2 * i] = pageOf[slots[i]];
+                state[2 * i + 1] = count[slots[i]];
+            }
+            return state;
+        }
+
+        @Override
+        public void importState(int[] state) {
+            clearSlots();
+            for (int i = 0; i + 1 < state.length; i += 2) {
+                onInsert(state[i]);
+                int slot = index.get(state[i]);
+                count[slot] = state[i + 1];
+                siftDown(heapIndex[slot]);
+            }
+        }
+
+        @Override
+        void grow(int capacity) {
+            super.grow(capacity);
+            count = Arrays.copyOf(count, capacity);
+            inserted = Arrays.copyOf(inserted, capacity);
+            heap = Arrays.copyOf(heap, capacity);
+            heapIndex = Arrays.copyOf(heapIndex, capacity);
+        }
+
+        private boolean less(int a, int b) {
+            return count[a] != count[b] ? count[a] < count[b] : inserted[a] < inserted[b];
+        }
+
+        private void siftUp(int i) {
+            int slot = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!less(slot, heap[parent])) break;
+                heap[i] = heap[parent];
+                heapIndex[heap[i]] = i;
+                i = parent;
+            }
+            heap[i] = slot;
+            heapIndex[slot] = i;
+        }
+
+        private void siftDown(int i) {
+            int slot = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && less(heap[child + 1], heap[child])) child++;
+                if (!less(heap[child], slot)) break;
+                heap[i] = heap[child];
+                heapIndex[heap[i]] = i;
+                i = child;
+            }
+            heap[i] = slot;
+            heapIndex[slot] = i;
+        }
+    }
+
+    /** Uniformly random victim from a dense array of the pages. */
+    static final class RandomPolicy implements ReplacementPolicy {
+        private final RandomGenerator random;
+        private final SlotMap index = new SlotMap(); // Page -> position in pages
+        private int[] pages = new int[16];
+        private int size = 0;
+
+        RandomPolicy(RandomGenerator random) {
+            this.random = random;
+        }
+
+        @Override
+        public void onInsert(int page) {
+            if (index.get(page) >= 0) return;
+            if (size == pages.length) pages = Arrays.copyOf(pages, size * 2);
+            pages[size] = page;
+            index.put(page, size++);
+        }
+
+        @Override
+        public void onAccess(int page) { } // No state to update
+
+        @Override
+        public void onRemove(int page) {
+            int i = index.remove(page);
+            if (i < 0) return;
+            int last = pages[--size];
+            if (i < size) {
+                pages[i] = last;
+                index.put(last, i);
+            }
+        }
+
+        @Override
+        public int selectVictim() {
+            return size > 0 ? pages[random.nextInt(size)] : -1;
+        }
+
+        @Override
+        public int size() { return size; }
+
+        @Override
+        public int[] exportState() {
+            return Arrays.copyOf(pages, size);
+        }
+
+        @Override
+        public void importState(int[] state) {
+            index.clear();
+            size = 0;
+            for (int page : state) onInsert(page);
+        }
+    }
+}
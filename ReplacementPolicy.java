@@ -0,0 +1,52 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Page replacement policy over a set of resident pages (the GUI's RAM, or one lock stripe of
+ * the engine's). The simulator reports every page entering RAM, hit in RAM and leaving it;
+ * the policy keeps the state it needs for that and nothing more, and names the next victim.
+ * Pages are non-negative ints: process indices in the GUI, page numbers in the engine.
+ * Not thread-safe; callers hold their own lock.
+ *
+ * <p>Policies are discovered at runtime with {@link java.util.ServiceLoader}: a jar on the
+ * class path that lists its {@link Provider} classes in
+ * {@code META-INF/services/ReplacementPolicy$Provider} adds algorithms to the GUI, the
+ * engine and {@link BatchRunner}. The built-in ones are in {@link ReplacementPolicies}.
+ */
+interface ReplacementPolicy {
+
+    /** A page entered RAM. A page already tracked is re-inserted. */
+    void onInsert(int page);
+
+    /** A resident page was hit. */
+    void onAccess(int page);
+
+    /** A page left RAM (evicted, terminated or released). Untracked pages are ignored. */
+    void onRemove(int page);
+
+    /** @return the page to evict next, or -1 if none is tracked. It stays tracked until {@link #onRemove}. */
+    int selectVictim();
+
+    int size();
+
+    /**
+     * The state as ints in the policy's own layout (for checkpoints): enough for
+     * {@link #importState} on a new instance of the same policy to make the same choices.
+     */
+    int[] exportState();
+
+    /** Replaces the whole state with one from {@link #exportState} of the same policy. */
+    void importState(int[] state);
+
+    /** Service interface: one per algorithm, with a public no-argument constructor. */
+    interface Provider {
+
+        /** Name shown in the GUI, e.g. "LRU"; looked up case-insensitively. */
+        String name();
+
+        /**
+         * @param random stream for policies that choose at random; the same stream gives the same choices.
+         *               Kept for the policy's lifetime, so its owner must not replace it underneath
+         */
+        ReplacementPolicy create(RandomGenerator random);
+    }
+}
@@ -0,0 +1,615 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * A reproducible multi-step experiment on the {@link MemoryEngine}: processes arriving and
+ * exiting, phases of random or explicit accesses with a given write (dirty) ratio, cache
+ * clears and configuration changes, in loops. Written as a script ({@link #parse}) or with
+ * the {@link Builder}, and compiled up front into a flat int stream of concrete operations.
+ * Every random choice is made while compiling, so {@link #run} is a tight loop with no
+ * randomness or allocation, and the same scenario always replays the same accesses.
+ *
+ * <pre>
+ * seed 42
+ * config ram=64 swap=256 cache=8 algorithm=lru
+ * phase warm-up
+ *   arrive 20 pages=16
+ *   write P1 3                           # Explicit accesses: page 3 of the first process
+ *   read P1 0
+ *   access 5000 write=0.1
+ * phase pressure
+ *   config ram=32                        # Mid-run change: RAM and swap contents carry over
+ *   repeat 10
+ *     arrive 2
+ *     access 1000 write=0.3 hot=0.2 hot-ratio=0.9
+ *     exit 2                             # Two random live processes
+ *   end
+ *   clear-cache
+ * </pre>
+ *
+ * Processes are named by arrival ({@code P1} first) and own {@code pages} consecutive pages.
+ * {@code access} picks a random live process per access, and within it a page, from the
+ * first {@code hot} fraction of its pages with probability {@code hot-ratio}. Config keys are
+ * the memory options of {@link BatchRunner}. {@link #run} reports each phase separately.
+ */
+class Scenario {
+
+    // Operations: opcode in the low bits, operand (process, page or table index) above
+    static final int ARRIVE = 0, EXIT = 1, READ = 2, WRITE = 3, CLEAR_CACHE = 4, CONFIG = 5, PHASE = 6;
+    private static final int OP_BITS = 3;
+    private static final int OP_MASK = (1 << OP_BITS) - 1;
+    static final int MAX_OPERAND = -1 >>> OP_BITS;
+
+    private static final List<String> CONFIG_KEYS = Arrays.asList(
+            "ram", "swap", "cache", "algorithm", "stripes", "nodes", "placement", "page-in-ns", "write-back-ns");
+
+    final long seed;
+    private final int[] ops;
+    private final int[] processBase;  // First page of each process
+    private final int[] processPages;
+    private final ConcurrentAccessBenchmark.Config[] configs; // [0] is the starting one
+    private final String[] phases;
+
+    private Scenario(long seed, int[] ops, int[] processBase, int[] processPages,
+                     ConcurrentAccessBenchmark.Config[] configs, String[] phases) {
+        this.seed = seed;
+        this.ops = ops;
+        this.processBase = processBase;
+        this.processPages = processPages;
+        this.configs = configs;
+        this.phases = phases;
+    }
+
+    public int getOperationCount() { return ops.length; }
+    public int getProcessCount() { return processBase.length; }
+
+    /** Configuration a scenario starts from: the benchmark's sizes on one node, without simulated I/O waits. */
+    static ConcurrentAccessBenchmark.Config defaultConfig() {
+        ConcurrentAccessBenchmark.Config cfg = new ConcurrentAccessBenchmark.Config();
+        cfg.nodes = 1;
+        cfg.pageInNanos = 0;
+        cfg.writeBackNanos = 0;
+        return cfg;
+    }
+
+    static class PhaseResult {
+        String name;
+        ConcurrentAccessBenchmark.Config config; // In effect at the end of the phase
+        long operations, arrivals, exits;
+        int liveProcesses;                       // At the end of the phase
+        long evictions, discards;
+        long wallNanos;
+        final Stats stats = new Stats();         // Counters (write-backs included) and latency per outcome
+        final LatencyHistogram latency = new LatencyHistogram(); // Every access
+
+        String summary() {
+            Stats s = stats;
+            return String.format("Phase %s: %,d accesses in %s (%,.0f acc/s) | cache %,d, RAM %,d, faults %,d, write-backs %,d, evictions %,d, discards %,d | p50 %s p99 %s max %s | %,d live (+%,d/-%,d)",
+                    name, s.totalAccesses, ConcurrentAccessBenchmark.formatNanos(wallNanos), s.totalAccesses * 1e9 / Math.max(1, wallNanos),
+                    s.cacheHits, s.ramHits, s.pageFaults, s.writeBacks, evictions, discards,
+                    ConcurrentAccessBenchmark.formatNanos(latency.percentile(0.50)),
+                    ConcurrentAccessBenchmark.formatNanos(latency.percentile(0.99)),
+                    ConcurrentAccessBenchmark.formatNanos(latency.getMax()), liveProcesses, arrivals, exits);
+        }
+    }
+
+    // --- Execution ---
+
+    /** Executes the operation stream on a fresh engine, on the calling thread. */
+    public List<PhaseResult> run() {
+        List<PhaseResult> results = new ArrayList<>();
+        ConcurrentAccessBenchmark.Config config = configs[0];
+        MemoryEngine engine = ConcurrentAccessBenchmark.newEngine(config);
+        boolean[] live = new boolean[processBase.length];
+        int liveCount = 0;
+        PhaseResult phase = new PhaseResult();
+        phase.name = "main"; // Until the first phase statement
+        boolean implicitPhase = true;
+        long[] mark = counters(engine);
+        long phaseStart = System.nanoTime();
+
+        for (int op : ops) {
+            int operand = op >>> OP_BITS;
+            switch (op & OP_MASK) {
+                case READ:
+                case WRITE: {
+                    long t0 = System.nanoTime();
+                    MemoryEngine.Outcome outcome = engine.access(operand, (op & OP_MASK) == WRITE);
+                    record(phase, outcome, System.nanoTime() - t0);
+                    break;
+                }
+                case ARRIVE:
+                    live[operand] = true;
+                    liveCount++;
+                    phase.arrivals++;
+                    break;
+                case EXIT:
+                    for (int page = processBase[operand], end = page + processPages[operand]; page < end; page++) {
+                        engine.release(page);
+                    }
+                    live[operand] = false;
+                    liveCount--;
+                    phase.exits++;
+                    break;
+                case CLEAR_CACHE:
+                    engine.clearCache();
+                    break;
+                case CONFIG:
+                    addCounters(phase, engine, mark);
+                    config = configs[operand];
+                    engine = reconfigure(engine, config, live);
+                    mark = counters(engine); // After the carry-over, which is not part of the phase
+                    break;
+                case PHASE:
+                    if (!implicitPhase || phase.operations > 0) {
+                        results.add(finish(phase, engine, mark, config, liveCount, phaseStart));
+                    }
+                    implicitPhase = false;
+                    phase = new PhaseResult();
+                    phase.name = phases[operand];
+                    mark = counters(engine);
+                    phaseStart = System.nanoTime();
+                    continue;
+            }
+            phase.operations++;
+        }
+        if (!implicitPhase || phase.operations > 0) {
+            results.add(finish(phase, engine, mark, config, liveCount, phaseStart));
+        }
+        return results;
+    }
+
+    private static void record(PhaseResult phase, MemoryEngine.Outcome outcome, long nanos) {
+        Stats s = phase.stats;
+        s.totalAccesses++;
+        switch (outcome) {
+            case CACHE_HIT: s.cacheHits++; s.cacheAccesses++; s.tlbHits++; break;
+            case RAM_HIT:
+            case REMOTE_HIT: s.ramHits++; s.ramAccesses++; s.tlbHits++; break;
+            case PAGE_FAULT: s.pageFaults++; s.swapAccesses++; s.tlbMisses++; break;
+            default: s.tlbMisses++; // First touch
+        }
+        ConcurrentAccessBenchmark.outcomeHistogram(s, (byte) outcome.ordinal()).record(nanos);
+        phase.latency.record(nanos);
+    }
+
+    private static PhaseResult finish(PhaseResult phase, MemoryEngine engine, long[] mark,
+                                      ConcurrentAccessBenchmark.Config config, int liveCount, long start) {
+        addCounters(phase, engine, mark);
+        phase.config = config;
+        phase.liveProcesses = liveCount;
+        phase.wallNanos = System.nanoTime() - start;
+        return phase;
+    }
+
+    // Engine counters a phase takes as differences: evictions, write-backs, discards
+    private static long[] counters(MemoryEngine engine) {
+        return new long[]{engine.getEvictions(), engine.snapshot().writeBacks, engine.getDiscards()};
+    }
+
+    private static void addCounters(PhaseResult phase, MemoryEngine engine, long[] mark) {
+        long[] now = counters(engine);
+        phase.evictions += now[0] - mark[0];
+        phase.stats.writeBacks += now[1] - mark[1];
+        phase.discards += now[2] - mark[2];
+    }
+
+    /**
+     * Engine for a mid-run configuration change. The live processes' pages in RAM and swap
+     * carry over by {@link MemoryEngine#preload}, with no accesses: swapped pages first, so
+     * they keep their swap slots if swap shrank, then RAM pages with their dirty bits, the
+     * excess evicted if RAM shrank. Replacement order is rebuilt by these loads rather than
+     * copied; the cache starts empty.
+     */
+    private MemoryEngine reconfigure(MemoryEngine old, ConcurrentAccessBenchmark.Config config, boolean[] live) {
+        MemoryEngine engine = ConcurrentAccessBenchmark.newEngine(config);
+        for (int pass = 0; pass < 2; pass++) {
+            for (int p = 0; p < live.length; p++) {
+                if (!live[p]) continue;
+                for (int page = processBase[p], end = page + processPages[p]; page < end; page++) {
+                    int state = old.stateOf(page);
+                    boolean carried = pass == 0 ? state == PageTable.SWAPPED
+                            : state == PageTable.RESIDENT || state == PageTable.DIRTY;
+                    if (carried) engine.preload(page, state);
+                }
+            }
+        }
+        return engine;
+    }
+
+    // --- Builder ---
+
+    /**
+     * Compiles a scenario operation by operation. Methods throw IllegalArgumentException for
+     * bad arguments and IllegalStateException for operations impossible at that point (such
+     * as accesses with no live process).
+     */
+    static class Builder {
+        private final long seed;
+        private final SplittableRandom random;
+        private int[] ops = new int[1024];
+        private int size = 0;
+        private int[] processBase = new int[64];
+        private int[] processPages = new int[64];
+        private int processes = 0;
+        private int nextPage = 0;
+        private int[] live = new int[64];         // Live processes, for O(1) random picks
+        private int[] livePosition = new int[64]; // Process -> index in live, -1 once it has exited
+        private int liveCount = 0;
+        private final List<ConcurrentAccessBenchmark.Config> configs = new ArrayList<>();
+        private final List<String> phases = new ArrayList<>();
+        private boolean started = false; // Configuration before the first operation replaces the starting one
+
+        Builder(long seed) {
+            this(seed, defaultConfig());
+        }
+
+        Builder(long seed, ConcurrentAccessBenchmark.Config base) {
+            this.seed = seed;
+            this.random = new SplittableRandom(seed);
+            ConcurrentAccessBenchmark.Config start = base.copy();
+            start.seed = seed;
+            configs.add(start);
+        }
+
+        /** Changes the configuration from here on (before any operation: the starting configuration). */
+        public Builder config(Consumer<ConcurrentAccessBenchmark.Config> change) {
+            ConcurrentAccessBenchmark.Config next = configs.get(configs.size() - 1).copy();
+            change.accept(next);
+            if (!started) {
+                configs.set(configs.size() - 1, next);
+            } else {
+                configs.add(next);
+                emit(CONFIG, configs.size() - 1);
+            }
+            return this;
+        }
+
+        /** Starts a phase: results are reported per phase. */
+        public Builder phase(String name) {
+            phases.add(name);
+            emit(PHASE, phases.size() - 1);
+            return this;
+        }
+
+        /** {@code count} new processes of {@code pages} pages each. */
+        public Builder arrive(int count, int pages) {
+            count(count);
+            if (pages < 1) throw new IllegalArgumentException("A process needs at least one page: " + pages);
+            for (int i = 0; i < count; i++) {
+                if ((long) nextPage + pages > MAX_OPERAND + 1L) throw new IllegalStateException("Out of page numbers");
+                int p = processes++;
+                if (p == processBase.length) {
+                    processBase = Arrays.copyOf(processBase, p * 2);
+                    processPages = Arrays.copyOf(processPages, p * 2);
+                    livePosition = Arrays.copyOf(livePosition, p * 2);
+                    live = Arrays.copyOf(live, p * 2);
+                }
+                processBase[p] = nextPage;
+                processPages[p] = pages;
+                nextPage += pages;
+                live[liveCount] = p;
+                livePosition[p] = liveCount++;
+                emit(ARRIVE, p);
+            }
+            return this;
+        }
+
+        /** {@code count} random live processes exit, releasing their pages. */
+        public Builder exit(int count) {
+            count(count);
+            if (count > liveCount) throw new IllegalStateException("exit " + count + " with " + liveCount + " live processes");
+            for (int i = 0; i < count; i++) exitProcess(live[random.nextInt(liveCount)]);
+            return this;
+        }
+
+        /** The given process ("P3") exits. */
+        public Builder exit(String process) {
+            exitProcess(liveProcess(process));
+            return this;
+        }
+
+        /** {@code count} accesses by random live processes, spread uniformly over their pages. */
+        public Builder access(int count, double writeRatio) {
+            return access(count, writeRatio, 1.0, 0.8);
+        }
+
+        /**
+         * {@code count} accesses by random live processes, each a write with probability
+         * {@code writeRatio}. A share {@code hotRatio} of them goes to the first
+         * {@code hotFraction} of the process's pages.
+         */
+        public Builder access(int count, double writeRatio, double hotFraction, double hotRatio) {
+            count(count);
+            ratio(writeRatio);
+            ratio(hotFraction);
+            ratio(hotRatio);
+            if (count > 0 && liveCount == 0) throw new IllegalStateException("access with no live process");
+            for (int i = 0; i < count; i++) {
+                int p = live[random.nextInt(liveCount)];
+                int pages = processPages[p];
+                int hot = Math.max(1, Math.min(pages, (int) (pages * hotFraction)));
+                int page = random.nextDouble() < hotRatio ? random.nextInt(hot) : random.nextInt(pages);
+                emit(random.nextDouble() < writeRatio ? WRITE : READ, processBase[p] + page);
+            }
+            return this;
+        }
+
+        /** Reads page {@code page} (0-based) of the given process. */
+        public Builder read(String process, int page) {
+            emit(READ, pageOf(process, page));
+            return this;
+        }
+
+        /** Writes (dirties) page {@code page} (0-based) of the given process. */
+        public Builder write(String process, int page) {
+            emit(WRITE, pageOf(process, page));
+            return this;
+        }
+
+        public Builder clearCache() {
+            emit(CLEAR_CACHE, 0);
+            return this;
+        }
+
+        /** Compiles {@code body} {@code times} times; random choices differ per iteration. */
+        public Builder repeat(int times, Consumer<Builder> body) {
+            count(times);
+            for (int i = 0; i < times; i++) body.accept(this);
+            return this;
+        }
+
+        public Scenario build() {
+            return new Scenario(seed, Arrays.copyOf(ops, size), Arrays.copyOf(processBase, processes),
+                    Arrays.copyOf(processPages, processes), configs.toArray(new ConcurrentAccessBenchmark.Config[0]),
+                    phases.toArray(new String[0]));
+        }
+
+        // Checks shared with the script parser, which reports them with the line
+
+        /** @return {@code n} as a count (repeat, arrive, exit and access counts) */
+        static int count(long n) {
+            if (n < 0 || n > Integer.MAX_VALUE) throw new IllegalArgumentException("out of range: " + n);
+            return (int) n;
+        }
+
+        /** @return {@code r} as a ratio or fraction, between 0 and 1 */
+        static double ratio(double r) {
+            if (!(r >= 0 && r <= 1)) throw new IllegalArgumentException("out of range 0-1: " + r); // Also rejects NaN
+            return r;
+        }
+
+        private void emit(int opcode, int operand) {
+            if (size == ops.length) {
+                if (size == Integer.MAX_VALUE - 8) throw new IllegalStateException("Scenario too long");
+                ops = Arrays.copyOf(ops, (int) Math.min(Integer.MAX_VALUE - 8, size * 2L));
+            }
+            ops[size++] = operand << OP_BITS | opcode;
+            if (opcode != PHASE && opcode != CONFIG) started = true;
+        }
+
+        private void exitProcess(int p) {
+            int position = livePosition[p];
+            int last = live[--liveCount];
+            live[position] = last;
+            livePosition[last] = position;
+            livePosition[p] = -1;
+            emit(EXIT, p);
+        }
+
+        private int liveProcess(String process) {
+            int p = -1;
+            if (process.matches("[Pp]\\d{1,9}")) p = Integer.parseInt(process.substring(1)) - 1;
+            if (p < 0 || p >= processes) {
+                throw new IllegalArgumentException("Unknown process " + process + " (" + processes + " have arrived)");
+            }
+            if (livePosition[p] < 0) throw new IllegalStateException("Process " + process + " has exited");
+            return p;
+        }
+
+        private int pageOf(String process, int page) {
+            int p = liveProcess(process);
+            if (page < 0 || page >= processPages[p]) {
+                throw new IllegalArgumentException("Process " + process + " has pages 0-" + (processPages[p] - 1) + ": " + page);
+            }
+            return processBase[p] + page;
+        }
+    }
+
+    // --- Script ---
+
+    public static Scenario read(Path file, ConcurrentAccessBenchmark.Config base) throws IOException {
+        return parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), base);
+    }
+
+    /**
+     * Compiles a scenario script starting from {@code base} (whose seed is used unless the
+     * script has a {@code seed} statement). One statement per line, {@code #} starts a comment.
+     * @throws IllegalArgumentException with the line number for any error
+     */
+    public static Scenario parse(String script, ConcurrentAccessBenchmark.Config base) {
+        List<Line> lines = new ArrayList<>();
+        String[] text = script.split("\r?\n");
+        for (int i = 0; i < text.length; i++) {
+            int hash = text[i].indexOf('#');
+            String statement = (hash >= 0 ? text[i].substring(0, hash) : text[i]).trim();
+            if (!statement.isEmpty()) lines.add(new Line(i + 1, statement.split("\\s+")));
+        }
+        long[] seed = {base.seed};
+        int[] next = {0};
+        List<Consumer<Builder>> statements = block(lines, next, seed);
+        if (next[0] < lines.size()) throw lines.get(next[0]).error("'end' without 'repeat'");
+
+        Builder builder = new Builder(seed[0], base);
+        for (Consumer<Builder> statement : statements) statement.accept(builder);
+        return builder.build();
+    }
+
+    private static final class Line {
+        final int number;
+        final String[] words;
+
+        Line(int number, String[] words) {
+            this.number = number;
+            this.words = words;
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("line " + number + ": " + message);
+        }
+
+        void arguments(int min, int max) {
+            if (words.length - 1 < min || words.length - 1 > max) throw error("wrong number of arguments to " + words[0]);
+        }
+
+        long integer(String value) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw error("not an integer: " + value);
+            }
+        }
+
+        int count(String value) {
+            long n = integer(value);
+            try {
+                return Builder.count(n);
+            } catch (IllegalArgumentException e) {
+                throw error(e.getMessage());
+            }
+        }
+
+        double ratio(String value) {
+            double r;
+            try {
+                r = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw error("not a number: " + value);
+            }
+            try {
+                return Builder.ratio(r);
+            } catch (IllegalArgumentException e) {
+                throw error(e.getMessage());
+            }
+        }
+
+        // key=value arguments from words[from] on, restricted to the given keys
+        Map<String, String> options(int from, List<String> keys) {
+            Map<String, String> options = new LinkedHashMap<>();
+            for (int i = from; i < words.length; i++) {
+                int eq = words[i].indexOf('=');
+                String key = eq < 0 ? words[i] : words[i].substring(0, eq);
+                if (eq < 0 || !keys.contains(key)) throw error("unknown option " + words[i] + " (expected " + String.join("=, ", keys) + "=)");
+                options.put(key, words[i].substring(eq + 1));
+            }
+            return options;
+        }
+    }
+
+    // Statements up to the next unmatched "end" or the end of the script; next[0] is left on the "end"
+    private static List<Consumer<Builder>> block(List<Line> lines, int[] next, long[] seed) {
+        List<Consumer<Builder>> statements = new ArrayList<>();
+        while (next[0] < lines.size()) {
+            Line line = lines.get(next[0]);
+            String[] w = line.words;
+            if (w[0].equals("end")) {
+                line.arguments(0, 0);
+                return statements;
+            }
+            next[0]++;
+            switch (w[0]) {
+                case "seed":
+                    line.arguments(1, 1);
+                    if (seed == null) throw line.error("seed inside repeat");
+                    seed[0] = line.integer(w[1]);
+                    break;
+                case "repeat": {
+                    line.arguments(1, 1);
+                    int times = line.count(w[1]);
+                    List<Consumer<Builder>> body = block(lines, next, null);
+                    if (next[0] == lines.size()) throw line.error("repeat without 'end'");
+                    next[0]++;
+                    statements.add(b -> b.repeat(times, inner -> body.forEach(s -> s.accept(inner))));
+                    break;
+                }
+                case "config": {
+                    Map<String, String> options = line.options(1, CONFIG_KEYS);
+                    try {
+                        BatchRunner.configure(defaultConfig(), new LinkedHashMap<>(options)); // Validate now, with the line number
+                    } catch (IllegalArgumentException e) {
+                        throw line.error(e.getMessage());
+                    }
+                    statements.add(at(line, b -> b.config(c -> BatchRunner.configure(c, new LinkedHashMap<>(options)))));
+                    break;
+                }
+                case "phase":
+                    line.arguments(1, 1);
+                    statements.add(at(line, b -> b.phase(w[1])));
+                    break;
+                case "arrive": {
+                    line.arguments(1, 2);
+                    int count = line.count(w[1]);
+                    int pages = line.count(line.options(2, List.of("pages")).getOrDefault("pages", "16"));
+                    statements.add(at(line, b -> b.arrive(count, pages)));
+                    break;
+                }
+                case "exit":
+                    line.arguments(1, 1);
+                    if (w[1].startsWith("P") || w[1].startsWith("p")) {
+                        statements.add(at(line, b -> b.exit(w[1])));
+                    } else {
+                        int count = line.count(w[1]);
+                        statements.add(at(line, b -> b.exit(count)));
+                    }
+                    break;
+                case "access": {
+                    line.arguments(1, 4);
+                    int count = line.count(w[1]);
+                    Map<String, String> o = line.options(2, List.of("write", "hot", "hot-ratio"));
+                    double write = line.ratio(o.getOrDefault("write", "0"));
+                    double hot = line.ratio(o.getOrDefault("hot", "1"));
+                    double hotRatio = line.ratio(o.getOrDefault("hot-ratio", "0.8"));
+                    statements.add(at(line, b -> b.access(count, write, hot, hotRatio)));
+                    break;
+                }
+                case "read":
+                case "write": {
+                    line.arguments(2, 2);
+                    int page = line.count(w[2]);
+                    boolean isWrite = w[0].equals("write");
+                    statements.add(at(line, b -> {
+                        if (isWrite) b.write(w[1], page); else b.read(w[1], page);
+                    }));
+                    break;
+                }
+                case "clear-cache":
+                    line.arguments(0, 0);
+                    statements.add(at(line, Builder::clearCache));
+                    break;
+                default:
+                    throw line.error("unknown statement " + w[0]);
+            }
+        }
+        return statements;
+    }
+
+    // Builder errors while compiling, reported with the statement's line
+    private static Consumer<Builder> at(Line line, Consumer<Builder> statement) {
+        return b -> {
+            try {
+                statement.accept(b);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                throw line.error(e.getMessage());
+            }
+        };
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * A simulation event as carried by {@link EventRing}. Instances are the ring's slots: they
+ * are allocated once, refilled in place by producers and only valid inside a consumer's
+ * {@link EventRing.Handler#onEvent} call, so emitting an event allocates nothing.
+ */
+final class SimEvent {
+
+    enum Type {
+        LOG,          // level, text (message), icon
+        ADD_RAM,      // processId
+        REMOVE_RAM,   // processId
+        ADD_CACHE,    // processId, time (cache entry timestamp)
+        REMOVE_CACHE, // processId
+        CLEAR_CACHE,
+        MARK_DIRTY,   // processId
+        UNDIRTY,      // processId
+        REFRESH,      // section (data already changed off the EDT), processId (the one that moved, or null)
+        HIGHLIGHT,    // section, processId, text (effect)
+        EFFECT,       // section, processId, text (appear/remove/state effect)
+        MOVE,         // section (from), target (to), processId
+        ACCESS,       // processId, target (tier that served it: cache, ram, zswap, swap or none)
+        EVICT,        // section (area left), processId (victim), text (reason)
+        WRITE_BACK    // processId, time (nanoseconds spent writing)
+    }
+
+    enum Level {
+        INFO("info"), SUCCESS("success"), WARNING("warning"), ERROR("error"), DEBUG("debug"), WRITEBACK("writeback");
+
+        final String key; // Log type name used by the log view
+
+        Level(String key) { this.key = key; }
+
+        static Level of(String key) {
+            for (Level level : values()) {
+                if (level.key.equals(key)) return level;
+            }
+            return INFO;
+        }
+    }
+
+    Type type;
+    Level level;
+    String section;
+    String target;
+    String processId;
+    String text;
+    String icon;
+    long time;
+    long wallTime; // System.currentTimeMillis() when emitted
+
+    void set(Type type, Level level, String section, String target, String processId, String text, String icon, long time) {
+        this.type = type;
+        this.level = level;
+        this.section = section;
+        this.target = target;
+        this.processId = processId;
+        this.text = text;
+        this.icon = icon;
+        this.time = time;
+        this.wallTime = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,283 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Complete simulation state (configuration, memory contents, replacement-policy metadata
+ * and stats) in a compact binary file, so a warmed-up simulation can be saved once and
+ * branched from many times. Process ids are written once in a table and everything else
+ * refers to them by index, as flat int and long arrays: saving is one channel write of one
+ * buffer, and restoring is one read followed by bulk copies of the arrays, with no per-field parsing
+ * beyond the id table.
+ *
+ * <p>Layout (little-endian): the magic {@code "VMMCKPT7"}, then the fields in the order of
+ * {@link #encode}. Arrays are written as a length (int) followed by their elements.
+ */
+class SimulationCheckpoint {
+
+    private static final byte[] MAGIC = {'V', 'M', 'M', 'C', 'K', 'P', 'T', '7'};
+    private static final int STATS_FIELDS = 28;
+
+    long savedAtMillis;             // Wall clock at capture; timestamps below are shifted by the age on restore
+    long seed;                      // Seed of the run
+    long rootStream, inputStream, evictionStream; // RandomStream states the run continues from
+    long sizeSeed;                  // Seed process sizes and priorities are derived from
+
+    // Configuration (combo boxes by index, except the algorithm: plug-in policies come and go)
+    int ramSize, swapSize, cacheSize, pageSizeKb, zswapFrames, zswapLevel;
+    String algorithm = "FIFO";      // Replacement policy name
+    int swapBacking, swapDevice;
+    int processCount;               // Pool size
+    int allocatedProcesses;         // ProcessSet: allocated count and displaced (position, index) pairs
+    int[] processOrder = new int[0];
+
+    String[] processIds = new String[0]; // Index table for everything below: ids still referenced
+    int[] frequency = new int[0];        // Access count per process (display), -1 if none
+    long[] ramAddTime = new long[0];     // RAM add time per process (display), Long.MIN_VALUE if none
+    long[] lastFaultTime = new long[0];  // Heatmap fault time per process, Long.MIN_VALUE if none
+    long[] dirty = new long[0];          // Bitset over process indices
+
+    int[] ram = new int[0];              // RAM contents in order
+    int[] policyState = new int[0];      // PriorityReplacement.exportState, over pool indices (not the table)
+    int[] swapSlots = new int[0];        // Process per swap slot, -1 if free
+    int[] pool = new int[0];             // Compressed pool contents, oldest first
+    int[] cache = new int[0];            // Cache contents in insertion order
+    long[] cacheLastAccess = new long[0];
+
+    Stats stats = new Stats();
+
+    /** Encodes the checkpoint into one buffer, ready for {@link #write}. Copies every value, so the state may change afterwards. */
+    public ByteBuffer encode() {
+        byte[][] ids = new byte[processIds.length][];
+        byte[] algorithmName = algorithm.getBytes(StandardCharsets.UTF_8);
+        int size = MAGIC.length + 6 * Long.BYTES + 10 * Integer.BYTES + Short.BYTES + algorithmName.length + Integer.BYTES;
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = processIds[i].getBytes(StandardCharsets.UTF_8);
+            size += Short.BYTES + ids[i].length;
+        }
+        size += ints(frequency) + longs(ramAddTime) + longs(lastFaultTime) + longs(dirty)
+                + ints(processOrder) + ints(ram) + ints(policyState) + ints(swapSlots) + ints(pool) + ints(cache) + longs(cacheLastAccess)
+                + Integer.BYTES + STATS_FIELDS * Long.BYTES + 4 * LatencyHistogram.BYTES;
+
+        ByteBuffer out = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+        out.put(MAGIC).putLong(savedAtMillis).putLong(seed)
+                .putLong(rootStream).putLong(inputStream).putLong(evictionStream).putLong(sizeSeed);
+        out.putInt(ramSize).putInt(swapSize).putInt(cacheSize).putInt(pageSizeKb).putInt(zswapFrames).putInt(zswapLevel);
+        out.putShort((short) algorithmName.length).put(algorithmName);
+        out.putInt(swapBacking).putInt(swapDevice).putInt(processCount).putInt(allocatedProcesses);
+        out.putInt(ids.length);
+        for (byte[] id : ids) out.putShort((short) id.length).put(id);
+        putInts(out, frequency);
+        putLongs(out, ramAddTime);
+        putLongs(out, lastFaultTime);
+        putLongs(out, dirty);
+        putInts(out, processOrder);
+        putInts(out, ram);
+        putInts(out, policyState);
+        putInts(out, swapSlots);
+        putInts(out, pool);
+        putInts(out, cache);
+        putLongs(out, cacheLastAccess);
+        out.putInt(STATS_FIELDS);
+        for (long v : statsFields(stats)) out.putLong(v);
+        stats.cacheHitLatency.writeTo(out);
+        stats.ramHitLatency.writeTo(out);
+        stats.faultLatency.writeTo(out);
+        stats.dirtyFaultLatency.writeTo(out);
+        out.flip();
+        return out;
+    }
+
+    /** Writes an encoded checkpoint with a single channel write, replacing the file. */
+    public static void write(Path file, ByteBuffer data) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (data.hasRemaining()) channel.write(data);
+        }
+    }
+
+    public static SimulationCheckpoint read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // One read into one buffer (not a mapping, which would keep the file locked on some platforms)
+            ByteBuffer in = ByteBuffer.allocateDirect((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            while (in.hasRemaining() && channel.read(in) >= 0) { }
+            in.flip();
+            byte[] magic = new byte[MAGIC.length];
+            if (in.remaining() >= magic.length) in.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) throw new IOException("Not a simulation checkpoint: " + file);
+            try {
+                SimulationCheckpoint cp = new SimulationCheckpoint();
+                cp.savedAtMillis = in.getLong();
+                cp.seed = in.getLong();
+                cp.rootStream = in.getLong();
+                cp.inputStream = in.getLong();
+                cp.evictionStream = in.getLong();
+                cp.sizeSeed = in.getLong();
+                cp.ramSize = in.getInt();
+                cp.swapSize = in.getInt();
+                cp.cacheSize = in.getInt();
+                cp.pageSizeKb = in.getInt();
+                cp.zswapFrames = in.getInt();
+                cp.zswapLevel = in.getInt();
+                byte[] algorithm = new byte[in.getShort()];
+                in.get(algorithm);
+                cp.algorithm = new String(algorithm, StandardCharsets.UTF_8);
+                cp.swapBacking = in.getInt();
+                cp.swapDevice = in.getInt();
+                cp.processCount = in.getInt();
+                cp.allocatedProcesses = in.getInt();
+                cp.processIds = new String[in.getInt()];
+                for (int i = 0; i < cp.processIds.length; i++) {
+                    byte[] id = new byte[in.getShort()];
+                    in.get(id);
+                    cp.processIds[i] = new String(id, StandardCharsets.UTF_8);
+                }
+                cp.frequency = getInts(in);
+                cp.ramAddTime = getLongs(in);
+                cp.lastFaultTime = getLongs(in);
+                cp.dirty = getLongs(in);
+                cp.processOrder = getInts(in);
+                cp.ram = getInts(in);
+                cp.policyState = getInts(in);
+                cp.swapSlots = getInts(in);
+                cp.pool = getInts(in);
+                cp.cache = getInts(in);
+                cp.cacheLastAccess = getLongs(in);
+                if (in.getInt() != STATS_FIELDS) throw new IOException("Checkpoint written by another version: " + file);
+                long[] fields = new long[STATS_FIELDS];
+                in.asLongBuffer().get(fields);
+                in.position(in.position() + STATS_FIELDS * Long.BYTES);
+                setStatsFields(cp.stats, fields);
+                cp.stats.cacheHitLatency.readFrom(in);
+                cp.stats.ramHitLatency.readFrom(in);
+                cp.stats.faultLatency.readFrom(in);
+                cp.stats.dirtyFaultLatency.readFrom(in);
+                cp.validate();
+                return cp;
+            } catch (RuntimeException e) { // Truncated file, bad lengths or values out of range
+                throw new IOException("Corrupt checkpoint " + file + ": " + e, e);
+            }
+        }
+    }
+
+    /**
+     * Rejects a checkpoint the GUI could not restore: sizes outside its input ranges, arrays
+     * that do not match the id table, and contents referring to processes or slots that do not
+     * exist. Done on read, so a bad file fails before any live state is cleared.
+     */
+    void validate() {
+        check(ramSize >= 1 && ramSize <= VirtualMemoryManagerGUI.MAX_FRAMES, "RAM size", ramSize);
+        check(swapSize >= 0 && swapSize <= VirtualMemoryManagerGUI.MAX_FRAMES, "swap size", swapSize);
+        check(cacheSize >= 0 && cacheSize <= VirtualMemoryManagerGUI.MAX_CACHE_ENTRIES, "cache size", cacheSize);
+        check(pageSizeKb >= 1 && pageSizeKb <= VirtualMemoryManagerGUI.MAX_PAGE_KB, "page size", pageSizeKb);
+        check(zswapFrames >= 0 && zswapFrames <= VirtualMemoryManagerGUI.MAX_POOL_FRAMES, "pool size", zswapFrames);
+        check(zswapLevel >= 0 && zswapLevel <= 9, "Deflater level", zswapLevel);
+        check(swapBacking >= 0 && swapBacking <= FileBackedSwap.Mode.values().length, "swap backing", swapBacking); // 0 = simulated
+        check(swapDevice >= 0 && swapDevice < LatencyModel.Config.Device.values().length, "swap device", swapDevice);
+        check(processCount >= 1 && processCount <= VirtualMemoryManagerGUI.MAX_PROCESSES, "process count", processCount);
+
+        int n = processIds.length;
+        check(frequency.length == n && ramAddTime.length == n && lastFaultTime.length == n, "per-process arrays for ids", n);
+        check(dirty.length == (n + 63) >>> 6, "dirty bitset words", dirty.length);
+        check(cacheLastAccess.length == cache.length, "cache timestamps", cacheLastAccess.length);
+        check(swapSlots.length == swapSize, "swap slots", swapSlots.length);
+        check(ram.length <= ramSize, "RAM pages", ram.length);
+        check(cache.length <= cacheSize, "cache entries", cache.length);
+        check(zswapFrames > 0 || pool.length == 0, "pool pages", pool.length);
+
+        Set<String> ids = new HashSet<>();
+        for (String id : processIds) { // P1..P<processCount>, each once
+            int number;
+            try {
+                number = id.startsWith("P") ? Integer.parseInt(id.substring(1)) : -1;
+            } catch (NumberFormatException e) {
+                number = -1;
+            }
+            check(number >= 1 && number <= processCount && ids.add(id), "process id " + id + " of " + processCount, number);
+        }
+        checkIndices(ram, n, false, "RAM");
+        checkIndices(cache, n, false, "cache");
+        checkIndices(pool, n, false, "pool");
+        checkIndices(swapSlots, n, true, "swap slot");
+    }
+
+    // Each entry a process index, at most once (and -1 for a free entry where allowed)
+    private static void checkIndices(int[] entries, int n, boolean freeAllowed, String what) {
+        boolean[] seen = new boolean[n];
+        for (int i : entries) {
+            if (freeAllowed && i == -1) continue;
+            check(i >= 0 && i < n && !seen[i], what + " entry", i);
+            seen[i] = true;
+        }
+    }
+
+    private static void check(boolean valid, String what, long value) {
+        if (!valid) throw new IllegalArgumentException("bad " + what + ": " + value);
+    }
+
+    boolean isDirty(int index) {
+        return (dirty[index >>> 6] & 1L << index) != 0;
+    }
+
+    // --- Encoding ---
+
+    private static int ints(int[] a) { return Integer.BYTES + a.length * Integer.BYTES; }
+    private static int longs(long[] a) { return Integer.BYTES + a.length * Long.BYTES; }
+
+    private static void putInts(ByteBuffer out, int[] a) {
+        out.putInt(a.length);
+        out.asIntBuffer().put(a);
+        out.position(out.position() + a.length * Integer.BYTES);
+    }
+
+    private static void putLongs(ByteBuffer out, long[] a) {
+        out.putInt(a.length);
+        out.asLongBuffer().put(a);
+        out.position(out.position() + a.length * Long.BYTES);
+    }
+
+    private static int[] getInts(ByteBuffer in) {
+        int[] a = new int[in.getInt()];
+        in.asIntBuffer().get(a);
+        in.position(in.position() + a.length * Integer.BYTES);
+        return a;
+    }
+
+    private static long[] getLongs(ByteBuffer in) {
+        long[] a = new long[in.getInt()];
+        in.asLongBuffer().get(a);
+        in.position(in.position() + a.length * Long.BYTES);
+        return a;
+    }
+
+    // Counters of Stats in file order; keep the two methods and STATS_FIELDS in step
+    private static long[] statsFields(Stats s) {
+        return new long[]{
+                s.cacheHits, s.cacheAccesses, s.ramHits, s.ramAccesses, s.pageFaults, s.swapAccesses,
+                s.tlbHits, s.tlbMisses, s.totalAccesses, s.writeBacks, s.evictions, s.highPriorityEvictions,
+                s.swapFileWrites, s.swapFileReads, s.swapFileWriteNanos, s.swapFileReadNanos,
+                s.zswapStores, s.zswapHits, s.zswapOverflows, s.zswapBytesIn, s.zswapBytesOut,
+                s.zswapCompressNanos, s.zswapDecompressNanos,
+                s.simulatedNanos, s.busyWallNanos, s.modelAccesses, s.modelNanos, s.modelQueueWaitNanos};
+    }
+
+    private static void setStatsFields(Stats s, long[] f) {
+        int i = 0;
+        s.cacheHits = f[i++]; s.cacheAccesses = f[i++]; s.ramHits = f[i++]; s.ramAccesses = f[i++];
+        s.pageFaults = f[i++]; s.swapAccesses = f[i++];
+        s.tlbHits = f[i++]; s.tlbMisses = f[i++]; s.totalAccesses = f[i++]; s.writeBacks = f[i++];
+        s.evictions = f[i++]; s.highPriorityEvictions = f[i++];
+        s.swapFileWrites = f[i++]; s.swapFileReads = f[i++]; s.swapFileWriteNanos = f[i++]; s.swapFileReadNanos = f[i++];
+        s.zswapStores = f[i++]; s.zswapHits = f[i++]; s.zswapOverflows = f[i++]; s.zswapBytesIn = f[i++]; s.zswapBytesOut = f[i++];
+        s.zswapCompressNanos = f[i++]; s.zswapDecompressNanos = f[i++];
+        s.simulatedNanos = f[i++]; s.busyWallNanos = f[i++]; s.modelAccesses = f[i++]; s.modelNanos = f[i++];
+        s.modelQueueWaitNanos = f[i];
+    }
+}
@@ -0,0 +1,223 @@
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import javax.management.JMException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Simulation counters, occupancy, thrashing state and algorithm for external monitoring.
+ * Each metric is declared once and exposed both as a read-only attribute of the JMX MBean
+ * {@code vmm:type=Simulation} and in Prometheus text format ({@link #toPrometheus}, served
+ * by {@link MetricsServer}). Values are read from the {@link Source} on demand, so
+ * monitoring costs the simulation nothing between scrapes.
+ */
+class SimulationMetrics implements DynamicMBean {
+
+    static final String OBJECT_NAME = "vmm:type=Simulation";
+
+    /**
+     * Live view of a simulation: the GUI, or a headless run through {@link EngineMetricsSource}.
+     * Called from monitoring threads.
+     */
+    interface Source {
+        Stats getStats();
+        int getRamUsed();
+        int getRamFrames();
+        int getSwapUsed();
+        int getSwapSlots();
+        int getCacheUsed();
+        int getCacheEntries();
+        int getPoolUsed();    // Pages in the compressed pool
+        boolean isThrashing();
+        String getAlgorithm();
+    }
+
+    private static final class Metric {
+        final String jmxName;    // CamelCase attribute name
+        final String promName;   // snake_case, prefixed with vmm_
+        final String help;
+        final boolean counter;
+        final boolean floating;  // double rather than long
+        final Function<Source, Number> value;
+
+        Metric(String jmxName, String promName, String help, boolean counter, boolean floating, Function<Source, Number> value) {
+            this.jmxName = jmxName;
+            this.promName = promName;
+            this.help = help;
+            this.counter = counter;
+            this.floating = floating;
+            this.value = value;
+        }
+    }
+
+    private static final String[] OUTCOMES = {"cache_hit", "ram_hit", "fault", "dirty_fault"};
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+    private final Source source;
+    private final Map<String, Metric> metrics = new LinkedHashMap<>();
+
+    public SimulationMetrics(Source source) {
+        this.source = source;
+        counter("TotalAccesses", "accesses_total", "Process accesses", s -> s.getStats().totalAccesses);
+        counter("CacheHits", "cache_hits_total", "Accesses served by the cache", s -> s.getStats().cacheHits);
+        counter("RamHits", "ram_hits_total", "Accesses served by RAM", s -> s.getStats().ramHits);
+        counter("PageFaults", "page_faults_total", "Accesses that faulted (pool or swap)", s -> s.getStats().pageFaults);
+        counter("SwapAccesses", "swap_accesses_total", "Faults served from swap", s -> s.getStats().swapAccesses);
+        counter("PoolHits", "pool_hits_total", "Faults served from the compressed pool", s -> s.getStats().zswapHits);
+        counter("TlbHits", "tlb_hits_total", "TLB hits", s -> s.getStats().tlbHits);
+        counter("TlbMisses", "tlb_misses_total", "TLB misses", s -> s.getStats().tlbMisses);
+        counter("WriteBacks", "write_backs_total", "Dirty pages written back on eviction", s -> s.getStats().writeBacks);
+        counter("Evictions", "evictions_total", "RAM pages evicted", s -> s.getStats().evictions);
+        counter("HighPriorityEvictions", "high_priority_evictions_total", "High-priority RAM pages evicted", s -> s.getStats().highPriorityEvictions);
+        counter("ModelLatencyNanos", "model_latency_nanoseconds_total", "Modelled latency of all accesses", s -> s.getStats().getModelNanos());
+        counter("SimulatedNanos", "simulated_nanoseconds_total", "Simulated clock", s -> s.getStats().getSimulatedNanos());
+        gauge("RamUsed", "ram_used_frames", "RAM frames in use", Source::getRamUsed);
+        gauge("RamFrames", "ram_frames", "RAM size in frames", Source::getRamFrames);
+        gauge("SwapUsed", "swap_used_slots", "Swap slots in use", Source::getSwapUsed);
+        gauge("SwapSlots", "swap_slots", "Swap size in slots", Source::getSwapSlots);
+        gauge("CacheUsed", "cache_used_entries", "Cache entries in use", Source::getCacheUsed);
+        gauge("CacheEntries", "cache_entries", "Cache size in entries", Source::getCacheEntries);
+        gauge("PoolUsed", "pool_used_pages", "Pages in the compressed pool", Source::getPoolUsed);
+        gauge("Thrashing", "thrashing", "1 while the thrashing alert is on", s -> s.isThrashing() ? 1 : 0);
+        decimalGauge("EffectiveAccessTimeNanos", "effective_access_time_nanoseconds", "Mean modelled access latency",
+                s -> LatencyModel.effectiveAccessTime(s.getStats()));
+    }
+
+    private void counter(String jmxName, String promName, String help, Function<Source, Number> value) {
+        metrics.put(jmxName, new Metric(jmxName, "vmm_" + promName, help, true, false, value));
+    }
+
+    private void gauge(String jmxName, String promName, String help, Function<Source, Number> value) {
+        metrics.put(jmxName, new Metric(jmxName, "vmm_" + promName, help, false, false, value));
+    }
+
+    private void decimalGauge(String jmxName, String promName, String help, Function<Source, Number> value) {
+        metrics.put(jmxName, new Metric(jmxName, "vmm_" + promName, help, false, true, value));
+    }
+
+    /** Registers the MBean with the platform MBean server, replacing an earlier registration. */
+    public void register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        try {
+            server.registerMBean(this, name);
+        } catch (InstanceAlreadyExistsException e) {
+            server.unregisterMBean(name);
+            server.registerMBean(this, name);
+        }
+    }
+
+    // --- Prometheus ---
+
+    /** All metrics in Prometheus text exposition format (version 0.0.4). */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Metric m : metrics.values()) {
+            out.append("# HELP ").append(m.promName).append(' ').append(m.help).append('\n');
+            out.append("# TYPE ").append(m.promName).append(m.counter ? " counter\n" : " gauge\n");
+            out.append(m.promName).append(' ').append(m.value.apply(source)).append('\n');
+        }
+        out.append("# HELP vmm_info Replacement algorithm in use\n# TYPE vmm_info gauge\n");
+        out.append("vmm_info{algorithm=\"").append(source.getAlgorithm()).append("\"} 1\n");
+
+        out.append("# HELP vmm_access_latency_nanoseconds Modelled access latency by outcome\n");
+        out.append("# TYPE vmm_access_latency_nanoseconds summary\n");
+        Stats stats = source.getStats();
+        for (int i = 0; i < OUTCOMES.length; i++) {
+            LatencyHistogram h = histogram(stats, i).snapshot(); // Consistent while the simulation records
+            String label = "vmm_access_latency_nanoseconds{outcome=\"" + OUTCOMES[i] + "\"";
+            for (double q : QUANTILES) {
+                out.append(label).append(",quantile=\"").append(q).append("\"} ").append(h.percentile(q)).append('\n');
+            }
+            out.append("vmm_access_latency_nanoseconds_sum{outcome=\"").append(OUTCOMES[i]).append("\"} ").append(h.getSum()).append('\n');
+            out.append("vmm_access_latency_nanoseconds_count{outcome=\"").append(OUTCOMES[i]).append("\"} ").append(h.getCount()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static LatencyHistogram histogram(Stats stats, int outcome) {
+        switch (outcome) {
+            case 0: return stats.cacheHitLatency;
+            case 1: return stats.ramHitLatency;
+            case 2: return stats.faultLatency;
+            default: return stats.dirtyFaultLatency;
+        }
+    }
+
+    // --- DynamicMBean ---
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        if ("Algorithm".equals(attribute)) return source.getAlgorithm();
+        if (attribute.endsWith("LatencyP99")) { // e.g. FaultLatencyP99
+            for (int i = 0; i < OUTCOMES.length; i++) {
+                if (attribute.equals(camel(OUTCOMES[i]) + "LatencyP99")) return histogram(source.getStats(), i).snapshot().percentile(0.99);
+            }
+        }
+        Metric m = metrics.get(attribute);
+        if (m == null) throw new AttributeNotFoundException(attribute);
+        Number value = m.value.apply(source);
+        return m.floating ? (Object) value.doubleValue() : (Object) value.longValue();
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String name : attributes) {
+            try {
+                list.add(new Attribute(name, getAttribute(name)));
+            } catch (AttributeNotFoundException e) {
+                // Skipped, as the DynamicMBean contract allows
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList(); // All read-only
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName)); // The MBean has no operations
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        attributes.add(new MBeanAttributeInfo("Algorithm", String.class.getName(), "Replacement algorithm in use", true, false, false));
+        for (Metric m : metrics.values()) {
+            attributes.add(new MBeanAttributeInfo(m.jmxName, m.floating ? "double" : "long", m.help, true, false, false));
+        }
+        for (String outcome : OUTCOMES) {
+            attributes.add(new MBeanAttributeInfo(camel(outcome) + "LatencyP99", "long",
+                    "p99 modelled latency (ns), outcome " + outcome, true, false, false));
+        }
+        return new MBeanInfo(getClass().getName(), "Virtual memory simulation metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, null, null);
+    }
+
+    private static String camel(String snake) {
+        StringBuilder sb = new StringBuilder();
+        for (String part : snake.split("_")) sb.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1));
+        return sb.toString();
+    }
+}
@@ -1,31 +1,142 @@
 import javax.swing.*;
 import javax.swing.text.*;
+import javax.swing.text.DefaultStyledDocument.ElementSpec;
 import java.awt.Color;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Bounded log view on a JTextPane. Appended text is only buffered; {@link #flush()} (called
+ * once per frame) inserts everything pending in a single document edit, drops the oldest
+ * lines beyond the capacity and scrolls once. Attribute sets are created once per
+ * color/bold combination and reused.
+ */
 class StyledTextPane {
 
-    private JTextPane textPane;
-    private StyledDocument doc;
+    private final JTextPane textPane;
+    private final LogDocument doc = new LogDocument();
+    private final int capacity; // Lines kept in the document
+    private final Map<Integer, AttributeSet> styles = new HashMap<>(); // Key: RGB and bold bit
+    private final List<ElementSpec> currentLine = new ArrayList<>();
+    private int currentLineLength = 0;
+    private final ArrayDeque<PendingLine> pending = new ArrayDeque<>(); // Complete lines not yet inserted
+    private final int[] lineLengths; // Ring of the lengths of the lines in the document
+    private int firstLine = 0, lineCount = 0;
+    private int keptChars = 0; // Total length of the lines in the ring
+    private long droppedLines = 0; // Lines that never reached the document (burst over capacity)
 
-    public StyledTextPane(JTextPane pane) {
+    private static final class PendingLine {
+        final ElementSpec[] specs;
+        final int length;
+        PendingLine(ElementSpec[] specs, int length) { this.specs = specs; this.length = length; }
+    }
+
+    // Exposes the batch insert of DefaultStyledDocument
+    private static final class LogDocument extends DefaultStyledDocument {
+        void append(ElementSpec[] specs) throws BadLocationException {
+            insert(getLength(), specs);
+        }
+    }
+
+    public StyledTextPane(JTextPane pane, int capacity) {
         this.textPane = pane;
-        this.doc = pane.getStyledDocument();
+        this.capacity = Math.max(1, capacity);
+        this.lineLengths = new int[this.capacity];
+        pane.setDocument(doc);
+        // Scrolling is done once per flush instead of by the caret on every insert
+        ((DefaultCaret) pane.getCaret()).setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
     }
 
     public void append(String text, Color color, boolean isBold) {
-        Style style = textPane.addStyle("Style_" + color.getRGB() + "_" + isBold, null);
-        StyleConstants.setForeground(style, color);
-        StyleConstants.setBold(style, isBold);
-        // Could add other attributes like font family, size here
+        AttributeSet style = styleFor(color, isBold);
+        int start = 0;
+        int newline;
+        while ((newline = text.indexOf('\n', start)) >= 0) {
+            addSegment(text.substring(start, newline + 1), style);
+            endLine();
+            start = newline + 1;
+        }
+        if (start < text.length()) addSegment(text.substring(start), style);
+    }
+
+     public void append(String text, Color color) {
+         append(text, color, false); // Default to not bold
+     }
+
+    public long getDroppedLines() {
+        return droppedLines;
+    }
+
+    /** Inserts the pending lines, trims the document to the capacity and keeps the view at the bottom if it was there. */
+    public void flush() {
+        if (pending.isEmpty()) return;
+        JScrollBar bar = scrollBar();
+        boolean atBottom = bar == null || bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - 4;
+
+        List<ElementSpec> batch = new ArrayList<>();
+        for (PendingLine line : pending) {
+            for (ElementSpec spec : line.specs) batch.add(spec);
+            if (lineCount == capacity) { // Oldest line leaves the ring
+                keptChars -= lineLengths[firstLine];
+                firstLine = (firstLine + 1) % capacity;
+                lineCount--;
+            }
+            lineLengths[(firstLine + lineCount) % capacity] = line.length;
+            lineCount++;
+            keptChars += line.length;
+        }
+        pending.clear();
 
         try {
-            doc.insertString(doc.getLength(), text, style);
+            doc.append(batch.toArray(new ElementSpec[0]));
+            int excess = doc.getLength() - keptChars; // Text of lines that left the ring
+            if (excess > 0) doc.remove(0, excess);
         } catch (BadLocationException e) {
             e.printStackTrace(); // Or handle more gracefully
         }
+        if (atBottom) textPane.setCaretPosition(doc.getLength());
     }
 
-     public void append(String text, Color color) {
-         append(text, color, false); // Default to not bold
-     }
+    // --- Internals ---
+
+    private AttributeSet styleFor(Color color, boolean isBold) {
+        int key = (color.getRGB() << 1) | (isBold ? 1 : 0);
+        AttributeSet style = styles.get(key);
+        if (style == null) {
+            SimpleAttributeSet attrs = new SimpleAttributeSet();
+            StyleConstants.setForeground(attrs, color);
+            StyleConstants.setBold(attrs, isBold);
+            style = attrs;
+            styles.put(key, style);
+        }
+        return style;
+    }
+
+    private void addSegment(String text, AttributeSet style) {
+        if (text.isEmpty()) return;
+        char[] chars = text.toCharArray();
+        currentLine.add(new ElementSpec(style, ElementSpec.ContentType, chars, 0, chars.length));
+        currentLineLength += chars.length;
+    }
+
+    // Closes the paragraph of the current line and queues it for the next flush
+    private void endLine() {
+        currentLine.add(new ElementSpec(null, ElementSpec.EndTagType));
+        currentLine.add(new ElementSpec(null, ElementSpec.StartTagType));
+        pending.addLast(new PendingLine(currentLine.toArray(new ElementSpec[0]), currentLineLength));
+        currentLine.clear();
+        currentLineLength = 0;
+        if (pending.size() > capacity) { // Would be trimmed right after insertion anyway
+            pending.removeFirst();
+            droppedLines++;
+        }
+    }
+
+    private JScrollBar scrollBar() {
+        JScrollPane scroll = (JScrollPane) SwingUtilities.getAncestorOfClass(JScrollPane.class, textPane);
+        return scroll != null ? scroll.getVerticalScrollBar() : null;
+    }
 }
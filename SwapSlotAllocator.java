@@ -0,0 +1,203 @@
+import java.util.Arrays;
+
+/**
+ * Swap slot allocator modeled on the kernel's clustered swap allocator. Slots are tracked
+ * in a bitmap and grouped into 64-slot clusters (one bitmap word each). Allocation keeps
+ * filling the current cluster so consecutively evicted pages land in contiguous slots;
+ * when it is exhausted a completely free cluster is taken from the free-cluster list, and
+ * only when none is left does it fall back to a partially used cluster from a second list.
+ * Every cluster but the current one sits on the list matching its state (free, partial, or
+ * none once full) and moves as its slots are freed, so every path is O(1), independent of
+ * the number of slots.
+ */
+class SwapSlotAllocator {
+
+    static final int CLUSTER_SIZE = 64; // Slots per cluster = bits per bitmap word
+
+    private final int capacity;
+    private final int clusterCount;
+    private final long[] used;        // One bit per slot, one word per cluster
+    private final int[] freeClusters; // Stack of completely free clusters
+    private final boolean[] onFreeList;
+    private int freeClusterTop = 0;
+    private final int[] partialClusters; // Partially used clusters, in no order
+    private final int[] partialIndex;    // Cluster -> position in partialClusters, -1 if not listed
+    private int partialCount = 0;
+
+    private int currentCluster = -1;   // Cluster being filled sequentially (on neither list)
+    private int usedSlots = 0;
+
+    // Locality tracking
+    private int lastAllocated = -2;
+    private long allocations = 0;
+    private long contiguousAllocations = 0; // Allocated right after the previous slot
+
+    public SwapSlotAllocator(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.clusterCount = (this.capacity + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+        this.used = new long[clusterCount];
+        this.freeClusters = new int[clusterCount];
+        this.onFreeList = new boolean[clusterCount];
+        this.partialClusters = new int[clusterCount];
+        this.partialIndex = new int[clusterCount];
+        Arrays.fill(partialIndex, -1);
+
+        for (int c = clusterCount - 1; c >= 0; c--) { // Lowest cluster on top of the stack
+            pushFreeCluster(c);
+        }
+        // Slots past the capacity in the last cluster are permanently "used"
+        int tail = this.capacity % CLUSTER_SIZE;
+        if (tail != 0) {
+            used[clusterCount - 1] = -1L << tail;
+        }
+    }
+
+    public int getCapacity() { return capacity; }
+    public int getUsedSlots() { return usedSlots; }
+    public int getFreeSlots() { return capacity - usedSlots; }
+
+    /** @return the allocated slot, or -1 if swap is full. */
+    public int allocate() {
+        if (usedSlots >= capacity) return -1;
+
+        int cluster = currentCluster;
+        if (cluster < 0 || used[cluster] == -1L) {
+            cluster = takeFreeCluster();
+            if (cluster < 0) cluster = takePartialCluster(); // Not -1: a slot is free somewhere
+            currentCluster = cluster;
+        }
+
+        // Prefer the slot right after the previous allocation, else the lowest free slot
+        int bit;
+        int next = lastAllocated + 1;
+        if (next >= 0 && next / CLUSTER_SIZE == cluster && next < capacity && (used[cluster] & (1L << (next % CLUSTER_SIZE))) == 0) {
+            bit = next % CLUSTER_SIZE;
+        } else {
+            bit = Long.numberOfTrailingZeros(~used[cluster]);
+        }
+        used[cluster] |= 1L << bit;
+
+        int slot = cluster * CLUSTER_SIZE + bit;
+        allocations++;
+        if (slot == lastAllocated + 1) contiguousAllocations++;
+        lastAllocated = slot;
+        usedSlots++;
+        return slot;
+    }
+
+    public void free(int slot) {
+        if (slot < 0 || slot >= capacity) return;
+        int cluster = slot / CLUSTER_SIZE;
+        long mask = 1L << (slot % CLUSTER_SIZE);
+        if ((used[cluster] & mask) == 0) return; // Already free
+
+        used[cluster] &= ~mask;
+        usedSlots--;
+        if (cluster == currentCluster) return; // Still being filled
+        if (isClusterEmpty(cluster)) {
+            removePartialCluster(cluster);
+            pushFreeCluster(cluster);
+        } else {
+            addPartialCluster(cluster); // No-op if it already was partial
+        }
+    }
+
+    /**
+     * Marks the given slots as used, as when restoring a checkpoint, then rebuilds the
+     * cluster lists. Locality counters start over.
+     */
+    public void reserve(int[] slots) {
+        for (int slot : slots) {
+            if (slot < 0 || slot >= capacity || isUsed(slot)) continue;
+            int cluster = slot / CLUSTER_SIZE;
+            used[cluster] |= 1L << (slot % CLUSTER_SIZE);
+            usedSlots++;
+        }
+        freeClusterTop = 0;
+        Arrays.fill(onFreeList, false);
+        partialCount = 0;
+        Arrays.fill(partialIndex, -1);
+        for (int c = clusterCount - 1; c >= 0; c--) {
+            if (isClusterEmpty(c)) pushFreeCluster(c);
+            else if (used[c] != -1L) addPartialCluster(c);
+        }
+        currentCluster = -1;
+    }
+
+    public boolean isUsed(int slot) {
+        return slot >= 0 && slot < capacity && (used[slot / CLUSTER_SIZE] & (1L << (slot % CLUSTER_SIZE))) != 0;
+    }
+
+    /**
+     * Fraction of free slots that are scattered inside partially used clusters rather than
+     * available as whole free clusters (0 = no fragmentation, 1 = every free slot is a hole).
+     */
+    public double getFragmentation() {
+        int free = getFreeSlots();
+        if (free == 0) return 0.0;
+        // Listed clusters are always empty; only the last cluster can be shorter than CLUSTER_SIZE
+        long wholeClusterSlots = (long) freeClusterTop * CLUSTER_SIZE;
+        if (clusterCount > 0 && onFreeList[clusterCount - 1]) {
+            wholeClusterSlots -= CLUSTER_SIZE - clusterSlots(clusterCount - 1);
+        }
+        return 1.0 - (double) wholeClusterSlots / free;
+    }
+
+    /** Share of allocations that landed directly after the previously allocated slot. */
+    public double getContiguity() {
+        return allocations > 0 ? (double) contiguousAllocations / allocations : 0.0;
+    }
+
+    public int getFreeClusterCount() { return freeClusterTop; }
+
+    // --- Internals ---
+
+    private int takeFreeCluster() {
+        if (freeClusterTop == 0) return -1;
+        int c = freeClusters[--freeClusterTop];
+        onFreeList[c] = false;
+        return c;
+    }
+
+    private void pushFreeCluster(int cluster) {
+        if (onFreeList[cluster]) return;
+        onFreeList[cluster] = true;
+        freeClusters[freeClusterTop++] = cluster;
+    }
+
+    private int takePartialCluster() {
+        if (partialCount == 0) return -1;
+        int c = partialClusters[partialCount - 1];
+        removePartialCluster(c);
+        return c;
+    }
+
+    private void addPartialCluster(int cluster) {
+        if (partialIndex[cluster] >= 0) return;
+        partialIndex[cluster] = partialCount;
+        partialClusters[partialCount++] = cluster;
+    }
+
+    // Swaps the last listed cluster into the removed one's place
+    private void removePartialCluster(int cluster) {
+        int i = partialIndex[cluster];
+        if (i < 0) return;
+        int last = partialClusters[--partialCount];
+        partialClusters[i] = last;
+        partialIndex[last] = i;
+        partialIndex[cluster] = -1;
+    }
+
+    private boolean isClusterEmpty(int cluster) {
+        return clusterFreeSlots(cluster) == clusterSlots(cluster);
+    }
+
+    private int clusterFreeSlots(int cluster) {
+        return Long.bitCount(~used[cluster]);
+    }
+
+    private int clusterSlots(int cluster) {
+        int start = cluster * CLUSTER_SIZE;
+        return Math.min(CLUSTER_SIZE, capacity - start);
+    }
+}
@@ -0,0 +1,107 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Swap space contents: which process occupies which swap slot. Slots are handed out by a
+ * {@link SwapSlotAllocator}, so insertion and removal are O(1) and consecutively evicted
+ * pages sit in neighbouring slots (and at neighbouring offsets of a swap file).
+ */
+class SwapSpace {
+
+    private final SwapSlotAllocator allocator;
+    private final String[] owners; // Slot -> process
+    private final Map<String, Integer> slotOf = new HashMap<>(); // Process -> slot
+
+    public SwapSpace(int capacity) {
+        this.allocator = new SwapSlotAllocator(capacity);
+        this.owners = new String[allocator.getCapacity()];
+    }
+
+    /** Swap space holding {@code owners[slot]} in each slot (null = free), as saved in a checkpoint. */
+    public static SwapSpace restore(String[] owners) {
+        SwapSpace space = new SwapSpace(owners.length);
+        int[] slots = new int[owners.length];
+        int n = 0;
+        for (int slot = 0; slot < owners.length; slot++) {
+            if (owners[slot] == null) continue;
+            space.owners[slot] = owners[slot];
+            space.slotOf.put(owners[slot], slot);
+            slots[n++] = slot;
+        }
+        space.allocator.reserve(Arrays.copyOf(slots, n));
+        return space;
+    }
+
+    /** Slot -> process (null = free), for checkpoints. */
+    public synchronized String[] getOwners() {
+        return owners.clone();
+    }
+
+    /** @return the slot the process now occupies (existing slot if already swapped), or -1 if swap is full. */
+    public synchronized int add(String processId) {
+        Integer existing = slotOf.get(processId);
+        if (existing != null) return existing;
+        int slot = allocator.allocate();
+        if (slot < 0) return -1;
+        owners[slot] = processId;
+        slotOf.put(processId, slot);
+        return slot;
+    }
+
+    /** @return the slot that was released, or -1 if the process was not in swap. */
+    public synchronized int remove(String processId) {
+        Integer slot = slotOf.remove(processId);
+        if (slot == null) return -1;
+        owners[slot] = null;
+        allocator.free(slot);
+        return slot;
+    }
+
+    public synchronized boolean contains(String processId) {
+        return slotOf.containsKey(processId);
+    }
+
+    public synchronized int slotOf(String processId) {
+        return slotOf.getOrDefault(processId, -1);
+    }
+
+    public synchronized int size() {
+        return slotOf.size();
+    }
+
+    public int capacity() {
+        return owners.length;
+    }
+
+    public synchronized boolean isFull() {
+        return allocator.getFreeSlots() == 0;
+    }
+
+    public synchronized void clear() {
+        for (int slot : slotOf.values()) {
+            owners[slot] = null;
+            allocator.free(slot);
+        }
+        slotOf.clear();
+    }
+
+    /** Processes in slot order (for display). */
+    public synchronized List<String> getProcessIds() {
+        List<String> ids = new ArrayList<>(slotOf.size());
+        for (String owner : owners) {
+            if (owner != null) ids.add(owner);
+        }
+        return ids;
+    }
+
+    public synchronized double getFragmentation() {
+        return allocator.getFragmentation();
+    }
+
+    public synchronized double getContiguity() {
+        return allocator.getContiguity();
+    }
+}
@@ -0,0 +1,121 @@
+import java.util.Arrays;
+
+/**
+ * Thrashing detection from the outcome (hit or fault) of each access. The last {@code window}
+ * outcomes are kept as bits in a ring, with the number of faults among them updated as bits
+ * enter and leave, so recording is O(1). Alongside, like load averages, fault rates are
+ * tracked as exponentially-weighted moving averages over the last 10, 100 and 1,000
+ * accesses. The averages count accesses rather than time: modelled latency is so uneven
+ * (hits cost nanoseconds, faults milliseconds) that any stretch of memory time covers a few
+ * faults or a huge run of hits, and animation time depends on the speed setting and stops in
+ * batch mode.
+ *
+ * <p>The alert turns on when both the recent window and the 100-access average reach
+ * {@code threshold}, so a short burst of faults among mostly hits does not trigger it, and
+ * turns off only once the 100-access average falls below {@code clearThreshold}, so it does
+ * not flicker. Defaults can be overridden with {@code -Dvmm.thrashing.window},
+ * {@code .threshold} and {@code .clear}. Not thread-safe.
+ */
+class ThrashingDetector {
+
+    static final int[] WINDOW_ACCESSES = {10, 100, 1_000};
+    static final int SUSTAINED = 1; // Index of the 100-access average
+    private static final double[] DECAY = new double[WINDOW_ACCESSES.length]; // Weight left after one more access
+    static {
+        for (int i = 0; i < DECAY.length; i++) DECAY[i] = Math.exp(-1.0 / WINDOW_ACCESSES[i]);
+    }
+
+    private final int window;
+    private final double threshold;
+    private final double clearThreshold;
+
+    private final long[] bits;  // Ring of outcomes, 1 = fault
+    private int next = 0;       // Ring position of the next outcome
+    private int size = 0;
+    private int faults = 0;     // Faults among the last size outcomes
+
+    private final double[] decayedFaults = new double[WINDOW_ACCESSES.length];
+    private final double[] decayedAccesses = new double[WINDOW_ACCESSES.length];
+    private boolean thrashing = false;
+
+    public ThrashingDetector(int window, double threshold, double clearThreshold) {
+        if (window < 2) throw new IllegalArgumentException("window must be at least 2: " + window);
+        this.window = window;
+        this.threshold = threshold;
+        this.clearThreshold = Math.min(clearThreshold, threshold);
+        this.bits = new long[(window + 63) >>> 6];
+    }
+
+    static ThrashingDetector fromSystemProperties() {
+        return new ThrashingDetector(Integer.getInteger("vmm.thrashing.window", 15),
+                doubleProperty("vmm.thrashing.threshold", 0.7), doubleProperty("vmm.thrashing.clear", 0.5));
+    }
+
+    static double doubleProperty(String key, double def) {
+        String value = System.getProperty(key);
+        if (value == null) return def;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return def;
+        }
+    }
+
+    /**
+     * Records the outcome of one access.
+     * @return whether the thrashing alert is on after it
+     */
+    public boolean record(boolean fault) {
+        // Window: overwrite the oldest outcome once the ring is full
+        int word = next >>> 6;
+        long mask = 1L << next;
+        if (size == window) {
+            if ((bits[word] & mask) != 0) faults--;
+        } else {
+            size++;
+        }
+        if (fault) {
+            bits[word] |= mask;
+            faults++;
+        } else {
+            bits[word] &= ~mask;
+        }
+        next = (next + 1 == window) ? 0 : next + 1;
+
+        // Moving averages: every access decays the older ones by the same factor
+        for (int i = 0; i < DECAY.length; i++) {
+            decayedFaults[i] = decayedFaults[i] * DECAY[i] + (fault ? 1 : 0);
+            decayedAccesses[i] = decayedAccesses[i] * DECAY[i] + 1;
+        }
+
+        if (!thrashing) {
+            thrashing = size >= window / 2 && getWindowRate() >= threshold && getRate(SUSTAINED) >= threshold;
+        } else if (getRate(SUSTAINED) < clearThreshold) {
+            thrashing = false;
+        }
+        return thrashing;
+    }
+
+    public void reset() {
+        Arrays.fill(bits, 0);
+        next = size = faults = 0;
+        Arrays.fill(decayedFaults, 0);
+        Arrays.fill(decayedAccesses, 0);
+        thrashing = false;
+    }
+
+    public boolean isThrashing() { return thrashing; }
+    public int getWindowSize() { return size; }
+    public int getWindowFaults() { return faults; }
+    public double getThreshold() { return threshold; }
+
+    /** Fault fraction among the last {@code window} accesses. */
+    public double getWindowRate() {
+        return size > 0 ? (double) faults / size : 0;
+    }
+
+    /** Moving-average fault rate over {@code WINDOW_ACCESSES[i]} accesses (0 = 10, 1 = 100, 2 = 1,000). */
+    public double getRate(int i) {
+        return decayedAccesses[i] > 0 ? decayedFaults[i] / decayedAccesses[i] : 0;
+    }
+}
@@ -0,0 +1,2656 @@
+import javax.swing.*;
+import javax.swing.border.Border;
+import javax.swing.border.CompoundBorder;
+import javax.swing.border.EmptyBorder;
+import javax.swing.border.LineBorder;
+import javax.swing.text.*;
+import javax.management.JMException;
+import java.awt.*;
+import java.awt.event.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+public class VirtualMemoryManagerGUI extends JFrame {
+
+    // --- Configuration & Constants ---
+    static final int MAX_PROCESSES = 10_000_000; // Pool size limit; ids are P1..P<processCount>
+    static final int MAX_FRAMES = 131_072; // RAM and swap size limit (heatmap view)
+    static final int MAX_CACHE_ENTRIES = 16_384;
+    static final int MAX_POOL_FRAMES = 20; // Compressed pool arena limit
+    static final int MAX_PAGE_KB = 1024;
+    private static final int MIN_PROCESS_KB = 512;
+    private static final int MAX_PROCESS_KB = 2 * 1024 * 1024; // 2GB
+    private static final long WRITE_BACK_DELAY_MS = 400; // Base delay
+    private static final int FRAME_MS = 16; // Render loop period (~60 Hz)
+    private static final int HOT_ACCESS_COUNT = 3; // Accesses after which a heatmap cell is drawn hot
+    private static final long RECENT_FAULT_MS = 2000; // How long a faulted-in page stays highlighted in the heatmap
+    private static final long FLAG_REFRESH_MS = 100; // How often heatmap marks are re-checked between frame changes
+    private static final int LOG_LINES = 2000; // Lines kept in the log view; older ones are dropped
+    private static final int AGING_LIMIT = Math.max(0, Integer.getInteger("vmm.aging", 8)); // Evictions a priority class is spared before its turn (0: strict priority)
+    private static final int MAX_ANIMATIONS = 48; // Running animations beyond this are skipped to their end state
+
+    // --- UI Colors & Fonts (Approximations) ---
+    protected static final Color BG_COLOR = new Color(22, 27, 34); // GitHub Dark Dimmed BG approximation
+    protected static final Color SURFACE_COLOR = new Color(34, 40, 49, 200); // Slightly transparent surface
+    protected static final Color SURFACE_SOLID_COLOR = new Color(34, 40, 49);
+    protected static final Color TEXT_COLOR = new Color(201, 209, 217);
+    protected static final Color TEXT_MUTED_COLOR = new Color(139, 148, 158);
+    protected static final Color PRIMARY_COLOR = new Color(88, 166, 255); // GitHub Blue
+    protected static final Color SECONDARY_COLOR = new Color(163, 113, 247); // GitHub Purple
+    protected static final Color SUCCESS_COLOR = new Color(63, 185, 80); // GitHub Green
+    protected static final Color WARNING_COLOR = new Color(210, 153, 34); // GitHub Yellow
+    protected static final Color ERROR_COLOR = new Color(248, 81, 73); // GitHub Red
+    protected static final Color DIRTY_COLOR = ERROR_COLOR;
+    protected static final Color HIGHLIGHT_COLOR = new Color(250, 218, 94); // Brighter yellow
+
+    protected static final Font MAIN_FONT = new Font("Poppins", Font.PLAIN, 13); // Use available font
+    protected static final Font MONO_FONT = new Font("Fira Code", Font.PLAIN, 12); // Use available font
+    protected static final Font BOLD_FONT = MAIN_FONT.deriveFont(Font.BOLD);
+
+    // --- Simulation State ---
+    private int ramSize = 4;
+    private int swapSize = 4;
+    private int cacheSize = 3;
+    private int pageSizeKb = 4; // Payload size per page (swap file and compressed pool)
+    private int zswapFrames = 0; // Compressed pool arena size in page frames (0 = disabled)
+    private int zswapLevel = Deflater.BEST_SPEED;
+    private Set<String> ram = new LinkedHashSet<>(); // Arrival order; O(1) contains/remove at large frame counts
+    private SwapSpace swap = new SwapSpace(swapSize); // Slot-allocated, O(1) add/remove
+    private Map<String, CacheEntry> cache = new LinkedHashMap<>(); // Keep insertion order somewhat for LRU tie-breaking
+    private Set<String> dirtyProcesses = new HashSet<>();
+    private volatile PriorityReplacement policy; // Chooses RAM victims (process indices) by priority class; lock it
+    private String policyName = "FIFO"; // Algorithm the policy implements (EDT only)
+    private Map<String, Integer> accessFrequency = new HashMap<>(); // For tooltips and the heatmap
+    private final Map<String, Long> lastFaultTime = new java.util.concurrent.ConcurrentHashMap<>(); // For the heatmap
+    private Map<String, Long> ramAddTime = new HashMap<>(); // For tooltips
+    private int processCount = Math.max(1, Math.min(MAX_PROCESSES, Integer.getInteger("vmm.processes", 20)));
+    private ProcessSet processes = new ProcessSet(processCount); // Allocated/free split of the pool, O(1) random picks
+    private long sizeSeed; // Process sizes and priorities are derived from it (see processHash), not stored
+    private Stats stats = new Stats();
+    // Randomness: one seed per run (-Dvmm.seed), so the same seed and the same actions replay the same run
+    private long seed = Long.getLong("vmm.seed", new SplittableRandom().nextLong());
+    // Checkpoints save the streams' states and never touch them, so saving does not change the run
+    private RandomStream random;         // Root stream the others are split from (EDT only)
+    private RandomStream inputRandom;    // Random process choice for blank input (EDT only)
+    private RandomStream evictionRandom; // "Random" replacement (simulation workers; under the policy's lock)
+    private final ThrashingDetector thrashingDetector = ThrashingDetector.fromSystemProperties(); // EDT only (recorded from SimWorker.done)
+    private double simulationSpeedFactor = 1.0; // 1x speed
+    private volatile boolean batchMode = false; // Delays advance the simulated clock only; no sleeping, no animation
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss.SS"); // Include millis
+    private FileBackedSwap fileSwap; // null when swap is purely simulated
+    private CompressedPool zswap; // null when the compressed pool is disabled
+    private LatencyModel latency; // Modelled service times of each access (for EAT)
+    private final EventRing events = new EventRing(1 << 16); // State changes, animations and log lines for the UI
+    private final EventMetrics eventMetrics = new EventMetrics();
+    private EventRing.Subscriber guiEvents;
+    private final AtomicInteger runningOps = new AtomicInteger(); // SimWorkers in flight; checkpoints wait for 0
+    private MetricsServer metricsServer; // null unless -Dvmm.metrics.port is set
+    private volatile boolean thrashing = false; // Thrashing alert on (read by the metrics threads)
+    private volatile String algorithmName = "FIFO"; // Selected algorithm, for the metrics threads
+
+    // --- Render Loop ---
+    // Bits of dirtySections: what changed since the last frame
+    private static final int DIRTY_CACHE = 1, DIRTY_RAM = 2, DIRTY_ZSWAP = 4, DIRTY_SWAP = 8, DIRTY_STATS = 16;
+    private final AtomicInteger dirtySections = new AtomicInteger();
+    private long nextFlagRefresh = 0; // EDT only
+    private final javax.swing.Timer renderTimer = new javax.swing.Timer(FRAME_MS, e -> renderFrame());
+    private final Animator animator = new Animator(MAX_ANIMATIONS); // Advanced by renderFrame (EDT only)
+    private Animator.Tween thrashingPulse; // Blinks the thrashing indicator while the alert is on
+    // What each panel showed at the last frame (EDT only)
+    private List<String> shownCache = Collections.emptyList(), shownRam = Collections.emptyList();
+    private List<String> shownZswap = Collections.emptyList(), shownSwap = Collections.emptyList();
+    private Set<String> shownDirty = Collections.emptySet();
+
+    // --- UI Components ---
+    private JSpinner ramSizeSpinner, swapSizeSpinner, cacheSizeSpinner, pageSizeSpinner;
+    private JSpinner zswapSizeSpinner, zswapLevelSpinner, processCountSpinner;
+    private JComboBox<String> swapBackingComboBox;
+    private JComboBox<String> swapDeviceComboBox;
+    private JSpinner numaNodesSpinner;
+    private JComboBox<String> numaPlacementComboBox;
+    private JComboBox<String> algorithmComboBox;
+    private JTextField seedField;
+    protected JTextField processIdInput; // Changed to protected for ProcessBlock access
+    private JButton applyConfigButton, aboutButton, allocateButton, accessButton, markDirtyButton;
+    private JButton manualToCacheButton, clearCacheButton, resetSimButton, concurrentRunButton, scenarioButton;
+    private JButton checkpointButton, restoreButton;
+    private JComboBox<String> simSpeedComboBox;
+    private JComboBox<String> viewModeComboBox;
+
+    private JLabel cacheHitsLabel, cacheAccessesLabel, ramHitsLabel, ramAccessesLabel;
+    private JLabel pageFaultsLabel, swapAccessesLabel, tlbHitsLabel, tlbMissesLabel;
+    private JLabel totalAccessesLabel, hitRateLabel, faultRateLabel;
+    private JLabel evictionsLabel, highEvictionsLabel;
+    private JLabel swapWriteLatencyLabel, swapReadLatencyLabel, swapFragmentationLabel, swapContiguityLabel;
+    private JLabel zswapRatioLabel, zswapCpuLabel, zswapAvoidedLabel;
+    private JLabel eventCountLabel, eventBatchLabel;
+    private JLabel simTimeLabel, wallTimeLabel;
+    private JLabel eatLabel, queueWaitLabel;
+    private JLabel faultLatencyLabel;
+    private JLabel faultTrendLabel;
+    private final LatencyHistogram allFaultLatency = new LatencyHistogram(); // Scratch for the stats panel (EDT only)
+    private JLabel thrashingIndicator;
+
+    private MemoryPanel cachePanel, ramPanel, zswapPanel, swapPanel;
+    private JTextPane logTextPane;
+    private StyledTextPane styledLog;
+    private JScrollPane logScrollPane;
+
+    private JDialog aboutDialog;
+
+    private JLayeredPane layeredPane; // For animations
+
+    // --- Constructor ---
+    public VirtualMemoryManagerGUI() {
+        super("Advanced Hybrid Virtual Memory Manager (Java Swing)");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setPreferredSize(new Dimension(1400, 900)); // Initial size
+        getContentPane().setBackground(BG_COLOR);
+        setLayout(new BorderLayout(10, 10)); // Use BorderLayout
+
+        // Use JLayeredPane for animations
+        layeredPane = new JLayeredPane();
+        layeredPane.setPreferredSize(new Dimension(1400, 900));
+        setContentPane(layeredPane); // Set layered pane as content pane
+
+        // Main content panel that sits on the default layer
+        JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
+        mainPanel.setOpaque(false); // Make it transparent
+        mainPanel.setBounds(0, 0, 1400, 900); // Must set bounds for layered pane children
+        layeredPane.add(mainPanel, JLayeredPane.DEFAULT_LAYER); // Add to bottom layer
+
+
+        // Title
+        JLabel titleLabel = new JLabel("Advanced Hybrid Virtual Memory Manager");
+        titleLabel.setFont(new Font("Poppins", Font.BOLD, 28));
+        titleLabel.setForeground(PRIMARY_COLOR);
+        titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        titleLabel.setBorder(new EmptyBorder(20, 10, 10, 10));
+        mainPanel.add(titleLabel, BorderLayout.NORTH);
+
+        // Center Area (Controls, Stats, Memory Grid)
+        JPanel centerPanel = new JPanel();
+        centerPanel.setOpaque(false);
+        centerPanel.setLayout(new BoxLayout(centerPanel, BoxLayout.Y_AXIS));
+        centerPanel.setBorder(new EmptyBorder(10, 20, 10, 20));
+        mainPanel.add(centerPanel, BorderLayout.CENTER);
+
+        // Control Panels
+        centerPanel.add(createConfigPanel());
+        centerPanel.add(Box.createRigidArea(new Dimension(0, 10))); // Spacer
+        centerPanel.add(createControlsPanel());
+        centerPanel.add(Box.createRigidArea(new Dimension(0, 10))); // Spacer
+        centerPanel.add(createStatsPanel());
+        centerPanel.add(Box.createRigidArea(new Dimension(0, 20))); // Spacer
+
+        // Memory Grid Panel
+        centerPanel.add(createMemoryGridPanel());
+
+        // Log Panel
+        mainPanel.add(createLogPanel(), BorderLayout.SOUTH);
+
+        createAboutDialog();
+
+        // Event ring consumers: the UI (on the EDT), metrics and optionally the console
+        guiEvents = events.subscribe("gui", this::onSimEvent, true);
+        events.subscribe("metrics", eventMetrics, false);
+        if (Boolean.getBoolean("vmm.log.console")) {
+            events.subscribe("console", new ConsoleEventLogger(System.out), false);
+        }
+        String eventFile = System.getProperty("vmm.log.file");
+        if (eventFile != null) {
+            startEventFileLog(Paths.get(eventFile), "binary".equalsIgnoreCase(System.getProperty("vmm.log.format"))
+                    ? EventFileLogger.Format.BINARY : EventFileLogger.Format.JSONL);
+        }
+        startMetrics(Integer.getInteger("vmm.metrics.port", -1));
+
+        updateSimSpeed(); // Set initial speed factor from combo box
+        initSimulation();
+
+        pack(); // Adjust frame size to components
+        setLocationRelativeTo(null); // Center on screen
+        setVisible(true);
+        renderTimer.start();
+
+         // Ensure mainPanel resizes with the frame
+        layeredPane.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                 mainPanel.setBounds(0, 0, layeredPane.getWidth(), layeredPane.getHeight());
+            }
+        });
+    }
+
+    // --- UI Panel Creation ---
+
+    private JPanel createStyledPanel() {
+        JPanel panel = new JPanel();
+        panel.setBackground(SURFACE_COLOR);
+        panel.setBorder(new CompoundBorder(
+                new LineBorder(BG_COLOR.brighter(), 1), // Approximation of subtle border
+                new EmptyBorder(15, 20, 15, 20) // Padding
+        ));
+        // Rounded corners are hard in standard Swing, skipping for simplicity
+        return panel;
+    }
+
+    private JButton createStyledButton(String text, Color bgColor) {
+        JButton button = new JButton(text);
+        button.setFont(BOLD_FONT);
+        button.setBackground(bgColor);
+        button.setForeground(bgColor.equals(PRIMARY_COLOR) || bgColor.equals(SECONDARY_COLOR) || bgColor.equals(SUCCESS_COLOR) ? Color.BLACK : TEXT_COLOR); // Contrast
+        button.setFocusPainted(false);
+        button.setBorder(new CompoundBorder(
+                new LineBorder(bgColor.darker()),
+                new EmptyBorder(8, 15, 8, 15)
+        ));
+        // Add hover/pressed effects if desired (more complex)
+        return button;
+    }
+
+     private JComboBox<String> createStyledComboBox() {
+        JComboBox<String> comboBox = new JComboBox<>();
+        comboBox.setFont(MAIN_FONT);
+        comboBox.setBackground(SURFACE_SOLID_COLOR);
+        comboBox.setForeground(TEXT_COLOR);
+        // Styling the arrow and popup requires a custom UI delegate (complex)
+        return comboBox;
+    }
+
+    private JSpinner createStyledSpinner(int value, int min, int max) {
+        SpinnerModel model = new SpinnerNumberModel(value, min, max, 1);
+        JSpinner spinner = new JSpinner(model);
+        spinner.setFont(MAIN_FONT);
+        spinner.setBackground(SURFACE_SOLID_COLOR); // Might not work depending on L&F
+        spinner.setForeground(TEXT_COLOR);
+        spinner.getEditor().getComponent(0).setBackground(SURFACE_SOLID_COLOR);
+        spinner.getEditor().getComponent(0).setForeground(TEXT_COLOR);
+        spinner.setBorder(new LineBorder(TEXT_MUTED_COLOR));
+        return spinner;
+    }
+
+     private JTextField createStyledTextField(int columns) {
+        JTextField textField = new JTextField(columns);
+        textField.setFont(MAIN_FONT);
+        textField.setBackground(SURFACE_SOLID_COLOR);
+        textField.setForeground(TEXT_COLOR);
+        textField.setCaretColor(PRIMARY_COLOR);
+        textField.setBorder(new CompoundBorder(
+            new LineBorder(TEXT_MUTED_COLOR),
+            new EmptyBorder(5, 8, 5, 8)
+        ));
+        return textField;
+    }
+
+    private JPanel createConfigPanel() {
+        JPanel panel = createStyledPanel();
+        panel.setLayout(new FlowLayout(FlowLayout.CENTER, 10, 5));
+
+        panel.add(new JLabel("RAM:") {{ setForeground(TEXT_MUTED_COLOR); setFont(MAIN_FONT); }});
+        ramSizeSpinner = createStyledSpinner(ramSize, 1, MAX_FRAMES);
+        ramSizeSpinner.setToolTipText("RAM Size (Frames)");
+        panel.add(ramSizeSpinner);
+
+        panel.add(new JLabel("Swap:") {{ setForeground(TEXT_MUTED_COLOR); setFont(MAIN_FONT); }});
+        swapSizeSpinner = createStyledSpinner(swapSize, 0, MAX_FRAMES);
+        swapSizeSpinner.setToolTipText("Swap Space Size (Frames)");
+        panel.add(swapSizeSpinner);
+
+        panel.add(new JLabel("Cache:") {{ setForeground(TEXT_MUTED_COLOR); setFont(MAIN_FONT); }});
+        cacheSizeSpinner = createStyledSpinner(cacheSize, 0, MAX_CACHE_ENTRIES);
+        cacheSizeSpinner.setToolTipText("Cache Size (Entries)");
+        panel.add(cacheSizeSpinner);
+
+        panel.add(new JLabel("zswap:") {{ setForeground(TEXT_MUTED_COLOR); setFont(MAIN_FONT); }});
+        zswapSizeSpinner = createStyledSpinner(zswapFrames, 0, MAX_POOL_FRAMES);
+        zswapSizeSpinner.setToolTipText("Compressed RAM pool size in page frames (0 = disabled)");
+        panel.add(zswapSizeSpinner);
+        zswapLevelSpinner = createStyledSpinner(zswapLevel, 0, 9);
+        zswapLevelSpinner.setToolTipText("Deflater compression level for the compressed pool (0-9)");
+        panel.add(zswapLevelSpinner);
+
+        panel.add(new JLabel("Processes:") {{ setForeground(TEXT_MUTED_COLOR); setFont(MAIN_FONT); }});
+        processCountSpinner = createStyledSpinner(processCount, 1, MAX_PROCESSES);
+        processCountSpinner.setToolTipText("Process pool size (P1 up to P" + MAX_PROCESSES + ")");
+        panel.add(processCountSpinner);
+
+        panel.add(new JLabel("Swap Backing:") {{ setForeground(TEXT_MUTED_COLOR); setFont(MAIN_FONT); }});
+        swapBackingComboBox = createStyledComboBox();
+        swapBackingComboBox.addItem("Simulated");
+        swapBackingComboBox.addItem("File (pread/pwrite)");
+        swapBackingComboBox.addItem("File (mmap)");
+        swapBackingComboBox.setToolTipText("Simulate swap delays, or write page payloads to a real swap file and time the I/O");
+        panel.add(swapBackingComboBox);
+
+        panel.add(new JLabel("Device:") {{ setForeground(TEXT_MUTED_COLOR); setFont(MAIN_FONT); }});
+        swapDeviceComboBox = createStyledComboBox();
+        swapDeviceComboBox.addItem("HDD"); // Same order as LatencyModel.Config.Device
+        swapDeviceComboBox.addItem("SSD");
+        swapDeviceComboBox.addItem("NVMe");
+        swapDeviceComboBox.setSelectedIndex(1);
+        swapDeviceComboBox.setToolTipText("Swap device service times used by the latency model (effective access time)");
+        panel.add(swapDeviceComboBox);
+
+        panel.add(new JLabel("Page (KB):") {{ setForeground(TEXT_MUTED_COLOR); setFont(MAIN_FONT); }});
+        pageSizeSpinner = createStyledSpinner(pageSizeKb, 1, MAX_PAGE_KB);
+        pageSizeSpinner.setToolTipText("Page payload size written to the swap file");
+        panel.add(pageSizeSpinner);
+
+        panel.add(new JLabel("Seed:") {{ setForeground(TEXT_MUTED_COLOR); setFont(MAIN_FONT); }});
+        seedField = createStyledTextField(12);
+        seedField.setToolTipText("Random seed of the run; Reset replays it. Clear it and Apply for a new seed");
+        panel.add(seedField);
+
+        applyConfigButton = createStyledButton("⚙️ Apply & Reset", PRIMARY_COLOR);
+        applyConfigButton.setToolTipText("Apply new sizes and reset simulation");
+        applyConfigButton.addActionListener(e -> applyConfig());
+        panel.add(applyConfigButton);
+
+        aboutButton = createStyledButton("ℹ️ About", SECONDARY_COLOR);
+        aboutButton.setToolTipText("Show information about this simulation");
+        aboutButton.addActionListener(e -> aboutDialog.setVisible(true));
+        panel.add(aboutButton);
+
+        return panel;
+    }
+
+    private JPanel createControlsPanel() {
+        JPanel panel = createStyledPanel();
+        panel.setLayout(new FlowLayout(FlowLayout.CENTER, 8, 5));
+
+        panel.add(new JLabel("Algorithm:") {{ setForeground(TEXT_MUTED_COLOR); setFont(MAIN_FONT); }});
+        algorithmComboBox = createStyledComboBox();
+        for (String name : ReplacementPolicies.names()) algorithmComboBox.addItem(name); // Built-in and plug-in policies
+        algorithmComboBox.setToolTipText("Select page replacement algorithm for RAM eviction");
+        algorithmComboBox.addActionListener(e -> {
+            algorithmName = (String) algorithmComboBox.getSelectedItem();
+            whenIdle(this::switchPolicy);
+        });
+        panel.add(algorithmComboBox);
+
+        processIdInput = createStyledTextField(10);
+        processIdInput.setToolTipText("Enter Process ID (e.g., P5) or leave blank for random selection");
+        panel.add(processIdInput);
+
+        allocateButton = createStyledButton("➕ Allocate", PRIMARY_COLOR);
+        allocateButton.setToolTipText("Allocate the specified (or random) process to RAM");
+        allocateButton.addActionListener(e -> allocateProcess());
+        panel.add(allocateButton);
+
+        accessButton = createStyledButton("👆 Access", PRIMARY_COLOR);
+        accessButton.setToolTipText("Access the specified (or random) process");
+        accessButton.addActionListener(e -> accessProcess());
+        panel.add(accessButton);
+
+        markDirtyButton = createStyledButton("✏️ Write/Dirty", SECONDARY_COLOR);
+        markDirtyButton.setToolTipText("Mark specified RAM process as 'dirty' (modified)");
+        markDirtyButton.addActionListener(e -> markProcessDirty());
+        panel.add(markDirtyButton);
+
+        manualToCacheButton = createStyledButton("⚡ To Cache", SECONDARY_COLOR);
+        manualToCacheButton.setToolTipText("Manually add process from RAM to Cache");
+        manualToCacheButton.addActionListener(e -> manualAddToCache());
+        panel.add(manualToCacheButton);
+
+        clearCacheButton = createStyledButton("🧹 Clear Cache", ERROR_COLOR);
+        clearCacheButton.setToolTipText("Remove all entries from the cache");
+        clearCacheButton.addActionListener(e -> clearCache());
+        panel.add(clearCacheButton);
+
+        resetSimButton = createStyledButton("🔄 Reset Sim", ERROR_COLOR);
+        resetSimButton.setToolTipText("Reset the entire simulation to initial state");
+        resetSimButton.addActionListener(e -> resetSimulation());
+        panel.add(resetSimButton);
+
+        checkpointButton = createStyledButton("💾 Checkpoint", SECONDARY_COLOR);
+        checkpointButton.setToolTipText("Save the complete simulation state (memory, policy metadata, stats) to a file");
+        checkpointButton.addActionListener(e -> saveCheckpoint());
+        panel.add(checkpointButton);
+
+        restoreButton = createStyledButton("📂 Restore", SECONDARY_COLOR);
+        restoreButton.setToolTipText("Continue from a saved checkpoint (restore it again to branch another experiment)");
+        restoreButton.addActionListener(e -> loadCheckpoint());
+        panel.add(restoreButton);
+
+        concurrentRunButton = createStyledButton("🧵 Concurrent Run", SECONDARY_COLOR);
+        concurrentRunButton.setToolTipText("Run thousands of virtual-thread processes against a thread-safe engine and report scaling per core count");
+        concurrentRunButton.addActionListener(e -> runConcurrentBenchmark());
+        panel.add(concurrentRunButton);
+
+        scenarioButton = createStyledButton("📜 Scenario", SECONDARY_COLOR);
+        scenarioButton.setToolTipText("Compile a scenario script and run it on the headless engine at full speed, reporting each phase");
+        scenarioButton.addActionListener(e -> runScenario());
+        panel.add(scenarioButton);
+
+        panel.add(new JLabel("NUMA:") {{ setForeground(TEXT_MUTED_COLOR); setFont(MAIN_FONT); }});
+        numaNodesSpinner = createStyledSpinner(2, 1, 8);
+        numaNodesSpinner.setToolTipText("NUMA nodes the concurrent run's RAM is split across");
+        panel.add(numaNodesSpinner);
+        numaPlacementComboBox = createStyledComboBox();
+        numaPlacementComboBox.addItem("First-touch");
+        numaPlacementComboBox.addItem("Interleave");
+        numaPlacementComboBox.setToolTipText("Place new pages on the faulting thread's node, or round-robin across nodes");
+        panel.add(numaPlacementComboBox);
+
+        panel.add(new JLabel("View:") {{ setForeground(TEXT_MUTED_COLOR); setFont(MAIN_FONT); }});
+        viewModeComboBox = createStyledComboBox();
+        viewModeComboBox.addItem("Auto");
+        viewModeComboBox.addItem("Blocks");
+        viewModeComboBox.addItem("Heatmap");
+        viewModeComboBox.setToolTipText("Draw memory as one block per process, or as a heatmap of frames (Auto: heatmap above " + MemoryPanel.HEATMAP_THRESHOLD + " frames)");
+        viewModeComboBox.addActionListener(e -> updateViewMode());
+        panel.add(viewModeComboBox);
+
+        panel.add(new JLabel("Speed:") {{ setForeground(TEXT_MUTED_COLOR); setFont(MAIN_FONT); }});
+        simSpeedComboBox = createStyledComboBox();
+        simSpeedComboBox.addItem("Slow (0.5x)"); // Value = 2.0
+        simSpeedComboBox.addItem("Slower (0.75x)");// Value = 1.5
+        simSpeedComboBox.addItem("Normal (1x)"); // Value = 1.0
+        simSpeedComboBox.addItem("Fast (2x)"); // Value = 0.5
+        simSpeedComboBox.addItem("Faster (4x)"); // Value = 0.25
+        simSpeedComboBox.addItem("Instant (10x)");// Value = 0.1
+        simSpeedComboBox.addItem("Batch (no delay)"); // Simulated clock only
+        simSpeedComboBox.setSelectedIndex(2); // Default Normal
+        simSpeedComboBox.setToolTipText("Adjust simulation animation speed");
+        simSpeedComboBox.addActionListener(e -> updateSimSpeed());
+        panel.add(simSpeedComboBox);
+
+        return panel;
+    }
+
+    private JPanel createStatsPanel() {
+        JPanel panel = createStyledPanel();
+        panel.setLayout(new FlowLayout(FlowLayout.CENTER, 15, 5)); // More spacing
+
+        cacheHitsLabel = new JLabel("0");
+        cacheAccessesLabel = new JLabel("0");
+        ramHitsLabel = new JLabel("0");
+        ramAccessesLabel = new JLabel("0");
+        pageFaultsLabel = new JLabel("0");
+        swapAccessesLabel = new JLabel("0");
+        tlbHitsLabel = new JLabel("0");
+        tlbMissesLabel = new JLabel("0");
+        totalAccessesLabel = new JLabel("0");
+        hitRateLabel = new JLabel("N/A");
+        faultRateLabel = new JLabel("N/A");
+        evictionsLabel = new JLabel("0");
+        highEvictionsLabel = new JLabel("0");
+        swapWriteLatencyLabel = new JLabel("-");
+        swapReadLatencyLabel = new JLabel("-");
+        swapFragmentationLabel = new JLabel("0%");
+        swapContiguityLabel = new JLabel("-");
+        zswapRatioLabel = new JLabel("-");
+        zswapCpuLabel = new JLabel("-");
+        zswapAvoidedLabel = new JLabel("0");
+        eventCountLabel = new JLabel("0");
+        eventBatchLabel = new JLabel("0");
+        simTimeLabel = new JLabel("0s");
+        eatLabel = new JLabel("-");
+        faultLatencyLabel = new JLabel("-");
+        faultTrendLabel = new JLabel("-");
+        queueWaitLabel = new JLabel("-");
+        wallTimeLabel = new JLabel("0s");
+
+        configureStatsLabel(cacheHitsLabel);
+        configureStatsLabel(cacheAccessesLabel);
+        configureStatsLabel(ramHitsLabel);
+        configureStatsLabel(ramAccessesLabel);
+        configureStatsLabel(pageFaultsLabel);
+        configureStatsLabel(swapAccessesLabel);
+        configureStatsLabel(tlbHitsLabel);
+        configureStatsLabel(tlbMissesLabel);
+        configureStatsLabel(totalAccessesLabel);
+        configureStatsLabel(hitRateLabel);
+        configureStatsLabel(faultRateLabel);
+        configureStatsLabel(evictionsLabel);
+        configureStatsLabel(highEvictionsLabel);
+        highEvictionsLabel.setToolTipText("Evictions of High-priority pages: by aging, or with no lower-priority page in RAM");
+        configureStatsLabel(swapWriteLatencyLabel);
+        configureStatsLabel(swapReadLatencyLabel);
+        configureStatsLabel(swapFragmentationLabel);
+        configureStatsLabel(swapContiguityLabel);
+        configureStatsLabel(zswapRatioLabel);
+        configureStatsLabel(zswapCpuLabel);
+        configureStatsLabel(zswapAvoidedLabel);
+        configureStatsLabel(eventCountLabel);
+        configureStatsLabel(eventBatchLabel);
+        configureStatsLabel(simTimeLabel);
+        configureStatsLabel(eatLabel);
+        configureStatsLabel(faultLatencyLabel);
+        configureStatsLabel(faultTrendLabel);
+        configureStatsLabel(queueWaitLabel);
+        configureStatsLabel(wallTimeLabel);
+
+        panel.add(createStatsGroup("Cache:", cacheHitsLabel, "H /", cacheAccessesLabel, "Acc |"));
+        panel.add(createStatsGroup("RAM:", ramHitsLabel, "H /", ramAccessesLabel, "Acc |"));
+        panel.add(createStatsGroup("Swap (Faults):", pageFaultsLabel, "F /", swapAccessesLabel, "Acc |"));
+        panel.add(createStatsGroup("TLB:", tlbHitsLabel, "H /", tlbMissesLabel, "M |"));
+        panel.add(createStatsGroup("Total Access:", totalAccessesLabel, "|"));
+        panel.add(createStatsGroup("Hit Rate:", hitRateLabel, "|"));
+        panel.add(createStatsGroup("Fault Rate:", faultRateLabel, "|"));
+        panel.add(createStatsGroup("Evictions:", evictionsLabel, "/", highEvictionsLabel, "high prio |"));
+        panel.add(createStatsGroup("Swap I/O:", swapWriteLatencyLabel, "W /", swapReadLatencyLabel, "R |"));
+        panel.add(createStatsGroup("Swap Slots:", swapFragmentationLabel, "frag /", swapContiguityLabel, "contig |"));
+        panel.add(createStatsGroup("zswap:", zswapRatioLabel, "ratio /", zswapCpuLabel, "C/D |"));
+        panel.add(createStatsGroup("Swap I/O Avoided:", zswapAvoidedLabel, "|"));
+        panel.add(createStatsGroup("Events:", eventCountLabel, "/", eventBatchLabel, "max batch |"));
+        panel.add(createStatsGroup("Time:", simTimeLabel, "sim /", wallTimeLabel, "wall |"));
+        panel.add(createStatsGroup("EAT:", eatLabel, "/", queueWaitLabel, "wb queue |"));
+        panel.add(createStatsGroup("Fault Trend:", faultTrendLabel, "10 / 100 / 1000 accesses |"));
+        panel.add(createStatsGroup("Fault Latency:", faultLatencyLabel, ""));
+
+        thrashingIndicator = new JLabel("🚨 THRASHING ALERT!");
+        thrashingIndicator.setForeground(ERROR_COLOR);
+        thrashingIndicator.setFont(BOLD_FONT);
+        thrashingIndicator.setVisible(false);
+        panel.add(thrashingIndicator);
+
+        return panel;
+    }
+
+    private void configureStatsLabel(JLabel label) {
+        label.setForeground(PRIMARY_COLOR);
+        label.setFont(BOLD_FONT.deriveFont(14f)); // Slightly larger bold
+    }
+
+     private JPanel createStatsGroup(String title, JComponent... components) {
+        JPanel group = new JPanel(new FlowLayout(FlowLayout.LEFT, 3, 0)); // Tight spacing
+        group.setOpaque(false);
+        JLabel titleLabel = new JLabel(title);
+        titleLabel.setForeground(TEXT_MUTED_COLOR);
+        titleLabel.setFont(MAIN_FONT);
+        group.add(titleLabel);
+        for (JComponent comp : components) {
+            if (comp instanceof JLabel && !comp.getFont().isBold()) { // Style non-stat labels
+                 comp.setForeground(TEXT_MUTED_COLOR);
+                 comp.setFont(MAIN_FONT);
+            }
+            group.add(comp);
+        }
+        return group;
+    }
+     private JPanel createStatsGroup(String title, String value, String suffix) {
+         return createStatsGroup(title, new JLabel(value), new JLabel(suffix));
+     }
+     private JPanel createStatsGroup(String title, JLabel valueLabel, String suffix) {
+         return createStatsGroup(title, valueLabel, new JLabel(suffix));
+     }
+     private JPanel createStatsGroup(String title, JLabel valueLabel, String suffix1, JLabel valueLabel2, String suffix2) {
+          return createStatsGroup(title, valueLabel, new JLabel(suffix1), valueLabel2, new JLabel(suffix2));
+     }
+
+    private JPanel createMemoryGridPanel() {
+        JPanel gridPanel = new JPanel(new GridLayout(1, 4, 30, 0)); // 1 row, 4 columns, gap 30
+        gridPanel.setOpaque(false);
+        gridPanel.setBorder(new EmptyBorder(20, 0, 20, 0)); // Top/bottom padding
+
+        cachePanel = new MemoryPanel("⚡ Cache", cacheSize, ProcessBlock.ColorType.CACHE, this);
+        ramPanel = new MemoryPanel("💾 Main Memory (RAM)", ramSize, ProcessBlock.ColorType.RAM, this);
+        zswapPanel = new MemoryPanel("🗜️ Compressed Pool", zswapFrames, ProcessBlock.ColorType.ZSWAP, this);
+        swapPanel = new MemoryPanel("💿 Swap Space", swapSize, ProcessBlock.ColorType.SWAP, this);
+
+        gridPanel.add(cachePanel);
+        gridPanel.add(ramPanel);
+        gridPanel.add(zswapPanel);
+        gridPanel.add(swapPanel);
+
+        return gridPanel;
+    }
+
+
+    private JPanel createLogPanel() {
+        JPanel logContainer = new JPanel(new BorderLayout());
+        logContainer.setBackground(SURFACE_COLOR);
+        logContainer.setBorder(new CompoundBorder(
+                new LineBorder(BG_COLOR.brighter(), 1),
+                new EmptyBorder(15, 20, 15, 20)
+        ));
+        logContainer.setPreferredSize(new Dimension(0, 250)); // Initial height
+
+        JLabel logTitle = new JLabel("System Log");
+        logTitle.setFont(BOLD_FONT.deriveFont(16f));
+        logTitle.setForeground(PRIMARY_COLOR);
+        logTitle.setBorder(new CompoundBorder(
+                BorderFactory.createMatteBorder(0, 0, 1, 0, TEXT_MUTED_COLOR), // Bottom border
+                new EmptyBorder(0, 0, 10, 0) // Padding below border
+        ));
+        logContainer.add(logTitle, BorderLayout.NORTH);
+
+        logTextPane = new JTextPane();
+        logTextPane.setEditable(false);
+        logTextPane.setBackground(SURFACE_SOLID_COLOR);
+        logTextPane.setForeground(TEXT_COLOR);
+        logTextPane.setFont(MONO_FONT);
+        logTextPane.setMargin(new Insets(5, 5, 5, 5));
+        styledLog = new StyledTextPane(logTextPane, LOG_LINES);
+
+        logScrollPane = new JScrollPane(logTextPane);
+        logScrollPane.setBorder(null); // Remove default scrollpane border
+        logScrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
+        // Style scrollbar (requires Look and Feel specific code or custom UI)
+        logScrollPane.getVerticalScrollBar().setUI(new javax.swing.plaf.basic.BasicScrollBarUI() {
+             @Override protected void configureScrollBarColors() { this.thumbColor = PRIMARY_COLOR; this.trackColor = BG_COLOR; }
+             @Override protected JButton createDecreaseButton(int orientation) { return createZeroButton(); }
+             @Override protected JButton createIncreaseButton(int orientation) { return createZeroButton(); }
+             private JButton createZeroButton() { JButton jbutton = new JButton(); jbutton.setPreferredSize(new Dimension(0, 0)); jbutton.setMinimumSize(new Dimension(0, 0)); jbutton.setMaximumSize(new Dimension(0, 0)); return jbutton; }
+        });
+
+        logContainer.add(logScrollPane, BorderLayout.CENTER);
+
+        return logContainer;
+    }
+
+    private void createAboutDialog() {
+        aboutDialog = new JDialog(this, "About Advanced Hybrid VMM", true); // Modal
+        aboutDialog.setSize(750, 650);
+        aboutDialog.setLocationRelativeTo(this);
+        aboutDialog.setDefaultCloseOperation(JDialog.HIDE_ON_CLOSE);
+        aboutDialog.getContentPane().setBackground(SURFACE_SOLID_COLOR);
+        aboutDialog.setLayout(new BorderLayout(10, 10));
+
+        JPanel contentPanel = new JPanel();
+        contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
+        contentPanel.setBackground(SURFACE_SOLID_COLOR);
+        contentPanel.setBorder(new EmptyBorder(25, 30, 25, 30));
+
+        JLabel titleLabel = new JLabel("About Advanced Hybrid VMM");
+        titleLabel.setFont(BOLD_FONT.deriveFont(20f));
+        titleLabel.setForeground(PRIMARY_COLOR);
+        titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        titleLabel.setBorder(new CompoundBorder(
+                BorderFactory.createMatteBorder(0, 0, 1, 0, PRIMARY_COLOR),
+                new EmptyBorder(0, 0, 15, 0)
+        ));
+        contentPanel.add(titleLabel);
+        contentPanel.add(Box.createRigidArea(new Dimension(0, 15)));
+
+        // Use JEditorPane for basic HTML rendering
+        JEditorPane infoPane = new JEditorPane();
+        infoPane.setContentType("text/html");
+        infoPane.setEditable(false);
+        infoPane.setOpaque(false); // Inherit background
+
+        // Convert CSS colors to hex for HTML
+        String cssTextColor = String.format("#%02x%02x%02x", TEXT_COLOR.getRed(), TEXT_COLOR.getGreen(), TEXT_COLOR.getBlue());
+        String cssPrimaryColor = String.format("#%02x%02x%02x", PRIMARY_COLOR.getRed(), PRIMARY_COLOR.getGreen(), PRIMARY_COLOR.getBlue());
+        String cssSuccessColor = String.format("#%02x%02x%02x", SUCCESS_COLOR.getRed(), SUCCESS_COLOR.getGreen(), SUCCESS_COLOR.getBlue());
+        String cssErrorColor = String.format("#%02x%02x%02x", ERROR_COLOR.getRed(), ERROR_COLOR.getGreen(), ERROR_COLOR.getBlue());
+         String cssWarningColor = String.format("#%02x%02x%02x", WARNING_COLOR.getRed(), WARNING_COLOR.getGreen(), WARNING_COLOR.getBlue());
+        String cssMutedColor = String.format("#%02x%02x%02x", TEXT_MUTED_COLOR.getRed(), TEXT_MUTED_COLOR.getGreen(), TEXT_MUTED_COLOR.getBlue());
+
+
+        String aboutHtml = "<html><body style='font-family: SansSerif; font-size: 11pt; color: " + cssTextColor + ";'>"
+            + "<p>This simulation demonstrates concepts of a hybrid virtual memory system involving <strong>Cache</strong>, <strong>RAM</strong>, and <strong>Swap Space</strong> with enhanced features and visualizations.</p>"
+            + "<p><strong>Key Features:</strong></p>"
+            + "<ul style='list-style-type: none; padding-left: 10px;'>"
+            + "<li style='margin-bottom: 5px;'><span style='color:" + cssSuccessColor + "; margin-right: 5px;'>✓</span><strong>Memory Hierarchy:</strong> Visualizes processes in Cache (fast), RAM (medium), or Swap Space (slow).</li>"
+            + "<li style='margin-bottom: 5px;'><span style='color:" + cssSuccessColor + "; margin-right: 5px;'>✓</span><strong>Process Allocation/Access:</strong> Add/access processes, triggering placement and movement.</li>"
+            + "<li style='margin-bottom: 5px;'><span style='color:" + cssSuccessColor + "; margin-right: 5px;'>✓</span><strong>Caching:</strong> RAM hits move processes to the Cache (LRU eviction).</li>"
+            + "<li style='margin-bottom: 5px;'><span style='color:" + cssSuccessColor + "; margin-right: 5px;'>✓</span><strong>Page Replacement Algorithms:</strong> Select FIFO, LRU, LFU, LIFO, MRU, or Random for RAM eviction.</li>"
+            + "<li style='margin-bottom: 5px;'><span style='color:" + cssSuccessColor + "; margin-right: 5px;'>✓</span><strong><span style='color: " + cssErrorColor + ";'>Dirty Bit</span> Simulation:</strong> Processes in RAM can be marked 'dirty'. Evicting a dirty page simulates a slower write-back to Swap.</li>"
+             + "<li style='margin-bottom: 5px;'><span style='color:" + cssSuccessColor + "; margin-right: 5px;'>✓</span><strong><span style='color: " + cssWarningColor + ";'>Thrashing Detection:</span></strong> Alerts if the recent page fault rate becomes excessively high.</li>"
+            + "<li style='margin-bottom: 5px;'><span style='color:" + cssSuccessColor + "; margin-right: 5px;'>✓</span><strong>Process Termination:</strong> Right-click a block to remove it entirely.</li>"
+            + "<li style='margin-bottom: 5px;'><span style='color:" + cssSuccessColor + "; margin-right: 5px;'>✓</span><strong>Dynamic Configuration & Speed Control:</strong> Adjust sizes and animation speed.</li>"
+            + "<li style='margin-bottom: 5px;'><span style='color:" + cssSuccessColor + "; margin-right: 5px;'>✓</span><strong>Detailed Info & Stats:</strong> Hover for info; view hits, faults, rates, and conceptual TLB performance.</li>"
+            + "<li style='margin-bottom: 5px;'><span style='color:" + cssSuccessColor + "; margin-right: 5px;'>✓</span><strong>Advanced Animations:</strong> Visual feedback for movement, state changes, and events.</li>"
+            + "</ul>"
+            + "<p><strong>Interactions:</strong></p>"
+            + "<ul style='list-style-type: none; padding-left: 10px;'>"
+            + "<li style='margin-bottom: 5px;'><span style='color:" + cssSuccessColor + "; margin-right: 5px;'>✓</span>Use controls to configure, allocate, access, mark dirty, or manage memory.</li>"
+            + "<li style='margin-bottom: 5px;'><span style='color:" + cssSuccessColor + "; margin-right: 5px;'>✓</span>Click a block to select it and trigger an access.</li>"
+            + "<li style='margin-bottom: 5px;'><span style='color:" + cssSuccessColor + "; margin-right: 5px;'>✓</span>Right-click a block to terminate the process.</li>"
+            + "<li style='margin-bottom: 5px;'><span style='color:" + cssSuccessColor + "; margin-right: 5px;'>✓</span>Hover over blocks for detailed information via tooltips.</li>"
+            + "</ul>"
+            + "<p style='margin-top: 35px; text-align: right; font-style: italic; font-size: 9pt; color: " + cssMutedColor + ";'>Concept By: AALOK KUMAR YADAV</p>"
+            + "</body></html>";
+        infoPane.setText(aboutHtml);
+
+        JScrollPane scrollPane = new JScrollPane(infoPane);
+        scrollPane.setBorder(null);
+        scrollPane.getViewport().setOpaque(false); // Make viewport transparent too
+        scrollPane.setOpaque(false);
+
+        contentPanel.add(scrollPane);
+
+        // Close Button
+        JButton closeButton = createStyledButton("Close", PRIMARY_COLOR);
+        closeButton.addActionListener(e -> aboutDialog.setVisible(false));
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setOpaque(false);
+        buttonPanel.setBorder(new EmptyBorder(10, 0, 0, 0));
+        buttonPanel.add(closeButton);
+
+        aboutDialog.add(contentPanel, BorderLayout.CENTER);
+        aboutDialog.add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+
+    // --- Initialization & Reset ---
+
+    // Records every event to a file; the tail is flushed by a shutdown hook (the frame exits the JVM on close)
+    private void startEventFileLog(Path file, EventFileLogger.Format format) {
+        try {
+            EventFileLogger logger = new EventFileLogger(file, format);
+            EventRing.Subscriber subscriber = events.subscribe("file", logger, false);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    events.drainAndUnsubscribe(subscriber, 2000);
+                    logger.close();
+                } catch (IOException | InterruptedException e) {
+                    System.err.println("Event log not closed cleanly: " + e);
+                }
+            }, "event-log-close"));
+            logEvent("Recording events to " + file.toAbsolutePath() + " (" + format.name().toLowerCase() + ").", "info", "📝");
+        } catch (IOException e) {
+            logEvent("Could not open event log " + file + ": " + e.getMessage(), "error", "❌");
+        }
+    }
+
+    // Publishes the metrics as the JMX MBean vmm:type=Simulation and, if a port is given, over HTTP on localhost
+    private void startMetrics(int port) {
+        SimulationMetrics metrics = new SimulationMetrics(new SimulationMetrics.Source() {
+            // Monitoring threads read these without locking; a scrape may be a few accesses stale
+            @Override public Stats getStats() { return stats; }
+            @Override public int getRamUsed() { return ram.size(); }
+            @Override public int getRamFrames() { return ramSize; }
+            @Override public int getSwapUsed() { return swap.size(); }
+            @Override public int getSwapSlots() { return swapSize; }
+            @Override public int getCacheUsed() { return cache.size(); }
+            @Override public int getCacheEntries() { return cacheSize; }
+            @Override public int getPoolUsed() { CompressedPool pool = zswap; return pool != null ? pool.size() : 0; }
+            @Override public boolean isThrashing() { return thrashing; }
+            @Override public String getAlgorithm() { return algorithmName; }
+        });
+        try {
+            metrics.register();
+        } catch (JMException e) {
+            logEvent("Could not register the JMX MBean: " + e.getMessage(), "error", "❌");
+        }
+        if (port < 0) return;
+        try {
+            metricsServer = MetricsServer.start(metrics, port);
+            logEvent("Serving metrics at http://localhost:" + metricsServer.getPort() + "/metrics", "info", "📈");
+        } catch (IOException e) {
+            logEvent("Could not start the metrics endpoint on port " + port + ": " + e.getMessage(), "error", "❌");
+        }
+    }
+
+    private void initSimulation() {
+        ram.clear();
+        swap = new SwapSpace(swapSize);
+        cache.clear();
+        dirtyProcesses.clear();
+        accessFrequency.clear();
+        lastFaultTime.clear();
+        ramAddTime.clear();
+        processes = new ProcessSet(processCount);
+        thrashingDetector.reset();
+
+        // Reset stats
+        stats = new Stats();
+        createBackingStores();
+
+        startStreams(seed);
+        seedField.setText(String.valueOf(seed));
+
+        // Random sizes and priorities, derived per process on demand
+        sizeSeed = random.nextLong();
+        policyName = (String) algorithmComboBox.getSelectedItem();
+        policy = newPolicy(policyName);
+        logEvent("Simulation Initialized (seed " + seed + ")", "success", "🚀");
+        logEvent(String.format("Generated random sizes for %d processes (Range: %s - %s) and Low/Medium/High priorities.",
+                processCount, formatSize(MIN_PROCESS_KB), formatSize(MAX_PROCESS_KB)), "debug", null);
+
+        redrawAll();
+        updateStatsDisplay();
+        checkThrashing(true); // Reset indicator
+    }
+
+    private void startStreams(long seed) {
+        random = new RandomStream(seed);
+        inputRandom = random.split();
+        evictionRandom = random.split();
+    }
+
+    // Compressed pool, swap file and latency model for the current configuration
+    private void createBackingStores() {
+        // (Re)create the swap file if swap is file-backed
+        if (fileSwap != null) {
+            fileSwap.close();
+            fileSwap = null;
+        }
+        // (Re)create the compressed pool
+        if (zswap != null) {
+            zswap.close();
+            zswap = null;
+        }
+        if (zswapFrames > 0) {
+            zswap = new CompressedPool(zswapFrames * pageSizeKb * 1024, pageSizeKb * 1024, zswapLevel);
+            logEvent(String.format("Compressed pool enabled (%d frames, Deflater level %d).", zswapFrames, zswapLevel), "info", "🗜️");
+        }
+
+        int backing = swapBackingComboBox.getSelectedIndex();
+        if (backing > 0 && swapSize > 0) {
+            FileBackedSwap.Mode mode = (backing == 2) ? FileBackedSwap.Mode.MAPPED : FileBackedSwap.Mode.POSITIONAL;
+            try {
+                fileSwap = new FileBackedSwap(swapSize, pageSizeKb * 1024, mode);
+                logEvent(String.format("Swap backed by file (%s, %d KB pages).", mode, pageSizeKb), "info", "💿");
+            } catch (IOException e) {
+                logEvent("Could not create swap file, falling back to simulated swap: " + e.getMessage(), "error", "❌");
+                swapBackingComboBox.setSelectedIndex(0);
+            }
+        }
+
+        latency = new LatencyModel(LatencyModel.Config.fromSystemProperties(
+                LatencyModel.Config.Device.values()[swapDeviceComboBox.getSelectedIndex()]));
+    }
+
+    private void applyConfig() {
+        String seedText = seedField.getText().trim();
+        try {
+            seed = seedText.isEmpty() ? new SplittableRandom().nextLong() : Long.parseLong(seedText);
+        } catch (NumberFormatException e) {
+            logEvent("Invalid seed: " + seedText, "error", "❌");
+            seedField.setText(String.valueOf(seed));
+            return;
+        }
+
+        int newRamSize = (Integer) ramSizeSpinner.getValue();
+        int newSwapSize = (Integer) swapSizeSpinner.getValue();
+        int newCacheSize = (Integer) cacheSizeSpinner.getValue();
+        int newPageSizeKb = (Integer) pageSizeSpinner.getValue();
+        int newZswapFrames = (Integer) zswapSizeSpinner.getValue();
+        int newZswapLevel = (Integer) zswapLevelSpinner.getValue();
+        int newProcessCount = (Integer) processCountSpinner.getValue();
+
+        // Validation already handled by JSpinner's model, but good practice
+        if (newRamSize < 1 || newSwapSize < 0 || newCacheSize < 0) {
+            logEvent("Invalid configuration.", "error", "❌");
+            // Reset spinners to current values
+            ramSizeSpinner.setValue(ramSize);
+            swapSizeSpinner.setValue(swapSize);
+            cacheSizeSpinner.setValue(cacheSize);
+            return;
+        }
+
+        ramSize = newRamSize;
+        swapSize = newSwapSize;
+        cacheSize = newCacheSize;
+        pageSizeKb = newPageSizeKb;
+        zswapFrames = newZswapFrames;
+        zswapLevel = newZswapLevel;
+        processCount = newProcessCount;
+
+        logEvent(String.format("Config Updated: RAM=%d, Swap=%d, Cache=%d, Processes=%d. Resetting...",
+                ramSize, swapSize, cacheSize, processCount), "info", "⚙️");
+
+        // Update panel sizes
+        cachePanel.setMaxSize(cacheSize);
+        ramPanel.setMaxSize(ramSize);
+        zswapPanel.setMaxSize(zswapFrames);
+        swapPanel.setMaxSize(swapSize);
+
+        initSimulation(); // Resets everything and updates display
+    }
+
+    private void resetSimulation() {
+        logEvent("Simulation Reset", "info", "🔄");
+        ramSizeSpinner.setValue(ramSize);
+        swapSizeSpinner.setValue(swapSize);
+        cacheSizeSpinner.setValue(cacheSize);
+        pageSizeSpinner.setValue(pageSizeKb);
+        zswapSizeSpinner.setValue(zswapFrames);
+        zswapLevelSpinner.setValue(zswapLevel);
+        processCountSpinner.setValue(processCount);
+        initSimulation();
+    }
+
+    // --- Checkpoints ---
+
+    // One policy of the algorithm per priority class; throws IllegalArgumentException if the algorithm is unknown
+    private PriorityReplacement newPolicy(String algorithm) {
+        return new PriorityReplacement(ReplacementPolicies.get(algorithm), evictionRandom, this::processPriority, AGING_LIMIT);
+    }
+
+    // Rebuilds the policy for the selected algorithm from the pages in RAM, oldest first. EDT only, while idle.
+    private void switchPolicy() {
+        String name = (String) algorithmComboBox.getSelectedItem();
+        if (name.equals(policyName)) return;
+        PriorityReplacement next = newPolicy(name);
+        ram.stream()
+                .sorted(Comparator.comparingLong(p -> ramAddTime.getOrDefault(p, Long.MAX_VALUE)))
+                .forEach(p -> next.onInsert(processIndex(p)));
+        policyName = name;
+        policy = next;
+        logEvent("Replacement policy switched to " + name + " (" + next.size() + " pages in RAM).", "info", "⚖️");
+    }
+
+    // Runs the action on the EDT once no operation is running and the UI has applied every event
+    private void whenIdle(Runnable action) {
+        if (runningOps.get() == 0 && events.isCaughtUp(guiEvents)) {
+            action.run();
+            return;
+        }
+        javax.swing.Timer retry = new javax.swing.Timer(20, e -> whenIdle(action));
+        retry.setRepeats(false);
+        retry.start();
+    }
+
+    private void saveCheckpoint() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File("simulation.vmmckpt"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+        whenIdle(() -> {
+            SimulationCheckpoint checkpoint = captureCheckpoint();
+            java.nio.ByteBuffer data = checkpoint.encode(); // Encoded here, before the simulation moves on
+            new SwingWorker<Long, Void>() {
+                @Override
+                protected Long doInBackground() throws IOException {
+                    long start = System.nanoTime();
+                    SimulationCheckpoint.write(file, data);
+                    return System.nanoTime() - start;
+                }
+
+                @Override
+                protected void done() {
+                    try {
+                        logEvent(String.format("Checkpoint saved to %s (%d processes, %s, written in %s).", file.getFileName(),
+                                checkpoint.processIds.length, formatSize(data.limit() / 1024), ConcurrentAccessBenchmark.formatNanos(get())), "success", "💾");
+                    } catch (InterruptedException | ExecutionException e) {
+                        logEvent("Could not save checkpoint: " + e.getCause(), "error", "❌");
+                    }
+                }
+            }.execute();
+        });
+    }
+
+    private void loadCheckpoint() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+        new SwingWorker<SimulationCheckpoint, Void>() {
+            @Override
+            protected SimulationCheckpoint doInBackground() throws IOException {
+                SimulationCheckpoint checkpoint = SimulationCheckpoint.read(file);
+                try {
+                    // Saved with a plug-in policy that is not installed, or state it cannot take?
+                    new PriorityReplacement(ReplacementPolicies.get(checkpoint.algorithm), new RandomStream(0), i -> 0, AGING_LIMIT)
+                            .importState(checkpoint.policyState);
+                    ProcessSet.restore(checkpoint.processCount, checkpoint.allocatedProcesses, checkpoint.processOrder);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(e.getMessage(), e);
+                } catch (RuntimeException e) { // Malformed policy state
+                    throw new IOException("Corrupt checkpoint " + file + ": " + e, e);
+                }
+                return checkpoint;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    SimulationCheckpoint checkpoint = get();
+                    whenIdle(() -> {
+                        restoreCheckpoint(checkpoint);
+                        logEvent("Restored checkpoint " + file.getFileName() + " (saved "
+                                + timeFormat.format(new Date(checkpoint.savedAtMillis)) + ", seed " + checkpoint.seed + ").", "success", "📂");
+                    });
+                } catch (InterruptedException | ExecutionException e) {
+                    logEvent("Could not restore checkpoint: " + e.getCause().getMessage(), "error", "❌");
+                }
+            }
+        }.execute();
+    }
+
+    // Snapshot of the whole simulation. EDT only, while idle.
+    private SimulationCheckpoint captureCheckpoint() {
+        SimulationCheckpoint cp = new SimulationCheckpoint();
+        cp.savedAtMillis = System.currentTimeMillis();
+        cp.ramSize = ramSize;
+        cp.swapSize = swapSize;
+        cp.cacheSize = cacheSize;
+        cp.pageSizeKb = pageSizeKb;
+        cp.zswapFrames = zswapFrames;
+        cp.zswapLevel = zswapLevel;
+        cp.algorithm = policyName;
+        cp.policyState = policy.exportState();
+        cp.swapBacking = fileSwap == null ? 0 : fileSwap.getMode() == FileBackedSwap.Mode.MAPPED ? 2 : 1;
+        cp.swapDevice = swapDeviceComboBox.getSelectedIndex();
+        // Every restore continues the streams from where the live run is now
+        cp.seed = seed;
+        cp.rootStream = random.getState();
+        cp.inputStream = inputRandom.getState();
+        cp.evictionStream = evictionRandom.getState();
+
+        cp.processCount = processCount;
+        cp.sizeSeed = sizeSeed;
+        cp.allocatedProcesses = processes.allocatedCount();
+        cp.processOrder = processes.exportDisplaced(); // So random picks continue as in the live run
+
+        // Index table: every id still referenced (not the whole pool, which may hold millions)
+        Map<String, Integer> index = new HashMap<>();
+        List<String> ids = new ArrayList<>();
+        java.util.function.ToIntFunction<String> indexOf = id -> index.computeIfAbsent(id, k -> {
+            ids.add(k);
+            return ids.size() - 1;
+        });
+        String[] owners = swap.getOwners();
+        List<String> pooled = zswap != null ? zswap.getProcessIds() : Collections.emptyList();
+        cp.ram = ram.stream().mapToInt(indexOf).toArray();
+        cp.swapSlots = Arrays.stream(owners).mapToInt(id -> id != null ? indexOf.applyAsInt(id) : -1).toArray();
+        cp.pool = pooled.stream().mapToInt(indexOf).toArray();
+        cp.cache = cache.keySet().stream().mapToInt(indexOf).toArray();
+        cp.cacheLastAccess = cache.values().stream().mapToLong(entry -> entry.lastAccess).toArray();
+        dirtyProcesses.forEach(indexOf::applyAsInt);
+
+        int n = ids.size();
+        cp.processIds = ids.toArray(new String[0]);
+        cp.frequency = new int[n];
+        cp.ramAddTime = new long[n];
+        cp.lastFaultTime = new long[n];
+        cp.dirty = new long[(n + 63) >>> 6];
+        for (int i = 0; i < n; i++) {
+            String id = cp.processIds[i];
+            cp.frequency[i] = accessFrequency.getOrDefault(id, -1);
+            cp.ramAddTime[i] = ramAddTime.getOrDefault(id, Long.MIN_VALUE);
+            cp.lastFaultTime[i] = lastFaultTime.getOrDefault(id, Long.MIN_VALUE);
+            if (dirtyProcesses.contains(id)) cp.dirty[i >>> 6] |= 1L << i;
+        }
+        cp.stats = stats;
+        return cp;
+    }
+
+    // Replaces the whole simulation with a checkpoint. EDT only, while idle.
+    private void restoreCheckpoint(SimulationCheckpoint cp) {
+        ramSize = cp.ramSize;
+        swapSize = cp.swapSize;
+        cacheSize = cp.cacheSize;
+        pageSizeKb = cp.pageSizeKb;
+        zswapFrames = cp.zswapFrames;
+        zswapLevel = cp.zswapLevel;
+        processCount = cp.processCount;
+        sizeSeed = cp.sizeSeed;
+        seed = cp.seed;
+        random = new RandomStream(cp.rootStream);
+        inputRandom = new RandomStream(cp.inputStream);
+        evictionRandom = new RandomStream(cp.evictionStream);
+        seedField.setText(String.valueOf(seed));
+        ramSizeSpinner.setValue(ramSize);
+        swapSizeSpinner.setValue(swapSize);
+        cacheSizeSpinner.setValue(cacheSize);
+        pageSizeSpinner.setValue(pageSizeKb);
+        zswapSizeSpinner.setValue(zswapFrames);
+        zswapLevelSpinner.setValue(zswapLevel);
+        processCountSpinner.setValue(processCount);
+        policyName = cp.algorithm; // First, so the combo box listener has nothing to switch
+        algorithmComboBox.setSelectedItem(cp.algorithm);
+        policy = newPolicy(cp.algorithm);
+        policy.importState(cp.policyState);
+        swapBackingComboBox.setSelectedIndex(cp.swapBacking);
+        swapDeviceComboBox.setSelectedIndex(cp.swapDevice);
+        cachePanel.setMaxSize(cacheSize);
+        ramPanel.setMaxSize(ramSize);
+        zswapPanel.setMaxSize(zswapFrames);
+        swapPanel.setMaxSize(swapSize);
+
+        ram.clear();
+        cache.clear();
+        dirtyProcesses.clear();
+        accessFrequency.clear();
+        lastFaultTime.clear();
+        ramAddTime.clear();
+        processes = ProcessSet.restore(processCount, cp.allocatedProcesses, cp.processOrder);
+        thrashingDetector.reset();
+        stats = cp.stats;
+
+        String[] ids = cp.processIds;
+        String[] owners = new String[cp.swapSlots.length];
+        for (int slot = 0; slot < owners.length; slot++) {
+            if (cp.swapSlots[slot] >= 0) owners[slot] = ids[cp.swapSlots[slot]];
+        }
+        swap = SwapSpace.restore(owners);
+        createBackingStores();
+        if (zswap != null) {
+            for (int i : cp.pool) zswap.store(ids[i]); // Same arena size and level, so nothing overflows
+        }
+        if (fileSwap != null) restoreSwapFile(owners);
+
+        // Timestamps move forward by the checkpoint's age, so restored pages keep their order relative to new ones
+        long shift = System.currentTimeMillis() - cp.savedAtMillis;
+        for (int i : cp.ram) ram.add(ids[i]);
+        for (int k = 0; k < cp.cache.length; k++) {
+            String id = ids[cp.cache[k]];
+            cache.put(id, new CacheEntry("Data for " + id, cp.cacheLastAccess[k] + shift));
+        }
+        for (int i = 0; i < ids.length; i++) {
+            if (cp.frequency[i] >= 0) accessFrequency.put(ids[i], cp.frequency[i]);
+            if (cp.ramAddTime[i] != Long.MIN_VALUE) ramAddTime.put(ids[i], cp.ramAddTime[i] + shift);
+            if (cp.lastFaultTime[i] != Long.MIN_VALUE) lastFaultTime.put(ids[i], cp.lastFaultTime[i] + shift);
+            if (cp.isDirty(i)) dirtyProcesses.add(ids[i]);
+        }
+        redrawAll();
+        updateStatsDisplay();
+        checkThrashing(true);
+    }
+
+    // The new swap file is empty: write the payload of every swapped page back to its slot
+    private void restoreSwapFile(String[] owners) {
+        FileBackedSwap file = fileSwap;
+        new SimWorker<Void>() {
+            @Override
+            protected Void runSim() throws IOException {
+                for (int slot = 0; slot < owners.length; slot++) {
+                    if (owners[slot] != null) file.writePage(owners[slot], slot);
+                }
+                return null;
+            }
+        }.execute();
+    }
+
+    // --- Core Logic ---
+
+    private String getProcessIdInput(boolean required, boolean checkExists) {
+        String processId = processIdInput.getText().trim().toUpperCase();
+        boolean usedFallback = false;
+
+        if (processId.isEmpty() || !processId.matches("P\\d+")) {
+            usedFallback = true;
+            int index = checkExists ? processes.randomAllocated(inputRandom) : processes.randomFree(inputRandom);
+
+            if (index >= 0) {
+                processId = processName(index);
+                logEvent("No valid ID input. Using random " + (checkExists ? "existing" : "available") + " process: " + processId, "debug", "🎲");
+            } else if (required) {
+                logEvent("Valid Process ID required, but none available/suitable.", "warning", "⚠️");
+                processIdInput.requestFocus();
+                return null;
+            } else {
+                logEvent("No valid Process ID and no processes available/suitable.", "warning", "⚠️");
+                return null;
+            }
+        } else if (processIndex(processId) < 0) {
+            logEvent("Process ID " + processId + " out of range (P1-P" + processCount + ").", "error", "❌");
+            processIdInput.setText("");
+            return null;
+        }
+
+        if (!usedFallback) {
+            processIdInput.setText(""); // Clear input after successful use
+        }
+        return processId;
+    }
+
+    // Pool index of "P<n>" (n - 1), or -1 if it is not an id of the pool
+    private int processIndex(String processId) {
+        if (processId == null || processId.length() < 2 || processId.charAt(0) != 'P') return -1;
+        try {
+            int number = Integer.parseInt(processId.substring(1));
+            return number >= 1 && number <= processCount ? number - 1 : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String processName(int index) {
+        return "P" + (index + 1);
+    }
+
+    // Size of a process, from its hash
+    private int processSizeKb(int index) {
+        return MIN_PROCESS_KB + (int) Long.remainderUnsigned(processHash(index, 0), MAX_PROCESS_KB - MIN_PROCESS_KB + 1);
+    }
+
+    // Priority class of a process (PriorityReplacement.LOW..HIGH), uniform and independent of its size
+    private int processPriority(int index) {
+        return (int) Long.remainderUnsigned(processHash(index, 1), PriorityReplacement.NAMES.length);
+    }
+
+    // Hash of the run's size seed, a process index and a salt per attribute (SplitMix64), so a pool of millions costs no memory
+    private long processHash(int index, int salt) {
+        long z = (sizeSeed ^ salt * 0xD1B54A32D192ED03L) + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // --- Actions (Need SwingWorker for delays/animations) ---
+
+    protected void allocateProcess() { // Changed visibility for ProcessBlock
+        final String processId = getProcessIdInput(false, false);
+        if (processId == null) return;
+
+        final int index = processIndex(processId);
+        if (!processes.allocate(index)) { // Claimed here, so a second click cannot allocate it twice
+            logEvent("Process " + processId + " already allocated.", "warning", "⚠️");
+            highlightExistingBlock(processId);
+            return;
+        }
+
+        logEvent("Allocating Process " + processId + "...", "info", "📥");
+
+        // Run the allocation logic in the background to allow UI updates/animations
+        new SimWorker<Void>() {
+            @Override
+            protected Void runSim() throws Exception {
+                if (ram.size() < ramSize) {
+                    // Direct Allocation
+                    events.state(SimEvent.Type.ADD_RAM, processId); // Signal UI update
+                    long now = System.currentTimeMillis();
+                    updateTrackingOnAdd(processId, now);
+                    events.log(SimEvent.Level.SUCCESS, "Process " + processId + " allocated to RAM.", "✅");
+                    events.animate(SimEvent.Type.EFFECT, "ram", processId, "fade-in");
+                } else {
+                    // Eviction Required
+                    events.log(SimEvent.Level.WARNING, "RAM full. Evicting page via " + getSelectedAlgorithm().toUpperCase() + "...", "⚖️");
+                    EvictionResult eviction = evictPage(); // This might involve delays for write-back
+
+                    if (eviction.victimId != null) {
+                        if (!eviction.writebackNeeded) { // If writeback happened, anim done there
+                             events.animate(SimEvent.Type.EFFECT, "ram", eviction.victimId, "fade-out");
+                             waitSim(300); // Wait for fade out
+                        }
+
+                        String evictedDestination = moveEvictedPage(eviction.victimId, eviction.writebackNeeded); // Pool, Swap or Discarded
+
+                        cleanUpTrackingData(eviction.victimId); // Clean up after move decision
+
+                        // Allocate New Process
+                        events.state(SimEvent.Type.ADD_RAM, processId);
+                        long now = System.currentTimeMillis();
+                        updateTrackingOnAdd(processId, now);
+                        events.log(SimEvent.Level.SUCCESS, "Process " + processId + " allocated to RAM.", "✅");
+                        waitSim(getAnimationDuration("move")); // Wait for move anim before appearing
+                        events.animate(SimEvent.Type.EFFECT, "ram", processId, "fade-in");
+
+                    } else {
+                        processes.release(index);
+                        events.log(SimEvent.Level.ERROR, "Allocation Failed: Could not evict page from RAM.", "❌");
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                 try {
+                    get(); // Check for exceptions during doInBackground
+                } catch (InterruptedException | ExecutionException e) {
+                    logEvent("Error during allocation: " + e.getMessage(), "error", "🔥");
+                    e.printStackTrace();
+                } finally {
+                     // Final UI update to ensure consistency
+                     updateUIDisplay();
+                     updateStatsDisplay();
+                }
+            }
+        }.execute();
+    }
+
+
+    protected void accessProcess() { // Changed visibility for ProcessBlock
+        final String processId = getProcessIdInput(false, true);
+        if (processId == null) return;
+
+        logEvent("Accessing Process " + processId + "...", "info", "🔍");
+        stats.totalAccesses++;
+        final long now = System.currentTimeMillis();
+        String accessType = "miss"; // Default
+
+        // Run in background for potential page fault delays/animations
+        new SimWorker<String>() {
+            @Override
+            protected String runSim() throws Exception {
+                String resultAccessType = "miss";
+
+                // 1. Check Cache
+                if (cache.containsKey(processId)) {
+                    stats.cacheHits++; stats.cacheAccesses++; stats.tlbHits++;
+                    resultAccessType = "hit";
+                    events.access(processId, "cache");
+                    recordLatency(stats.cacheHitLatency, latency.hit(LatencyModel.Tier.CACHE));
+                    events.log(SimEvent.Level.SUCCESS, "Cache Hit: Process " + processId + ".", "🎯");
+                    CacheEntry entry = cache.get(processId);
+                    entry.lastAccess = now;
+                    // cache.put(processId, entry); // Map already holds the reference, just update it
+                    events.animate(SimEvent.Type.HIGHLIGHT, "cache", processId, "highlight");
+                    waitSim(getAnimationDuration("highlight"));
+
+                }
+                // 2. Check RAM
+                else if (ram.contains(processId)) {
+                    stats.ramHits++; stats.ramAccesses++; stats.tlbHits++;
+                    resultAccessType = "hit";
+                    events.access(processId, "ram");
+                    recordLatency(stats.ramHitLatency, latency.hit(LatencyModel.Tier.RAM));
+                    events.log(SimEvent.Level.SUCCESS, "RAM Hit: Process " + processId + ". Moving to Cache...", "✅");
+                    updateUsageTracking(processId, now); // Update LRU/LFU etc.
+                    events.animate(SimEvent.Type.HIGHLIGHT, "ram", processId, "highlight");
+                    waitSim(getAnimationDuration("highlight"));
+
+                    // Add to cache (might involve eviction animation)
+                    addToCache(processId, now); // This method emits its UI updates internally
+
+                }
+                // 3. Check Compressed Pool -> Page Fault served without swap I/O
+                else if (zswap != null && zswap.contains(processId)) {
+                    stats.pageFaults++; stats.tlbMisses++;
+                    resultAccessType = "fault";
+                    events.access(processId, "zswap");
+                    events.log(SimEvent.Level.WARNING, "Page Fault: Process " + processId + " in Compressed Pool. Decompressing...", "🗜️");
+                    handlePageFault(processId, now, "zswap");
+                }
+                // 4. Check Swap -> Page Fault
+                else if (swap.contains(processId)) {
+                    stats.pageFaults++; stats.swapAccesses++; stats.tlbMisses++;
+                    resultAccessType = "fault";
+                    events.access(processId, "swap");
+                    events.log(SimEvent.Level.WARNING, "Page Fault: Process " + processId + " in Swap. Loading...", "📉");
+                    // Handle page fault, which involves potential RAM eviction and animations
+                    handlePageFault(processId, now, "swap"); // This method emits its UI updates internally
+
+                }
+                // 5. Not Found
+                else {
+                    events.access(processId, "none");
+                    events.log(SimEvent.Level.ERROR, "Access Failed: Process " + processId + " not found.", "❓");
+                    stats.totalAccesses--; // Decrement as it wasn't a valid access
+                    resultAccessType = "not_found";
+                }
+                return resultAccessType;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    String finalAccessType = get();
+                    // Update history for thrashing detection
+                    if (!finalAccessType.equals("miss") && !finalAccessType.equals("not_found")) {
+                        thrashingDetector.record(finalAccessType.equals("fault"));
+                        checkThrashing(false);
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                     logEvent("Error during access: " + e.getMessage(), "error", "🔥");
+                     e.printStackTrace();
+                 } finally {
+                    // Final UI sync after background task
+                    updateUIDisplay();
+                    updateStatsDisplay();
+                }
+            }
+        }.execute();
+    }
+
+    private void markProcessDirty() {
+        final String processId = getProcessIdInput(true, true);
+        if (processId == null) return;
+
+        if (ram.contains(processId)) {
+             if (dirtyProcesses.contains(processId)) {
+                logEvent("Process " + processId + " is already dirty.", "info", "✏️");
+                highlightExistingBlock(processId); // Just highlight
+            } else {
+                // Needs background worker only for the animation delay
+                 new SimWorker<Void>() {
+                     @Override
+                     protected Void runSim() throws Exception {
+                         dirtyProcesses.add(processId);
+                         events.state(SimEvent.Type.MARK_DIRTY, processId); // Signal UI to update state
+                         events.log(SimEvent.Level.WARNING, "Process " + processId + " marked as dirty.", "✏️");
+                         events.animate(SimEvent.Type.EFFECT, "ram", processId, "marked-dirty");
+                         waitSim(getAnimationDuration("state_change")); // Wait for pulse
+                         return null;
+                     }
+                     @Override
+                     protected void done() {
+                          updateUIDisplay(); // Ensure final state is rendered correctly
+                     }
+                 }.execute();
+            }
+        } else {
+            logEvent("Cannot mark dirty: Process " + processId + " is not in RAM.", "error", "❌");
+            highlightExistingBlock(processId); // Highlight where it is
+        }
+    }
+
+
+    private void manualAddToCache() {
+        final String processId = getProcessIdInput(true, true);
+        if (processId == null) return;
+        if (cacheSize <= 0) { logEvent("Cache disabled (size 0).", "warning", "⚠️"); return; }
+
+        if (cache.containsKey(processId)) {
+             logEvent("Process " + processId + " already in cache. Updating access.", "info", "💡");
+             // Run in background just for the highlight animation consistency
+             new SimWorker<Void>() {
+                  @Override
+                  protected Void runSim() throws Exception {
+                     CacheEntry entry = cache.get(processId);
+                     entry.lastAccess = System.currentTimeMillis();
+                     events.animate(SimEvent.Type.HIGHLIGHT, "cache", processId, "highlight");
+                     waitSim(getAnimationDuration("highlight"));
+                     return null;
+                  }
+                   @Override protected void done() { updateUIDisplay(); updateStatsDisplay(); } // Update usage bars etc.
+             }.execute();
+             return;
+        }
+
+         if (ram.contains(processId)) {
+            stats.ramAccesses++; // Count as RAM access
+            stats.totalAccesses++;
+            logEvent("Manually adding " + processId + " (RAM) to Cache...", "info", "➡️");
+             // Needs worker because addToCache can have delays/animations
+            new SimWorker<Void>() {
+                 @Override
+                 protected Void runSim() throws Exception {
+                      long now = System.currentTimeMillis();
+                      updateUsageTracking(processId, now); // Update RAM stats (FIFO/LRU/LFU)
+                      addToCache(processId, now); // Handles logic and animations via the event ring
+                      return null;
+                 }
+                 @Override protected void done() {
+                      // Update history for thrashing detection
+                      thrashingDetector.record(false);
+                      checkThrashing(false);
+                      updateUIDisplay(); // Final sync
+                      updateStatsDisplay();
+                 }
+            }.execute();
+
+         } else {
+             logEvent("Cannot add to Cache: Process " + processId + " not in RAM.", "warning", "⚠️");
+             highlightExistingBlock(processId);
+         }
+    }
+
+    // Concurrent mode: headless engine + virtual threads, independent of the visual simulation state
+    private void runConcurrentBenchmark() {
+        ConcurrentAccessBenchmark.Config cfg = new ConcurrentAccessBenchmark.Config();
+        cfg.algorithm = getSelectedAlgorithm();
+        cfg.seed = seed;
+        cfg.nodes = (Integer) numaNodesSpinner.getValue();
+        cfg.placement = numaPlacementComboBox.getSelectedIndex() == 1
+                ? MemoryEngine.Placement.INTERLEAVE : MemoryEngine.Placement.FIRST_TOUCH;
+        concurrentRunButton.setEnabled(false);
+        logEvent(String.format("Concurrent run: %,d virtual threads x %,d accesses, %s, RAM=%,d frames on %d NUMA node(s) (%s) in %d lock stripes, Swap=%,d, Cache=%,d, seed %d...",
+                cfg.processes, cfg.accessesPerProcess, cfg.algorithm.toUpperCase(), cfg.ramFrames, cfg.nodes,
+                numaPlacementComboBox.getSelectedItem(), cfg.stripes, cfg.swapSlots, cfg.cacheEntries, cfg.seed), "info", "🧵");
+
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                int cores = Runtime.getRuntime().availableProcessors();
+                for (int p = 1; ; p *= 2) { // Same steps as ConcurrentAccessBenchmark.sweep, logged as they finish
+                    int parallelism = Math.min(p, cores);
+                    ConcurrentAccessBenchmark.Result r = ConcurrentAccessBenchmark.run(cfg, parallelism);
+                    events.log(SimEvent.Level.SUCCESS, r.summary(), "📈");
+                    if (parallelism == cores) {
+                        events.log(SimEvent.Level.DEBUG, String.format("Last run: %,d cache hits, %,d RAM hits, %,d faults, %,d write-backs.",
+                                r.stats.cacheHits, r.stats.ramHits, r.stats.pageFaults, r.stats.writeBacks), null);
+                        break;
+                    }
+                }
+                return null;
+            }
+            @Override protected void done() {
+                try {
+                    get();
+                } catch (InterruptedException | ExecutionException e) {
+                    logEvent("Error during concurrent run: " + e.getMessage(), "error", "🔥");
+                } finally {
+                    concurrentRunButton.setEnabled(true);
+                }
+            }
+        }.execute();
+    }
+
+    // Scenario scripts start from the selected algorithm and the run's seed unless they set their own
+    private void runScenario() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+        ConcurrentAccessBenchmark.Config base = Scenario.defaultConfig();
+        base.algorithm = getSelectedAlgorithm();
+        base.seed = seed;
+        scenarioButton.setEnabled(false);
+
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                Scenario scenario = Scenario.read(file, base);
+                events.log(SimEvent.Level.INFO, String.format("Scenario %s: %,d operations, %,d processes, seed %d...",
+                        file.getFileName(), scenario.getOperationCount(), scenario.getProcessCount(), scenario.seed), "📜");
+                for (Scenario.PhaseResult phase : scenario.run()) {
+                    events.log(SimEvent.Level.SUCCESS, phase.summary(), "📈");
+                }
+                return null;
+            }
+            @Override protected void done() {
+                try {
+                    get();
+                } catch (InterruptedException | ExecutionException e) {
+                    logEvent("Scenario failed: " + e.getCause().getMessage(), "error", "❌");
+                } finally {
+                    scenarioButton.setEnabled(true);
+                }
+            }
+        }.execute();
+    }
+
+    private void clearCache() {
+        if (cache.isEmpty()) { logEvent("Cache already empty.", "info", "✅"); return; }
+        logEvent("Clearing Cache...", "info", "🧹");
+
+        new SimWorker<Void>() {
+             @Override
+             protected Void runSim() throws Exception {
+                  // Create list of keys before iterating as we modify the map
+                  List<String> cacheKeys = new ArrayList<>(cache.keySet());
+                  for (String key : cacheKeys) {
+                      events.animate(SimEvent.Type.EFFECT, "cache", key, "fade-out");
+                  }
+                  waitSim(getAnimationDuration("fade")); // Wait for animations to roughly finish
+
+                  events.state(SimEvent.Type.CLEAR_CACHE, null); // Signal to clear data structure
+                  events.log(SimEvent.Level.SUCCESS, "Cache Cleared.", "✨");
+                  return null;
+             }
+             @Override protected void done() { updateUIDisplay(); updateStatsDisplay(); } // Update UI
+        }.execute();
+    }
+
+    // Called when right-clicking a block
+    protected void endProcessRequest(String processId) { // Changed visibility for ProcessBlock
+        if (processId == null) return;
+        logEvent("Terminating Process " + processId + "...", "warning", "❌");
+
+         new SimWorker<Boolean>() {
+             @Override
+             protected Boolean runSim() throws Exception {
+                  boolean found = false;
+                  String location = null;
+
+                  if (cache.containsKey(processId)) {
+                      location = "cache";
+                      events.animate(SimEvent.Type.EFFECT, location, processId, "terminate");
+                      events.state(SimEvent.Type.REMOVE_CACHE, processId);
+                      found = true;
+                  }
+                  if (ram.contains(processId)) {
+                      if (!found) { // Only animate first found location
+                          location = "ram";
+                          events.animate(SimEvent.Type.EFFECT, location, processId, "terminate");
+                      }
+                      events.state(SimEvent.Type.REMOVE_RAM, processId);
+                      found = true;
+                  }
+                  if (zswap != null && zswap.contains(processId)) {
+                      if (!found) { // Only animate first found location
+                          location = "zswap";
+                          events.animate(SimEvent.Type.EFFECT, location, processId, "terminate");
+                      }
+                      zswap.remove(processId);
+                      events.refresh("zswap");
+                      found = true;
+                  }
+                  if (swap.contains(processId)) {
+                       if (!found) { // Only animate first found location
+                          location = "swap";
+                          events.animate(SimEvent.Type.EFFECT, location, processId, "terminate");
+                      }
+                      swap.remove(processId); // Frees its swap slot
+                      events.refresh("swap", processId);
+                      found = true;
+                  }
+
+                  if (found) {
+                      waitSim(getAnimationDuration("terminate")); // Wait for animation
+                      cleanUpTrackingData(processId); // Clean up all tracking
+                      processes.release(processIndex(processId));
+                      events.log(SimEvent.Level.SUCCESS, "Process " + processId + " terminated.", "✔️");
+                  } else {
+                      events.log(SimEvent.Level.ERROR, "Termination Failed: Process " + processId + " not found.", "❓");
+                  }
+                  return found;
+             }
+
+             @Override protected void done() { updateUIDisplay(); updateStatsDisplay(); }
+         }.execute();
+    }
+
+
+    // --- Helper Functions (May need to run in SwingWorker or emit UI update events) ---
+
+    /**
+     * Handles a page fault for a page held in {@code source} ("swap" or "zswap"). MUST be called
+     * from a background thread (SwingWorker) as it involves potential delays and animations.
+     * Emits UI updates on the event ring.
+     */
+    private void handlePageFault(String processId, long accessTime, String source) throws Exception {
+        lastFaultTime.put(processId, System.currentTimeMillis());
+        if ("zswap".equals(source)) {
+            // 1. Decompress the page out of the pool (no swap I/O)
+            long nanos = zswap.load(processId);
+            stats.zswapHits++;
+            stats.zswapDecompressNanos += Math.max(0, nanos);
+            events.animate(SimEvent.Type.EFFECT, "zswap", processId, "fade-out");
+            waitSim(getAnimationDuration("fade"));
+            events.refresh("zswap");
+            events.log(SimEvent.Level.DEBUG, String.format("Process %s decompressed from pool in %.1f µs.", processId, nanos / 1000.0), null);
+        } else {
+            // 1. Read the page back (real I/O if file-backed), animate removal from Swap & update data
+            long pageInNanos = swapInFromFile(processId);
+            events.animate(SimEvent.Type.EFFECT, "swap", processId, "fade-out");
+            waitSim(getAnimationDuration("fade"), pageInNanos); // The animation, overlapping the I/O that already ran
+            swap.remove(processId); // Release the swap slot
+            events.refresh("swap", processId);
+            events.log(SimEvent.Level.DEBUG, "Process " + processId + " removed from Swap.", null);
+        }
+
+        EvictionResult eviction = new EvictionResult(null, false);
+        String evictedProcessId = null;
+        LatencyModel.Victim victim = LatencyModel.Victim.NONE;
+
+        // 2. Check for RAM Eviction
+        if (ram.size() >= ramSize) {
+            events.log(SimEvent.Level.WARNING, "RAM full. Evicting page via " + getSelectedAlgorithm().toUpperCase() + "...", "⚖️");
+            eviction = evictPage(); // This handles its own logging and animations/delays
+            evictedProcessId = eviction.victimId;
+
+            if (evictedProcessId != null) {
+                 if (!eviction.writebackNeeded) { // Writeback anim done in evictPage
+                     events.animate(SimEvent.Type.EFFECT, "ram", evictedProcessId, "fade-out");
+                     waitSim(getAnimationDuration("fade"));
+                 }
+
+                 String destination = moveEvictedPage(evictedProcessId, eviction.writebackNeeded);
+                 victim = "Pool".equals(destination) ? LatencyModel.Victim.TO_POOL
+                         : "Swap".equals(destination) ? LatencyModel.Victim.TO_SWAP : LatencyModel.Victim.DISCARDED;
+                 if (!"Discarded".equals(destination)) {
+                     waitSim(getAnimationDuration("move")); // Wait for move anim
+                 }
+                 cleanUpTrackingData(evictedProcessId);
+            } else {
+                events.log(SimEvent.Level.ERROR, "Page Fault Failed: Could not evict page. " + processId + " load aborted.", "❌");
+                // Process is now out of swap, effectively discarded
+                return; // Abort the page fault handling
+            }
+        }
+
+        // 3. Add faulted process to RAM (data structure)
+        long waitedBefore = latency.getQueueWaitNanos();
+        recordLatency(eviction.writebackNeeded ? stats.dirtyFaultLatency : stats.faultLatency,
+                latency.fault("zswap".equals(source) ? LatencyModel.Tier.POOL : LatencyModel.Tier.SWAP, victim, eviction.writebackNeeded));
+        stats.addModelQueueWaitNanos(latency.getQueueWaitNanos() - waitedBefore);
+        events.state(SimEvent.Type.ADD_RAM, processId);
+        updateTrackingOnAdd(processId, accessTime);
+        events.log(SimEvent.Level.SUCCESS, "Process " + processId + " loaded into RAM.", "✅");
+
+        // 4. Animate Page-In
+        events.move(source, "ram", processId); // Visual move
+        waitSim(getAnimationDuration("move")); // Wait for move animation
+
+        // 5. Add to cache (potentially)
+        addToCache(processId, accessTime); // This handles its own animations/delays
+    }
+
+    /**
+     * Moves an evicted RAM page to its next tier: into the compressed pool when enabled (which
+     * may push older pool pages out to swap), otherwise straight to swap, or discards it when
+     * swap is full. MUST be called from a background thread. With the pool, a dirty victim's
+     * write-back is charged here, where it lands: the compression, or the swap write if it overflows.
+     * @param dirty whether the victim needed a write-back
+     * @return "Pool", "Swap" or "Discarded".
+     */
+    private String moveEvictedPage(String victimId, boolean dirty) throws Exception {
+        if (zswap == null) {
+            return moveToSwap(victimId, "ram", false); // Write-back already charged by evictPage
+        }
+        List<String> pushedOut = zswap.store(victimId);
+        long compressNanos = zswap.getLastCompressNanos();
+        stats.zswapCompressNanos += compressNanos;
+        waitSim(0, compressNanos); // Compression really ran; it advances the simulated clock too
+        boolean stored = !pushedOut.contains(victimId);
+        if (stored) {
+            stats.zswapStores++;
+            stats.zswapBytesIn += zswap.getPageSize();
+            stats.zswapBytesOut += zswap.getLastCompressedSize();
+            events.refresh("zswap");
+            events.log(SimEvent.Level.INFO, String.format("Process %s compressed into pool (%d → %d bytes, %.1f µs).", victimId,
+                    zswap.getPageSize(), zswap.getLastCompressedSize(), zswap.getLastCompressNanos() / 1000.0), "🗜️");
+            events.move("ram", "zswap", victimId);
+        }
+        String destination = "Pool";
+        for (String pid : pushedOut) {
+            if (pid.equals(victimId)) { // Did not fit in the pool at all
+                destination = moveToSwap(pid, "ram", dirty);
+                continue;
+            }
+            stats.zswapOverflows++;
+            events.evict("zswap", pid, "pool-full");
+            events.refresh("zswap");
+            moveToSwap(pid, "zswap", true); // The pool held its only copy
+        }
+        return destination;
+    }
+
+    // Swap-out of a page leaving RAM or the compressed pool; discards it when swap is full
+    // writeBack: the page must be written (no copy elsewhere), at the simulated swap write cost unless file-backed
+    private String moveToSwap(String processId, String from, boolean writeBack) throws InterruptedException {
+        int slot = swap.add(processId);
+        if (slot >= 0) {
+            if (fileSwap != null) {
+                waitSim(0, swapOutToFile(processId, slot)); // Real write cost, already spent
+            } else if (writeBack) {
+                waitSim(getSwapWriteDelay());
+            }
+            events.refresh("swap", processId);
+            events.log(SimEvent.Level.INFO, "Process " + processId + " moved to Swap (slot " + slot + ").", "📦");
+            events.move(from, "swap", processId);
+            return "Swap";
+        }
+        events.evict("swap", processId, "swap-full"); // Leaves memory altogether
+        processes.release(processIndex(processId));
+        events.log(SimEvent.Level.WARNING, "Process " + processId + " evicted & discarded (Swap full).", "🗑️");
+        return "Discarded";
+    }
+
+    private static class EvictionResult {
+        final String victimId;
+        final boolean writebackNeeded;
+        EvictionResult(String id, boolean wb) { victimId = id; writebackNeeded = wb; }
+    }
+
+    /**
+     * Selects and potentially handles write-back for a victim page from RAM.
+     * MUST be called from a background thread. Emits UI updates on the event ring.
+     * @return EvictionResult containing victim ID and whether write-back occurred.
+     */
+    private EvictionResult evictPage() throws Exception {
+        if (ram.isEmpty()) {
+            events.log(SimEvent.Level.DEBUG, "Eviction skipped: RAM empty.", null);
+            return new EvictionResult(null, false);
+        }
+
+        String algorithm = getSelectedAlgorithm();
+        PriorityReplacement p = policy;
+        int victim, victimClass = -1;
+        boolean aged = false; // Taken above the lowest class holding pages
+        synchronized (p) { // Chosen and untracked at once, so a concurrent fault cannot pick the same victim
+            victim = p.selectVictim();
+            if (victim >= 0) {
+                aged = processPriority(victim) > p.lowestClass();
+                victimClass = p.evicted(victim);
+                p.onRemove(victim);
+            }
+        }
+        if (victim < 0) {
+            events.log(SimEvent.Level.ERROR, "Eviction Failed: No valid processes in RAM.", "❌");
+            return new EvictionResult(null, false);
+        }
+        String victimId = processName(victim);
+
+        boolean writebackNeeded = false;
+        if (victimId != null) {
+            stats.evictions++;
+            events.evict("ram", victimId, algorithm);
+            events.log(SimEvent.Level.DEBUG, "Eviction choice (" + algorithm.toUpperCase() + ", " + PriorityReplacement.NAMES[victimClass]
+                    + " priority" + (aged ? ", aged" : "") + "): Process " + victimId, null);
+            if (victimClass == PriorityReplacement.HIGH) {
+                stats.highPriorityEvictions++;
+                events.log(SimEvent.Level.WARNING, "High-priority process " + victimId + " evicted ("
+                        + (aged ? "aging, after " + AGING_LIMIT + " spared evictions" : "no lower-priority pages in RAM") + ").", "👑");
+            }
+
+            // --- Dirty Check ---
+            if (dirtyProcesses.contains(victimId)) {
+                writebackNeeded = true;
+                stats.writeBacks++;
+                events.log(SimEvent.Level.WRITEBACK, "Process " + victimId + " is dirty. Simulating Write-Back...", "💾");
+                events.animate(SimEvent.Type.EFFECT, "ram", victimId, "write-back");
+                long writeStart = System.nanoTime();
+                waitSim(getWriteBackDelay(victimId)); // Real write if file-backed, else simulated delay
+                events.writeBack(victimId, System.nanoTime() - writeStart);
+                events.state(SimEvent.Type.UNDIRTY, victimId); // Clean the bit after write simulation
+                events.log(SimEvent.Level.WRITEBACK, "Write-Back complete for " + victimId + ".", "✔️");
+            }
+
+            // --- Remove from RAM data structure ---
+            events.state(SimEvent.Type.REMOVE_RAM, victimId);
+            // Tracking data cleaned up in calling function after move decision
+
+        } else {
+            events.log(SimEvent.Level.ERROR, "Eviction failed: No victim determined.", "❌");
+        }
+
+        return new EvictionResult(victimId, writebackNeeded);
+    }
+
+     /**
+      * Adds a process to the cache, handling eviction if necessary.
+      * MUST be called from a background thread. Emits UI updates on the event ring.
+      */
+     private void addToCache(String processId, long accessTime) throws Exception {
+         if (cacheSize <= 0) return; // Cache disabled
+
+         CacheEntry existingEntry = cache.get(processId);
+         if (existingEntry != null) {
+             existingEntry.lastAccess = accessTime;
+             // No need to re-put if using LinkedHashMap for LRU behavior on access
+             // cache.put(processId, existingEntry); // Needed if regular HashMap
+             events.log(SimEvent.Level.DEBUG, "Process " + processId + " cache access time updated.", null);
+             events.animate(SimEvent.Type.HIGHLIGHT, "cache", processId, "highlight");
+             waitSim(getAnimationDuration("highlight_short"));
+             return;
+         }
+
+         if (cache.size() >= cacheSize) {
+             // Cache Eviction (LRU based on insertion order for LinkedHashMap, or explicit check)
+              String lruKey = null;
+              long oldestTime = Long.MAX_VALUE;
+
+              // Find LRU entry
+              for (Map.Entry<String, CacheEntry> entry : cache.entrySet()) {
+                   if (entry.getValue().lastAccess < oldestTime) {
+                       oldestTime = entry.getValue().lastAccess;
+                       lruKey = entry.getKey();
+                   }
+              }
+
+              if (lruKey != null) {
+                  events.evict("cache", lruKey, "lru");
+                  events.log(SimEvent.Level.WARNING, "Cache full. Evicting " + lruKey + " (LRU).", "💨");
+                  events.animate(SimEvent.Type.EFFECT, "cache", lruKey, "fade-out");
+                  waitSim(getAnimationDuration("fade")); // Wait for fade
+                  events.state(SimEvent.Type.REMOVE_CACHE, lruKey); // Remove data
+              } else if (!cache.isEmpty()) {
+                   events.log(SimEvent.Level.ERROR, "Cache full but failed to find LRU entry.", "❌");
+                   return; // Don't add if eviction failed
+              }
+         }
+
+         // Add the new process if space available (or made available)
+          if (cache.size() < cacheSize) {
+              events.addCache(processId, accessTime);
+              events.log(SimEvent.Level.SUCCESS, "Process " + processId + " added to cache.", "💡");
+              events.animate(SimEvent.Type.EFFECT, "cache", processId, "fade-in");
+              waitSim(getAnimationDuration("fade"));
+          } else {
+               events.log(SimEvent.Level.ERROR, "Internal Error: Failed add to cache post-eviction check.", "❌");
+          }
+     }
+
+
+    // --- Data Structure Management (Run on EDT or background, no UI updates here) ---
+
+    private void cleanUpTrackingData(String processId) {
+        // Remove from RAM tracking structures
+        PriorityReplacement p = policy;
+        synchronized (p) {
+            p.onRemove(processIndex(processId));
+        }
+        accessFrequency.remove(processId);
+        ramAddTime.remove(processId);
+        dirtyProcesses.remove(processId); // Ensure dirty bit is cleared
+
+        // Also remove from cache if it exists there (e.g., termination)
+        // This is handled by events like REMOVE_CACHE
+    }
+
+    private void updateTrackingOnAdd(String processId, long timestamp) {
+        ramAddTime.put(processId, timestamp);
+        accessFrequency.put(processId, 1); // Initial access frequency
+        PriorityReplacement p = policy;
+        synchronized (p) {
+            p.onInsert(processIndex(processId)); // Re-inserted if somehow tracked
+        }
+        dirtyProcesses.remove(processId); // Process starts clean
+    }
+
+    private void updateUsageTracking(String processId, long accessTime) {
+        PriorityReplacement p = policy;
+        synchronized (p) {
+            p.onAccess(processIndex(processId)); // Recency/frequency, as the algorithm needs
+        }
+        accessFrequency.put(processId, accessFrequency.getOrDefault(processId, 0) + 1);
+    }
+
+
+    private void recordLatency(LatencyHistogram outcome, long nanos) {
+        stats.addModelled(nanos);
+        outcome.recordShared(nanos); // SimWorkers record concurrently while the metrics thread reads
+    }
+
+    // --- Thrashing Detection ---
+     private void checkThrashing(boolean forceReset) {
+        SwingUtilities.invokeLater(() -> { // Ensure UI update is on EDT
+            if (forceReset) {
+                stopThrashingPulse();
+                return;
+            }
+
+            if (thrashingDetector.isThrashing()) {
+                if (thrashingPulse == null) {
+                    thrashing = true;
+                    logEvent(String.format("High Page Fault Rate (%d of the last %d accesses, %.0f%% over the last 100)! Potential Thrashing!",
+                            thrashingDetector.getWindowFaults(), thrashingDetector.getWindowSize(), thrashingDetector.getRate(1) * 100), "error", "🚨");
+                    // Simple pulse effect: visible for the first half of each second
+                    thrashingIndicator.setVisible(true);
+                    thrashingPulse = animator.loop(thrashingIndicator, "pulse", 1000,
+                            phase -> thrashingIndicator.setVisible(phase < 0.5f), null);
+                }
+            } else {
+                stopThrashingPulse();
+            }
+        });
+    }
+
+    private void stopThrashingPulse() {
+        if (thrashingPulse != null) {
+            thrashingPulse.cancel();
+            thrashingPulse = null;
+        }
+        thrashing = false;
+        thrashingIndicator.setVisible(false);
+    }
+
+    /** Background simulation operation; its wall time is added to the stats next to the simulated time. */
+    private abstract class SimWorker<T> extends SwingWorker<T, Void> {
+        { runningOps.incrementAndGet(); } // Created on the EDT, so checkpoints see it before it runs
+
+        @Override
+        protected final T doInBackground() throws Exception {
+            long start = System.nanoTime();
+            try {
+                return runSim();
+            } finally {
+                stats.addBusyWallNanos(System.nanoTime() - start);
+                runningOps.decrementAndGet();
+                updateStatsDisplay();
+            }
+        }
+
+        protected abstract T runSim() throws Exception;
+    }
+
+    // --- Event Ring Consumer ---
+
+    /** GUI subscriber of the event ring; runs on the EDT, one batch at a time. */
+    private void onSimEvent(SimEvent e, boolean endOfBatch) {
+        switch (e.type) {
+            case LOG:
+                appendLog(e.text, e.level, e.icon, e.wallTime);
+                break;
+            // Heatmap cells follow each change here; block view is rebuilt by renderFrame
+            case ADD_RAM:
+                ram.add(e.processId);
+                ramPanel.updateCell(e.processId, true);
+                updateUIDisplay("ram");
+                break;
+            case ADD_CACHE:
+                cache.put(e.processId, new CacheEntry("Data for " + e.processId, e.time));
+                cachePanel.updateCell(e.processId, true);
+                updateUIDisplay("cache");
+                break;
+            case REMOVE_RAM:
+                ram.remove(e.processId);
+                ramPanel.updateCell(e.processId, false);
+                updateUIDisplay("ram");
+                break;
+            case REMOVE_CACHE:
+                cache.remove(e.processId);
+                cachePanel.updateCell(e.processId, false);
+                updateUIDisplay("cache");
+                break;
+            case REFRESH: // Data already changed off the EDT (e.g. compressed pool)
+                if ("swap".equals(e.section) && e.processId != null) {
+                    swapPanel.updateCell(e.processId, swap.contains(e.processId)); // Where it is now, not when the event was sent
+                }
+                updateUIDisplay(e.section);
+                break;
+            case CLEAR_CACHE:
+                cache.clear();
+                shownCache = null;
+                updateUIDisplay("cache");
+                break;
+            case MARK_DIRTY:
+                dirtyProcesses.add(e.processId);
+                ramPanel.setCellDirty(e.processId, true);
+                updateUIDisplay("ram"); // Redraw RAM to show dirty state
+                break;
+            case UNDIRTY:
+                dirtyProcesses.remove(e.processId);
+                ramPanel.setCellDirty(e.processId, false);
+                updateUIDisplay("ram");
+                break;
+            case HIGHLIGHT:
+                animateHighlight(e.section, e.processId, e.text);
+                break;
+            case EFFECT:
+                animateBlockEffect(e.section, e.processId, e.text);
+                break;
+            case MOVE:
+                animateBlockMove(e.section, e.target, e.processId);
+                break;
+        }
+        if (endOfBatch) updateStatsDisplay();
+    }
+
+
+    // --- Display & Animation ---
+
+    /**
+     * Marks sections for redraw (all if none given). Callable from any thread; the actual
+     * drawing happens at most once per frame in {@link #renderFrame}.
+     */
+    private void updateUIDisplay(String... sectionsToUpdate) {
+        int bits = 0;
+        if (sectionsToUpdate == null || sectionsToUpdate.length == 0) {
+            bits = DIRTY_CACHE | DIRTY_RAM | DIRTY_ZSWAP | DIRTY_SWAP;
+        } else {
+            for (String section : sectionsToUpdate) bits |= sectionBit(section);
+        }
+        final int marked = bits;
+        dirtySections.getAndUpdate(d -> d | marked);
+    }
+
+    private static int sectionBit(String section) {
+        switch (section) {
+            case "cache": return DIRTY_CACHE;
+            case "ram":   return DIRTY_RAM;
+            case "zswap": return DIRTY_ZSWAP;
+            case "swap":  return DIRTY_SWAP;
+            default:      return 0;
+        }
+    }
+
+    /**
+     * One frame of the render loop (EDT). Takes a snapshot of each section marked dirty and
+     * rebuilds only the panels whose contents differ from what they showed last frame, so a
+     * burst of events costs at most one redraw per panel per frame. A heatmap that was filled
+     * once is kept in step by {@link #onSimEvent} instead, so at large frame counts a frame
+     * costs only the usage labels, not a copy of every area; {@link #redrawAll} refills it.
+     */
+    private void renderFrame() {
+        styledLog.flush(); // Log lines appended since the last frame, in one document edit
+        animator.tick();
+        int dirty = dirtySections.getAndSet(0);
+        long wallNow = System.currentTimeMillis();
+        if (wallNow >= nextFlagRefresh) { // Marks fade and heat up without the frames changing
+            nextFlagRefresh = wallNow + FLAG_REFRESH_MS;
+            for (MemoryPanel panel : new MemoryPanel[]{cachePanel, ramPanel, zswapPanel, swapPanel}) panel.refreshHeatmapFlags();
+        }
+        if (dirty == 0) return;
+
+        boolean changed = false;
+        boolean ramInStep = inStep(ramPanel, shownRam);
+        if ((dirty & DIRTY_RAM) != 0 && !ramInStep && !dirtyProcesses.equals(shownDirty)) {
+            shownDirty = new HashSet<>(dirtyProcesses);
+            shownRam = null; // Dirty marks are drawn on RAM blocks: force a redraw
+        }
+        if ((dirty & DIRTY_CACHE) != 0) {
+            if (!inStep(cachePanel, shownCache)) {
+                List<String> now = new ArrayList<>(cache.keySet());
+                if (!now.equals(shownCache)) { cachePanel.updateBlocks(now, shownDirty); shownCache = now; changed = true; }
+            }
+            cachePanel.updateUsage(cache.size());
+        }
+        if ((dirty & DIRTY_RAM) != 0) {
+            if (!ramInStep) {
+                List<String> now = new ArrayList<>(ram);
+                if (!now.equals(shownRam)) { ramPanel.updateBlocks(now, shownDirty); shownRam = now; changed = true; }
+            }
+            ramPanel.updateUsage(ram.size());
+        }
+        if ((dirty & DIRTY_ZSWAP) != 0) { // At most a few dozen frames: always compared in full
+            List<String> now = zswap != null ? zswap.getProcessIds() : Collections.emptyList();
+            if (!now.equals(shownZswap)) { zswapPanel.updateBlocks(now, shownDirty); shownZswap = now; changed = true; }
+            updateZswapUsage();
+        }
+        if ((dirty & DIRTY_SWAP) != 0) {
+            if (!inStep(swapPanel, shownSwap)) {
+                List<String> now = swap.getProcessIds();
+                if (!now.equals(shownSwap)) { swapPanel.updateBlocks(now, shownDirty); shownSwap = now; changed = true; }
+            }
+            swapPanel.updateUsage(swap.size());
+        }
+        if (changed) {
+            cachePanel.getParent().revalidate();
+            cachePanel.getParent().repaint();
+        }
+        if ((dirty & DIRTY_STATS) != 0) renderStats();
+    }
+
+    // A heatmap filled since the last reset: onSimEvent applies the changes, nothing to compare
+    private static boolean inStep(MemoryPanel panel, List<String> shown) {
+        return panel.isHeatmapShown() && shown != null;
+    }
+
+    // Pool usage is bytes of arena, not frames: show page count and arena fill
+    private void updateZswapUsage() {
+        if (zswap == null) {
+            zswapPanel.updateUsage(0);
+            return;
+        }
+        int percent = (int) Math.round(100.0 * zswap.getUsedBytes() / Math.max(1, zswap.getCapacityBytes()));
+        zswapPanel.updateUsage(zswap.size() + " pages / " + percent + "% arena", percent);
+    }
+
+    // Get the MemoryPanel for a given location string
+    private MemoryPanel getMemoryPanel(String location) {
+        switch(location.toLowerCase()) {
+            case "cache": return cachePanel;
+            case "ram": return ramPanel;
+            case "zswap": return zswapPanel;
+            case "swap": return swapPanel;
+            default: return null;
+        }
+    }
+
+    // --- Logging ---
+     private void logEvent(String message, String type, String icon) {
+         events.log(SimEvent.Level.of(type), message, icon); // Rendered by appendLog, also seen by the other subscribers
+     }
+
+     // Called on the EDT by the GUI's event ring subscriber
+     private void appendLog(String message, SimEvent.Level level, String icon, long wallTime) {
+         String time = timeFormat.format(new Date(wallTime));
+         Color color = TEXT_COLOR;
+         String logIcon = (icon != null) ? icon : "";
+
+         switch (level) {
+             case SUCCESS: color = SUCCESS_COLOR; if (icon == null) logIcon = "✅"; break;
+             case WARNING: color = WARNING_COLOR; if (icon == null) logIcon = "⚠️"; break;
+             case ERROR: color = ERROR_COLOR; if (icon == null) logIcon = "❌"; break;
+             case DEBUG: color = TEXT_MUTED_COLOR; if (icon == null) logIcon = "🐞"; break;
+             case WRITEBACK: color = SECONDARY_COLOR; if (icon == null) logIcon = "💾"; break;
+             case INFO: default: color = PRIMARY_COLOR; if (icon == null) logIcon = "ℹ️"; break;
+         }
+
+         styledLog.append(logIcon + " ", color, true); // Icon bold
+         styledLog.append("[" + time + "] ", TEXT_MUTED_COLOR, false);
+         styledLog.append(message + "\n", color, false); // Shown by the next renderFrame
+     }
+
+    // --- Animation Helpers ---
+
+     private long getAnimationDuration(String type) {
+         long baseDuration = 500; // Default ms
+         switch(type) {
+             case "fade": baseDuration = 300; break;
+             case "highlight":
+             case "write_back":
+                  baseDuration = 700; break;
+             case "highlight_short": baseDuration = 250; break;
+             case "state_change": baseDuration = 500; break;
+             case "terminate": baseDuration = 400; break;
+             case "move": baseDuration = 1000; break; // Longer for move
+             default: break;
+         }
+          if (batchMode) return baseDuration; // Nominal length, added to the simulated clock only
+          // Adjust based on simulation speed factor
+          double speed = (simulationSpeedFactor <= 0.1 && baseDuration > 0) ? 0.1 : simulationSpeedFactor;
+          return Math.max(10, (long)(baseDuration * speed)); // Ensure minimum duration
+     }
+
+     // --- Swap File I/O (background thread only) ---
+
+     /**
+      * Simulated write-back delay of a dirty victim. A file-backed swap performs the real write
+      * when the page lands there, so no fixed delay applies; with the compressed pool the cost is
+      * charged by moveEvictedPage once the destination is known.
+      */
+     private long getWriteBackDelay(String processId) {
+         if (zswap != null) return 0; // Compression, or the swap write if the page overflows (moveEvictedPage)
+         if (fileSwap != null && !swap.isFull()) return 0; // Written and timed by swapOutToFile
+         return getSwapWriteDelay();
+     }
+
+     // Simulated write of one page to a non-file swap
+     private long getSwapWriteDelay() {
+         return Math.max(10, (long) (WRITE_BACK_DELAY_MS * simulationSpeedFactor));
+     }
+
+     /** Writes a page payload to its swap file slot. @return measured latency in nanoseconds. */
+     private long swapOutToFile(String processId, int slot) {
+         if (fileSwap == null) return 0;
+         try {
+             long nanos = fileSwap.writePage(processId, slot);
+             stats.swapFileWrites++;
+             stats.swapFileWriteNanos += nanos;
+             events.log(SimEvent.Level.DEBUG, String.format("Swap-out of %s to slot %d took %.1f µs (%s).", processId, slot, nanos / 1000.0, fileSwap.getMode()), null);
+             return nanos;
+         } catch (IOException e) {
+             events.log(SimEvent.Level.ERROR, "Swap file write failed for " + processId + ": " + e.getMessage(), "❌");
+             return 0;
+         }
+     }
+
+     /** Reads a faulted page back from its swap file slot. @return measured latency in nanoseconds. */
+     private long swapInFromFile(String processId) {
+         int slot = swap.slotOf(processId);
+         if (fileSwap == null || slot < 0) return 0;
+         try {
+             long nanos = fileSwap.readPage(slot);
+             stats.swapFileReads++;
+             stats.swapFileReadNanos += nanos;
+             events.log(SimEvent.Level.DEBUG, String.format("Page-in of %s took %.1f µs (%s).", processId, nanos / 1000.0, fileSwap.getMode()), null);
+             return nanos;
+         } catch (IOException e) {
+             events.log(SimEvent.Level.ERROR, "Swap file read failed for " + processId + ": " + e.getMessage(), "❌");
+             return 0;
+         }
+     }
+
+     // Simplified wait respecting simulation speed (use only in SwingWorker background thread)
+     private void waitSim(long durationMs) throws InterruptedException {
+         waitSim(durationMs, 0);
+     }
+
+     // Wait of at least durationMs of which elapsedNanos already passed for real (measured I/O): the
+     // simulated clock advances by the whole wait, and only the rest is slept
+     private void waitSim(long durationMs, long elapsedNanos) throws InterruptedException {
+         long totalNanos = Math.max(durationMs * 1_000_000L, Math.max(0, elapsedNanos));
+         if (totalNanos <= 0) return;
+         stats.addSimulatedNanos(totalNanos);
+         if (batchMode) return; // Advance the simulated clock without sleeping
+         long restNanos = totalNanos - Math.max(0, elapsedNanos);
+         if (restNanos > 0) Thread.sleep(restNanos / 1_000_000L, (int) (restNanos % 1_000_000L));
+     }
+
+     // Length of an on-screen animation; none in batch mode
+     private long getDisplayDuration(String type) {
+         return batchMode ? 0 : getAnimationDuration(type);
+     }
+
+     // Highlight animation (runs on EDT)
+     private void animateHighlight(String location, String processId, String type) {
+         MemoryPanel panel = getMemoryPanel(location);
+         if (panel == null) return;
+         ProcessBlock block = panel.findBlock(processId);
+         if (block == null || batchMode) return;
+
+         animator.cancel(block, "border"); // Restore the border of a pulse still running
+         Color originalBorder = block.getBorderColor();
+         Color animColor = HIGHLIGHT_COLOR; // Default highlight
+          if ("write-back".equals(type)) animColor = SECONDARY_COLOR;
+          else if ("marked-dirty".equals(type)) animColor = DIRTY_COLOR;
+
+         final Color finalAnimColor = animColor; // Effective final for lambda
+         block.setBorderColor(finalAnimColor, 3); // Set thick border immediately
+
+         animator.start(block, "border", getAnimationDuration("highlight"), fraction -> {
+             float pulse = fraction <= 0.5f ? fraction * 2 : (1 - fraction) * 2; // Pulse in, then out
+             // Simple border thickness pulse for now
+             int thickness = 1 + Math.round(2 * pulse); // Varies between 1 and 3
+             block.setBorderColor(finalAnimColor, thickness + 1); // Use thickness+1 for visibility
+         }, () -> {
+             block.setBorderColor(originalBorder); // Restore original border
+             block.resetBorderThickness();
+         });
+     }
+
+      // Generic effect animation (fade, terminate, state pulses) - runs on EDT
+     private void animateBlockEffect(String location, String processId, String effectType) {
+          MemoryPanel panel = getMemoryPanel(location);
+          if (panel == null) return;
+          ProcessBlock block = panel.findBlock(processId);
+          if (block == null) return;
+
+          long duration = getDisplayDuration(effectType.contains("fade") ? "fade" : effectType.contains("terminate") ? "terminate" : "state_change");
+          if (duration < 50) { // Skip animation if too fast
+               if (effectType.contains("fade") || effectType.contains("terminate")) {
+                    block.setVisible(false); // Just hide it
+               }
+               return;
+          }
+
+           if (effectType.contains("fade") || effectType.contains("terminate")) {
+                // Fade Out / Terminate
+                animator.start(block, "alpha", duration, fraction -> block.setAlpha(Math.max(0f, 1.0f - fraction)), () -> {
+                     block.setVisible(false); // Hide completely after fade
+                     block.setAlpha(1.0f); // Reset alpha for potential reuse
+                     updateUIDisplay(location); // Remove from layout after animation
+                });
+
+           } else if (effectType.contains("write-back") || effectType.contains("marked-dirty")) {
+                // Pulse effect (e.g., border flash) - handled by animateHighlight now
+                 animateHighlight(location, processId, effectType);
+           } else {
+               // Other effects (e.g., simple fade-in if block was hidden)
+                 block.setAlpha(0f);
+                 block.setVisible(true);
+                 animator.start(block, "alpha", duration, fraction -> block.setAlpha(Math.min(1.0f, fraction)),
+                         () -> block.setAlpha(1.0f)); // Ensure fully visible
+           }
+      }
+
+     // Movement Animation (runs on EDT, complex)
+      private void animateBlockMove(String fromLocation, String toLocation, String processId) {
+           MemoryPanel fromPanel = getMemoryPanel(fromLocation);
+           MemoryPanel toPanel = getMemoryPanel(toLocation);
+           if (fromPanel == null || toPanel == null) {
+                logEvent("Move Anim Failed: Invalid location(s).", "error", "❌");
+                return;
+           }
+
+           if (fromPanel.isHeatmapShown() || toPanel.isHeatmapShown()) {
+                updateUIDisplay(fromLocation, toLocation); // No per-process components to animate
+                return;
+           }
+
+           ProcessBlock sourceBlock = fromPanel.findBlock(processId);
+           if (sourceBlock == null) {
+                // This can happen if the source data was updated before the animation command arrived
+                logEvent("Move Anim Warning: Source block " + processId + " in " + fromLocation + " not found visually.", "warning", "❓");
+                // Attempt to force consistency
+                updateUIDisplay(fromLocation, toLocation);
+                return;
+           }
+
+           // 1. Get Start Position (relative to layeredPane)
+           Point startPoint = SwingUtilities.convertPoint(sourceBlock, 0, 0, layeredPane);
+           Dimension blockSize = sourceBlock.getSize();
+
+           // 2. Create Temporary Moving Component (Label with snapshot or simple colored rect)
+           // Using a simpler representation for the moving block:
+            JLabel movingLabel = new JLabel(processId, SwingConstants.CENTER);
+            movingLabel.setOpaque(true);
+            movingLabel.setFont(sourceBlock.getFont());
+            movingLabel.setForeground(sourceBlock.getForeground());
+            movingLabel.setBackground(sourceBlock.getBackground()); // Use block's current bg
+            movingLabel.setBorder(sourceBlock.getBorder()); // Copy border
+            movingLabel.setBounds(startPoint.x, startPoint.y, blockSize.width, blockSize.height);
+            movingLabel.setPreferredSize(blockSize);
+
+           // 3. Hide Original Block
+           sourceBlock.setVisible(false); // Hide original temporarily
+
+           // 4. Calculate Approximate End Position
+           // This is tricky because the target panel's layout might change.
+           // We estimate based on the current number of blocks in the target.
+           int targetIndex = 0;
+           if (toLocation.equals("cache")) targetIndex = cache.size(); // Size *before* it's added visually
+           else if (toLocation.equals("ram")) targetIndex = ram.size();
+           else if (toLocation.equals("zswap")) targetIndex = (zswap != null) ? zswap.size() : 0;
+           else if (toLocation.equals("swap")) targetIndex = swap.size();
+
+            Point targetPanelOrigin = SwingUtilities.convertPoint(toPanel.getBlockContainer(), 0, 0, layeredPane);
+            int blockYSpacing = blockSize.height + 5; // Approximate spacing including gap
+            // Calculate vertical offset within the container + padding etc.
+            int targetYOffset = toPanel.getBlockContainer().getInsets().top + (targetIndex * blockYSpacing);
+            // Center horizontally within the target block container
+            int targetX = targetPanelOrigin.x + (toPanel.getBlockContainer().getWidth() / 2) - (blockSize.width / 2);
+            int targetY = targetPanelOrigin.y + targetYOffset;
+
+
+           // 5. Add Temp Component to Layered Pane (top layer)
+           layeredPane.add(movingLabel, JLayeredPane.DRAG_LAYER); // Use DRAG_LAYER or higher
+
+           // 6. Animation (advanced by the shared animator)
+           long duration = getDisplayDuration("move");
+           if (duration < 50) { // Instant move if too fast
+                layeredPane.remove(movingLabel);
+                updateUIDisplay(fromLocation, toLocation); // Update final state
+                layeredPane.repaint();
+                return;
+           }
+
+            final Point finalTargetPoint = new Point(targetX, targetY); // Use final vars for lambda
+
+            // Not tied to the source block: it leaves its panel while the label is in flight
+            animator.start(movingLabel, "move", duration, fraction -> {
+                 // Simple linear interpolation (easing functions can be added)
+                 int currentX = startPoint.x + (int) (fraction * (finalTargetPoint.x - startPoint.x));
+                 int currentY = startPoint.y + (int) (fraction * (finalTargetPoint.y - startPoint.y));
+                 movingLabel.setLocation(currentX, currentY);
+            }, () -> {
+                 layeredPane.remove(movingLabel);
+                 // Ensure the actual block is visible in the target panel
+                 updateUIDisplay(fromLocation, toLocation); // Update data and redraw
+                  // Optional: Add a little "settle" animation to the actual block
+                  MemoryPanel targetMemPanel = getMemoryPanel(toLocation);
+                  if(targetMemPanel != null) {
+                      ProcessBlock finalBlock = targetMemPanel.findBlock(processId);
+                      if (finalBlock != null) {
+                           finalBlock.setVisible(true); // Make sure it's visible
+                          // Could add a brief highlight or scale effect here
+                      }
+                  }
+                 layeredPane.repaint(); // Repaint to remove artifacts
+            });
+      }
+
+
+     private void highlightExistingBlock(String processId) {
+         // Use SwingWorker to run highlight animation off the EDT
+         new SimWorker<Void>() {
+             @Override
+             protected Void runSim() throws Exception {
+                 if (cache.containsKey(processId)) {
+                     events.animate(SimEvent.Type.HIGHLIGHT, "cache", processId, "highlight");
+                 } else if (ram.contains(processId)) {
+                     events.animate(SimEvent.Type.HIGHLIGHT, "ram", processId, "highlight");
+                 } else if (swap.contains(processId)) {
+                     events.animate(SimEvent.Type.HIGHLIGHT, "swap", processId, "highlight");
+                 } else {
+                      events.log(SimEvent.Level.DEBUG, "Highlight Failed: " + processId + " not found.", null);
+                 }
+                 waitSim(getAnimationDuration("highlight"));
+                 return null;
+             }
+         }.execute();
+     }
+
+
+    // --- Stats Display ---
+
+    /** Marks the stats panel for redraw at the next frame. Callable from any thread. */
+    private void updateStatsDisplay() {
+        dirtySections.getAndUpdate(d -> d | DIRTY_STATS);
+    }
+
+    private void renderStats() {
+        cacheHitsLabel.setText(String.valueOf(stats.cacheHits));
+        cacheAccessesLabel.setText(String.valueOf(stats.cacheAccesses));
+        ramHitsLabel.setText(String.valueOf(stats.ramHits));
+        ramAccessesLabel.setText(String.valueOf(stats.ramAccesses));
+        pageFaultsLabel.setText(String.valueOf(stats.pageFaults));
+        swapAccessesLabel.setText(String.valueOf(stats.swapAccesses));
+        tlbHitsLabel.setText(String.valueOf(stats.tlbHits));
+        tlbMissesLabel.setText(String.valueOf(stats.tlbMisses));
+        totalAccessesLabel.setText(String.valueOf(stats.totalAccesses));
+
+        long totalMemAccesses = stats.cacheAccesses + stats.ramAccesses + stats.swapAccesses + stats.zswapHits;
+        long totalMemHits = stats.cacheHits + stats.ramHits;
+        String hitRateStr = "N/A";
+        String faultRateStr = "N/A";
+
+        if (totalMemAccesses > 0) {
+            hitRateStr = String.format("%.1f%%", (double) totalMemHits * 100.0 / totalMemAccesses);
+            faultRateStr = String.format("%.1f%%", (double) stats.pageFaults * 100.0 / totalMemAccesses);
+        }
+
+        hitRateLabel.setText(hitRateStr);
+        faultRateLabel.setText(faultRateStr);
+        evictionsLabel.setText(String.valueOf(stats.evictions));
+        highEvictionsLabel.setText(stats.evictions > 0
+                ? String.format("%d (%.1f%%)", stats.highPriorityEvictions, stats.highPriorityEvictions * 100.0 / stats.evictions) : "0");
+
+        // Average measured swap file latency (only when swap is file-backed)
+        swapWriteLatencyLabel.setText(stats.swapFileWrites > 0
+                ? String.format("%.0fµs", stats.swapFileWriteNanos / 1000.0 / stats.swapFileWrites) : "-");
+        swapReadLatencyLabel.setText(stats.swapFileReads > 0
+                ? String.format("%.0fµs", stats.swapFileReadNanos / 1000.0 / stats.swapFileReads) : "-");
+        swapFragmentationLabel.setText(String.format("%.0f%%", swap.getFragmentation() * 100.0));
+        swapContiguityLabel.setText(String.format("%.0f%%", swap.getContiguity() * 100.0));
+
+         // Compressed pool: ratio, CPU per compress/decompress, swap I/O avoided
+         zswapRatioLabel.setText(stats.zswapBytesOut > 0
+                 ? String.format("%.2fx", (double) stats.zswapBytesIn / stats.zswapBytesOut) : "-");
+         zswapCpuLabel.setText(stats.zswapStores > 0
+                 ? String.format("%.0f/%sµs", stats.zswapCompressNanos / 1000.0 / stats.zswapStores,
+                     stats.zswapHits > 0 ? String.format("%.0f", stats.zswapDecompressNanos / 1000.0 / stats.zswapHits) : "-")
+                 : "-");
+         // Each stored page that never overflowed saved a swap write; each pool fault saved a swap read
+         zswapAvoidedLabel.setText(String.valueOf(Math.max(0, stats.zswapStores - stats.zswapOverflows) + stats.zswapHits));
+
+         // Event ring traffic
+         eventCountLabel.setText(String.format("%,d", eventMetrics.getTotal()));
+         eventBatchLabel.setText(String.valueOf(guiEvents.getLargestBatch()));
+
+         // Simulated clock vs real time spent in operations (they differ in batch mode)
+         simTimeLabel.setText(formatDuration(stats.getSimulatedNanos()));
+         wallTimeLabel.setText(formatDuration(stats.getBusyWallNanos()));
+
+         // Latency model: effective access time and time faults spent queued behind write-backs
+         boolean timed = stats.getModelAccesses() > 0;
+         eatLabel.setText(timed ? ConcurrentAccessBenchmark.formatNanos((long) LatencyModel.effectiveAccessTime(stats)) : "-");
+         queueWaitLabel.setText(timed ? ConcurrentAccessBenchmark.formatNanos(stats.getModelQueueWaitNanos()) : "-");
+
+         // Fault rate moving averages, like load averages
+         faultTrendLabel.setText(String.format("%.0f%% / %.0f%% / %.0f%%", thrashingDetector.getRate(0) * 100,
+                 thrashingDetector.getRate(1) * 100, thrashingDetector.getRate(2) * 100));
+
+         // Tail latency of faults (clean and dirty merged); every outcome in the tooltip
+         LatencyHistogram fault = stats.faultLatency.snapshot(), dirtyFault = stats.dirtyFaultLatency.snapshot();
+         allFaultLatency.clear();
+         allFaultLatency.add(fault);
+         allFaultLatency.add(dirtyFault);
+         faultLatencyLabel.setText(allFaultLatency.summary());
+         faultLatencyLabel.setToolTipText("<html>Cache hit: " + stats.cacheHitLatency.snapshot().summary()
+                 + "<br>RAM hit: " + stats.ramHitLatency.snapshot().summary()
+                 + "<br>Fault: " + fault.summary()
+                 + "<br>Fault + dirty eviction: " + dirtyFault.summary() + "</html>");
+
+         // Update usage text/progress (might be redundant if updateUIDisplay called, but safe)
+         cachePanel.updateUsage(cache.size());
+         ramPanel.updateUsage(ram.size());
+         swapPanel.updateUsage(swap.size());
+         updateZswapUsage();
+    }
+
+    // --- Simulation Speed ---
+
+    private void updateSimSpeed() {
+         int selectedIndex = simSpeedComboBox.getSelectedIndex();
+         switch (selectedIndex) {
+             case 0: simulationSpeedFactor = 2.0; break;   // Slow (0.5x)
+             case 1: simulationSpeedFactor = 1.5; break;   // Slower (0.75x)
+             case 2: simulationSpeedFactor = 1.0; break;   // Normal (1x)
+             case 3: simulationSpeedFactor = 0.5; break;   // Fast (2x)
+             case 4: simulationSpeedFactor = 0.25; break;  // Faster (4x)
+             case 5: simulationSpeedFactor = 0.1; break;   // Instant (10x)
+             case 6: simulationSpeedFactor = 1.0; break;   // Batch: delays counted at 1x, not waited for
+             default: simulationSpeedFactor = 1.0;
+         }
+         batchMode = selectedIndex == 6;
+         logEvent("Simulation speed set to " + simSpeedComboBox.getSelectedItem(), "info", "⏱️");
+     }
+
+
+    // --- Utilities ---
+
+    private String getSelectedAlgorithm() {
+        return ((String) algorithmComboBox.getSelectedItem()).toLowerCase();
+    }
+
+    private static String formatDuration(long nanos) {
+        if (nanos < 1_000_000_000L) return String.format("%.0fms", nanos / 1e6);
+        if (nanos < 60_000_000_000L) return String.format("%.1fs", nanos / 1e9);
+        long seconds = nanos / 1_000_000_000L;
+        return String.format("%dm %02ds", seconds / 60, seconds % 60);
+    }
+
+    private String formatSize(int kb) {
+        if (kb >= 1024 * 1024) return String.format("%.1f GB", kb / (1024.0 * 1024.0));
+        if (kb >= 1024) return String.format("%.1f MB", kb / 1024.0);
+        return kb + " KB";
+    }
+
+    // Heatmap cell state - protected for HeatmapView access
+    protected boolean isHot(String processId) {
+        return accessFrequency.getOrDefault(processId, 0) >= HOT_ACCESS_COUNT;
+    }
+
+    protected boolean isRecentlyFaulted(String processId) {
+        Long at = lastFaultTime.get(processId);
+        return at != null && System.currentTimeMillis() - at < RECENT_FAULT_MS;
+    }
+
+    private void updateViewMode() {
+        MemoryPanel.ViewMode mode = MemoryPanel.ViewMode.values()[viewModeComboBox.getSelectedIndex()];
+        for (MemoryPanel panel : new MemoryPanel[]{cachePanel, ramPanel, zswapPanel, swapPanel}) {
+            panel.setViewMode(mode);
+        }
+        redrawAll(); // Every panel is refilled in its new view
+    }
+
+    // Makes the next frame refill every panel from the data, not just what changed since the last one
+    private void redrawAll() {
+        shownCache = shownRam = shownZswap = shownSwap = null;
+        updateUIDisplay();
+    }
+
+    // Tooltip generation - protected for MemoryPanel access
+     protected String generateTooltipText(String processId, String location) {
+         int index = processIndex(processId);
+         int sizeInKB = index >= 0 ? processSizeKb(index) : 0;
+         String formattedSize = formatSize(sizeInKB);
+         StringBuilder tooltip = new StringBuilder("<html><body style='font-family: SansSerif; font-size: 9pt;'>");
+         tooltip.append("<b>").append(processId).append("</b><br>");
+         tooltip.append("<span style='color: #").append(String.format("%06x", TEXT_MUTED_COLOR.getRGB() & 0xFFFFFF)).append(";'>Size:</span> ").append(formattedSize);
+         if (index >= 0) {
+             tooltip.append("<br><span style='color: #").append(String.format("%06x", TEXT_MUTED_COLOR.getRGB() & 0xFFFFFF)).append(";'>Priority:</span> ").append(PriorityReplacement.NAMES[processPriority(index)]);
+         }
+
+         if ("ram".equalsIgnoreCase(location)) {
+             int freq = accessFrequency.getOrDefault(processId, 0);
+             String added = ramAddTime.containsKey(processId) ? timeFormat.format(new Date(ramAddTime.get(processId))) : "-";
+             boolean isDirty = dirtyProcesses.contains(processId);
+             tooltip.append("<br><span style='color: #").append(String.format("%06x", TEXT_MUTED_COLOR.getRGB() & 0xFFFFFF)).append(";'>Freq:</span> ").append(freq);
+             tooltip.append("<br><span style='color: #").append(String.format("%06x", TEXT_MUTED_COLOR.getRGB() & 0xFFFFFF)).append(";'>Added:</span> ").append(added);
+             tooltip.append("<br><span style='color: #").append(String.format("%06x", TEXT_MUTED_COLOR.getRGB() & 0xFFFFFF)).append(";'>State:</span> ");
+             if (isDirty) {
+                 tooltip.append("<span style='color: #").append(String.format("%06x", ERROR_COLOR.getRGB() & 0xFFFFFF)).append(";'><b>Dirty</b></span>");
+             } else {
+                 tooltip.append("Clean");
+             }
+         } else if ("cache".equalsIgnoreCase(location)) {
+             CacheEntry cacheEntry = cache.get(processId);
+             String accessed = (cacheEntry != null) ? timeFormat.format(new Date(cacheEntry.lastAccess)) : "-";
+             tooltip.append("<br><span style='color: #").append(String.format("%06x", TEXT_MUTED_COLOR.getRGB() & 0xFFFFFF)).append(";'>Cache Access:</span> ").append(accessed);
+         } else if ("swap".equalsIgnoreCase(location)) {
+             tooltip.append("<br><span style='color: #").append(String.format("%06x", TEXT_MUTED_COLOR.getRGB() & 0xFFFFFF)).append(";'>Location:</span> Swap");
+         }
+
+         tooltip.append("</body></html>");
+         return tooltip.toString();
+     }
+
+    // --- Main Method ---
+    public static void main(String[] args) {
+        // Set a modern Look and Feel if available (e.g., Nimbus)
+        try {
+            for (UIManager.LookAndFeelInfo info : UIManager.getInstalledLookAndFeels()) {
+                if ("Nimbus".equals(info.getName())) {
+                    UIManager.setLookAndFeel(info.getClassName());
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            // If Nimbus is not available, use the default L&F.
+            System.err.println("Nimbus L&F not found, using default.");
+        }
+
+        // Run the GUI on the Event Dispatch Thread
+        SwingUtilities.invokeLater(VirtualMemoryManagerGUI::new);
+    }
+}
@@ -0,0 +1,101 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class BatchRunnerTest {
+
+    public static void main(String[] args) throws Exception {
+        appliesAndConsumesOptions();
+        rejectsBadOptionValues();
+        writesOneCsvOrJsonRowPerRun();
+        quotesStringFields();
+        writesNonFiniteNumbersAsJsonNull();
+        System.out.println("BatchRunnerTest: ok");
+    }
+
+    static Map<String, String> options(String... pairs) {
+        Map<String, String> o = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) o.put(pairs[i], pairs[i + 1]);
+        return o;
+    }
+
+    static void appliesAndConsumesOptions() {
+        Map<String, String> o = options("ram", "128", "algorithm", "LFU", "placement", "interleave",
+                "write-ratio", "0.25", "seed", "-7", "threads", "2");
+        ConcurrentAccessBenchmark.Config cfg = BatchRunner.configure(new ConcurrentAccessBenchmark.Config(), o);
+        Check.equal(128, cfg.ramFrames, "ram");
+        Check.equal("lfu", cfg.algorithm, "algorithm");
+        Check.equal(MemoryEngine.Placement.INTERLEAVE, cfg.placement, "placement");
+        Check.equal(0.25, cfg.writeRatio, "write ratio");
+        Check.equal(-7, cfg.seed, "seed");
+        Check.equal(Map.of("threads", "2"), o, "options left for the caller");
+    }
+
+    static void rejectsBadOptionValues() {
+        String[][] cases = {
+                {"ram", "0", "--ram must be between 1"},
+                {"ram", "4294967296", "--ram must be between 1"},
+                {"swap", "lots", "--swap expects an integer"},
+                {"hot-ratio", "1.5", "--hot-ratio must be between 0.0 and 1.0"},
+                {"write-ratio", "NaN", "--write-ratio must be between 0.0 and 1.0"},
+                {"algorithm", "clock", "Unknown algorithm: clock"},
+                {"placement", "interleaved", "--placement must be first-touch or interleave"},
+        };
+        for (String[] c : cases) {
+            IllegalArgumentException e = Check.fails(IllegalArgumentException.class,
+                    () -> BatchRunner.configure(new ConcurrentAccessBenchmark.Config(), options(c[0], c[1])), c[0] + "=" + c[1]);
+            Check.that(e.getMessage().startsWith(c[2]), c[0] + "=" + c[1] + ": " + e.getMessage());
+        }
+        Check.fails(IllegalArgumentException.class, () -> run("--ram=8", "--colour=blue"), "unknown option");
+        Check.fails(IllegalArgumentException.class, () -> run("ram=8"), "argument without --");
+        Check.fails(IllegalArgumentException.class, () -> run("--format=xml"), "unknown format");
+    }
+
+    static void writesOneCsvOrJsonRowPerRun() throws Exception {
+        String[] small = {"--ram=16", "--swap=64", "--cache=4", "--processes=2", "--pages=16", "--accesses=500",
+                "--threads=2", "--seed=3"};
+        String[] csv = run(small).split("\n");
+        Check.equal(2, csv.length, "header and one row");
+        Check.that(csv[0].startsWith("run,seed,algorithm,threads,"), "header: " + csv[0]);
+        Check.that(csv[1].startsWith("1,3,lru,2,"), "row: " + csv[1]);
+        Check.equal(csv[0].split(",").length, csv[1].split(",").length, "a value per column");
+
+        String[] withJson = small.clone();
+        withJson[withJson.length - 1] = "--format=json";
+        String json = run(withJson);
+        Check.that(json.startsWith("[\n  {\"run\": 1, ") && json.endsWith("}\n]\n"), "JSON array: " + json);
+        Check.that(json.contains("\"algorithm\": \"lru\""), "strings quoted: " + json);
+        Check.that(run("--help").startsWith("Usage:"), "help");
+    }
+
+    static void quotesStringFields() {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("phase", "warm-up, \"cold\"");
+        row.put("note", "line\nbreak\u0001");
+        row.put("hit_rate", 0.5);
+        row.put("faults", 12L);
+        Check.equal("phase,note,hit_rate,faults\n\"warm-up, \"\"cold\"\"\",\"line\nbreak\u0001\",0.5000,12\n",
+                BatchRunner.toCsv(List.of(row)), "CSV");
+        Check.equal("[\n  {\"phase\": \"warm-up, \\\"cold\\\"\", \"note\": \"line\\nbreak\\u0001\", \"hit_rate\": 0.5000, \"faults\": 12}\n]\n",
+                BatchRunner.toJson(List.of(row)), "JSON");
+    }
+
+    static void writesNonFiniteNumbersAsJsonNull() {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("hit_rate", Double.NaN);
+        row.put("eat_ns", Double.POSITIVE_INFINITY);
+        row.put("ratio", -0.25);
+        Check.equal("[\n  {\"hit_rate\": null, \"eat_ns\": null, \"ratio\": -0.2500}\n]\n",
+                BatchRunner.toJson(List.of(row)), "JSON");
+    }
+
+    private static String run(String... args) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Check.equal(0, BatchRunner.run(args, new PrintStream(out, true, "UTF-8")), "exit status");
+        return out.toString(StandardCharsets.UTF_8.name());
+    }
+}
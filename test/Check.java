@@ -0,0 +1,38 @@
+import java.util.Objects;
+
+/**
+ * Assertions for the tests in this directory. They run as plain programs (each test class
+ * has a {@code main}, {@link RunTests} runs them all), so no test framework is needed on the
+ * class path. A failed check throws AssertionError, which ends the run with a stack trace.
+ */
+final class Check {
+
+    private Check() {}
+
+    static void that(boolean condition, String what) {
+        if (!condition) throw new AssertionError(what);
+    }
+
+    static void equal(long expected, long actual, String what) {
+        if (expected != actual) throw new AssertionError(what + ": expected " + expected + " but was " + actual);
+    }
+
+    static void equal(Object expected, Object actual, String what) {
+        if (!Objects.equals(expected, actual)) throw new AssertionError(what + ": expected " + expected + " but was " + actual);
+    }
+
+    /** Runs {@code body} and returns what it threw, failing unless it is a {@code type}. */
+    static <T extends Throwable> T fails(Class<T> type, Body body, String what) {
+        try {
+            body.run();
+        } catch (Throwable t) {
+            if (type.isInstance(t)) return type.cast(t);
+            throw new AssertionError(what + ": expected " + type.getSimpleName() + " but got " + t, t);
+        }
+        throw new AssertionError(what + ": expected " + type.getSimpleName() + " but nothing was thrown");
+    }
+
+    interface Body {
+        void run() throws Exception;
+    }
+}
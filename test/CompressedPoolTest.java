@@ -0,0 +1,81 @@
+import java.util.List;
+
+class CompressedPoolTest {
+
+    static final int PAGE = 4096;
+
+    public static void main(String[] args) throws Exception {
+        storesAndLoadsPages();
+        pushesOutTheOldestPagesWhenFull();
+        rejectsAPageLargerThanThePool();
+        compactsAroundHolesWithoutCorruptingPages();
+        System.out.println("CompressedPoolTest: ok");
+    }
+
+    static void storesAndLoadsPages() throws Exception {
+        CompressedPool pool = new CompressedPool(64 * 1024, PAGE, 6);
+        try {
+            Check.that(pool.store("P1").isEmpty() && pool.store("P2").isEmpty(), "nothing pushed out");
+            int compressed = pool.getLastCompressedSize();
+            Check.that(compressed > 0 && compressed < PAGE / 2, "page compressed: " + compressed + " bytes");
+            Check.equal(2, pool.size(), "size");
+            Check.that(pool.contains("P1") && !pool.contains("P3"), "contains");
+            Check.that(pool.load("P1") >= 0, "load timed");
+            Check.that(!pool.contains("P1"), "loading takes the page out");
+            Check.equal(-1, pool.load("P1"), "load of a page not in the pool");
+            pool.store("P2"); // Stored again: replaces the old copy
+            Check.equal(1, pool.size(), "size after re-storing");
+            Check.equal(compressed, pool.getUsedBytes(), "one copy accounted");
+            pool.remove("P2");
+            Check.equal(0, pool.getUsedBytes(), "used bytes when empty");
+        } finally {
+            pool.close();
+        }
+    }
+
+    static void pushesOutTheOldestPagesWhenFull() {
+        CompressedPool probe = new CompressedPool(PAGE, PAGE, 6);
+        probe.store("P0");
+        int size = probe.getLastCompressedSize(); // "P<digit>" pages compress to within a few bytes of each other
+        probe.close();
+
+        CompressedPool pool = new CompressedPool(3 * size + size / 2, PAGE, 6); // Room for three
+        try {
+            for (int i = 1; i <= 3; i++) Check.that(pool.store("P" + i).isEmpty(), "P" + i + " fits");
+            Check.equal(List.of("P1"), pool.store("P4"), "oldest pushed out");
+            pool.remove("P3");
+            Check.that(pool.store("P5").isEmpty(), "room left by a removal reused");
+            Check.equal(List.of("P2"), pool.store("P6"), "then the next oldest");
+            Check.equal(List.of("P4", "P5", "P6"), pool.getProcessIds(), "pages in age order");
+        } finally {
+            pool.close();
+        }
+    }
+
+    static void rejectsAPageLargerThanThePool() {
+        CompressedPool pool = new CompressedPool(16, PAGE, 6);
+        try {
+            Check.equal(List.of("P1"), pool.store("P1"), "the page itself comes back");
+            Check.equal(0, pool.size(), "nothing stored");
+        } finally {
+            pool.close();
+        }
+    }
+
+    // Loads leave holes in the arena; later stores slide the live pages down over them
+    static void compactsAroundHolesWithoutCorruptingPages() throws Exception {
+        CompressedPool pool = new CompressedPool(16 * 1024, PAGE, 6);
+        try {
+            for (int round = 0; round < 200; round++) {
+                pool.store("P" + round);
+                if (round % 3 == 0) pool.load("P" + (round / 2)); // -1 if already gone
+            }
+            for (String pid : pool.getProcessIds()) {
+                Check.that(pool.load(pid) >= 0, pid + " decompresses"); // A corrupt stream throws DataFormatException
+            }
+            Check.equal(0, pool.getUsedBytes(), "used bytes after loading everything");
+        } finally {
+            pool.close();
+        }
+    }
+}
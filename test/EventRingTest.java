@@ -0,0 +1,124 @@
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+class EventRingTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        deliversEveryEventInOrderToEverySubscriber();
+        slowSubscriberThrottlesProducersInsteadOfLosingEvents();
+        edtProducerQueuesStateEventsWhenTheRingIsFull();
+        failingHandlerIsReportedAndKeepsConsuming();
+        System.out.println("EventRingTest: ok");
+    }
+
+    static void deliversEveryEventInOrderToEverySubscriber() throws Exception {
+        EventRing ring = new EventRing(16);
+        List<String> first = Collections.synchronizedList(new ArrayList<>());
+        List<String> second = Collections.synchronizedList(new ArrayList<>());
+        EventRing.Subscriber a = ring.subscribe("a", (e, end) -> first.add(e.processId), false);
+        EventRing.Subscriber b = ring.subscribe("b", (e, end) -> second.add(e.processId), false);
+        int producers = 4, perProducer = 2_000;
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int id = p;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) ring.state(SimEvent.Type.ADD_RAM, id + ":" + i);
+            });
+            threads[p].start();
+        }
+        for (Thread t : threads) t.join();
+        awaitCaughtUp(ring, a);
+        awaitCaughtUp(ring, b);
+        for (List<String> seen : List.of(first, second)) {
+            Check.equal(producers * perProducer, seen.size(), "events seen");
+            int[] next = new int[producers];
+            for (String pid : seen) { // Each producer's events arrive in the order it emitted them
+                String[] parts = pid.split(":");
+                int p = Integer.parseInt(parts[0]);
+                Check.equal(next[p]++, Integer.parseInt(parts[1]), "order of producer " + p);
+            }
+        }
+        Check.equal(0, ring.getDropped(), "dropped");
+        ring.unsubscribe(a);
+        ring.unsubscribe(b);
+    }
+
+    static void slowSubscriberThrottlesProducersInsteadOfLosingEvents() throws Exception {
+        EventRing ring = new EventRing(4);
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        EventRing.Subscriber s = ring.subscribe("slow", (e, end) -> {
+            seen.add(e.text);
+            if (seen.size() % 10 == 0) sleep(1);
+        }, false);
+        for (int i = 0; i < 200; i++) ring.log(SimEvent.Level.INFO, "m" + i, null);
+        awaitCaughtUp(ring, s);
+        Check.equal(200, seen.size(), "events through a ring of " + ring.getCapacity());
+        for (int i = 0; i < 200; i++) Check.equal("m" + i, seen.get(i), "event " + i);
+        ring.unsubscribe(s);
+    }
+
+    static void edtProducerQueuesStateEventsWhenTheRingIsFull() throws Exception {
+        EventRing ring = new EventRing(16);
+        List<String> added = new ArrayList<>(); // EDT only
+        int[] effects = new int[1];
+        EventRing.Subscriber gui = ring.subscribe("gui", (e, end) -> {
+            if (e.type == SimEvent.Type.ADD_RAM) added.add(e.processId);
+            else if (e.type == SimEvent.Type.EFFECT) effects[0]++;
+        }, true);
+        int events = 1_000;
+        SwingUtilities.invokeAndWait(() -> { // The GUI subscriber cannot run until this returns
+            for (int i = 0; i < events; i++) {
+                ring.animate(SimEvent.Type.EFFECT, "ram", "P" + i, "appear");
+                ring.state(SimEvent.Type.ADD_RAM, "P" + i);
+            }
+        });
+        awaitCaughtUp(ring, gui);
+        SwingUtilities.invokeAndWait(() -> {
+            Check.equal(events, added.size(), "state events delivered");
+            for (int i = 0; i < events; i++) Check.equal("P" + i, added.get(i), "state event " + i);
+            Check.that(ring.getDropped() > 0, "animation events dropped while the ring was full");
+            Check.equal(events, effects[0] + ring.getDropped(), "animation events delivered or counted as dropped");
+        });
+        ring.unsubscribe(gui);
+    }
+
+    static void failingHandlerIsReportedAndKeepsConsuming() throws Exception {
+        EventRing ring = new EventRing(8);
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        EventRing.Subscriber s = ring.subscribe("flaky", (e, end) -> {
+            if ("boom".equals(e.processId)) throw new IllegalStateException("bad event");
+            seen.add(e.type == SimEvent.Type.LOG ? e.level + " " + e.text : e.processId);
+        }, false);
+        ring.state(SimEvent.Type.ADD_RAM, "boom");
+        ring.state(SimEvent.Type.ADD_RAM, "after");
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (seen.size() < 2) { // The failure report is published once the failed batch is released
+            Check.that(System.currentTimeMillis() < deadline, "events after the failure: " + seen);
+            Thread.sleep(1);
+        }
+        Check.that(seen.contains("after"), "events after the failure still delivered: " + seen);
+        Check.that(seen.stream().anyMatch(m -> m.startsWith("ERROR Event handler event-ring-flaky failed")),
+                "failure logged as an ERROR event: " + seen);
+        ring.unsubscribe(s);
+    }
+
+    private static void awaitCaughtUp(EventRing ring, EventRing.Subscriber s) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!ring.isCaughtUp(s)) {
+            Check.that(System.currentTimeMillis() < deadline, "subscriber did not catch up in " + TIMEOUT_MS + " ms");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
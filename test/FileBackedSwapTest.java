@@ -0,0 +1,96 @@
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+class FileBackedSwapTest {
+
+    public static void main(String[] args) throws Exception {
+        for (FileBackedSwap.Mode mode : FileBackedSwap.Mode.values()) {
+            writesEachPageAtItsSlot(mode);
+            rejectsSlotsOutsideTheFile(mode);
+        }
+        fillPageIsDeterministicPerProcess();
+        mapsFilesOver2GbInChunks();
+        System.out.println("FileBackedSwapTest: ok");
+    }
+
+    static void writesEachPageAtItsSlot(FileBackedSwap.Mode mode) throws Exception {
+        FileBackedSwap swap = new FileBackedSwap(16, 100, mode);
+        Path file = fileOf(swap);
+        try {
+            Check.equal(512, swap.getPageSize(), mode + ": page size raised to the minimum");
+            Check.equal(16L * 512, Files.size(file), mode + ": file pre-sized");
+            long written = swap.writePage("P3", 5);
+            Check.that(written >= 0, mode + ": write timed");
+            Check.equal(written, swap.getLastWriteNanos(), mode + ": last write");
+            swap.writePage("P9", 15);
+            Check.that(swap.readPage(5) >= 0 && swap.readPage(15) >= 0, mode + ": reads timed");
+            Check.that(Arrays.equals(page("P3", 512), slice(file, 5, 512)), mode + ": P3 at slot 5");
+            Check.that(Arrays.equals(page("P9", 512), slice(file, 15, 512)), mode + ": P9 at slot 15");
+            Check.that(Arrays.equals(new byte[512], slice(file, 4, 512)), mode + ": other slots untouched");
+        } finally {
+            swap.close();
+        }
+        Check.that(!Files.exists(file), mode + ": file removed on close");
+    }
+
+    static void rejectsSlotsOutsideTheFile(FileBackedSwap.Mode mode) throws Exception {
+        FileBackedSwap swap = new FileBackedSwap(4, 512, mode);
+        try {
+            Check.fails(IOException.class, () -> swap.writePage("P1", 4), mode + ": write past the end");
+            Check.fails(IOException.class, () -> swap.readPage(-1), mode + ": negative slot");
+        } finally {
+            swap.close();
+        }
+    }
+
+    static void fillPageIsDeterministicPerProcess() {
+        Check.that(Arrays.equals(page("P1", 4096), page("P1", 4096)), "same process, same payload");
+        Check.that(!Arrays.equals(page("P1", 4096), page("P2", 4096)), "another process, another payload");
+    }
+
+    // 4100 slots of 1 MB: a sparse 4 GB file, past what one mapping can hold
+    static void mapsFilesOver2GbInChunks() throws Exception {
+        int pageSize = 1 << 20, slots = 4_100;
+        FileBackedSwap swap = new FileBackedSwap(slots, pageSize, FileBackedSwap.Mode.MAPPED);
+        Path file = fileOf(swap);
+        try {
+            Check.equal((long) slots * pageSize, Files.size(file), "file size");
+            int chunk = Integer.MAX_VALUE / pageSize;
+            for (int slot : new int[]{0, chunk - 1, chunk, slots - 1}) {
+                swap.writePage("P" + slot, slot);
+                swap.readPage(slot);
+                Check.that(Arrays.equals(page("P" + slot, pageSize), slice(file, slot, pageSize)), "slot " + slot);
+            }
+        } finally {
+            swap.close();
+        }
+    }
+
+    private static byte[] page(String processId, int pageSize) {
+        byte[] page = new byte[pageSize];
+        FileBackedSwap.fillPage(processId, page);
+        return page;
+    }
+
+    // Where the swap lives is private; the tests read the file to see what was actually written
+    private static Path fileOf(FileBackedSwap swap) throws ReflectiveOperationException {
+        Field f = FileBackedSwap.class.getDeclaredField("file");
+        f.setAccessible(true);
+        return (Path) f.get(swap);
+    }
+
+    private static byte[] slice(Path file, int slot, int pageSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            ByteBuffer buffer = ByteBuffer.allocate(pageSize);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, (long) slot * pageSize + buffer.position()) < 0) break;
+            }
+            return buffer.array();
+        }
+    }
+}
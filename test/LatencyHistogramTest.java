@@ -0,0 +1,100 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+class LatencyHistogramTest {
+
+    public static void main(String[] args) throws Exception {
+        smallValuesAreExact();
+        percentilesStayWithinTheBucketError();
+        mergingEqualsRecordingEverything();
+        survivesACheckpointRoundTrip();
+        sharedRecordingLosesNothingWhileSnapshotsAreTaken();
+        System.out.println("LatencyHistogramTest: ok");
+    }
+
+    static void smallValuesAreExact() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int v = 1; v <= 10; v++) h.record(v);
+        h.record(-5); // Clamped to 0
+        Check.equal(11, h.getCount(), "count");
+        Check.equal(55, h.getSum(), "sum");
+        Check.equal(10, h.getMax(), "max");
+        Check.equal(5, h.percentile(0.5), "p50");
+        Check.equal(10, h.percentile(1.0), "p100");
+        Check.equal(0, new LatencyHistogram().percentile(0.99), "empty");
+    }
+
+    static void percentilesStayWithinTheBucketError() {
+        SplittableRandom random = new SplittableRandom(7);
+        long[] values = new long[100_000];
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * Math.log(1e10)); // 1 ns .. 10 s, log-uniform
+            h.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double q : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long exact = values[(int) Math.ceil(q * values.length) - 1];
+            long reported = h.percentile(q);
+            Check.that(reported >= exact && reported <= exact + Math.max(1, exact / 16),
+                    "p" + q + ": exact " + exact + ", reported " + reported);
+        }
+        Check.equal(values[values.length - 1], h.getMax(), "max is exact");
+    }
+
+    static void mergingEqualsRecordingEverything() {
+        LatencyHistogram all = new LatencyHistogram(), a = new LatencyHistogram(), b = new LatencyHistogram();
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 10_000; i++) {
+            long v = random.nextLong(1, 50_000_000);
+            all.record(v);
+            (i % 3 == 0 ? a : b).record(v);
+        }
+        a.add(b);
+        Check.equal(all.getCount(), a.getCount(), "count");
+        Check.equal(all.getSum(), a.getSum(), "sum");
+        Check.equal(all.getMax(), a.getMax(), "max");
+        for (double q : new double[]{0.1, 0.5, 0.99, 0.9999}) Check.equal(all.percentile(q), a.percentile(q), "p" + q);
+    }
+
+    static void survivesACheckpointRoundTrip() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v < 1L << 36; v *= 3) h.record(v);
+        ByteBuffer buffer = ByteBuffer.allocate(LatencyHistogram.BYTES + 8);
+        buffer.putLong(42); // Not at the start of the buffer, as inside a checkpoint
+        h.writeTo(buffer);
+        Check.equal(8 + LatencyHistogram.BYTES, buffer.position(), "bytes written");
+        buffer.flip();
+        buffer.getLong();
+        LatencyHistogram read = new LatencyHistogram();
+        read.readFrom(buffer);
+        Check.equal(h.summary(), read.summary(), "summary");
+        Check.equal(h.getSum(), read.getSum(), "sum");
+        Check.that(!buffer.hasRemaining(), "everything read");
+    }
+
+    static void sharedRecordingLosesNothingWhileSnapshotsAreTaken() throws InterruptedException {
+        LatencyHistogram shared = new LatencyHistogram();
+        int threads = 4, perThread = 50_000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 1; i <= perThread; i++) shared.recordShared(i);
+            });
+            workers[t].start();
+        }
+        boolean running = true;
+        while (running) {
+            LatencyHistogram snapshot = shared.snapshot();
+            long bucketed = 0;
+            for (double q = 0.01; q <= 1.0; q += 0.01) bucketed = Math.max(bucketed, snapshot.percentile(q));
+            Check.that(bucketed <= snapshot.getMax(), "a snapshot is consistent: percentiles within its max");
+            running = false;
+            for (Thread w : workers) running |= w.isAlive();
+        }
+        for (Thread w : workers) w.join();
+        Check.equal((long) threads * perThread, shared.getCount(), "recordings");
+        Check.equal((long) threads * perThread * (perThread + 1) / 2, shared.getSum(), "sum");
+    }
+}
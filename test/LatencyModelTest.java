@@ -0,0 +1,78 @@
+class LatencyModelTest {
+
+    public static void main(String[] args) {
+        hitsCostTheirTier();
+        faultsCostTheWalkAndTheDevice();
+        pageInWaitsBehindAQueuedWriteBack();
+        writeBacksRetireAsTheClockPassesThem();
+        effectiveAccessTimeIsTheMeanLatency();
+        System.out.println("LatencyModelTest: ok");
+    }
+
+    // Round numbers so every expected latency can be added up by hand
+    static LatencyModel.Config config() {
+        LatencyModel.Config c = new LatencyModel.Config();
+        c.tlbNanos = 1;
+        c.pageWalkNanos = 10;
+        c.cacheNanos = 5;
+        c.ramNanos = 100;
+        c.poolNanos = 1_000;
+        c.swapReadNanos = 50_000;
+        c.swapWriteNanos = 70_000;
+        c.computeNanos = 0;
+        return c;
+    }
+
+    static void hitsCostTheirTier() {
+        LatencyModel model = new LatencyModel(config());
+        Check.equal(1 + 5, model.hit(LatencyModel.Tier.CACHE), "cache hit");
+        Check.equal(1 + 100, model.hit(LatencyModel.Tier.RAM), "RAM hit");
+        Check.equal(6 + 101, model.getNow(), "clock");
+        Check.equal(101, model.getLastLatency(), "last latency");
+    }
+
+    static void faultsCostTheWalkAndTheDevice() {
+        LatencyModel model = new LatencyModel(config());
+        Check.equal(1 + 10 + 50_000 + 100,
+                model.fault(LatencyModel.Tier.SWAP, LatencyModel.Victim.NONE, false), "swap fault, free frame");
+        Check.equal(1 + 10 + 1_000 + 1_000 + 100,
+                model.fault(LatencyModel.Tier.POOL, LatencyModel.Victim.TO_POOL, true), "pool fault, victim compressed");
+        Check.equal(1 + 10 + 50_000 + 100,
+                model.fault(LatencyModel.Tier.SWAP, LatencyModel.Victim.TO_SWAP, false), "clean victim: no write-back");
+        Check.equal(0, model.getQueueWaitNanos(), "nothing queued");
+        Check.equal(0, model.getMaxWritesInFlight(), "no write-backs");
+    }
+
+    static void pageInWaitsBehindAQueuedWriteBack() {
+        LatencyModel model = new LatencyModel(config());
+        long latency = model.fault(LatencyModel.Tier.SWAP, LatencyModel.Victim.TO_SWAP, true);
+        Check.equal(1 + 10 + 70_000 + 50_000 + 100, latency, "page-in queued behind the write-back");
+        Check.equal(70_000, model.getQueueWaitNanos(), "time spent waiting for the device");
+        Check.equal(1, model.getMaxWritesInFlight(), "write-backs in flight at most");
+    }
+
+    static void writeBacksRetireAsTheClockPassesThem() {
+        LatencyModel.Config c = config();
+        c.swapReadNanos = 1_000;
+        c.swapWriteNanos = 1_000_000; // The write-back outlasts the fault that queued it
+        LatencyModel model = new LatencyModel(c);
+        model.fault(LatencyModel.Tier.POOL, LatencyModel.Victim.TO_SWAP, true);
+        Check.equal(1, model.getWritesInFlight(), "write-back still in flight after the fault");
+        long before = model.getNow();
+        long latency = model.fault(LatencyModel.Tier.SWAP, LatencyModel.Victim.NONE, false);
+        // The read starts when the write-back ends, at 1 + 10 + 1_000_000 on the model clock
+        Check.equal(1_000_011 + 1_000 + 100 - before, latency, "fault behind a write-back from an earlier fault");
+        Check.equal(0, model.getWritesInFlight(), "retired once the clock passed it");
+    }
+
+    static void effectiveAccessTimeIsTheMeanLatency() {
+        Stats stats = new Stats();
+        Check.equal(0.0, LatencyModel.effectiveAccessTime(stats), "no accesses");
+        stats.modelAccesses = 4;
+        stats.modelNanos = 1_000;
+        Check.equal(250.0, LatencyModel.effectiveAccessTime(stats), "EAT");
+        LatencyModel.Config hdd = new LatencyModel.Config().device(LatencyModel.Config.Device.HDD);
+        Check.equal(LatencyModel.Config.Device.HDD.readNanos, hdd.swapReadNanos, "device read time");
+        Check.equal(LatencyModel.Config.Device.HDD.writeNanos, hdd.swapWriteNanos, "device write time");
+    }
+}
@@ -0,0 +1,187 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+class MemoryEngineTest {
+
+    public static void main(String[] args) throws Exception {
+        pagesMoveThroughTheirStates();
+        fullSwapDiscardsVictims();
+        simulatedIoIsReportedAsBlocking();
+        concurrentAccessesKeepTheTablesConsistent();
+        numaHitsArePlacedAndMigrated();
+        interleavedPagesSpreadAcrossNodes();
+        cacheHitsOnAnotherNodeAreRemote();
+        System.out.println("MemoryEngineTest: ok");
+    }
+
+    // One stripe and no cache, so the FIFO victim order is the insertion order
+    static MemoryEngine engine(int frames, int swapSlots) {
+        return new MemoryEngine(frames, swapSlots, 0, "fifo", 1, 0, 0);
+    }
+
+    static void pagesMoveThroughTheirStates() {
+        MemoryEngine engine = engine(2, 8);
+        Check.equal(PageTable.FREE, engine.stateOf(1), "never touched");
+        Check.equal(MemoryEngine.Outcome.FIRST_TOUCH, engine.access(1, false), "first access");
+        Check.equal(PageTable.RESIDENT, engine.stateOf(1), "read in");
+        Check.equal(MemoryEngine.Outcome.RAM_HIT, engine.access(1, true), "write hit");
+        Check.equal(PageTable.DIRTY, engine.stateOf(1), "written");
+        engine.access(2, false);
+        engine.access(3, false); // Evicts 1, dirty: written back
+        Check.equal(PageTable.SWAPPED, engine.stateOf(1), "dirty victim");
+        Check.equal(1, engine.snapshot().writeBacks, "write-backs");
+        engine.access(4, false); // Evicts 2, clean: no write needed
+        Check.equal(PageTable.SWAPPED, engine.stateOf(2), "clean victim");
+        Check.equal(1, engine.snapshot().writeBacks, "clean victims are not written back");
+        Check.equal(2, engine.getSwapUsed(), "swap slots held");
+        Check.equal(MemoryEngine.Outcome.PAGE_FAULT, engine.access(1, false), "swapped page faults in");
+        Check.equal(PageTable.RESIDENT, engine.stateOf(1), "clean again after the page-in");
+        Check.equal(2, engine.getSwapUsed(), "its slot freed, 3's taken");
+        Check.equal(3, engine.getEvictions(), "evictions");
+        engine.release(1);
+        engine.release(2);
+        Check.equal(PageTable.FREE, engine.stateOf(1), "released from RAM");
+        Check.equal(PageTable.FREE, engine.stateOf(2), "released from swap");
+        Check.equal(1, engine.getSwapUsed(), "released slot freed");
+        Check.equal(1, engine.getRamUsed(), "released frame freed");
+        Check.equal(MemoryEngine.Outcome.FIRST_TOUCH, engine.access(2, false), "a released page starts over");
+        Check.equal(MemoryEngine.Outcome.PAGE_FAULT, engine.access(3, false), "others keep their slot");
+        Stats s = engine.snapshot();
+        Check.equal(8, s.totalAccesses, "accesses");
+        Check.equal(1, s.ramHits, "RAM hits");
+        Check.equal(2, s.pageFaults, "page faults");
+        Check.equal(5, engine.getFirstTouches(), "first touches");
+    }
+
+    static void fullSwapDiscardsVictims() {
+        MemoryEngine engine = engine(1, 1);
+        engine.access(1, true);
+        engine.access(2, true); // 1 written back into the only slot
+        engine.access(3, false); // 2 has nowhere to go
+        Check.equal(PageTable.SWAPPED, engine.stateOf(1), "first victim swapped");
+        Check.equal(PageTable.FREE, engine.stateOf(2), "second victim discarded");
+        Check.equal(1, engine.getDiscards(), "discards");
+        Check.equal(MemoryEngine.Outcome.PAGE_FAULT, engine.access(1, false), "swapped page kept");
+        Check.equal(MemoryEngine.Outcome.FIRST_TOUCH, engine.access(2, false), "a discarded page starts over");
+    }
+
+    static void simulatedIoIsReportedAsBlocking() {
+        MemoryEngine engine = new MemoryEngine(1, 8, 0, "fifo", 1, 1_000, 1_000);
+        int[] calls = new int[2];
+        engine.setBlockingListener(new MemoryEngine.BlockingListener() {
+            @Override
+            public void blocked() {
+                Check.equal(calls[0], calls[1], "not already blocked");
+                calls[0]++;
+            }
+
+            @Override
+            public void unblocked() {
+                calls[1]++;
+            }
+        });
+        engine.access(1, true); // First touch: no I/O
+        engine.access(2, false); // Evicts 1, dirty: written back
+        engine.access(1, false); // Read back in; 2 is clean, so swapped without a write
+        Check.equal(2, calls[0], "blocked on the write-back and the page-in");
+        Check.equal(2, calls[1], "each wait ended");
+    }
+
+    /*
+     * Threads share a small page set with writes, slow simulated I/O and too few frames, so
+     * faults, write-backs and evictions of the same pages overlap. However they interleave,
+     * every access has exactly one outcome, every page is first touched once, and no page is
+     * lost or left half-way through a transition.
+     */
+    static void concurrentAccessesKeepTheTablesConsistent() throws InterruptedException {
+        int pages = 200, frames = 64, threads = 8, perThread = 20_000;
+        MemoryEngine engine = new MemoryEngine(frames, pages, 16, "lru", 8, 20_000, 20_000);
+        AtomicLongArray outcomes = new AtomicLongArray(MemoryEngine.Outcome.values().length);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    int page = random.nextInt(10) < 8 ? random.nextInt(16) : random.nextInt(pages); // Hot pages collide
+                    outcomes.incrementAndGet(engine.access(page, random.nextInt(4) == 0).ordinal());
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread w : workers) w.join();
+
+        Stats s = engine.snapshot();
+        Check.equal((long) threads * perThread, s.totalAccesses, "accesses");
+        Check.equal(s.cacheHits, outcomes.get(MemoryEngine.Outcome.CACHE_HIT.ordinal()), "cache hits");
+        Check.equal(s.ramHits, outcomes.get(MemoryEngine.Outcome.RAM_HIT.ordinal()), "RAM hits");
+        Check.equal(s.pageFaults, outcomes.get(MemoryEngine.Outcome.PAGE_FAULT.ordinal()), "page faults");
+        Check.equal(pages, outcomes.get(MemoryEngine.Outcome.FIRST_TOUCH.ordinal()), "every page first touched once");
+        Check.equal(s.totalAccesses, s.cacheHits + s.ramHits + s.pageFaults + engine.getFirstTouches(), "one outcome each");
+        Check.equal(0, engine.getDiscards(), "discards with a slot for every page");
+        int resident = 0, swapped = 0;
+        for (int page = 0; page < pages; page++) {
+            int state = engine.stateOf(page);
+            Check.that(!PageTable.isTransitional(state), "page " + page + " left in transition: " + state);
+            if (state == PageTable.RESIDENT || state == PageTable.DIRTY) resident++;
+            else if (state == PageTable.SWAPPED) swapped++;
+        }
+        Check.equal(pages, resident + swapped, "every page resident or swapped");
+        Check.equal(frames, resident, "frames in use");
+        Check.equal(resident, engine.getRamUsed(), "resident pages hold the frames");
+        Check.equal(swapped, engine.getSwapUsed(), "swapped pages hold the slots");
+        Check.that(engine.getCacheUsed() <= 16, "cache within its entries");
+        for (int page = 0; page < pages; page++) {
+            Check.that(engine.access(page, false) != MemoryEngine.Outcome.FIRST_TOUCH, "page " + page + " still held");
+        }
+    }
+
+    static MemoryEngine numaEngine(int cacheEntries, int migrateThreshold, MemoryEngine.Placement placement) {
+        MemoryEngine.Topology topology = new MemoryEngine.Topology();
+        topology.nodes = 2;
+        topology.placement = placement;
+        topology.migrateThreshold = migrateThreshold;
+        return new MemoryEngine(8, 8, cacheEntries, "fifo", 2, 0, 0, topology);
+    }
+
+    static void numaHitsArePlacedAndMigrated() {
+        MemoryEngine engine = numaEngine(0, 0, MemoryEngine.Placement.FIRST_TOUCH);
+        Check.equal(2, engine.getNodeCount(), "nodes");
+        engine.access(10, false, 1); // First touch places it on node 1
+        Check.equal(MemoryEngine.Outcome.REMOTE_HIT, engine.access(10, false, 0), "hit from the other node");
+        Check.equal(MemoryEngine.Outcome.RAM_HIT, engine.access(10, false, 1), "hit from its own node");
+        Check.equal(1, engine.getRemoteHits(), "remote hits");
+        Check.equal(1, engine.getLocalHits(), "local hits");
+        Check.equal(0, engine.getMigrations(), "no migration without a threshold");
+
+        MemoryEngine migrating = numaEngine(0, 2, MemoryEngine.Placement.FIRST_TOUCH);
+        migrating.access(10, true, 1);
+        Check.equal(MemoryEngine.Outcome.REMOTE_HIT, migrating.access(10, false, 0), "first remote hit");
+        Check.equal(MemoryEngine.Outcome.REMOTE_HIT, migrating.access(10, false, 0), "second remote hit moves it");
+        Check.equal(1, migrating.getMigrations(), "migrations");
+        Check.equal(PageTable.DIRTY, migrating.stateOf(10), "still dirty after the move");
+        Check.equal(MemoryEngine.Outcome.RAM_HIT, migrating.access(10, false, 0), "local after the move");
+        Check.equal(MemoryEngine.Outcome.REMOTE_HIT, migrating.access(10, false, 1), "now remote for node 1");
+        Check.equal(1, migrating.getRamUsed(), "one frame after the move");
+    }
+
+    static void interleavedPagesSpreadAcrossNodes() {
+        MemoryEngine engine = numaEngine(0, 0, MemoryEngine.Placement.INTERLEAVE);
+        for (int page = 0; page < 4; page++) engine.access(page, false, 0);
+        Check.equal(MemoryEngine.Outcome.RAM_HIT, engine.access(2, false, 0), "even page on node 0");
+        Check.equal(MemoryEngine.Outcome.REMOTE_HIT, engine.access(3, false, 0), "odd page on node 1");
+        Check.equal(MemoryEngine.Outcome.RAM_HIT, engine.access(3, false, 1), "local to node 1");
+    }
+
+    // The cache is split with the node's frames, so a hit in another node's share is remote too
+    static void cacheHitsOnAnotherNodeAreRemote() {
+        MemoryEngine engine = numaEngine(4, 0, MemoryEngine.Placement.FIRST_TOUCH);
+        engine.access(20, false, 1); // Brought in on node 1, into its cache
+        Check.equal(MemoryEngine.Outcome.CACHE_HIT, engine.access(20, false, 1), "local cache hit");
+        Check.equal(MemoryEngine.Outcome.CACHE_HIT, engine.access(20, false, 0), "cache hit from node 0");
+        Check.equal(1, engine.getRemoteCacheHits(), "remote cache hits");
+        Check.equal(0, engine.getRemoteHits(), "remote RAM hits");
+    }
+}
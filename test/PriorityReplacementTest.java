@@ -0,0 +1,86 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+class PriorityReplacementTest {
+
+    public static void main(String[] args) {
+        victimsComeFromTheLowestClass();
+        agedClassesGiveUpAVictim();
+        sparedCountResetsWhenAClassEmpties();
+        exportedStateKeepsTheAging();
+        System.out.println("PriorityReplacementTest: ok");
+    }
+
+    // Pages 0..99 are Low, 100..199 Medium, 200.. High
+    static PriorityReplacement create(int agingLimit) {
+        return new PriorityReplacement(ReplacementPolicies.get("FIFO"), new SplittableRandom(1),
+                page -> Math.min(page / 100, PriorityReplacement.HIGH), agingLimit);
+    }
+
+    static void insert(PriorityReplacement p, int... pages) {
+        for (int page : pages) p.onInsert(page);
+    }
+
+    /** Evicts as the simulator does: select, record, remove. */
+    static int evict(PriorityReplacement p) {
+        int victim = p.selectVictim();
+        p.evicted(victim);
+        p.onRemove(victim);
+        return victim;
+    }
+
+    static int[] evictAll(PriorityReplacement p) {
+        int[] victims = new int[p.size()];
+        for (int i = 0; i < victims.length; i++) victims[i] = evict(p);
+        return victims;
+    }
+
+    static void victimsComeFromTheLowestClass() {
+        PriorityReplacement p = create(0);
+        Check.equal(-1, p.lowestClass(), "empty");
+        Check.equal(-1, p.selectVictim(), "no victim");
+        insert(p, 200, 100, 201, 0, 101, 1);
+        Check.equal(6, p.size(), "size");
+        Check.equal(PriorityReplacement.LOW, p.lowestClass(), "lowest class");
+        Check.equal(PriorityReplacement.LOW, p.evicted(p.selectVictim()), "class of the victim");
+        p.onRemove(0);
+        // Aging off: strict priority, FIFO within each class, however long the upper classes are spared
+        Check.equal("[1, 100, 101, 200, 201]", Arrays.toString(evictAll(p)), "victims");
+        Check.equal(0, p.size(), "size at the end");
+    }
+
+    static void agedClassesGiveUpAVictim() {
+        PriorityReplacement p = create(2);
+        insert(p, 0, 1, 2, 3, 4, 100, 101, 200, 201);
+        // High and Medium age together; High goes first, then Medium, already past its limit
+        Check.equal("[0, 1, 200, 100, 2, 201, 101, 3, 4]", Arrays.toString(evictAll(p)), "victims");
+    }
+
+    static void sparedCountResetsWhenAClassEmpties() {
+        PriorityReplacement p = create(3);
+        insert(p, 0, 1, 2, 3, 4, 5, 200);
+        Check.equal(0, evict(p), "first victim");
+        Check.equal(1, evict(p), "second victim");
+        p.onRemove(200); // Terminated: High is empty, so its count starts over
+        insert(p, 201);
+        Check.equal(2, evict(p), "spared once");
+        Check.equal(3, evict(p), "spared twice");
+        Check.equal(4, evict(p), "spared three times");
+        Check.equal(201, evict(p), "aged");
+        Check.equal(5, evict(p), "last victim");
+    }
+
+    static void exportedStateKeepsTheAging() {
+        PriorityReplacement live = create(2);
+        insert(live, 0, 1, 2, 3, 100, 200);
+        evict(live);
+        live.onAccess(2);
+        PriorityReplacement restored = create(2);
+        insert(restored, 7, 150);
+        restored.importState(live.exportState());
+        Check.equal(live.size(), restored.size(), "size");
+        // Medium and High were spared once before the export; without that count 2 and 3 would go first
+        Check.equal("[1, 200, 100, 2, 3]", Arrays.toString(evictAll(restored)), "restored victims");
+        Check.equal("[1, 200, 100, 2, 3]", Arrays.toString(evictAll(live)), "live victims");
+    }
+}
@@ -0,0 +1,81 @@
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+class ProcessSetTest {
+
+    public static void main(String[] args) {
+        allocatesAndReleasesEachIndexOnce();
+        randomPicksComeFromTheRightSide();
+        restoreReproducesTheSameRandomPicks();
+        restoreRejectsWhatIsNotAPermutation();
+        clearFreesEverything();
+        System.out.println("ProcessSetTest: ok");
+    }
+
+    static void allocatesAndReleasesEachIndexOnce() {
+        ProcessSet set = new ProcessSet(10);
+        Check.that(set.allocate(3) && set.allocate(7), "first allocations");
+        Check.that(!set.allocate(3), "second allocation of 3");
+        Check.equal(2, set.allocatedCount(), "allocated");
+        Check.equal(8, set.freeCount(), "free");
+        Check.that(set.isAllocated(7) && !set.isAllocated(4) && !set.isAllocated(-1) && !set.isAllocated(10), "isAllocated");
+        Check.that(set.release(3), "release 3");
+        Check.that(!set.release(3), "second release of 3");
+        Check.that(!set.isAllocated(3) && set.isAllocated(7), "after release");
+    }
+
+    static void randomPicksComeFromTheRightSide() {
+        ProcessSet set = new ProcessSet(1_000);
+        SplittableRandom random = new SplittableRandom(5);
+        Check.equal(-1, set.randomAllocated(random), "nothing allocated");
+        BitSet allocated = new BitSet();
+        for (int i = 0; i < 300; i++) {
+            int index = set.randomFree(random);
+            Check.that(!allocated.get(index), "free pick " + index + " was free");
+            set.allocate(index);
+            allocated.set(index);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            Check.that(allocated.get(set.randomAllocated(random)), "allocated pick");
+            Check.that(!allocated.get(set.randomFree(random)), "free pick");
+        }
+        ProcessSet full = new ProcessSet(1);
+        full.allocate(0);
+        Check.equal(-1, full.randomFree(random), "nothing free");
+    }
+
+    static void restoreReproducesTheSameRandomPicks() {
+        ProcessSet live = new ProcessSet(100_000);
+        SplittableRandom setup = new SplittableRandom(9);
+        for (int i = 0; i < 500; i++) live.allocate(live.randomFree(setup));
+        for (int i = 0; i < 200; i++) live.release(live.randomAllocated(setup));
+
+        int[] displaced = live.exportDisplaced();
+        Check.that(displaced.length <= 4 * 500, "only displaced positions are exported: " + displaced.length);
+        ProcessSet restored = ProcessSet.restore(live.capacity(), live.allocatedCount(), displaced);
+        Check.equal(live.allocatedCount(), restored.allocatedCount(), "allocated");
+        SplittableRandom a = new SplittableRandom(77), b = new SplittableRandom(77);
+        for (int i = 0; i < 1_000; i++) {
+            Check.equal(live.randomAllocated(a), restored.randomAllocated(b), "allocated pick " + i);
+            Check.equal(live.randomFree(a), restored.randomFree(b), "free pick " + i);
+        }
+    }
+
+    static void restoreRejectsWhatIsNotAPermutation() {
+        Check.fails(IllegalArgumentException.class, () -> ProcessSet.restore(4, 5, new int[0]), "more allocated than capacity");
+        Check.fails(IllegalArgumentException.class, () -> ProcessSet.restore(4, 1, new int[]{0}), "odd pair array");
+        Check.fails(IllegalArgumentException.class, () -> ProcessSet.restore(4, 1, new int[]{0, 4}), "index out of range");
+        Check.fails(IllegalArgumentException.class, () -> ProcessSet.restore(4, 1, new int[]{0, 1}), "index 1 twice");
+        ProcessSet swapped = ProcessSet.restore(4, 1, new int[]{0, 2, 2, 0});
+        Check.that(swapped.isAllocated(2) && !swapped.isAllocated(0), "valid swap restored");
+    }
+
+    static void clearFreesEverything() {
+        ProcessSet set = new ProcessSet(8);
+        for (int i = 0; i < 8; i += 2) set.allocate(i);
+        set.clear();
+        Check.equal(0, set.allocatedCount(), "allocated after clear");
+        for (int i = 0; i < 8; i++) Check.that(!set.isAllocated(i), "process " + i + " free");
+        Check.that(set.allocate(4), "allocatable again");
+    }
+}
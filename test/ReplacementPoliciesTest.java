@@ -0,0 +1,119 @@
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+class ReplacementPoliciesTest {
+
+    public static void main(String[] args) {
+        builtInsAreRegisteredCaseInsensitively();
+        eachPolicyPicksItsVictim();
+        emptyPoliciesHaveNoVictim();
+        reinsertingAndRemovingKeepTheSizeRight();
+        exportedStateMakesTheSameChoices();
+        randomPicksOnlyTrackedPages();
+        System.out.println("ReplacementPoliciesTest: ok");
+    }
+
+    static ReplacementPolicy create(String name) {
+        return ReplacementPolicies.get(name).create(new SplittableRandom(3));
+    }
+
+    static void builtInsAreRegisteredCaseInsensitively() {
+        for (String name : new String[]{"FIFO", "LRU", "LFU", "LIFO", "MRU", "Random"}) {
+            Check.that(ReplacementPolicies.names().contains(name), name + " registered");
+            Check.equal(name, ReplacementPolicies.get(name.toLowerCase()).name(), name + " by lower-case name");
+        }
+        IllegalArgumentException e = Check.fails(IllegalArgumentException.class,
+                () -> ReplacementPolicies.get("clock"), "unknown name");
+        Check.that(e.getMessage().startsWith("Unknown algorithm: clock"), e.getMessage());
+    }
+
+    // Pages 0..4 inserted in order, then hits on 0, 1, 0: 0 is most recent and most frequent
+    static void eachPolicyPicksItsVictim() {
+        String[][] expected = {{"FIFO", "0"}, {"LIFO", "4"}, {"LRU", "2"}, {"MRU", "0"}, {"LFU", "2"}};
+        for (String[] e : expected) {
+            ReplacementPolicy policy = create(e[0]);
+            for (int page = 0; page < 5; page++) policy.onInsert(page);
+            policy.onAccess(0);
+            policy.onAccess(1);
+            policy.onAccess(0);
+            Check.equal(Integer.parseInt(e[1]), policy.selectVictim(), e[0] + " victim");
+            Check.equal(Integer.parseInt(e[1]), policy.selectVictim(), e[0] + " victim is not removed by selecting it");
+        }
+    }
+
+    static void emptyPoliciesHaveNoVictim() {
+        for (String name : ReplacementPolicies.names()) {
+            ReplacementPolicy policy = create(name);
+            Check.equal(-1, policy.selectVictim(), name + " empty");
+            policy.onInsert(7);
+            policy.onRemove(7);
+            policy.onRemove(8); // Untracked: ignored
+            Check.equal(0, policy.size(), name + " size after removal");
+            Check.equal(-1, policy.selectVictim(), name + " emptied");
+        }
+    }
+
+    static void reinsertingAndRemovingKeepTheSizeRight() {
+        for (String name : ReplacementPolicies.names()) {
+            ReplacementPolicy policy = create(name);
+            for (int page = 0; page < 100; page++) policy.onInsert(page);
+            for (int page = 0; page < 100; page += 2) policy.onInsert(page);
+            Check.equal(100, policy.size(), name + " size after re-inserts");
+            for (int page = 0; page < 100; page += 3) policy.onRemove(page);
+            Check.equal(66, policy.size(), name + " size after removals");
+            BitSet evicted = new BitSet();
+            while (policy.size() > 0) {
+                int victim = policy.selectVictim();
+                Check.that(victim % 3 != 0 && !evicted.get(victim), name + " victim " + victim + " is tracked");
+                evicted.set(victim);
+                policy.onRemove(victim);
+            }
+            Check.equal(66, evicted.cardinality(), name + " pages evicted");
+        }
+    }
+
+    static void exportedStateMakesTheSameChoices() {
+        for (String name : new String[]{"FIFO", "LRU", "LFU", "LIFO", "MRU"}) {
+            ReplacementPolicy live = create(name);
+            SplittableRandom random = new SplittableRandom(13);
+            for (int i = 0; i < 2_000; i++) {
+                int page = random.nextInt(64);
+                int op = random.nextInt(4);
+                if (op == 0) live.onInsert(page);
+                else if (op == 1) live.onRemove(page);
+                else live.onAccess(page);
+            }
+            ReplacementPolicy restored = create(name);
+            restored.onInsert(99); // Replaced by the import
+            restored.importState(live.exportState());
+            Check.equal(live.size(), restored.size(), name + " size");
+            while (live.size() > 0) {
+                int victim = live.selectVictim();
+                Check.equal(victim, restored.selectVictim(), name + " victim");
+                live.onRemove(victim);
+                restored.onRemove(victim);
+            }
+            Check.equal(0, restored.size(), name + " restored size at the end");
+        }
+    }
+
+    static void randomPicksOnlyTrackedPages() {
+        ReplacementPolicy policy = create("Random");
+        for (int page = 10; page < 20; page++) policy.onInsert(page);
+        policy.onRemove(15);
+        BitSet seen = new BitSet();
+        for (int i = 0; i < 1_000; i++) {
+            int victim = policy.selectVictim();
+            Check.that(victim >= 10 && victim < 20 && victim != 15, "victim " + victim);
+            seen.set(victim);
+        }
+        Check.equal(9, seen.cardinality(), "every tracked page is picked eventually");
+
+        ReplacementPolicy a = create("Random"), b = create("Random");
+        for (int page = 0; page < 50; page++) {
+            a.onInsert(page);
+            b.onInsert(page);
+        }
+        for (int i = 0; i < 100; i++) Check.equal(a.selectVictim(), b.selectVictim(), "same stream, same pick " + i);
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Runs every test class in this directory; exits with status 1 on the first failure.
+ *
+ * <pre>
+ * javac -d out *.java test/*.java && java -cp out RunTests
+ * </pre>
+ */
+public class RunTests {
+
+    public static void main(String[] args) throws Exception {
+        long start = System.nanoTime();
+        try {
+            FileBackedSwapTest.main(args);
+            CompressedPoolTest.main(args);
+            SwapSlotAllocatorTest.main(args);
+            MemoryEngineTest.main(args);
+            EventRingTest.main(args);
+            LatencyModelTest.main(args);
+            LatencyHistogramTest.main(args);
+            ThrashingDetectorTest.main(args);
+            SimulationCheckpointTest.main(args);
+            BatchRunnerTest.main(args);
+            ProcessSetTest.main(args);
+            ScenarioTest.main(args);
+            ReplacementPoliciesTest.main(args);
+            PriorityReplacementTest.main(args);
+        } catch (AssertionError e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+        System.out.printf("All tests passed in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+    }
+}
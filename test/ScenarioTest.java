@@ -0,0 +1,119 @@
+import java.util.List;
+
+class ScenarioTest {
+
+    static final String SCRIPT = String.join("\n",
+            "seed 42",
+            "config ram=64 swap=256 cache=8 algorithm=lru",
+            "phase warm-up",
+            "  arrive 20 pages=16",
+            "  write P1 3          # Explicit accesses",
+            "  read P1 0",
+            "  access 5000 write=0.1",
+            "phase pressure",
+            "  config ram=32",
+            "  repeat 10",
+            "    arrive 2",
+            "    access 1000 write=0.3 hot=0.2 hot-ratio=0.9",
+            "    exit 2",
+            "  end",
+            "  clear-cache");
+
+    public static void main(String[] args) {
+        compilesAndReportsEachPhase();
+        replaysExactly();
+        reportsScriptErrorsWithTheirLine();
+        builderRejectsWhatTheScriptRejects();
+        reconfigureCarriesPagesWithoutAccessingThem();
+        System.out.println("ScenarioTest: ok");
+    }
+
+    static void compilesAndReportsEachPhase() {
+        Scenario scenario = Scenario.parse(SCRIPT, Scenario.defaultConfig());
+        Check.equal(42, scenario.seed, "seed from the script");
+        Check.equal(40, scenario.getProcessCount(), "processes");
+        List<Scenario.PhaseResult> phases = scenario.run();
+        Check.equal(2, phases.size(), "phases");
+        Check.equal("warm-up", phases.get(0).name, "first phase");
+        Check.equal(5_002, phases.get(0).stats.totalAccesses, "warm-up accesses");
+        Check.equal(20, phases.get(0).arrivals, "warm-up arrivals");
+        Check.equal("pressure", phases.get(1).name, "second phase");
+        Check.equal(10_000, phases.get(1).stats.totalAccesses, "pressure accesses");
+        Check.equal(20, phases.get(1).exits, "pressure exits");
+        Check.equal(20, phases.get(1).liveProcesses, "live at the end");
+        Check.equal(32, phases.get(1).config.ramFrames, "configuration in effect");
+    }
+
+    static void replaysExactly() {
+        List<Scenario.PhaseResult> first = Scenario.parse(SCRIPT, Scenario.defaultConfig()).run();
+        List<Scenario.PhaseResult> second = Scenario.parse(SCRIPT, Scenario.defaultConfig()).run();
+        for (int i = 0; i < first.size(); i++) {
+            Stats a = first.get(i).stats, b = second.get(i).stats;
+            String phase = first.get(i).name;
+            Check.equal(a.cacheHits, b.cacheHits, phase + " cache hits");
+            Check.equal(a.ramHits, b.ramHits, phase + " RAM hits");
+            Check.equal(a.pageFaults, b.pageFaults, phase + " faults");
+            Check.equal(a.writeBacks, b.writeBacks, phase + " write-backs");
+            Check.equal(first.get(i).evictions, second.get(i).evictions, phase + " evictions");
+        }
+    }
+
+    static void reportsScriptErrorsWithTheirLine() {
+        String[][] cases = {
+                {"arrive 2\nfly 3", "line 2: unknown statement fly"},
+                {"access 10", "line 1: access with no live process"},
+                {"arrive 1\naccess 10 write=2", "line 2: out of range 0-1"},
+                {"arrive 1\naccess 10 hot=NaN", "line 2: out of range 0-1"},
+                {"repeat -1\nend", "line 1: out of range: -1"},
+                {"arrive 2\nexit -1", "line 2: out of range: -1"},
+                {"arrive 1\nread P2 0", "line 2: Unknown process P2"},
+                {"repeat 2\narrive 1", "line 1: repeat without 'end'"},
+                {"arrive 1\nend", "line 2: 'end' without 'repeat'"},
+                {"config ram=0", "line 1: --ram must be between 1"},
+                {"config placement=local", "line 1: --placement must be first-touch or interleave"},
+        };
+        for (String[] c : cases) {
+            IllegalArgumentException e = Check.fails(IllegalArgumentException.class,
+                    () -> Scenario.parse(c[0], Scenario.defaultConfig()), c[0]);
+            Check.that(e.getMessage().startsWith(c[1]), "'" + c[0] + "': " + e.getMessage());
+        }
+    }
+
+    // The script reports these with a line number; the Builder applies the same checks to direct callers
+    static void builderRejectsWhatTheScriptRejects() {
+        Scenario.Builder b = new Scenario.Builder(1).arrive(2, 4);
+        Check.fails(IllegalArgumentException.class, () -> b.arrive(-1, 4), "negative arrive");
+        Check.fails(IllegalArgumentException.class, () -> b.exit(-1), "negative exit");
+        Check.fails(IllegalArgumentException.class, () -> b.access(-5, 0), "negative access");
+        Check.fails(IllegalArgumentException.class, () -> b.repeat(-1, x -> { }), "negative repeat");
+        Check.fails(IllegalArgumentException.class, () -> b.access(10, 1.5), "write ratio above 1");
+        Check.fails(IllegalArgumentException.class, () -> b.access(10, 0, -0.1, 0.8), "negative hot fraction");
+        Check.fails(IllegalArgumentException.class, () -> b.access(10, 0, 1, Double.NaN), "NaN hot ratio");
+        b.access(10, 1, 0, 1); // Bounds included
+        Check.equal(2 + 10, b.build().getOperationCount(), "only the valid statements were compiled");
+    }
+
+    // Pages swapped before a configuration change are still in swap after it: the carry-over reads nothing in
+    static void reconfigureCarriesPagesWithoutAccessingThem() {
+        Scenario.Builder b = new Scenario.Builder(1);
+        b.config(c -> {
+            c.ramFrames = 8;
+            c.swapSlots = 64;
+            c.cacheEntries = 0;
+            c.stripes = 1;
+            c.algorithm = "fifo";
+        });
+        b.arrive(4, 8);
+        for (int p = 1; p <= 4; p++) for (int page = 0; page < 8; page++) b.write("P" + p, page);
+        b.config(c -> c.ramFrames = 32).phase("after");
+        for (int p = 1; p <= 4; p++) for (int page = 0; page < 8; page++) b.read("P" + p, page);
+
+        List<Scenario.PhaseResult> phases = b.build().run();
+        Scenario.PhaseResult after = phases.get(phases.size() - 1);
+        Check.equal("after", after.name, "phase");
+        Check.equal(24, after.stats.pageFaults, "swapped pages fault on first use");
+        Check.equal(8, after.stats.ramHits, "RAM pages still resident");
+        Check.equal(0, after.evictions, "evictions with room for every page");
+        Check.equal(0, after.stats.writeBacks, "write-backs");
+    }
+}
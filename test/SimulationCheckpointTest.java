@@ -0,0 +1,188 @@
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+class SimulationCheckpointTest {
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("vmm-checkpoint-test");
+        try {
+            everyFieldSurvivesARoundTrip(dir.resolve("full.ckpt"));
+            everyStatsCounterIsSaved(dir.resolve("stats.ckpt"));
+            policyStateRestoresTheSameVictims(dir.resolve("policy.ckpt"));
+            randomStreamsContinueWhereTheyWereSaved();
+            rejectsForeignAndTruncatedFiles(dir);
+            rejectsContentsTheGuiCannotRestore(dir.resolve("invalid.ckpt"));
+        } finally {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path f : (Iterable<Path>) files::iterator) Files.delete(f);
+            }
+            Files.delete(dir);
+        }
+        System.out.println("SimulationCheckpointTest: ok");
+    }
+
+    static SimulationCheckpoint sample() {
+        SimulationCheckpoint cp = new SimulationCheckpoint();
+        cp.savedAtMillis = 1_700_000_000_000L;
+        cp.seed = -42;
+        cp.rootStream = 1;
+        cp.inputStream = Long.MIN_VALUE;
+        cp.evictionStream = Long.MAX_VALUE;
+        cp.sizeSeed = 0x1234_5678_9ABCL;
+        cp.ramSize = 8;
+        cp.swapSize = 3;
+        cp.cacheSize = 4;
+        cp.pageSizeKb = 4;
+        cp.zswapFrames = 2;
+        cp.zswapLevel = 6;
+        cp.algorithm = "LRU-Ünïcode";
+        cp.swapBacking = 1;
+        cp.swapDevice = 2;
+        cp.processCount = 100;
+        cp.allocatedProcesses = 5;
+        cp.processOrder = new int[]{0, 7, 7, 0};
+        cp.processIds = new String[]{"P7", "P1", "P42"};
+        cp.frequency = new int[]{3, -1, 9};
+        cp.ramAddTime = new long[]{10, Long.MIN_VALUE, 30};
+        cp.lastFaultTime = new long[]{Long.MIN_VALUE, 5, 6};
+        cp.dirty = new long[]{0b101};
+        cp.ram = new int[]{0, 2};
+        cp.policyState = new int[]{1, 2, 3, 4, 5};
+        cp.swapSlots = new int[]{-1, 1, -1};
+        cp.pool = new int[]{1};
+        cp.cache = new int[]{2, 0};
+        cp.cacheLastAccess = new long[]{100, 200};
+        cp.stats.faultLatency.record(123_456);
+        cp.stats.cacheHitLatency.record(7);
+        return cp;
+    }
+
+    static void everyFieldSurvivesARoundTrip(Path file) throws IOException {
+        SimulationCheckpoint cp = sample();
+        SimulationCheckpoint.write(file, cp.encode());
+        SimulationCheckpoint read = SimulationCheckpoint.read(file);
+        Check.equal(cp.savedAtMillis, read.savedAtMillis, "savedAtMillis");
+        Check.equal(cp.seed, read.seed, "seed");
+        Check.equal(cp.rootStream, read.rootStream, "rootStream");
+        Check.equal(cp.inputStream, read.inputStream, "inputStream");
+        Check.equal(cp.evictionStream, read.evictionStream, "evictionStream");
+        Check.equal(cp.sizeSeed, read.sizeSeed, "sizeSeed");
+        Check.equal(Arrays.toString(new int[]{cp.ramSize, cp.swapSize, cp.cacheSize, cp.pageSizeKb, cp.zswapFrames,
+                        cp.zswapLevel, cp.swapBacking, cp.swapDevice, cp.processCount, cp.allocatedProcesses}),
+                Arrays.toString(new int[]{read.ramSize, read.swapSize, read.cacheSize, read.pageSizeKb, read.zswapFrames,
+                        read.zswapLevel, read.swapBacking, read.swapDevice, read.processCount, read.allocatedProcesses}),
+                "configuration");
+        Check.equal(cp.algorithm, read.algorithm, "algorithm");
+        Check.equal(Arrays.toString(cp.processIds), Arrays.toString(read.processIds), "processIds");
+        Check.equal(Arrays.toString(cp.processOrder), Arrays.toString(read.processOrder), "processOrder");
+        Check.equal(Arrays.toString(cp.frequency), Arrays.toString(read.frequency), "frequency");
+        Check.equal(Arrays.toString(cp.ramAddTime), Arrays.toString(read.ramAddTime), "ramAddTime");
+        Check.equal(Arrays.toString(cp.lastFaultTime), Arrays.toString(read.lastFaultTime), "lastFaultTime");
+        Check.that(read.isDirty(0) && !read.isDirty(1) && read.isDirty(2), "dirty bits");
+        Check.equal(Arrays.toString(cp.ram), Arrays.toString(read.ram), "ram");
+        Check.equal(Arrays.toString(cp.policyState), Arrays.toString(read.policyState), "policyState");
+        Check.equal(Arrays.toString(cp.swapSlots), Arrays.toString(read.swapSlots), "swapSlots");
+        Check.equal(Arrays.toString(cp.pool), Arrays.toString(read.pool), "pool");
+        Check.equal(Arrays.toString(cp.cache), Arrays.toString(read.cache), "cache");
+        Check.equal(Arrays.toString(cp.cacheLastAccess), Arrays.toString(read.cacheLastAccess), "cacheLastAccess");
+        Check.equal(cp.stats.faultLatency.summary(), read.stats.faultLatency.summary(), "fault latency");
+        Check.equal(cp.stats.cacheHitLatency.getSum(), read.stats.cacheHitLatency.getSum(), "cache hit latency");
+        Check.equal(0, read.stats.ramHitLatency.getCount(), "empty histogram");
+    }
+
+    // A counter added to Stats but not to the checkpoint would silently reset on restore
+    static void everyStatsCounterIsSaved(Path file) throws Exception {
+        SimulationCheckpoint cp = sample();
+        long value = 1;
+        for (Field f : counters()) f.setLong(cp.stats, value++ * 1_000_003L);
+        SimulationCheckpoint.write(file, cp.encode());
+        Stats read = SimulationCheckpoint.read(file).stats;
+        for (Field f : counters()) Check.equal(f.getLong(cp.stats), f.getLong(read), "Stats." + f.getName());
+    }
+
+    private static Field[] counters() {
+        return Arrays.stream(Stats.class.getDeclaredFields())
+                .filter(f -> f.getType() == long.class && !Modifier.isStatic(f.getModifiers()))
+                .peek(f -> f.setAccessible(true))
+                .toArray(Field[]::new);
+    }
+
+    static void policyStateRestoresTheSameVictims(Path file) throws IOException {
+        for (String algorithm : new String[]{"FIFO", "LRU", "LFU", "LIFO", "MRU"}) {
+            ReplacementPolicy.Provider provider = ReplacementPolicies.get(algorithm);
+            PriorityReplacement live = new PriorityReplacement(provider, new RandomStream(1), page -> page % 3, 4);
+            for (int page = 0; page < 30; page++) live.onInsert(page);
+            for (int i = 0; i < 60; i++) live.onAccess((i * 7) % 30);
+            SimulationCheckpoint cp = sample();
+            cp.policyState = live.exportState();
+            SimulationCheckpoint.write(file, cp.encode());
+
+            PriorityReplacement restored = new PriorityReplacement(provider, new RandomStream(1), page -> page % 3, 4);
+            restored.importState(SimulationCheckpoint.read(file).policyState);
+            Check.equal(live.size(), restored.size(), algorithm + " size");
+            while (live.size() > 0) {
+                int victim = live.selectVictim();
+                Check.equal(victim, restored.selectVictim(), algorithm + " victim");
+                live.evicted(victim);
+                live.onRemove(victim);
+                restored.evicted(victim);
+                restored.onRemove(victim);
+            }
+        }
+    }
+
+    static void randomStreamsContinueWhereTheyWereSaved() {
+        RandomStream live = new RandomStream(99);
+        for (int i = 0; i < 10; i++) live.nextLong();
+        long saved = live.getState();
+        Check.equal(saved, live.getState(), "reading the state does not advance the stream");
+        RandomStream restored = new RandomStream(saved);
+        for (int i = 0; i < 100; i++) Check.equal(live.nextLong(), restored.nextLong(), "draw " + i);
+    }
+
+    static void rejectsForeignAndTruncatedFiles(Path dir) throws IOException {
+        Path foreign = dir.resolve("foreign.ckpt");
+        Files.write(foreign, "not a checkpoint".getBytes());
+        Check.fails(IOException.class, () -> SimulationCheckpoint.read(foreign), "foreign file");
+
+        ByteBuffer full = sample().encode();
+        byte[] bytes = new byte[full.remaining() / 2];
+        full.get(bytes);
+        Path truncated = dir.resolve("truncated.ckpt");
+        Files.write(truncated, bytes);
+        IOException e = Check.fails(IOException.class, () -> SimulationCheckpoint.read(truncated), "truncated file");
+        Check.that(e.getMessage().startsWith("Corrupt checkpoint"), "reported as corrupt: " + e.getMessage());
+    }
+
+    // Each would have thrown on the EDT after RAM and cache were already cleared
+    static void rejectsContentsTheGuiCannotRestore(Path file) throws IOException {
+        String[] cases = {"ram index", "cache index", "swap slot index", "duplicate RAM page", "RAM larger than its size",
+                "swap slots for another size", "RAM above the spinner", "cache above the spinner", "unknown process id",
+                "short frequency table", "bad swap device"};
+        for (String c : cases) {
+            SimulationCheckpoint cp = sample();
+            switch (c) {
+                case "ram index": cp.ram = new int[]{0, 3}; break;
+                case "cache index": cp.cache = new int[]{2, -1}; break;
+                case "swap slot index": cp.swapSlots = new int[]{-1, 7, -1}; break;
+                case "duplicate RAM page": cp.ram = new int[]{2, 2}; break;
+                case "RAM larger than its size": cp.ramSize = 1; break;
+                case "swap slots for another size": cp.swapSize = 4; break;
+                case "RAM above the spinner": cp.ramSize = VirtualMemoryManagerGUI.MAX_FRAMES + 1; break;
+                case "cache above the spinner": cp.cacheSize = VirtualMemoryManagerGUI.MAX_CACHE_ENTRIES + 1; break;
+                case "unknown process id": cp.processIds = new String[]{"P7", "P1", "P101"}; break;
+                case "short frequency table": cp.frequency = new int[]{3, -1}; break;
+                case "bad swap device": cp.swapDevice = 3; break;
+            }
+            SimulationCheckpoint.write(file, cp.encode());
+            IOException e = Check.fails(IOException.class, () -> SimulationCheckpoint.read(file), c);
+            Check.that(e.getMessage().startsWith("Corrupt checkpoint"), c + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+class SwapSlotAllocatorTest {
+
+    public static void main(String[] args) {
+        fillsAClusterContiguously();
+        allocatesExactlyTheCapacity();
+        returnsEmptiedClustersToTheFreeList();
+        reusesPartialClustersOnceNoClusterIsFree();
+        reserveRebuildsTheClusterLists();
+        matchesAReferenceBitmapUnderRandomUse();
+        System.out.println("SwapSlotAllocatorTest: ok");
+    }
+
+    static void fillsAClusterContiguously() {
+        SwapSlotAllocator a = new SwapSlotAllocator(256);
+        for (int i = 0; i < SwapSlotAllocator.CLUSTER_SIZE; i++) Check.equal(i, a.allocate(), "slot " + i);
+        Check.equal(63.0 / 64, a.getContiguity(), "contiguity (every allocation but the first)");
+        Check.equal(0.0, a.getFragmentation(), "fragmentation with whole clusters free");
+    }
+
+    static void allocatesExactlyTheCapacity() {
+        for (int capacity : new int[]{0, 1, 63, 64, 65, 200}) {
+            SwapSlotAllocator a = new SwapSlotAllocator(capacity);
+            BitSet seen = new BitSet();
+            for (int i = 0; i < capacity; i++) {
+                int slot = a.allocate();
+                Check.that(slot >= 0 && slot < capacity && !seen.get(slot), "capacity " + capacity + ": slot " + slot);
+                seen.set(slot);
+            }
+            Check.equal(-1, a.allocate(), "capacity " + capacity + " when full");
+            Check.equal(0, a.getFreeSlots(), "free slots");
+        }
+    }
+
+    static void returnsEmptiedClustersToTheFreeList() {
+        SwapSlotAllocator a = new SwapSlotAllocator(256);
+        for (int i = 0; i < 128; i++) a.allocate(); // Clusters 0 and 1, 1 current
+        Check.equal(2, a.getFreeClusterCount(), "free clusters after filling two");
+        for (int slot = 0; slot < 64; slot++) a.free(slot);
+        Check.equal(3, a.getFreeClusterCount(), "cluster 0 back on the list once empty");
+        a.free(0); // Double free is ignored
+        Check.equal(64, a.getUsedSlots(), "used slots");
+    }
+
+    static void reusesPartialClustersOnceNoClusterIsFree() {
+        SwapSlotAllocator a = new SwapSlotAllocator(192);
+        for (int i = 0; i < 192; i++) a.allocate();
+        a.free(5);
+        a.free(70);
+        a.free(71);
+        BitSet got = new BitSet();
+        for (int i = 0; i < 3; i++) got.set(a.allocate());
+        Check.equal("{5, 70, 71}", got.toString(), "holes refilled");
+        Check.equal(-1, a.allocate(), "full again");
+    }
+
+    static void reserveRebuildsTheClusterLists() {
+        SwapSlotAllocator a = new SwapSlotAllocator(192);
+        int[] reserved = new int[65];
+        reserved[0] = 3;
+        for (int i = 0; i < 64; i++) reserved[i + 1] = 64 + i; // Cluster 1 full
+        a.reserve(reserved);
+        Check.equal(65, a.getUsedSlots(), "reserved slots");
+        Check.that(a.isUsed(3) && a.isUsed(127) && !a.isUsed(4), "reserved bits");
+        Check.equal(1, a.getFreeClusterCount(), "only cluster 2 stays empty");
+        Check.equal(128, a.allocate(), "whole free cluster first");
+        for (int i = 1; i < 64; i++) a.allocate();
+        Check.equal(0, a.allocate(), "then the partial cluster 0");
+    }
+
+    static void matchesAReferenceBitmapUnderRandomUse() {
+        for (int capacity : new int[]{1, 65, 1000, 4096}) {
+            SwapSlotAllocator a = new SwapSlotAllocator(capacity);
+            BitSet reference = new BitSet();
+            List<Integer> held = new ArrayList<>();
+            SplittableRandom random = new SplittableRandom(capacity);
+            for (int op = 0; op < 100_000; op++) {
+                if (random.nextInt(100) < 55) {
+                    int slot = a.allocate();
+                    if (slot < 0) {
+                        Check.equal(capacity, held.size(), "capacity " + capacity + ": full only when every slot is held");
+                        continue;
+                    }
+                    Check.that(slot < capacity && !reference.get(slot), "capacity " + capacity + ": slot " + slot + " handed out twice");
+                    reference.set(slot);
+                    held.add(slot);
+                } else if (!held.isEmpty()) {
+                    int slot = held.remove(random.nextInt(held.size()));
+                    a.free(slot);
+                    reference.clear(slot);
+                }
+                Check.equal(held.size(), a.getUsedSlots(), "used slots");
+            }
+        }
+    }
+}
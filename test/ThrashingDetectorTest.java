@@ -0,0 +1,68 @@
+class ThrashingDetectorTest {
+
+    public static void main(String[] args) {
+        windowCountsTheLastOutcomes();
+        raisesAfterWarmUpHits();
+        aShortBurstAmongHitsDoesNotRaise();
+        clearsOnlyOnceTheAverageDropsBelowClear();
+        resetForgetsEverything();
+        System.out.println("ThrashingDetectorTest: ok");
+    }
+
+    static void windowCountsTheLastOutcomes() {
+        ThrashingDetector d = new ThrashingDetector(4, 0.7, 0.5);
+        for (boolean fault : new boolean[]{true, true, false, true, false, false}) d.record(fault);
+        Check.equal(4, d.getWindowSize(), "size");
+        Check.equal(1, d.getWindowFaults(), "faults among the last 4"); // false, true, false, false
+        Check.that(d.getWindowRate() == 0.25, "window rate " + d.getWindowRate());
+    }
+
+    // The case that never alerted on the model clock: the hits cost next to no memory time
+    static void raisesAfterWarmUpHits() {
+        ThrashingDetector d = new ThrashingDetector(15, 0.7, 0.5);
+        for (int i = 0; i < 100; i++) Check.that(!d.record(false), "hit " + i);
+        int faults = 0;
+        while (!d.record(true)) {
+            faults++;
+            Check.that(faults < 200, "no alert after 200 faults, 100-access rate " + d.getRate(ThrashingDetector.SUSTAINED));
+        }
+        Check.that(faults >= 15, "raised after " + faults + " faults, before the average caught up");
+        Check.that(d.getRate(ThrashingDetector.SUSTAINED) >= 0.7, "sustained rate " + d.getRate(ThrashingDetector.SUSTAINED));
+    }
+
+    static void aShortBurstAmongHitsDoesNotRaise() {
+        ThrashingDetector d = new ThrashingDetector(15, 0.7, 0.5);
+        for (int i = 0; i < 1_000; i++) d.record(false);
+        for (int i = 0; i < 20; i++) d.record(true);
+        Check.equal(15, d.getWindowFaults(), "window full of faults");
+        Check.that(!d.isThrashing(), "raised on a burst, 100-access rate " + d.getRate(ThrashingDetector.SUSTAINED));
+        Check.that(d.getRate(0) > 0.8, "10-access rate follows the burst: " + d.getRate(0));
+    }
+
+    static void clearsOnlyOnceTheAverageDropsBelowClear() {
+        ThrashingDetector d = new ThrashingDetector(15, 0.7, 0.5);
+        for (int i = 0; i < 300; i++) d.record(true);
+        Check.that(d.isThrashing(), "thrashing");
+        for (int i = 0; i < 15; i++) d.record(false);
+        Check.equal(0, d.getWindowFaults(), "window all hits");
+        Check.that(d.isThrashing(), "cleared on the window alone"); // Hysteresis: the average is still high
+        int hits = 15;
+        while (d.record(false)) {
+            hits++;
+            Check.that(hits < 1_000, "never cleared, 100-access rate " + d.getRate(ThrashingDetector.SUSTAINED));
+        }
+        Check.that(d.getRate(ThrashingDetector.SUSTAINED) < 0.5, "cleared at " + d.getRate(ThrashingDetector.SUSTAINED));
+        Check.that(!d.record(true), "one fault raised it again");
+    }
+
+    static void resetForgetsEverything() {
+        ThrashingDetector d = new ThrashingDetector(15, 0.7, 0.5);
+        for (int i = 0; i < 300; i++) d.record(true);
+        d.reset();
+        Check.that(!d.isThrashing(), "still thrashing");
+        Check.equal(0, d.getWindowSize(), "size");
+        for (int i = 0; i < ThrashingDetector.WINDOW_ACCESSES.length; i++) {
+            Check.that(d.getRate(i) == 0, "rate " + i + " = " + d.getRate(i));
+        }
+    }
+}